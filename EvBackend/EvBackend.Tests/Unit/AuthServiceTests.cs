@@ -0,0 +1,97 @@
+using Xunit;
+using Moq;
+using EvBackend.Services;
+using EvBackend.Services.Interfaces;
+using EvBackend.Settings;
+using Microsoft.Extensions.Configuration;
+using Microsoft.Extensions.Options;
+using Microsoft.IdentityModel.Tokens;
+using MongoDB.Driver;
+using System.IdentityModel.Tokens.Jwt;
+using System.Security.Authentication;
+using System.Security.Claims;
+using System.Text;
+
+namespace EvBackend.Tests.Unit
+{
+    public class AuthServiceTests
+    {
+        private const string Key = "unit-test-signing-key-of-at-least-32-bytes";
+        private const string Issuer = "EvBackend";
+        private const string Audience = "EvClients";
+
+        private AuthService service;
+
+        public AuthServiceTests()
+        {
+            var config = new ConfigurationBuilder()
+                .AddInMemoryCollection(new Dictionary<string, string?>
+                {
+                    ["Jwt:Key"] = Key,
+                    ["Jwt:Issuer"] = Issuer,
+                    ["Jwt:Audience"] = Audience
+                })
+                .Build();
+            var settings = Options.Create(new MongoDbSettings
+            {
+                UsersCollectionName = "Users",
+                EVOwnersCollectionName = "EVOwners"
+            });
+
+            service = new AuthService(new Mock<IMongoDatabase>().Object, config, settings, new Mock<IEmailService>().Object);
+        }
+
+        [Fact]
+        public async Task RefreshToken_Throws_WhenSessionIsOlderThanMaxLength()
+        {
+            // Arrange: expired an hour ago, but the password was checked eight days ago
+            var token = Token(DateTime.UtcNow.AddHours(-1), DateTime.UtcNow.AddDays(-8));
+
+            // Act & Assert
+            var ex = await Assert.ThrowsAsync<AuthenticationException>(() => service.RefreshToken(token));
+            Assert.Equal("Session expired, please log in again", ex.Message);
+        }
+
+        [Fact]
+        public async Task RefreshToken_Throws_WhenTokenHasNoAuthTime()
+        {
+            // Arrange
+            var token = Token(DateTime.UtcNow.AddHours(1), null);
+
+            // Act & Assert
+            var ex = await Assert.ThrowsAsync<AuthenticationException>(() => service.RefreshToken(token));
+            Assert.Equal("Session expired, please log in again", ex.Message);
+        }
+
+        [Fact]
+        public async Task RefreshToken_Throws_WhenSignedWithAnotherKey()
+        {
+            // Arrange
+            var token = Token(DateTime.UtcNow.AddHours(1), DateTime.UtcNow, "another-signing-key-of-at-least-32-bytes");
+
+            // Act & Assert
+            var ex = await Assert.ThrowsAsync<AuthenticationException>(() => service.RefreshToken(token));
+            Assert.Equal("Invalid token", ex.Message);
+        }
+
+        private static string Token(DateTime expires, DateTime? authTime, string key = Key)
+        {
+            var claims = new List<Claim>
+            {
+                new Claim(ClaimTypes.NameIdentifier, "651234abcd5678ef90123456"),
+                new Claim("UserType", "User")
+            };
+            if (authTime != null)
+            {
+                claims.Add(new Claim(JwtRegisteredClaimNames.AuthTime,
+                    new DateTimeOffset(authTime.Value).ToUnixTimeSeconds().ToString(),
+                    ClaimValueTypes.Integer64));
+            }
+
+            var credentials = new SigningCredentials(
+                new SymmetricSecurityKey(Encoding.ASCII.GetBytes(key)), SecurityAlgorithms.HmacSha256Signature);
+            var token = new JwtSecurityToken(Issuer, Audience, claims, expires.AddHours(-2), expires, credentials);
+            return new JwtSecurityTokenHandler().WriteToken(token);
+        }
+    }
+}
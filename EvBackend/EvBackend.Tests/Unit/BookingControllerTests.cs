@@ -0,0 +1,122 @@
+using Xunit;
+using Moq;
+using EvBackend.Controllers;
+using EvBackend.Services.Interfaces;
+using EvBackend.Models.DTOs;
+using Microsoft.AspNetCore.Mvc;
+using System;
+using System.Collections.Generic;
+using System.Linq;
+using System.Threading.Tasks;
+
+namespace EvBackend.Tests.Unit
+{
+    public class BookingControllerTests
+    {
+        private readonly Mock<IBookingService> mockBookingService;
+        private readonly Mock<IRealtimeEventService> mockEvents;
+        private readonly BookingController controller;
+
+        public BookingControllerTests()
+        {
+            mockBookingService = new Mock<IBookingService>();
+            mockEvents = new Mock<IRealtimeEventService>();
+            controller = new BookingController(mockBookingService.Object, mockEvents.Object);
+        }
+
+        [Fact]
+        public async Task GetBookingsByOwner_ReturnsFullList_WhenNoSinceGiven()
+        {
+            // Arrange
+            var bookings = new List<BookingDto>
+            {
+                new BookingDto { BookingId = "b1", OwnerId = "200012345678", Status = "Finalized" },
+                new BookingDto { BookingId = "b2", OwnerId = "200012345678", Status = "Approved" }
+            };
+            mockBookingService.Setup(s => s.GetBookingsByOwnerAsync("200012345678", null, true))
+                              .ReturnsAsync(bookings);
+
+            // Act
+            var result = await controller.GetBookingsByOwner("200012345678");
+
+            // Assert
+            var okResult = Assert.IsType<OkObjectResult>(result);
+            var returned = Assert.IsAssignableFrom<IEnumerable<BookingDto>>(okResult.Value);
+            Assert.Equal(2, returned.Count());
+        }
+
+        [Fact]
+        public async Task GetBookingsByOwner_PassesSinceCursor_ToService()
+        {
+            // Arrange
+            var since = new DateTime(2025, 10, 10, 4, 30, 0, DateTimeKind.Utc);
+            var changed = new List<BookingDto>
+            {
+                new BookingDto { BookingId = "b2", OwnerId = "200012345678", Status = "Charging", UpdatedAt = since.AddMinutes(5) }
+            };
+            mockBookingService.Setup(s => s.GetBookingsByOwnerAsync("200012345678", since, true))
+                              .ReturnsAsync(changed);
+
+            // Act
+            var result = await controller.GetBookingsByOwner("200012345678", since);
+
+            // Assert
+            var okResult = Assert.IsType<OkObjectResult>(result);
+            var returned = Assert.IsAssignableFrom<IEnumerable<BookingDto>>(okResult.Value);
+            Assert.Equal("b2", Assert.Single(returned).BookingId);
+            mockBookingService.Verify(s => s.GetBookingsByOwnerAsync("200012345678", since, true), Times.Once);
+        }
+
+        [Fact]
+        public async Task GetBookingsByOwner_PassesIncludeQrImage_ToService()
+        {
+            // Arrange
+            var bookings = new List<BookingDto>
+            {
+                new BookingDto { BookingId = "b1", OwnerId = "200012345678", Status = "Approved", QrCode = "token-1" }
+            };
+            mockBookingService.Setup(s => s.GetBookingsByOwnerAsync("200012345678", null, false))
+                              .ReturnsAsync(bookings);
+
+            // Act
+            var result = await controller.GetBookingsByOwner("200012345678", null, includeQrImage: false);
+
+            // Assert
+            var okResult = Assert.IsType<OkObjectResult>(result);
+            var returned = Assert.Single(Assert.IsAssignableFrom<IEnumerable<BookingDto>>(okResult.Value));
+            Assert.Equal("token-1", returned.QrCode);
+            Assert.Null(returned.QrImageBase64);
+            mockBookingService.Verify(s => s.GetBookingsByOwnerAsync("200012345678", null, false), Times.Once);
+        }
+
+        [Fact]
+        public async Task ApproveBooking_PublishesBookingChanged_WithNewState()
+        {
+            // Arrange
+            var approved = new BookingDto { BookingId = "b1", OwnerId = "200012345678", StationId = "s1", Status = "Approved" };
+            mockBookingService.Setup(s => s.ApproveBookingAsync("b1", It.IsAny<string>())).ReturnsAsync(true);
+            mockBookingService.Setup(s => s.GetBookingByIdAsync("b1")).ReturnsAsync(approved);
+
+            // Act
+            var result = await controller.ApproveBooking("b1");
+
+            // Assert
+            Assert.IsType<OkObjectResult>(result);
+            mockEvents.Verify(e => e.PublishBookingChangedAsync(approved), Times.Once);
+        }
+
+        [Fact]
+        public async Task ApproveBooking_DoesNotPublish_WhenNothingChanged()
+        {
+            // Arrange
+            mockBookingService.Setup(s => s.ApproveBookingAsync("b1", It.IsAny<string>())).ReturnsAsync(false);
+
+            // Act
+            var result = await controller.ApproveBooking("b1");
+
+            // Assert
+            Assert.IsType<NotFoundObjectResult>(result);
+            mockEvents.Verify(e => e.PublishBookingChangedAsync(It.IsAny<BookingDto>()), Times.Never);
+        }
+    }
+}
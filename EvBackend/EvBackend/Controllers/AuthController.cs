@@ -55,6 +55,34 @@ namespace EvBackend.Controllers
             }
         }
 
+        //refresh token: no [Authorize], the bearer token may already be expired
+        [HttpPost("refresh")]
+        public async Task<IActionResult> Refresh()
+        {
+            try
+            {
+                var header = Request.Headers["Authorization"].ToString();
+                var token = header.StartsWith("Bearer ", StringComparison.OrdinalIgnoreCase)
+                    ? header.Substring("Bearer ".Length).Trim()
+                    : null;
+
+                var response = await _authService.RefreshToken(token);
+                return Ok(new
+                {
+                    token = response.Token
+                });
+            }
+            catch (AuthenticationException ex)
+            {
+                return Unauthorized(new { message = ex.Message });
+            }
+            catch (Exception ex)
+            {
+                _logger.LogError(ex, "An unexpected error occurred during token refresh.");
+                return StatusCode(500, new { message = "An unexpected error occurred." });
+            }
+        }
+
         //get logged in user details
         [HttpGet("me")]
         [Authorize]
@@ -20,10 +20,19 @@ namespace EvBackend.Controllers
     public class BookingController : ControllerBase
     {
         private readonly IBookingService _booking;
+        private readonly IRealtimeEventService _events;
 
-        public BookingController(IBookingService bookingService)
+        public BookingController(IBookingService bookingService, IRealtimeEventService events)
         {
             _booking = bookingService;
+            _events = events;
+        }
+
+        // Push the booking's new state to its owner and station (clients update in place)
+        private async Task PublishBookingAsync(string bookingId)
+        {
+            var booking = await _booking.GetBookingByIdAsync(bookingId);
+            if (booking != null) await _events.PublishBookingChangedAsync(booking);
         }
 
         // ---------------------------
@@ -77,6 +86,7 @@ namespace EvBackend.Controllers
             try
             {
                 var created = await _booking.CreateBookingAsync(dto, ownerId);
+                await _events.PublishBookingChangedAsync(created);
                 return CreatedAtAction(nameof(GetBookingById), new { bookingId = created.BookingId }, created);
             }
             catch (ArgumentException ex) { return BadRequest(new { message = ex.Message }); }
@@ -95,6 +105,7 @@ namespace EvBackend.Controllers
             {
                 var updated = await _booking.UpdateBookingAsync(bookingId, dto, requesterId, role);
                 if (updated == null) return NotFound(new { message = "Booking not found" });
+                await _events.PublishBookingChangedAsync(updated);
                 return Ok(updated);
             }
             catch (UnauthorizedAccessException) { return Forbid(); }
@@ -114,6 +125,7 @@ namespace EvBackend.Controllers
             {
                 var ok = await _booking.CancelBookingAsync(bookingId, requesterId, role);
                 if (!ok) return NotFound(new { message = "Booking not found" });
+                await PublishBookingAsync(bookingId);
                 return Ok(new { message = "Booking cancelled" });
             }
             catch (UnauthorizedAccessException) { return Forbid(); }
@@ -141,11 +153,14 @@ namespace EvBackend.Controllers
 
         [HttpGet("owner/{ownerId}")]
         [Authorize(Roles = "Owner,Admin,Backoffice")]
-        public async Task<IActionResult> GetBookingsByOwner(string ownerId)
+        public async Task<IActionResult> GetBookingsByOwner(string ownerId, [FromQuery] DateTime? since = null,
+            [FromQuery] bool includeQrImage = true)
         {
             try
             {
-                var list = await _booking.GetBookingsByOwnerAsync(ownerId);
+                // since: only bookings updated at or after this instant (delta sync)
+                // includeQrImage=false: omit the QR PNG; clients draw it from qrCode
+                var list = await _booking.GetBookingsByOwnerAsync(ownerId, since, includeQrImage);
                 return Ok(list);
             }
             catch (Exception ex) { Console.WriteLine(ex); return StatusCode(500, new { message = "Unexpected error" }); }
@@ -153,11 +168,11 @@ namespace EvBackend.Controllers
 
         [HttpGet("station/{stationId}")]
         [Authorize(Roles = "Admin,Backoffice,Operator")]
-        public async Task<IActionResult> GetBookingsByStation(string stationId)
+        public async Task<IActionResult> GetBookingsByStation(string stationId, [FromQuery] bool includeQrImage = true)
         {
             try
             {
-                var list = await _booking.GetBookingsByStationAsync(stationId);
+                var list = await _booking.GetBookingsByStationAsync(stationId, includeQrImage);
                 return Ok(list);
             }
             catch (Exception ex) { Console.WriteLine(ex); return StatusCode(500, new { message = "Unexpected error" }); }
@@ -165,11 +180,11 @@ namespace EvBackend.Controllers
 
         [HttpGet("station/{stationId}/today")]
         [Authorize(Roles = "Operator,Admin,Backoffice")]
-        public async Task<IActionResult> GetTodayBookingsByStation(string stationId)
+        public async Task<IActionResult> GetTodayBookingsByStation(string stationId, [FromQuery] bool includeQrImage = true)
         {
             try
             {
-                var list = await _booking.GetTodayApprovedBookingsAsync(stationId);
+                var list = await _booking.GetTodayApprovedBookingsAsync(stationId, includeQrImage);
                 return Ok(list);
             }
             catch (Exception ex) { Console.WriteLine(ex); return StatusCode(500, new { message = "Unexpected error" }); }
@@ -177,11 +192,11 @@ namespace EvBackend.Controllers
 
         [HttpGet("station/{stationId}/upcoming")]
         [Authorize(Roles = "Operator,Admin,Backoffice")]
-        public async Task<IActionResult> GetUpcomingBookingsByStation(string stationId)
+        public async Task<IActionResult> GetUpcomingBookingsByStation(string stationId, [FromQuery] bool includeQrImage = true)
         {
             try
             {
-                var list = await _booking.GetUpcomingApprovedBookingsAsync(stationId);
+                var list = await _booking.GetUpcomingApprovedBookingsAsync(stationId, includeQrImage);
                 return Ok(list);
             }
             catch (Exception ex) { Console.WriteLine(ex); return StatusCode(500, new { message = "Unexpected error" }); }
@@ -201,6 +216,7 @@ namespace EvBackend.Controllers
             {
                 var ok = await _booking.ApproveBookingAsync(bookingId, operatorId);
                 if (!ok) return NotFound(new { message = "Booking not found or not pending" });
+                await PublishBookingAsync(bookingId);
                 return Ok(new { message = "Booking approved" });
             }
             catch (UnauthorizedAccessException) { return Forbid(); }
@@ -217,6 +233,7 @@ namespace EvBackend.Controllers
             {
                 var ok = await _booking.StartChargingAsync(bookingId, operatorId);
                 if (!ok) return NotFound(new { message = "Booking not found or invalid state" });
+                await PublishBookingAsync(bookingId);
                 return Ok(new { message = "Booking marked as Charging" });
             }
             catch (UnauthorizedAccessException) { return Forbid(); }
@@ -233,6 +250,7 @@ namespace EvBackend.Controllers
             {
                 var ok = await _booking.FinalizeBookingAsync(bookingId, operatorId);
                 if (!ok) return NotFound(new { message = "Booking not found or invalid state" });
+                await PublishBookingAsync(bookingId);
                 return Ok(new { message = "Booking finalized" });
             }
             catch (UnauthorizedAccessException) { return Forbid(); }
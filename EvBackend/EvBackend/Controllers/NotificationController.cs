@@ -80,7 +80,7 @@ namespace EvBackend.Controllers
         // GET /api/notifications/user
         [HttpGet("user")]
         [Authorize]
-        public async Task<IActionResult> GetUserNotifications()
+        public async Task<IActionResult> GetUserNotifications([FromQuery] DateTime? since = null)
         {
             try
             {
@@ -93,7 +93,8 @@ namespace EvBackend.Controllers
                 }
 
                 _logger.LogInformation("Fetching notifications for authenticated user (UserId: {UserId})", userId);
-                var notifications = await _notificationService.GetUserNotifications(userId);
+                // since: only notifications created at or after this instant (delta sync)
+                var notifications = await _notificationService.GetUserNotifications(userId, since);
 
                 if (notifications == null || !notifications.Any())
                 {
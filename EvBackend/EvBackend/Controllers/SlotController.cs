@@ -11,6 +11,8 @@ using EvBackend.Entities;
 using System;
 using System.Threading.Tasks;
 using EvBackend.Services.Interfaces;
+using EvBackend.Models.DTOs;
+using EvBackend.Filters;
 
 namespace EvBackend.Controllers
 {
@@ -20,16 +22,33 @@ namespace EvBackend.Controllers
     {
         private readonly IMongoDatabase _db;
         private readonly IBookingService _bookingService;
+        private readonly IRealtimeEventService _events;
 
 
-        public SlotController(IMongoDatabase db, IBookingService bookingService)
+        public SlotController(IMongoDatabase db, IBookingService bookingService, IRealtimeEventService events)
         {
             _db = db;
             _bookingService = bookingService;
+            _events = events;
+        }
+
+        // Push the slot's new state to its station's operators
+        private Task PublishSlotAsync(Slot slot, string status, DateTime updatedAt)
+        {
+            return _events.PublishSlotChangedAsync(new SlotDto
+            {
+                SlotId = slot.SlotId,
+                StationId = slot.StationId,
+                Number = slot.Number,
+                Status = status,
+                CreatedAt = slot.CreatedAt,
+                UpdatedAt = updatedAt
+            });
         }
 
         [HttpGet("station/{stationId}")]
         [Authorize]
+        [ConditionalGet]
         public async Task<IActionResult> GetSlotsByStation(string stationId)
         {
             var slots = _db.GetCollection<Slot>("Slots");
@@ -67,11 +86,13 @@ namespace EvBackend.Controllers
                 return Conflict(new { message = "Cannot toggle slot linked to an active booking" });
 
             string newStatus = slot.Status == "Available" ? "Booked" : "Available";
+            var updatedAt = DateTime.UtcNow;
             var update = Builders<Slot>.Update
                 .Set(s => s.Status, newStatus)
-                .Set(s => s.UpdatedAt, DateTime.UtcNow);
+                .Set(s => s.UpdatedAt, updatedAt);
 
             await slots.UpdateOneAsync(s => s.SlotId == slotId, update);
+            await PublishSlotAsync(slot, newStatus, updatedAt);
 
             return Ok(new
             {
@@ -114,12 +135,14 @@ namespace EvBackend.Controllers
                 return Conflict(new { message = "Cannot change status while slot is actively charging" });
 
             // Update slot status
+            var updatedAt = DateTime.UtcNow;
             await slots.UpdateOneAsync(
                 s => s.SlotId == slotId,
                 Builders<Slot>.Update
                     .Set(s => s.Status, normalized)
-                    .Set(s => s.UpdatedAt, DateTime.UtcNow)
+                    .Set(s => s.UpdatedAt, updatedAt)
             );
+            await PublishSlotAsync(slot, normalized, updatedAt);
 
             // Auto-cancel future bookings if slot becomes unavailable
             int cancelled = 0;
@@ -14,6 +14,7 @@ using Microsoft.AspNetCore.Mvc;
 using MongoDB.Driver;
 using EvBackend.Services.Interfaces;
 using EvBackend.Models.DTOs;
+using EvBackend.Filters;
 
 namespace EvBackend.Controllers
 {
@@ -138,11 +139,12 @@ namespace EvBackend.Controllers
 
         [HttpGet("names")]
         [Authorize]
-        public async Task<IActionResult> GetStationNames([FromQuery] string? type = null, [FromQuery] string? location = null)
+        [ConditionalGet]
+        public async Task<IActionResult> GetStationNames([FromQuery] string? type = null, [FromQuery] string? location = null, [FromQuery] bool onlyActive = false)
         {
             try
             {
-                var results = await _stationService.GetStationNameSuggestionsAsync(type, location);
+                var results = await _stationService.GetStationNameSuggestionsAsync(type, location, onlyActive);
                 return Ok(results);
             }
             catch (Exception ex)
@@ -155,6 +157,7 @@ namespace EvBackend.Controllers
 
         [HttpGet("nearby")]
         [Authorize] // Optional: can restrict to logged-in users
+        [ConditionalGet]
         public async Task<IActionResult> GetNearbyStations([FromQuery] double latitude, [FromQuery] double longitude, [FromQuery] double radiusKm = 5)
         {
             try
@@ -172,6 +175,7 @@ namespace EvBackend.Controllers
         // GET: /api/station/nearby-by-type?type=AC&latitude=6.9271&longitude=79.8612&radiusKm=10
         [HttpGet("nearby-by-type")]
         [Authorize(Roles = "Admin,Operator,Owner")]
+        [ConditionalGet]
         public async Task<IActionResult> GetNearbyStationsByType(
             [FromQuery] string type,
             [FromQuery] double latitude,
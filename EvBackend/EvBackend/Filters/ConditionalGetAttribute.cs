@@ -0,0 +1,68 @@
+// --------------------------------------------------------------
+// File Name: ConditionalGetAttribute.cs
+// Description: Adds a weak ETag to successful GET responses and
+// answers a matching If-None-Match with 304 Not Modified, so
+// clients revalidating a cached list do not download it again.
+// Created On: 17/10/2026
+// --------------------------------------------------------------
+
+using System.Security.Cryptography;
+using System.Text;
+using System.Text.Json;
+using Microsoft.AspNetCore.Http;
+using Microsoft.AspNetCore.Mvc;
+using Microsoft.AspNetCore.Mvc.Filters;
+using Microsoft.Extensions.DependencyInjection;
+using Microsoft.Extensions.Options;
+using Microsoft.Net.Http.Headers;
+
+namespace EvBackend.Filters
+{
+    [AttributeUsage(AttributeTargets.Method | AttributeTargets.Class)]
+    public class ConditionalGetAttribute : ResultFilterAttribute
+    {
+        public override void OnResultExecuting(ResultExecutingContext context)
+        {
+            var request = context.HttpContext.Request;
+            if (!HttpMethods.IsGet(request.Method)) return;
+            if (context.Result is not ObjectResult result) return;
+            if (result.StatusCode is not (null or StatusCodes.Status200OK)) return;
+
+            // Serialize once with the app's JSON settings; the same text is hashed and sent
+            var json = context.HttpContext.RequestServices
+                .GetRequiredService<IOptions<JsonOptions>>().Value.JsonSerializerOptions;
+            var body = JsonSerializer.Serialize(result.Value, result.DeclaredType ?? result.Value?.GetType() ?? typeof(object), json);
+            var etag = "W/\"" + Convert.ToBase64String(SHA256.HashData(Encoding.UTF8.GetBytes(body)), 0, 16) + "\"";
+
+            var response = context.HttpContext.Response;
+            response.Headers[HeaderNames.ETag] = etag;
+
+            if (Matches(request.Headers[HeaderNames.IfNoneMatch], etag))
+            {
+                context.Result = new StatusCodeResult(StatusCodes.Status304NotModified);
+                return;
+            }
+
+            context.Result = new ContentResult
+            {
+                Content = body,
+                ContentType = "application/json; charset=utf-8",
+                StatusCode = StatusCodes.Status200OK
+            };
+        }
+
+        private static bool Matches(string? ifNoneMatch, string etag)
+        {
+            if (string.IsNullOrEmpty(ifNoneMatch)) return false;
+            foreach (var candidate in ifNoneMatch.Split(','))
+            {
+                var tag = candidate.Trim();
+                if (tag == "*") return true;
+                // Weak comparison: W/"x" matches "x"
+                if (tag.StartsWith("W/")) tag = tag.Substring(2);
+                if (tag == etag.Substring(2)) return true;
+            }
+            return false;
+        }
+    }
+}
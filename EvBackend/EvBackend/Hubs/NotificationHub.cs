@@ -4,6 +4,17 @@ namespace EvBackend.Hubs
 {
     public class NotificationHub : Hub
     {
-        // You can add methods if needed
+        // Operators join their station's group so booking / slot events reach every device of that station
+        public static string StationGroup(string stationId) => "station:" + stationId;
+
+        public override async Task OnConnectedAsync()
+        {
+            var stationId = Context.User?.FindFirst("stationId")?.Value;
+            if (!string.IsNullOrWhiteSpace(stationId))
+            {
+                await Groups.AddToGroupAsync(Context.ConnectionId, StationGroup(stationId));
+            }
+            await base.OnConnectedAsync();
+        }
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@
 // --------------------------------------------------------------
 
 using System;
+using System.Text.Json.Serialization;
 
 namespace EvBackend.Models.DTOs
 {
@@ -28,6 +29,9 @@ namespace EvBackend.Models.DTOs
 
         public string? QrCode { get; set; }
         public DateTime? QrExpiresAt { get; set; }
+        // Left out of list responses on request (includeQrImage=false); clients can
+        // draw the code from QrCode, which is all the PNG encodes
+        [JsonIgnore(Condition = JsonIgnoreCondition.WhenWritingNull)]
         public string? QrImageBase64 { get; set; }
 
         public DateTime CreatedAt { get; set; }
@@ -44,6 +48,13 @@ namespace EvBackend.Models.DTOs
         public string? OwnerName { get; set; }
         public string? CancellationReason { get; set; }
 
+        // Same booking without the PNG, for payloads that only need the QR token
+        public BookingDto WithoutQrImage()
+        {
+            var copy = (BookingDto)MemberwiseClone();
+            copy.QrImageBase64 = null;
+            return copy;
+        }
     }
 
     // Create = StationId + TimeSlotId + SlotId
@@ -58,48 +58,7 @@ namespace EvBackend.Services
                 if (!allowed)
                     throw new AuthenticationException("Access denied from this platform");
 
-                var tokenHandler = new JwtSecurityTokenHandler();
-                var secretKey = _config["Jwt:Key"] ?? _config["Jwt__Key"];
-                var issuer = _config["Jwt:Issuer"] ?? _config["Jwt__Issuer"];
-                var audience = _config["Jwt:Audience"] ?? _config["Jwt__Audience"];
-
-                if (string.IsNullOrEmpty(secretKey))
-                    throw new InvalidOperationException("JWT Key not found in configuration");
-
-                var key = Encoding.ASCII.GetBytes(secretKey);
-
-                var claims = new List<Claim>
-                {
-                    new Claim(ClaimTypes.NameIdentifier, user.Id),
-                    new Claim(ClaimTypes.Email, user.Email),
-                    new Claim(ClaimTypes.Role, user.Role),
-                    new Claim("FullName", user.FullName),
-                    new Claim("UserType", "User"),
-                    new Claim("userId", user.Id)
-                };
-
-                // Include station info for Operator
-                if (user.Role.Equals("Operator", StringComparison.OrdinalIgnoreCase))
-                {
-                    claims.Add(new Claim("stationId", user.StationId ?? ""));
-                    claims.Add(new Claim("stationName", user.StationName ?? ""));
-                    claims.Add(new Claim("stationLocation", user.StationLocation ?? ""));
-                }
-
-                var tokenDescriptor = new SecurityTokenDescriptor
-                {
-                    Subject = new ClaimsIdentity(claims),
-                    Expires = DateTime.UtcNow.AddHours(2),
-                    Issuer = issuer,
-                    Audience = audience,
-                    SigningCredentials = new SigningCredentials(
-                        new SymmetricSecurityKey(key), SecurityAlgorithms.HmacSha256Signature)
-                };
-
-                var token = tokenHandler.CreateToken(tokenDescriptor);
-                var tokenString = tokenHandler.WriteToken(token);
-
-                return new LoginResponseDto { Token = tokenString };
+                return new LoginResponseDto { Token = IssueToken(UserClaims(user), DateTime.UtcNow) };
             }
 
             // --- Check EV Owner Collection ---
@@ -116,37 +75,149 @@ namespace EvBackend.Services
                 if (!allowed)
                     throw new AuthenticationException("Access denied from this platform");
 
-                var tokenHandler = new JwtSecurityTokenHandler();
-                var secretKey = _config["Jwt:Key"] ?? _config["Jwt__Key"];
-                var issuer = _config["Jwt:Issuer"] ?? _config["Jwt__Issuer"];
-                var audience = _config["Jwt:Audience"] ?? _config["Jwt__Audience"];
+                return new LoginResponseDto { Token = IssueToken(OwnerClaims(evOwner), DateTime.UtcNow) };
+            }
+
+            throw new AuthenticationException("Invalid credentials or user inactive");
+        }
+
+        // A token is accepted for refresh up to this long after it expired, so an app
+        // resumed from the background can renew without asking for the password again
+        private static readonly TimeSpan RefreshWindow = TimeSpan.FromHours(24);
+
+        // Refreshes carry the original login time (auth_time) forward; once this long has
+        // passed since the password was last checked, the session cannot be renewed
+        private static readonly TimeSpan MaxSessionLength = TimeSpan.FromDays(7);
 
-                var key = Encoding.ASCII.GetBytes(secretKey);
+        public async Task<LoginResponseDto> RefreshToken(string token)
+        {
+            if (string.IsNullOrWhiteSpace(token))
+                throw new AuthenticationException("Token is required");
+
+            // Same checks as the bearer handler except lifetime, which is bounded below
+            var parameters = new TokenValidationParameters
+            {
+                ValidateIssuer = true,
+                ValidateAudience = true,
+                ValidateLifetime = false,
+                ValidateIssuerSigningKey = true,
+                ValidIssuer = _config["Jwt:Issuer"] ?? _config["Jwt__Issuer"],
+                ValidAudience = _config["Jwt:Audience"] ?? _config["Jwt__Audience"],
+                IssuerSigningKey = new SymmetricSecurityKey(SigningKey())
+            };
+
+            ClaimsPrincipal principal;
+            SecurityToken validated;
+            try
+            {
+                principal = new JwtSecurityTokenHandler().ValidateToken(token, parameters, out validated);
+            }
+            catch (Exception ex) when (ex is SecurityTokenException || ex is ArgumentException)
+            {
+                throw new AuthenticationException("Invalid token");
+            }
+
+            if (validated.ValidTo.Add(RefreshWindow) < DateTime.UtcNow)
+                throw new AuthenticationException("Session expired, please log in again");
+
+            // Tokens without a login time (issued before auth_time was added) are not renewed
+            var authTime = AuthTime(validated);
+            if (authTime == null || authTime.Value.Add(MaxSessionLength) < DateTime.UtcNow)
+                throw new AuthenticationException("Session expired, please log in again");
+
+            // Claims are rebuilt from the stored account, so deactivation and
+            // station changes take effect on the next refresh
+            var id = principal.FindFirst(ClaimTypes.NameIdentifier)?.Value;
+            var userType = principal.FindFirst("UserType")?.Value;
+            if (string.IsNullOrEmpty(id))
+                throw new AuthenticationException("Invalid token");
+
+            if (userType == "EVOwner")
+            {
+                var evOwner = await _evOwners.Find(o => o.NIC == id).FirstOrDefaultAsync();
+                if (evOwner == null || !evOwner.IsActive)
+                    throw new AuthenticationException("Account not found or inactive");
+                return new LoginResponseDto { Token = IssueToken(OwnerClaims(evOwner), authTime.Value) };
+            }
+
+            var user = await _users.Find(u => u.Id == id).FirstOrDefaultAsync();
+            if (user == null || !user.IsActive)
+                throw new AuthenticationException("Account not found or inactive");
+            return new LoginResponseDto { Token = IssueToken(UserClaims(user), authTime.Value) };
+        }
 
-                var tokenDescriptor = new SecurityTokenDescriptor
-                {
-                    Subject = new ClaimsIdentity(new[]
-                    {
+        // Read from the raw token: the inbound claim map renames auth_time on the principal
+        private static DateTime? AuthTime(SecurityToken validated)
+        {
+            var value = (validated as JwtSecurityToken)?.Claims
+                .FirstOrDefault(c => c.Type == JwtRegisteredClaimNames.AuthTime)?.Value;
+            if (!long.TryParse(value, out var seconds))
+                return null;
+            return DateTimeOffset.FromUnixTimeSeconds(seconds).UtcDateTime;
+        }
+
+        private static List<Claim> UserClaims(User user)
+        {
+            var claims = new List<Claim>
+            {
+                new Claim(ClaimTypes.NameIdentifier, user.Id),
+                new Claim(ClaimTypes.Email, user.Email),
+                new Claim(ClaimTypes.Role, user.Role),
+                new Claim("FullName", user.FullName),
+                new Claim("UserType", "User"),
+                new Claim("userId", user.Id)
+            };
+
+            // Include station info for Operator
+            if (user.Role.Equals("Operator", StringComparison.OrdinalIgnoreCase))
+            {
+                claims.Add(new Claim("stationId", user.StationId ?? ""));
+                claims.Add(new Claim("stationName", user.StationName ?? ""));
+                claims.Add(new Claim("stationLocation", user.StationLocation ?? ""));
+            }
+            return claims;
+        }
+
+        private static List<Claim> OwnerClaims(EVOwner evOwner)
+        {
+            return new List<Claim>
+            {
                 new Claim(ClaimTypes.NameIdentifier, evOwner.NIC),
                 new Claim(ClaimTypes.Email, evOwner.Email),
                 new Claim(ClaimTypes.Role, "Owner"),
                 new Claim("FullName", evOwner.FullName),
                 new Claim("UserType", "EVOwner")
-            }),
-                    Expires = DateTime.UtcNow.AddHours(2),
-                    Issuer = issuer,
-                    Audience = audience,
-                    SigningCredentials = new SigningCredentials(
-                        new SymmetricSecurityKey(key), SecurityAlgorithms.HmacSha256Signature)
-                };
-
-                var token = tokenHandler.CreateToken(tokenDescriptor);
-                var tokenString = tokenHandler.WriteToken(token);
-
-                return new LoginResponseDto { Token = tokenString };
-            }
+            };
+        }
 
-            throw new AuthenticationException("Invalid credentials or user inactive");
+        // authTime is when the password was checked: now on login, carried over on refresh
+        private string IssueToken(IEnumerable<Claim> claims, DateTime authTime)
+        {
+            var subject = new ClaimsIdentity(claims);
+            subject.AddClaim(new Claim(JwtRegisteredClaimNames.AuthTime,
+                new DateTimeOffset(authTime, TimeSpan.Zero).ToUnixTimeSeconds().ToString(),
+                ClaimValueTypes.Integer64));
+
+            var tokenHandler = new JwtSecurityTokenHandler();
+            var tokenDescriptor = new SecurityTokenDescriptor
+            {
+                Subject = subject,
+                Expires = DateTime.UtcNow.AddHours(2),
+                Issuer = _config["Jwt:Issuer"] ?? _config["Jwt__Issuer"],
+                Audience = _config["Jwt:Audience"] ?? _config["Jwt__Audience"],
+                SigningCredentials = new SigningCredentials(
+                    new SymmetricSecurityKey(SigningKey()), SecurityAlgorithms.HmacSha256Signature)
+            };
+
+            return tokenHandler.WriteToken(tokenHandler.CreateToken(tokenDescriptor));
+        }
+
+        private byte[] SigningKey()
+        {
+            var secretKey = _config["Jwt:Key"] ?? _config["Jwt__Key"];
+            if (string.IsNullOrEmpty(secretKey))
+                throw new InvalidOperationException("JWT Key not found in configuration");
+            return Encoding.ASCII.GetBytes(secretKey);
         }
 
         public async Task SendPasswordResetEmail(ForgotPasswordDto forgotPasswordDto)
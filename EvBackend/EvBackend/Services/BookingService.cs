@@ -373,13 +373,20 @@ namespace EvBackend.Services
         }
 
 
-        public async Task<IEnumerable<BookingDto>> GetBookingsByOwnerAsync(string ownerId)
+        public async Task<IEnumerable<BookingDto>> GetBookingsByOwnerAsync(string ownerId, DateTime? since = null, bool includeQrImage = true)
         {
             var bookingCol = _db.GetCollection<Booking>("Bookings");
             var stationCol = _db.GetCollection<Station>("Stations");
 
+            var filter = Builders<Booking>.Filter.Eq(b => b.OwnerId, ownerId);
+            if (since.HasValue)
+            {
+                // Inclusive, so bookings sharing the client's cursor timestamp are not missed
+                filter &= Builders<Booking>.Filter.Gte(b => b.UpdatedAt, since.Value.ToUniversalTime());
+            }
+
             var list = await bookingCol
-                .Find(b => b.OwnerId == ownerId)
+                .Find(filter)
                 .SortByDescending(b => b.StartTime)
                 .ToListAsync();
 
@@ -413,7 +420,7 @@ namespace EvBackend.Services
                     UpdatedAt = b.UpdatedAt,
                     QrCode = b.QrCode,
                     QrExpiresAt = b.QrExpiresAt,
-                    QrImageBase64 = b.QrImageBase64,
+                    QrImageBase64 = includeQrImage ? b.QrImageBase64 : null,
                     FormattedStartTime = FormatSriLankaTime(b.StartTime),
                     FormattedEndTime = FormatSriLankaTime(b.EndTime),
                     FormattedDate = FormatSriLankaDate(b.StartTime),
@@ -426,7 +433,7 @@ namespace EvBackend.Services
         }
 
 
-        public async Task<IEnumerable<BookingDto>> GetBookingsByStationAsync(string stationId)
+        public async Task<IEnumerable<BookingDto>> GetBookingsByStationAsync(string stationId, bool includeQrImage = true)
         {
             var bookingCol = _db.GetCollection<Booking>("Bookings");
             var list = await bookingCol.Find(b => b.StationId == stationId).SortByDescending(b => b.StartTime).ToListAsync();
@@ -446,7 +453,7 @@ namespace EvBackend.Services
                 UpdatedAt = b.UpdatedAt,
                 QrCode = b.QrCode,
                 QrExpiresAt = b.QrExpiresAt,
-                QrImageBase64 = b.QrImageBase64,
+                QrImageBase64 = includeQrImage ? b.QrImageBase64 : null,
                 FormattedStartTime = FormatSriLankaTime(b.StartTime),
                 FormattedEndTime = FormatSriLankaTime(b.EndTime),
                 FormattedDate = FormatSriLankaDate(b.StartTime),
@@ -454,7 +461,7 @@ namespace EvBackend.Services
             });
         }
 
-        public async Task<IEnumerable<BookingDto>> GetTodayApprovedBookingsAsync(string stationId)
+        public async Task<IEnumerable<BookingDto>> GetTodayApprovedBookingsAsync(string stationId, bool includeQrImage = true)
         {
             var bookingCol = _db.GetCollection<Booking>("Bookings");
 
@@ -490,7 +497,7 @@ namespace EvBackend.Services
                 UpdatedAt = b.UpdatedAt,
                 QrCode = b.QrCode,
                 QrExpiresAt = b.QrExpiresAt,
-                QrImageBase64 = b.QrImageBase64,
+                QrImageBase64 = includeQrImage ? b.QrImageBase64 : null,
                 FormattedStartTime = FormatSriLankaTime(b.StartTime),
                 FormattedEndTime = FormatSriLankaTime(b.EndTime),
                 FormattedDate = FormatSriLankaDate(b.StartTime),
@@ -498,7 +505,7 @@ namespace EvBackend.Services
             });
         }
 
-        public async Task<IEnumerable<BookingDto>> GetUpcomingApprovedBookingsAsync(string stationId)
+        public async Task<IEnumerable<BookingDto>> GetUpcomingApprovedBookingsAsync(string stationId, bool includeQrImage = true)
         {
             var bookingCol = _db.GetCollection<Booking>("Bookings");
 
@@ -532,7 +539,7 @@ namespace EvBackend.Services
                 UpdatedAt = b.UpdatedAt,
                 QrCode = b.QrCode,
                 QrExpiresAt = b.QrExpiresAt,
-                QrImageBase64 = b.QrImageBase64,
+                QrImageBase64 = includeQrImage ? b.QrImageBase64 : null,
                 FormattedStartTime = FormatSriLankaTime(b.StartTime),
                 FormattedEndTime = FormatSriLankaTime(b.EndTime),
                 FormattedDate = FormatSriLankaDate(b.StartTime),
@@ -12,6 +12,8 @@ namespace EvBackend.Services.Interfaces
     public interface IAuthService
     {
         Task<LoginResponseDto> AuthenticateUser(LoginDto loginDto, HttpRequest request);
+        // New token for a validly signed one, even shortly after it expired
+        Task<LoginResponseDto> RefreshToken(string token);
         Task SendPasswordResetEmail(ForgotPasswordDto forgotPasswordDto);
         Task ResetPassword(ResetPasswordDto resetPasswordDto);
         Task ChangePassword(string userId, ChangePasswordDto changePasswordDto);
@@ -19,10 +19,11 @@ namespace EvBackend.Services.Interfaces
 
         // Fetching
         Task<BookingDto> GetBookingByIdAsync(string bookingId);
-        Task<IEnumerable<BookingDto>> GetBookingsByOwnerAsync(string ownerId);
-        Task<IEnumerable<BookingDto>> GetBookingsByStationAsync(string stationId);
-        Task<IEnumerable<BookingDto>> GetTodayApprovedBookingsAsync(string stationId);
-        Task<IEnumerable<BookingDto>> GetUpcomingApprovedBookingsAsync(string stationId);
+        // includeQrImage = false leaves QrImageBase64 out of each item (QrCode is always set)
+        Task<IEnumerable<BookingDto>> GetBookingsByOwnerAsync(string ownerId, DateTime? since = null, bool includeQrImage = true);
+        Task<IEnumerable<BookingDto>> GetBookingsByStationAsync(string stationId, bool includeQrImage = true);
+        Task<IEnumerable<BookingDto>> GetTodayApprovedBookingsAsync(string stationId, bool includeQrImage = true);
+        Task<IEnumerable<BookingDto>> GetUpcomingApprovedBookingsAsync(string stationId, bool includeQrImage = true);
 
         // Operator/Admin
         Task<bool> ApproveBookingAsync(string bookingId, string operatorId);
@@ -12,7 +12,7 @@ namespace EvBackend.Services.Interfaces
     public interface INotificationService
     {
         Task SendNotification(string userId, string message);
-        Task<List<Notification>> GetUserNotifications(string userId);
+        Task<List<Notification>> GetUserNotifications(string userId, DateTime? since = null);
         Task<List<Notification>> GetOwnerNotifications(string nic);
         Task MarkNotificationAsRead(string notificationId);
         Task DeleteNotification(string notificationId);
@@ -0,0 +1,20 @@
+// --------------------------------------------------------------
+// File Name: IRealtimeEventService.cs
+// Description: Contract for pushing booking and slot state changes
+// to connected mobile clients over the notification hub.
+// Created On: 17/10/2026
+// --------------------------------------------------------------
+
+using EvBackend.Models.DTOs;
+
+namespace EvBackend.Services.Interfaces
+{
+    public interface IRealtimeEventService
+    {
+        // "BookingChanged" to the booking's owner and its station's operators
+        Task PublishBookingChangedAsync(BookingDto booking);
+
+        // "SlotChanged" to the slot's station operators
+        Task PublishSlotChangedAsync(SlotDto slot);
+    }
+}
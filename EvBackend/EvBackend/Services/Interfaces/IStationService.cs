@@ -22,7 +22,7 @@ public interface IStationService
         Task<IEnumerable<StationDto>> SearchStationsAsync(string type, string location);
         Task<IEnumerable<StationDto>> GetNearbyStationsAsync(double latitude, double longitude, double radiusKm);
         Task<bool> HasActiveBookingsAsync(string stationId); // extra logic
-        Task<IEnumerable<StationNameDto>> GetStationNameSuggestionsAsync(string? type = null, string? location = null);
+        Task<IEnumerable<StationNameDto>> GetStationNameSuggestionsAsync(string? type = null, string? location = null, bool onlyActive = false);
         Task<bool> DeleteStationWithRelationsAsync(string stationId);
         Task<List<StationDto>> GetNearbyStationsByTypeAsync(string type, double latitude, double longitude, double radiusKm);
 
@@ -34,9 +34,16 @@ namespace EvBackend.Services
             await _hubContext.Clients.User(userId).SendAsync("ReceiveNotification", notification);
         }
 
-        public async Task<List<Notification>> GetUserNotifications(string userId)
+        public async Task<List<Notification>> GetUserNotifications(string userId, DateTime? since = null)
         {
-            return await _notifications.Find(n => n.UserId == userId)
+            var filter = Builders<Notification>.Filter.Eq(n => n.UserId, userId);
+            if (since.HasValue)
+            {
+                // Inclusive, so notifications sharing the client's cursor timestamp are not missed
+                filter &= Builders<Notification>.Filter.Gte(n => n.CreatedAt, since.Value.ToUniversalTime());
+            }
+
+            return await _notifications.Find(filter)
                 .SortByDescending(n => n.CreatedAt)
                 .ToListAsync();
         }
@@ -0,0 +1,61 @@
+// --------------------------------------------------------------
+// File Name: RealtimeEventService.cs
+// Description: Pushes typed booking / slot events over SignalR so
+// clients update their lists in place instead of re-polling.
+// Publishing is best effort: a hub failure never fails the request.
+// Created On: 17/10/2026
+// --------------------------------------------------------------
+
+using EvBackend.Hubs;
+using EvBackend.Models.DTOs;
+using EvBackend.Services.Interfaces;
+using Microsoft.AspNetCore.SignalR;
+
+namespace EvBackend.Services
+{
+    public class RealtimeEventService : IRealtimeEventService
+    {
+        public const string BookingChanged = "BookingChanged";
+        public const string SlotChanged = "SlotChanged";
+
+        private readonly IHubContext<NotificationHub> _hubContext;
+        private readonly ILogger<RealtimeEventService> _logger;
+
+        public RealtimeEventService(IHubContext<NotificationHub> hubContext, ILogger<RealtimeEventService> logger)
+        {
+            _hubContext = hubContext;
+            _logger = logger;
+        }
+
+        public async Task PublishBookingChangedAsync(BookingDto booking)
+        {
+            if (booking == null) return;
+            // Clients draw the QR from its token; the PNG would dominate every push
+            booking = booking.WithoutQrImage();
+            try
+            {
+                if (!string.IsNullOrWhiteSpace(booking.OwnerId))
+                    await _hubContext.Clients.User(booking.OwnerId).SendAsync(BookingChanged, booking);
+                if (!string.IsNullOrWhiteSpace(booking.StationId))
+                    await _hubContext.Clients.Group(NotificationHub.StationGroup(booking.StationId)).SendAsync(BookingChanged, booking);
+            }
+            catch (Exception ex)
+            {
+                _logger.LogWarning(ex, "Failed to publish {Event} for booking {BookingId}", BookingChanged, booking.BookingId);
+            }
+        }
+
+        public async Task PublishSlotChangedAsync(SlotDto slot)
+        {
+            if (slot == null || string.IsNullOrWhiteSpace(slot.StationId)) return;
+            try
+            {
+                await _hubContext.Clients.Group(NotificationHub.StationGroup(slot.StationId)).SendAsync(SlotChanged, slot);
+            }
+            catch (Exception ex)
+            {
+                _logger.LogWarning(ex, "Failed to publish {Event} for slot {SlotId}", SlotChanged, slot.SlotId);
+            }
+        }
+    }
+}
@@ -474,10 +474,14 @@ namespace EvBackend.Services
             };
         }
 
-        public async Task<IEnumerable<StationNameDto>> GetStationNameSuggestionsAsync(string? type = null, string? location = null)
+        public async Task<IEnumerable<StationNameDto>> GetStationNameSuggestionsAsync(string? type = null, string? location = null, bool onlyActive = false)
         {
             var filter = Builders<Station>.Filter.Empty;
 
+            // Booking screens must not offer deactivated stations
+            if (onlyActive)
+                filter &= Builders<Station>.Filter.Eq(s => s.IsActive, true);
+
             if (!string.IsNullOrEmpty(type))
                 filter &= Builders<Station>.Filter.Eq(s => s.Type, type);
 
@@ -1,9 +1,7 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.ImageButton;
 import android.widget.ListView;
 import android.widget.Toast;
@@ -13,19 +11,23 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
-import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.BookingSyncService;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class AllBookingsActivity extends AppCompatActivity {
 
     private SessionManager session;
     private ListView lvAllBookings;
     private SwipeRefreshLayout srAllBookings;
+    private BookingSyncService sync;
+
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -34,6 +36,7 @@ public class AllBookingsActivity extends AppCompatActivity {
         setTitle("All Upcoming Bookings");
 
         session = new SessionManager(this);
+        sync = new BookingSyncService(this, new ApiClient(session));
         lvAllBookings = findViewById(R.id.lvAllBookings);
         srAllBookings = findViewById(R.id.srAllBookings);
 
@@ -45,6 +48,12 @@ public class AllBookingsActivity extends AppCompatActivity {
         loadUpcomingBookings();
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -61,51 +70,43 @@ public class AllBookingsActivity extends AppCompatActivity {
         }
 
         srAllBookings.setRefreshing(true);
+        String listKey = BookingSyncService.stationUpcomingKey(user.getStationId());
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                ApiClient apiClient = new ApiClient(session);
-                return apiClient.get("/bookings/station/" + user.getStationId() + "/upcoming");
-            }
+        // Stored copy renders first; the list re-renders once the server sync lands
+        tasks.disk(() -> {
+            List<JSONObject> local = sync.getStore().getBookingList(listKey);
+            tasks.onMain(() -> {
+                if (!local.isEmpty()) showBookings(local);
+            });
 
-            @Override
-            protected void onPostExecute(ApiResponse response) {
+            tasks.network(() -> sync.syncStationUpcoming(user.getStationId())
+                    ? sync.getStore().getBookingList(listKey) : null, fresh -> {
                 srAllBookings.setRefreshing(false);
 
-                if (response == null || !response.isSuccess() || response.getData() == null) {
-                    Toast.makeText(AllBookingsActivity.this, "No upcoming bookings found", Toast.LENGTH_SHORT).show();
+                if (fresh == null) {
+                    if (local.isEmpty()) {
+                        Toast.makeText(AllBookingsActivity.this, "No upcoming bookings found", Toast.LENGTH_SHORT).show();
+                    }
                     return;
                 }
+                showBookings(fresh);
+            });
+        });
+    }
 
-                try {
-                    JSONArray jsonArray = new JSONArray(response.getData());
-                    ArrayList<JSONObject> bookings = new ArrayList<>();
-
-                    for (int i = 0; i < jsonArray.length(); i++) {
-                        bookings.add(jsonArray.getJSONObject(i));
-                    }
-
-                    BookingAdapter adapter = new BookingAdapter(AllBookingsActivity.this, bookings);
-                    lvAllBookings.setAdapter(adapter);
-
-                    lvAllBookings.setOnItemClickListener((parent, view, position, id) -> {
-                        JSONObject obj = bookings.get(position);
-                        Intent intent = new Intent(AllBookingsActivity.this, BookingDetailsActivity.class);
-                        intent.putExtra("bookingId", obj.optString("bookingId"));
-                        intent.putExtra("status", obj.optString("status"));
-                        intent.putExtra("formattedStartTime", obj.optString("formattedStartTime", obj.optString("startTime")));
-                        intent.putExtra("formattedEndTime", obj.optString("formattedEndTime", obj.optString("endTime")));
-                        intent.putExtra("qrImageBase64", obj.optString("qrImageBase64"));
-                        intent.putExtra("qrCode", obj.optString("qrCode"));
-                        startActivity(intent);
-                    });
-
-                } catch (Exception e) {
-                    Log.e("ALL_BOOKINGS", "Parse error: " + e.getMessage());
-                    Toast.makeText(AllBookingsActivity.this, "Error loading bookings", Toast.LENGTH_SHORT).show();
-                }
-            }
-        }.execute();
+    private void showBookings(List<JSONObject> bookings) {
+        BookingAdapter adapter = new BookingAdapter(AllBookingsActivity.this, new ArrayList<>(bookings));
+        lvAllBookings.setAdapter(adapter);
+
+        lvAllBookings.setOnItemClickListener((parent, view, position, id) -> {
+            JSONObject obj = bookings.get(position);
+            Intent intent = new Intent(AllBookingsActivity.this, BookingDetailsActivity.class);
+            intent.putExtra("bookingId", obj.optString("bookingId"));
+            intent.putExtra("status", obj.optString("status"));
+            intent.putExtra("formattedStartTime", obj.optString("formattedStartTime", obj.optString("startTime")));
+            intent.putExtra("formattedEndTime", obj.optString("formattedEndTime", obj.optString("endTime")));
+            intent.putExtra("qrCode", obj.optString("qrCode"));
+            startActivity(intent);
+        });
     }
 }
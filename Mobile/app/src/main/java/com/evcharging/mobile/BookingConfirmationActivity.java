@@ -1,18 +1,19 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
-import android.util.Base64;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import com.evcharging.mobile.R;
+import com.evcharging.mobile.utils.QrImageCache;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 public class BookingConfirmationActivity extends AppCompatActivity {
 
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -23,16 +24,20 @@ public class BookingConfirmationActivity extends AppCompatActivity {
 
         tvMessage.setText(R.string.booking_confirmed_message);
 
-        String qrBase64 = getIntent().getStringExtra("qrBitmap");
-        if (qrBase64 != null && !qrBase64.isEmpty()) {
-            byte[] decodedBytes = Base64.decode(qrBase64, Base64.DEFAULT);
-            Bitmap qrBitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-            ivQr.setImageBitmap(qrBitmap);
-        }
+        // Drawn off the main thread from the booking's QR token
+        String qrCode = getIntent().getStringExtra("qrCode");
+        QrImageCache.load(tasks, ivQr, getIntent().getStringExtra("bookingId"), qrCode, null, null);
 
         setupFooterNavigation();
         highlightActiveTab("bookings");
     }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -1,11 +1,7 @@
 package com.evcharging.mobile;
 
 import android.Manifest;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.os.AsyncTask;
 import android.os.Bundle;
-import android.util.Base64;
 import android.util.Log;
 import android.widget.*;
 
@@ -22,6 +18,8 @@ import android.widget.ImageButton;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.QrImageCache;
+import com.evcharging.mobile.utils.TaskScheduler;
 import com.journeyapps.barcodescanner.ScanContract;
 import com.journeyapps.barcodescanner.ScanOptions;
 
@@ -39,6 +37,8 @@ public class BookingDetailsActivity extends AppCompatActivity {
     private ApiClient apiClient;
     private String bookingId;
 
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -68,7 +68,13 @@ public class BookingDetailsActivity extends AppCompatActivity {
 
         // refresh buttons
         btnScanQr.setOnClickListener(v -> startQrScanner());
-        btnFinalize.setOnClickListener(v -> new FinalizeBookingTask().execute());
+        btnFinalize.setOnClickListener(v -> finalizeBooking());
+    }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
     }
 
     @Override
@@ -100,20 +106,16 @@ public class BookingDetailsActivity extends AppCompatActivity {
         if (endTime == null || endTime.isEmpty())
             endTime = getIntent().getStringExtra("endTime");
 
-        String qrImageBase64 = getIntent().getStringExtra("qrImageBase64");
+        String qrCode = getIntent().getStringExtra("qrCode");
 
         tvBookingId.setText(bookingId != null ? bookingId : "-");
         tvStatus.setText("Status: " + (status != null ? status : "-"));
         tvStartTime.setText("Start: " + (startTime != null ? startTime : "-"));
         tvEndTime.setText("End: " + (endTime != null ? endTime : "-"));
 
-        if (qrImageBase64 != null && !qrImageBase64.isEmpty()) {
-            byte[] decoded = Base64.decode(qrImageBase64, Base64.DEFAULT);
-            Bitmap bitmap = BitmapFactory.decodeByteArray(decoded, 0, decoded.length);
-            ivQrCode.setImageBitmap(bitmap);
-        } else {
-            ivQrCode.setImageResource(android.R.drawable.ic_menu_report_image);
-        }
+        // Placeholder until the QR is decoded (off the main thread)
+        ivQrCode.setImageResource(android.R.drawable.ic_menu_report_image);
+        QrImageCache.load(tasks, ivQrCode, bookingId, qrCode, null, null);
     }
 
     private void startQrScanner() {
@@ -136,7 +138,7 @@ public class BookingDetailsActivity extends AppCompatActivity {
                     String expectedQr = getIntent().getStringExtra("qrCode");
                     if (expectedQr != null && scannedCode.trim().equalsIgnoreCase(expectedQr.trim())) {
                         Toast.makeText(this, "QR matched! Starting charging...", Toast.LENGTH_SHORT).show();
-                        new UpdateBookingStatusTask().execute();
+                        startCharging();
                     } else {
                         Toast.makeText(this, "Invalid QR: does not match this booking", Toast.LENGTH_LONG).show();
                         Log.d("QR_SCAN", "Expected: " + expectedQr + ", Got: " + scannedCode);
@@ -153,55 +155,38 @@ public class BookingDetailsActivity extends AppCompatActivity {
 
         srBookingDetails.setRefreshing(true);
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                return apiClient.get("/bookings/" + bookingId);
+        tasks.network(() -> apiClient.getHedged("/bookings/" + bookingId), response -> {
+            srBookingDetails.setRefreshing(false);
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                Toast.makeText(BookingDetailsActivity.this, "Failed to refresh booking", Toast.LENGTH_SHORT).show();
+                return;
             }
 
-            @Override
-            protected void onPostExecute(ApiResponse response) {
-                srBookingDetails.setRefreshing(false);
-                if (response == null || !response.isSuccess() || response.getData() == null) {
-                    Toast.makeText(BookingDetailsActivity.this, "Failed to refresh booking", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-
-                try {
-                    JSONObject o = new JSONObject(response.getData());
+            try {
+                JSONObject o = new JSONObject(response.getData());
 
-                    String status = o.optString("status", "-");
-                    String startTime = o.optString("formattedStartTime", o.optString("startTime", "-"));
-                    String endTime = o.optString("formattedEndTime", o.optString("endTime", "-"));
-                    String qrImageBase64 = o.optString("qrImageBase64", null);
+                String status = o.optString("status", "-");
+                String startTime = o.optString("formattedStartTime", o.optString("startTime", "-"));
+                String endTime = o.optString("formattedEndTime", o.optString("endTime", "-"));
+                String qrCode = o.optString("qrCode", null);
+                String qrImageBase64 = o.optString("qrImageBase64", null);
 
-                    tvBookingId.setText(bookingId);
-                    tvStatus.setText("Status: " + status);
-                    tvStartTime.setText("Start: " + startTime);
-                    tvEndTime.setText("End: " + endTime);
+                tvBookingId.setText(bookingId);
+                tvStatus.setText("Status: " + status);
+                tvStartTime.setText("Start: " + startTime);
+                tvEndTime.setText("End: " + endTime);
 
-                    if (qrImageBase64 != null && !qrImageBase64.isEmpty()) {
-                        byte[] decoded = Base64.decode(qrImageBase64, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decoded, 0, decoded.length);
-                        ivQrCode.setImageBitmap(bitmap);
-                    }
+                QrImageCache.load(tasks, ivQrCode, bookingId, qrCode, qrImageBase64, null);
 
-                } catch (Exception e) {
-                    Log.e("BOOKING_DETAILS", "parse error: " + e.getMessage());
-                }
+            } catch (Exception e) {
+                Log.e("BOOKING_DETAILS", "parse error: " + e.getMessage());
             }
-        }.execute();
+        });
     }
 
     /** PATCH /bookings/{id}/start */
-    private class UpdateBookingStatusTask extends AsyncTask<Void, Void, ApiResponse> {
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            return apiClient.patch("/bookings/" + bookingId + "/start", null);
-        }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
+    private void startCharging() {
+        tasks.network(() -> apiClient.patch("/bookings/" + bookingId + "/start", null), response -> {
             if (response != null && response.isSuccess()) {
                 Toast.makeText(BookingDetailsActivity.this, "Booking marked as Charging", Toast.LENGTH_SHORT).show();
                 refreshBookingFromServer();
@@ -209,18 +194,12 @@ public class BookingDetailsActivity extends AppCompatActivity {
                 Toast.makeText(BookingDetailsActivity.this, "Failed to start: " +
                         (response != null ? response.getMessage() : "Unknown"), Toast.LENGTH_SHORT).show();
             }
-        }
+        });
     }
 
     /** PATCH /bookings/{id}/finalize */
-    private class FinalizeBookingTask extends AsyncTask<Void, Void, ApiResponse> {
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            return apiClient.patch("/bookings/" + bookingId + "/finalize", null);
-        }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
+    private void finalizeBooking() {
+        tasks.network(() -> apiClient.patch("/bookings/" + bookingId + "/finalize", null), response -> {
             if (response != null && response.isSuccess()) {
                 Toast.makeText(BookingDetailsActivity.this, "Booking finalized", Toast.LENGTH_SHORT).show();
                 refreshBookingFromServer();
@@ -228,6 +207,6 @@ public class BookingDetailsActivity extends AppCompatActivity {
                 Toast.makeText(BookingDetailsActivity.this, "Finalize failed: " +
                         (response != null ? response.getMessage() : "Unknown"), Toast.LENGTH_SHORT).show();
             }
-        }
+        });
     }
 }
@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.ImageButton;
@@ -18,11 +17,9 @@ import com.evcharging.mobile.adapter.OwnerBookingAdapter;
 import com.evcharging.mobile.model.BookingItem;
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
-import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.BookingSyncService;
 import com.evcharging.mobile.session.SessionManager;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,8 +32,11 @@ public class ChargingHistoryActivity extends AppCompatActivity {
 
     private SessionManager session;
     private ApiClient apiClient;
+    private BookingSyncService sync;
     private OwnerBookingAdapter adapter;
 
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -47,6 +47,7 @@ public class ChargingHistoryActivity extends AppCompatActivity {
         // Initialize
         session = new SessionManager(this);
         apiClient = new ApiClient(session);
+        sync = new BookingSyncService(this, apiClient);
 // --- Setup Header Back Button ---
         ImageButton btnBack = findViewById(R.id.btnBack);
         if (btnBack != null) {
@@ -66,7 +67,7 @@ public class ChargingHistoryActivity extends AppCompatActivity {
             i.putExtra("start", item.getStartTime());
             i.putExtra("end", item.getEndTime());
             i.putExtra("status", item.getStatus());
-            i.putExtra("qrBase64", item.getQrImageBase64());
+            i.putExtra("qrCode", item.getQrCode());
             startActivity(i);
         });
 
@@ -79,6 +80,12 @@ public class ChargingHistoryActivity extends AppCompatActivity {
         highlightActiveTab("bookings");
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -159,68 +166,55 @@ public class ChargingHistoryActivity extends AppCompatActivity {
 
     /**
      * Load past (Finalized/Expired/Canceled) bookings
+     * Stored copy renders first; the list re-renders once the server sync lands
      */
     private void loadData() {
+        User loggedUser = session.getLoggedInUser();
+        String ownerId = (loggedUser != null) ? loggedUser.getUserId() : null;
+        if (ownerId == null || ownerId.isEmpty()) {
+            swipeRefreshLayout.setRefreshing(false);
+            showHistory(null);
+            return;
+        }
+
         swipeRefreshLayout.setRefreshing(true);
 
-        new AsyncTask<Void, Void, List<BookingItem>>() {
-            @Override
-            protected List<BookingItem> doInBackground(Void... voids) {
-                try {
-                    // Fetch owner ID
-                    User loggedUser = session.getLoggedInUser();
-                    String ownerId = (loggedUser != null) ? loggedUser.getUserId() : null;
-                    if (ownerId == null || ownerId.isEmpty()) return null;
-
-                    ApiResponse res = apiClient.getBookingsByOwner(ownerId);
-                    if (res == null || !res.isSuccess()) return null;
-
-                    JSONArray arr = new JSONArray(res.getData());
-                    List<BookingItem> historyList = new ArrayList<>();
-
-                    for (int i = 0; i < arr.length(); i++) {
-                        JSONObject o = arr.getJSONObject(i);
-                        BookingItem b = new BookingItem();
-
-                        b.setBookingId(o.optString("bookingId", o.optString("_id", null)));
-                        b.setStationId(o.optString("stationId", o.optString("StationId", null)));
-                        b.setStationName(o.optString("stationName", ""));
-                        b.setSlotId(o.optString("slotId"));
-                        b.setSlotNumber(o.optString("slotNumber", o.optString("slotNo", "")));
-                        b.setTimeSlotId(o.optString("timeSlotId"));
-                        b.setOwnerId(o.optString("ownerId"));
-                        b.setStatus(o.optString("status"));
-                        b.setStartTime(o.optString("startTime"));
-                        b.setEndTime(o.optString("endTime"));
-                        b.setQrImageBase64(o.optString("qrImageBase64", null));
-
-                        // Include only past bookings
-                        if ("Finalized".equalsIgnoreCase(b.getStatus()) ||
-                                "Cancelled".equalsIgnoreCase(b.getStatus()) ||
-                                "Expired".equalsIgnoreCase(b.getStatus())) {
-                            historyList.add(b);
-                        }
-                    }
-                    return historyList;
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            }
+        tasks.disk(() -> {
+            List<BookingItem> local = pastOnly(sync.getStore().getOwnerBookings(ownerId));
+            tasks.onMain(() -> {
+                if (!local.isEmpty()) showHistory(local);
+            });
 
-            @Override
-            protected void onPostExecute(List<BookingItem> data) {
+            tasks.network(() -> sync.syncOwnerBookings(ownerId)
+                    ? pastOnly(sync.getStore().getOwnerBookings(ownerId)) : null, fresh -> {
                 swipeRefreshLayout.setRefreshing(false);
+                // Offline: keep whatever the store gave us
+                if (fresh == null && !local.isEmpty()) return;
+                showHistory(fresh);
+            });
+        });
+    }
 
-                if (data == null || data.isEmpty()) {
-                    tvEmpty.setVisibility(View.VISIBLE);
-                    adapter.setData(new ArrayList<>());
-                } else {
-                    tvEmpty.setVisibility(View.GONE);
-                    adapter.setData(data);
-                }
+    private static List<BookingItem> pastOnly(List<BookingItem> all) {
+        List<BookingItem> historyList = new ArrayList<>();
+        for (BookingItem b : all) {
+            // Include only past bookings
+            if ("Finalized".equalsIgnoreCase(b.getStatus()) ||
+                    "Cancelled".equalsIgnoreCase(b.getStatus()) ||
+                    "Expired".equalsIgnoreCase(b.getStatus())) {
+                historyList.add(b);
             }
-        }.execute();
+        }
+        return historyList;
+    }
+
+    private void showHistory(List<BookingItem> data) {
+        if (data == null || data.isEmpty()) {
+            tvEmpty.setVisibility(View.VISIBLE);
+            adapter.setData(new ArrayList<>());
+        } else {
+            tvEmpty.setVisibility(View.GONE);
+            adapter.setData(data);
+        }
     }
 }
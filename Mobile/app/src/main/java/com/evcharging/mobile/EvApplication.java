@@ -0,0 +1,24 @@
+package com.evcharging.mobile;
+
+import android.app.Application;
+
+import com.evcharging.mobile.network.ResponseCache;
+import com.evcharging.mobile.network.TokenRefresher;
+
+/**
+ * EvApplication - Process-wide initialisation
+ *
+ * Purpose: Set up app-scoped infrastructure once, before any screen
+ * issues a request (disk HTTP cache and token refresh for the shared OkHttpClient).
+ */
+public class EvApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Must run before HttpClientProvider builds the shared client
+        ResponseCache.install(this);
+        TokenRefresher.install(this);
+    }
+}
@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.text.InputType;
 import android.text.TextUtils;
@@ -24,9 +23,7 @@ import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.session.SessionManager;
 import com.evcharging.mobile.utils.JwtUtils;
-
-import java.lang.ref.WeakReference;
-import java.util.concurrent.Executors;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 public class LoginActivity extends AppCompatActivity {
 
@@ -38,6 +35,7 @@ public class LoginActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     private ApiClient apiClient;
     private SessionManager sessionManager;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     private boolean isPasswordVisible = false;
 
@@ -61,7 +59,7 @@ public class LoginActivity extends AppCompatActivity {
         loadSavedCredentials();
 
         if (sessionManager.isLoggedIn()) {
-            redirectToRoleHome(sessionManager.getToken());
+            redirectToRoleHome(JwtUtils.getRoleFromToken(sessionManager.getToken()));
             finish();
         }
 
@@ -87,6 +85,12 @@ public class LoginActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     private void togglePasswordVisibility() {
         if (isPasswordVisible) {
             etPassword.setTransformationMethod(PasswordTransformationMethod.getInstance());
@@ -144,33 +148,10 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        new LoginTask().execute(email, password, String.valueOf(rememberMe));
-    }
-
-    private class LoginTask extends AsyncTask<String, Void, ApiResponse> {
-        private String email;
-        private String password;
-        private boolean rememberMe;
-
-        @Override
-        protected void onPreExecute() {
-            super.onPreExecute();
-            btnLogin.setEnabled(false);
-            progressBar.setVisibility(View.VISIBLE);
-        }
-
-        @Override
-        protected ApiResponse doInBackground(String... params) {
-            email = params[0];
-            password = params[1];
-            rememberMe = Boolean.parseBoolean(params[2]);
-            return apiClient.login(email, password);
-        }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
-            super.onPostExecute(response);
+        btnLogin.setEnabled(false);
+        progressBar.setVisibility(View.VISIBLE);
 
+        tasks.network(() -> apiClient.login(email, password), response -> {
             btnLogin.setEnabled(true);
             progressBar.setVisibility(View.GONE);
 
@@ -191,7 +172,7 @@ public class LoginActivity extends AppCompatActivity {
                 loadAndSaveUser(token);
 
                 if (role.equalsIgnoreCase("operator") || role.equalsIgnoreCase("owner")) {
-                    redirectToRoleHome(token);
+                    redirectToRoleHome(role);
                     finish();
                 } else {
                     // Unauthorized role (like Admin)
@@ -203,11 +184,14 @@ public class LoginActivity extends AppCompatActivity {
             } else {
                 Toast.makeText(LoginActivity.this, response.getMessage(), Toast.LENGTH_LONG).show();
             }
-        }
+        }, error -> {
+            btnLogin.setEnabled(true);
+            progressBar.setVisibility(View.GONE);
+            Toast.makeText(LoginActivity.this, "Login failed: " + error.getMessage(), Toast.LENGTH_LONG).show();
+        });
     }
 
-    private void redirectToRoleHome(String token) {
-        String role = JwtUtils.getRoleFromToken(token);
+    private void redirectToRoleHome(String role) {
         if ("owner".equalsIgnoreCase(role)) {
             startActivity(new Intent(this, OwnerHomeActivity.class));
         } else if ("operator".equalsIgnoreCase(role)) {
@@ -218,21 +202,16 @@ public class LoginActivity extends AppCompatActivity {
     }
 
     private void loadAndSaveUser(String token) {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            // This runs on a background thread
-            ApiResponse response = apiClient.getUser();
+        // Not tagged with this screen: the profile load must finish after we redirect and finish()
+        apiClient.getAsync("/auth/me", null, response -> {
             if (response.isSuccess() && response.getData() != null) {
                 Log.d("LOGIN", "Profile Loaded");
                 User user = apiClient.parseLoggedOwner(response.getData());
-
-                // Save user on main thread
-                runOnUiThread(() -> sessionManager.saveLoggedInUser(user));
+                sessionManager.saveLoggedInUser(user);
             } else {
-                runOnUiThread(() ->
-                        Toast.makeText(LoginActivity.this,
-                                "Failed to load user profile after login",
-                                Toast.LENGTH_SHORT).show()
-                );
+                Toast.makeText(LoginActivity.this,
+                        "Failed to load user profile after login",
+                        Toast.LENGTH_SHORT).show();
             }
         });
     }
@@ -10,20 +10,31 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.evcharging.mobile.adapter.NotificationAdapter;
 import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.NotificationSyncService;
+import com.evcharging.mobile.service.NotificationTray;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 import java.util.ArrayList;
 import java.util.List;
 
 public class NotificationActivity extends AppCompatActivity
         implements NotificationAdapter.OnNotificationActionListener {
 
+    private static final int PAGE_SIZE = 30;
+
     private RecyclerView recyclerView;
     private NotificationAdapter adapter;
     private List<Notification> notifications;
     private LinearLayout layoutEmptyState;
-    private ApiClient apiClient;
+    private NotificationSyncService notificationSync;
+    private String userId;
+    private boolean loadingPage;
+    private boolean endReached;
+    private int generation; // bumped when the list is reloaded; stale next pages are dropped
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,42 +53,81 @@ public class NotificationActivity extends AppCompatActivity
         notifications = new ArrayList<>();
         adapter = new NotificationAdapter(notifications, this);
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView rv, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= notifications.size() - 5) {
+                    loadNextPage();
+                }
+            }
+        });
 
-        apiClient = new ApiClient(new SessionManager(this));
+        SessionManager session = new SessionManager(this);
+        User user = session.getLoggedInUser();
+        userId = user != null ? user.getUserId() : null;
+        notificationSync = new NotificationSyncService(this, new ApiClient(session));
 
+        // Everything in the tray is listed here now
+        NotificationTray.clear(this);
         loadNotifications();
     }
 
     private void loadNotifications() {
-        // Call API to get notifications in background thread
-        new Thread(() -> {
-            ApiResponse response = apiClient.getUserNotifications();
-
-            // Switch back to UI thread to update views
-            runOnUiThread(() -> {
-                if (response.isSuccess() && response.getData() != null) {
-                    // Parse the notifications from JSON response
-                    List<Notification> notificationList = apiClient.parseNotifications(response.getData());
-
-                    if (notificationList != null) {
-                        notifications.clear();
-                        notifications.addAll(notificationList);
-                        adapter.notifyDataSetChanged();
-                    } else {
-                        Toast.makeText(this, "Failed to parse notifications", Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    // Show error message
-                    String errorMessage = response.getMessage() != null ? response.getMessage() : "Failed to load notifications";
-                    Toast.makeText(this, errorMessage, Toast.LENGTH_SHORT).show();
+        // Stored copy first (only the pages already shown), then a delta sync behind it
+        int limit = Math.max(PAGE_SIZE, notifications.size());
+        showFirstPage(limit);
+
+        tasks.network(() -> {
+            boolean synced = userId != null && notificationSync.sync(userId);
+
+            tasks.onMain(() -> {
+                if (synced) {
+                    showFirstPage(limit);
+                } else if (notifications.isEmpty()) {
+                    Toast.makeText(this, "Failed to load notifications", Toast.LENGTH_SHORT).show();
                 }
+            });
+        });
+    }
 
-                // Update empty state regardless of success/failure
+    private void showFirstPage(int limit) {
+        if (userId == null) {
+            updateEmptyState();
+            return;
+        }
+        tasks.disk(() -> {
+            List<Notification> page = notificationSync.getStore().getNotificationsPage(userId, null, limit);
+            tasks.onMain(() -> {
+                generation++;
+                loadingPage = false;
+                notifications.clear();
+                notifications.addAll(page);
+                endReached = page.size() < limit;
+                adapter.updateNotifications(notifications);
                 updateEmptyState();
             });
-        }).start();
+        });
+    }
+
+    // Next page from the store, keyed by the last row shown
+    private void loadNextPage() {
+        if (loadingPage || endReached || userId == null || notifications.isEmpty()) return;
+        loadingPage = true;
+        Notification last = notifications.get(notifications.size() - 1);
+        int requestedFor = generation;
+        tasks.disk(() -> {
+            List<Notification> page = notificationSync.getStore().getNotificationsPage(userId, last, PAGE_SIZE);
+            tasks.onMain(() -> {
+                if (requestedFor != generation) return;
+                loadingPage = false;
+                endReached = page.size() < PAGE_SIZE;
+                notifications.addAll(page);
+                adapter.updateNotifications(notifications);
+            });
+        });
     }
 
     private void updateEmptyState() {
@@ -92,33 +142,46 @@ public class NotificationActivity extends AppCompatActivity
 
     @Override
     public void onMarkAsRead(String notificationId) {
-        // Call API to mark notification as read in background thread
-        new Thread(() -> {
-            ApiResponse response = apiClient.markNotificationAsRead(notificationId);
+        int index = indexOf(notificationId);
+        if (index >= 0) {
+            // A new item, not a changed one, so the adapter's diff sees the change
+            notifications.set(index, asRead(notifications.get(index)));
+            adapter.updateNotifications(notifications);
+        }
+
+        // Stored copy (and unread counter) change at once; the server call follows
+        tasks.network(() -> {
+            ApiResponse response = notificationSync.markAsRead(userId, notificationId);
 
-            runOnUiThread(() -> {
+            tasks.onMain(() -> {
                 if (response.isSuccess()) {
                     Toast.makeText(this, "Marked as read", Toast.LENGTH_SHORT).show();
-                    // Refresh notifications to get updated status
-                    loadNotifications();
                 } else {
                     String errorMessage = response.getMessage() != null ? response.getMessage() : "Failed to mark as read";
                     Toast.makeText(this, errorMessage, Toast.LENGTH_SHORT).show();
+                    // Restore the server's state
+                    loadNotifications();
                 }
             });
-        }).start();
+        });
     }
 
     @Override
     public void onDelete(String notificationId) {
-        // Call API to delete notification in background thread
-        new Thread(() -> {
-            ApiResponse response = apiClient.deleteNotification(notificationId);
+        int index = indexOf(notificationId);
+        if (index >= 0) {
+            notifications.remove(index);
+            adapter.updateNotifications(notifications);
+        }
 
-            runOnUiThread(() -> {
+        tasks.network(() -> {
+            ApiResponse response = notificationSync.delete(userId, notificationId);
+
+            tasks.onMain(() -> {
                 if (response.isSuccess()) {
                     Toast.makeText(this, "Notification deleted", Toast.LENGTH_SHORT).show();
-                    // No need to refresh - adapter already removes item
+                    // No need to refresh - the row is already gone
+                    updateEmptyState();
                 } else {
                     String errorMessage = response.getMessage() != null ? response.getMessage() : "Failed to delete notification";
                     Toast.makeText(this, errorMessage, Toast.LENGTH_SHORT).show();
@@ -126,7 +189,30 @@ public class NotificationActivity extends AppCompatActivity
                     loadNotifications();
                 }
             });
-        }).start();
+        });
+    }
+
+    private int indexOf(String notificationId) {
+        for (int i = 0; i < notifications.size(); i++) {
+            if (notificationId.equals(notifications.get(i).getId())) return i;
+        }
+        return -1;
+    }
+
+    private static Notification asRead(Notification notification) {
+        Notification copy = new Notification();
+        copy.setId(notification.getId());
+        copy.setUserId(notification.getUserId());
+        copy.setMessage(notification.getMessage());
+        copy.setCreatedAt(notification.getCreatedAt());
+        copy.setRead(true);
+        return copy;
+    }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
     }
 
     @Override
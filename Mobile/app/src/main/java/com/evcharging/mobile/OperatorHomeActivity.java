@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -12,12 +11,17 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.HubConnectionManager;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
+import com.evcharging.mobile.utils.TimeFormat;
+import com.google.gson.JsonObject;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Calendar;
 
 public class OperatorHomeActivity extends AppCompatActivity {
 
@@ -28,6 +32,22 @@ public class OperatorHomeActivity extends AppCompatActivity {
     private ImageButton btnLogout;
     private ListView lvTodayReservations;
     private SwipeRefreshLayout srTodayReservations;
+    private final ArrayList<JSONObject> reservations = new ArrayList<>();
+    private TodayReservationAdapter reservationAdapter;
+    private View emptyHeader;
+    private HubConnectionManager hub;
+    private boolean hubWasDown;
+
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
+    private final HubConnectionManager.BookingListener bookingListener = this::applyBookingChange;
+
+    // Events pushed while the socket was down are lost: reload once it is back
+    private final HubConnectionManager.StateListener stateListener = state -> {
+        if (state == HubConnectionManager.State.CONNECTED && hubWasDown) loadTodayBookings();
+        if (state == HubConnectionManager.State.RECONNECTING) hubWasDown = true;
+        else if (state == HubConnectionManager.State.CONNECTED) hubWasDown = false;
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,13 +63,35 @@ public class OperatorHomeActivity extends AppCompatActivity {
 
         // pull-to-refresh
         srTodayReservations.setOnRefreshListener(this::loadTodayBookings);
+        loadTodayBookings();
+
+        // Approvals / charging / cancellations arrive as hub events and are applied in place
+        hub = HubConnectionManager.get(this);
+        hub.addBookingListener(bookingListener);
+        hub.addStateListener(stateListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        if (hub != null) {
+            hub.removeBookingListener(bookingListener);
+            hub.removeStateListener(stateListener);
+        }
+        super.onDestroy();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // auto-refresh when returning to this screen
-        loadTodayBookings();
+        // Live while visible; replaces the full reload on every return to this screen
+        if (hub != null) hub.acquire();
+    }
+
+    @Override
+    protected void onPause() {
+        if (hub != null) hub.release();
+        super.onPause();
     }
 
     private void bindViews() {
@@ -109,6 +151,7 @@ public class OperatorHomeActivity extends AppCompatActivity {
 
         if (user == null || user.getStationId() == null || user.getStationId().equals("string")) {
             String[] msg = {"No station assigned yet"};
+            reservationAdapter = null;
             lvTodayReservations.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, msg));
             srTodayReservations.setRefreshing(false);
             return;
@@ -116,101 +159,153 @@ public class OperatorHomeActivity extends AppCompatActivity {
 
         srTodayReservations.setRefreshing(true);
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                ApiClient apiClient = new ApiClient(session);
-                return apiClient.get("/bookings/station/" + user.getStationId() + "/today");
+        tasks.network(() -> {
+            ApiClient apiClient = new ApiClient(session);
+            return apiClient.get("/bookings/station/" + user.getStationId() + "/today?" + ApiClient.WITHOUT_QR_IMAGE);
+        }, response -> {
+            srTodayReservations.setRefreshing(false);
+
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                String[] msg = {"No bookings found for today"};
+                reservationAdapter = null;
+                lvTodayReservations.setAdapter(
+                        new ArrayAdapter<>(OperatorHomeActivity.this,
+                                android.R.layout.simple_list_item_1, msg));
+                return;
             }
 
-            @Override
-            protected void onPostExecute(ApiResponse response) {
-                srTodayReservations.setRefreshing(false);
+            try {
+                JSONArray jsonArray = new JSONArray(response.getData());
+                reservations.clear();
 
-                if (response == null || !response.isSuccess() || response.getData() == null) {
-                    String[] msg = {"No bookings found for today"};
-                    lvTodayReservations.setAdapter(
-                            new ArrayAdapter<>(OperatorHomeActivity.this,
-                                    android.R.layout.simple_list_item_1, msg));
-                    return;
-                }
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    JSONObject obj = jsonArray.getJSONObject(i);
 
-                try {
-                    JSONArray jsonArray = new JSONArray(response.getData());
-                    ArrayList<JSONObject> reservations = new ArrayList<>();
-
-                    for (int i = 0; i < jsonArray.length(); i++) {
-                        JSONObject obj = jsonArray.getJSONObject(i);
-
-                        // show only "Approved" or "Charging"
-                        String status = obj.optString("status", "");
-                        if ("Approved".equalsIgnoreCase(status) || "Charging".equalsIgnoreCase(status)) {
-                            reservations.add(obj);
-                        }
-                    }
-
-                    if (reservations.isEmpty()) {
-                        lvTodayReservations.setAdapter(null);
-
-// 🔹 Remove any existing placeholder
-                        if (lvTodayReservations.getHeaderViewsCount() > 0) {
-                            lvTodayReservations.removeHeaderView(lvTodayReservations.getChildAt(0));
-                        }
-
-// 🔹 Create one centered empty-state layout
-                        LinearLayout emptyLayout = new LinearLayout(OperatorHomeActivity.this);
-                        emptyLayout.setOrientation(LinearLayout.VERTICAL);
-                        emptyLayout.setGravity(android.view.Gravity.CENTER); // center both vertically + horizontally
-                        emptyLayout.setPadding(40, 120, 40, 120); // more padding for breathing room
-
-// 🗓️ Icon
-                        ImageView icon = new ImageView(OperatorHomeActivity.this);
-                        icon.setImageResource(R.drawable.ic_calendar_empty);
-                        icon.setColorFilter(android.graphics.Color.parseColor("#9E9E9E"));
-                        LinearLayout.LayoutParams iconParams = new LinearLayout.LayoutParams(200, 200);
-                        iconParams.gravity = android.view.Gravity.CENTER;
-                        iconParams.bottomMargin = 32;
-                        emptyLayout.addView(icon, iconParams);
-
-// 📝 Text
-                        TextView msgView = new TextView(OperatorHomeActivity.this);
-                        msgView.setText("No bookings scheduled for today");
-                        msgView.setTextSize(17);
-                        msgView.setTextColor(android.graphics.Color.parseColor("#616161"));
-                        msgView.setTextAlignment(View.TEXT_ALIGNMENT_CENTER);
-                        msgView.setGravity(android.view.Gravity.CENTER);
-                        emptyLayout.addView(msgView);
-
-// 🔹 Add it once
-                        if (lvTodayReservations.getHeaderViewsCount() == 0) {
-                            lvTodayReservations.addHeaderView(emptyLayout, null, false);
-                        }
-
-
-                        return;
-                    }
-
-                    TodayReservationAdapter adapter =
-                            new TodayReservationAdapter(OperatorHomeActivity.this, reservations);
-                    lvTodayReservations.setAdapter(adapter);
-
-                    lvTodayReservations.setOnItemClickListener((parent, view, position, id) -> {
-                        JSONObject obj = reservations.get(position);
-                        Intent intent = new Intent(OperatorHomeActivity.this, BookingDetailsActivity.class);
-                        intent.putExtra("bookingId", obj.optString("bookingId"));
-                        intent.putExtra("status", obj.optString("status"));
-                        intent.putExtra("startTime", obj.optString("formattedStartTime", obj.optString("startTime")));
-                        intent.putExtra("endTime", obj.optString("formattedEndTime", obj.optString("endTime")));
-                        intent.putExtra("qrImageBase64", obj.optString("qrImageBase64"));
-                        intent.putExtra("qrCode", obj.optString("qrCode"));
-                        startActivity(intent);
-                    });
-
-                } catch (Exception e) {
-                    Log.e("BOOKINGS", "Error parsing bookings: " + e.getMessage());
+                    // show only "Approved" or "Charging"
+                    if (isShown(obj)) reservations.add(obj);
                 }
+                showReservations();
+
+            } catch (Exception e) {
+                Log.e("BOOKINGS", "Error parsing bookings: " + e.getMessage());
             }
+        });
+    }
+
+    // Renders the current reservations (after a load or a pushed change)
+    private void showReservations() {
+        if (reservations.isEmpty()) {
+            lvTodayReservations.setAdapter(null);
+            reservationAdapter = null;
+
+            // 🔹 Create one centered empty-state layout
+            if (emptyHeader == null) {
+                LinearLayout emptyLayout = new LinearLayout(OperatorHomeActivity.this);
+                emptyLayout.setOrientation(LinearLayout.VERTICAL);
+                emptyLayout.setGravity(android.view.Gravity.CENTER); // center both vertically + horizontally
+                emptyLayout.setPadding(40, 120, 40, 120); // more padding for breathing room
+
+                // 🗓️ Icon
+                ImageView icon = new ImageView(OperatorHomeActivity.this);
+                icon.setImageResource(R.drawable.ic_calendar_empty);
+                icon.setColorFilter(android.graphics.Color.parseColor("#9E9E9E"));
+                LinearLayout.LayoutParams iconParams = new LinearLayout.LayoutParams(200, 200);
+                iconParams.gravity = android.view.Gravity.CENTER;
+                iconParams.bottomMargin = 32;
+                emptyLayout.addView(icon, iconParams);
+
+                // 📝 Text
+                TextView msgView = new TextView(OperatorHomeActivity.this);
+                msgView.setText("No bookings scheduled for today");
+                msgView.setTextSize(17);
+                msgView.setTextColor(android.graphics.Color.parseColor("#616161"));
+                msgView.setTextAlignment(View.TEXT_ALIGNMENT_CENTER);
+                msgView.setGravity(android.view.Gravity.CENTER);
+                emptyLayout.addView(msgView);
+
+                // 🔹 Add it once
+                emptyHeader = emptyLayout;
+                lvTodayReservations.addHeaderView(emptyHeader, null, false);
+            }
+            return;
+        }
+
+        // 🔹 Remove the empty-state placeholder once there is something to show
+        if (emptyHeader != null) {
+            lvTodayReservations.removeHeaderView(emptyHeader);
+            emptyHeader = null;
+            reservationAdapter = null;
+        }
+
+        if (reservationAdapter != null) {
+            reservationAdapter.notifyDataSetChanged();
+            return;
+        }
+
+        reservationAdapter = new TodayReservationAdapter(OperatorHomeActivity.this, reservations);
+        lvTodayReservations.setAdapter(reservationAdapter);
+
+        lvTodayReservations.setOnItemClickListener((parent, view, position, id) -> {
+            JSONObject obj = reservations.get(position);
+            Intent intent = new Intent(OperatorHomeActivity.this, BookingDetailsActivity.class);
+            intent.putExtra("bookingId", obj.optString("bookingId"));
+            intent.putExtra("status", obj.optString("status"));
+            intent.putExtra("startTime", obj.optString("formattedStartTime", obj.optString("startTime")));
+            intent.putExtra("endTime", obj.optString("formattedEndTime", obj.optString("endTime")));
+            intent.putExtra("qrCode", obj.optString("qrCode"));
+            startActivity(intent);
+        });
+    }
+
+    // ---------------- Live updates ----------------
+
+    // Apply a pushed booking change to today's list instead of re-fetching it
+    private void applyBookingChange(JsonObject json) {
+        String stationId = session.getStationId();
+        if (stationId == null || !stationId.equals(json.has("stationId") ? json.get("stationId").getAsString() : null)) return;
+
+        JSONObject changed;
+        try {
+            changed = new JSONObject(json.toString());
+        } catch (Exception e) {
+            Log.e("BOOKINGS", "Unreadable booking event: " + e.getMessage());
+            return;
+        }
+
+        String bookingId = changed.optString("bookingId");
+        int index = -1;
+        for (int i = 0; i < reservations.size(); i++) {
+            if (bookingId.equals(reservations.get(i).optString("bookingId"))) {
+                index = i;
+                break;
+            }
+        }
+
+        boolean show = isShown(changed) && isToday(changed.optString("startTime", null));
+        if (index >= 0 && show) {
+            reservations.set(index, changed);
+        } else if (index >= 0) {
+            reservations.remove(index);
+        } else if (show) {
+            reservations.add(changed);
+        } else {
+            return;
+        }
+        showReservations();
+    }
+
+    private static boolean isShown(JSONObject booking) {
+        String status = booking.optString("status", "");
+        return "Approved".equalsIgnoreCase(status) || "Charging".equalsIgnoreCase(status);
+    }
 
-        }.execute();
+    private static boolean isToday(String startTimeUtc) {
+        long start = TimeFormat.parseServer(startTimeUtc);
+        if (start < 0) return false;
+        Calendar then = Calendar.getInstance();
+        then.setTimeInMillis(start);
+        Calendar now = Calendar.getInstance();
+        return then.get(Calendar.YEAR) == now.get(Calendar.YEAR)
+                && then.get(Calendar.DAY_OF_YEAR) == now.get(Calendar.DAY_OF_YEAR);
     }
 }
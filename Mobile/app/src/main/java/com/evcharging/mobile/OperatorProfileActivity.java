@@ -1,6 +1,5 @@
 package com.evcharging.mobile;
 
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -10,6 +9,7 @@ import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import org.json.JSONObject;
 
@@ -22,6 +22,7 @@ public class OperatorProfileActivity extends AppCompatActivity {
     private ApiClient apiClient;
     private User user;
     private boolean editMode = false;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,6 +44,12 @@ public class OperatorProfileActivity extends AppCompatActivity {
 
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     private void bindViews() {
         tvName = findViewById(R.id.tvName);
         tvEmail = findViewById(R.id.tvEmail);
@@ -135,46 +142,24 @@ public class OperatorProfileActivity extends AppCompatActivity {
             return;
         }
 
-        new UpdateProfileTask(newName, newEmail).execute();
+        updateProfile(newName, newEmail);
     }
 
     /**
-     * ✅ Background task to update operator profile
+     * ✅ Update operator profile on the network pool
      * Calls: PUT /api/users/{userId}
      */
-    private class UpdateProfileTask extends AsyncTask<Void, Void, ApiResponse> {
-        private final String fullName, email;
-
-        UpdateProfileTask(String fullName, String email) {
-            this.fullName = fullName;
-            this.email = email;
-        }
-
-        @Override
-        protected void onPreExecute() {
-            Toast.makeText(OperatorProfileActivity.this, "Saving changes...", Toast.LENGTH_SHORT).show();
-        }
+    private void updateProfile(String fullName, String email) {
+        Toast.makeText(this, "Saving changes...", Toast.LENGTH_SHORT).show();
 
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            try {
-                JSONObject data = new JSONObject();
-                data.put("fullName", fullName);
-                data.put("email", email);
-                Log.d("PROFILE_UPDATE", "Updating user with ID: " + user.getUserId());
+        tasks.network(() -> {
+            JSONObject data = new JSONObject();
+            data.put("fullName", fullName);
+            data.put("email", email);
 
-
-                // ✅ Correct backend route: PUT /api/users/{userId}
-                return apiClient.put("/users/" + user.getUserId(), data);
-
-            } catch (Exception e) {
-                e.printStackTrace();
-                return new ApiResponse(false, "Error building request", null);
-            }
-        }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
+            // ✅ Correct backend route: PUT /api/users/{userId}
+            return apiClient.put("/users/" + user.getUserId(), data);
+        }, response -> {
             if (response != null && response.isSuccess()) {
                 user.setFullName(fullName);
                 user.setEmail(email);
@@ -189,6 +174,9 @@ public class OperatorProfileActivity extends AppCompatActivity {
                 String msg = (response != null) ? response.getMessage() : "Failed to update profile.";
                 Toast.makeText(OperatorProfileActivity.this, msg, Toast.LENGTH_SHORT).show();
             }
-        }
+        }, error -> {
+            Log.e("PROFILE_UPDATE", "Update failed", error);
+            Toast.makeText(OperatorProfileActivity.this, "Error building request", Toast.LENGTH_SHORT).show();
+        });
     }
 }
@@ -12,7 +12,10 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.HubConnectionManager;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
+import com.google.gson.JsonObject;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -27,8 +30,21 @@ public class OperatorUpdateSlotsActivity extends AppCompatActivity {
     private ArrayList<HashMap<String, String>> slotList = new ArrayList<>();
     private SlotAdapter adapter;
     private ApiClient apiClient;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
     private static final String TAG = "OperatorUpdateSlots";
 
+    private HubConnectionManager hub;
+    private boolean hubWasDown;
+
+    private final HubConnectionManager.SlotListener slotListener = this::applySlotChange;
+
+    // Events pushed while the socket was down are lost: reload once it is back
+    private final HubConnectionManager.StateListener stateListener = state -> {
+        if (state == HubConnectionManager.State.CONNECTED && hubWasDown) loadSlots();
+        if (state == HubConnectionManager.State.RECONNECTING) hubWasDown = true;
+        else if (state == HubConnectionManager.State.CONNECTED) hubWasDown = false;
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -48,6 +64,31 @@ public class OperatorUpdateSlotsActivity extends AppCompatActivity {
 
         swipeRefresh.setOnRefreshListener(this::loadSlots);
         loadSlots();
+
+        // Bookings, charging sessions and other operators change slot status; applied in place
+        hub = HubConnectionManager.get(this);
+        hub.addSlotListener(slotListener);
+        hub.addStateListener(stateListener);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        hub.acquire();
+    }
+
+    @Override
+    protected void onPause() {
+        hub.release();
+        super.onPause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        hub.removeSlotListener(slotListener);
+        hub.removeStateListener(stateListener);
+        super.onDestroy();
     }
 
     private void loadSlots() {
@@ -55,30 +96,30 @@ public class OperatorUpdateSlotsActivity extends AppCompatActivity {
         String stationId = session.getStationId();
         String url = "/slots/station/" + stationId;
 
-        new Thread(() -> {
+        tasks.network(() -> {
             try {
                 ApiResponse response = apiClient.get(url);
                 Log.d(TAG, "GET /slots response: " + response.getMessage());
 
                 if (response.isSuccess() && response.getData() != null) {
-                    runOnUiThread(() -> {
+                    tasks.onMain(() -> {
                         parseSlots(response.getData().toString());
                         swipeRefresh.setRefreshing(false);
                     });
                 } else {
-                    runOnUiThread(() -> {
+                    tasks.onMain(() -> {
                         swipeRefresh.setRefreshing(false);
                         Toast.makeText(this, "Failed: " + response.getMessage(), Toast.LENGTH_SHORT).show();
                     });
                 }
             } catch (Exception e) {
                 Log.e(TAG, "Error loading slots", e);
-                runOnUiThread(() -> {
+                tasks.onMain(() -> {
                     swipeRefresh.setRefreshing(false);
                     Toast.makeText(this, "Network error", Toast.LENGTH_SHORT).show();
                 });
             }
-        }).start();
+        });
     }
 
     private void parseSlots(String responseData) {
@@ -245,7 +286,7 @@ public class OperatorUpdateSlotsActivity extends AppCompatActivity {
         String slotId = slot.get("SlotId");
         String url = "/slots/" + slotId + "/status";
 
-        new Thread(() -> {
+        tasks.network(() -> {
             try {
                 JSONObject body = new JSONObject();
                 body.put("status", newStatus);
@@ -255,19 +296,46 @@ public class OperatorUpdateSlotsActivity extends AppCompatActivity {
                 Log.d(TAG, "PATCH response message: " + response.getMessage());
                 Log.d(TAG, "PATCH response data: " + response.getData());
 
-                runOnUiThread(() -> {
+                tasks.onMain(() -> {
                     if (response.isSuccess()) {
                         Toast.makeText(this, "Slot status updated to: " + newStatus, Toast.LENGTH_SHORT).show();
-                        loadSlots();
+                        setSlotStatus(slotId, newStatus);
                     } else {
                         Toast.makeText(this, "Failed: " + response.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                 });
             } catch (Exception e) {
                 Log.e(TAG, "Error updating slot status", e);
-                runOnUiThread(() ->
+                tasks.onMain(() ->
                         Toast.makeText(this, "Error updating slot status", Toast.LENGTH_SHORT).show());
             }
-        }).start();
+        });
+    }
+
+    // ---------------- Live updates ----------------
+
+    private void applySlotChange(JsonObject slot) {
+        String stationId = session.getStationId();
+        if (stationId == null || !slot.has("stationId") || !stationId.equals(slot.get("stationId").getAsString())) return;
+        String slotId = slot.has("slotId") ? slot.get("slotId").getAsString() : null;
+        String status = slot.has("status") ? slot.get("status").getAsString() : null;
+        if (slotId == null || status == null) return;
+
+        // A slot we have never listed (e.g. newly added): fetch the station's slots again
+        if (!setSlotStatus(slotId, status)) loadSlots();
+    }
+
+    /** @return false if the slot is not in the list */
+    private boolean setSlotStatus(String slotId, String status) {
+        for (HashMap<String, String> entry : slotList) {
+            if (slotId.equals(entry.get("SlotId"))) {
+                if (!status.equals(entry.get("Status"))) {
+                    entry.put("Status", status);
+                    if (adapter != null) adapter.notifyDataSetChanged();
+                }
+                return true;
+            }
+        }
+        return false;
     }
 }
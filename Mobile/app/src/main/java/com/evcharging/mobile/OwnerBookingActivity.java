@@ -4,7 +4,6 @@ import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Base64;
 import android.util.Log;
@@ -16,18 +15,17 @@ import com.evcharging.mobile.model.Station;
 import com.evcharging.mobile.model.SlotItem;
 import com.evcharging.mobile.model.TimeSlotItem;
 import com.evcharging.mobile.network.ApiClient;
-import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.network.ApiListResponse;
+import com.evcharging.mobile.service.BookingSyncService;
+import com.evcharging.mobile.service.StationCatalog;
 import com.evcharging.mobile.session.SessionManager;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.Executors;
 
 public class OwnerBookingActivity extends AppCompatActivity {
 
@@ -38,13 +36,15 @@ public class OwnerBookingActivity extends AppCompatActivity {
 
     private SessionManager sessionManager;
     private ApiClient apiClient;
-    private final Gson gson = new Gson();
+    private BookingSyncService sync;
+    private StationCatalog catalog;
 
     private String selectedType = "AC";
     private String selectedStationId;
     private String selectedSlotId;
     private String selectedTimeSlotId;
     private String selectedDateStr; // yyyy-MM-dd
+    private boolean timeSlotsStale; // showing the stored copy, not live availability
 
     private List<Station> stations = new ArrayList<>();
     private List<SlotItem> slots = new ArrayList<>();
@@ -61,6 +61,8 @@ public class OwnerBookingActivity extends AppCompatActivity {
     private double preselectedLng;
     private String preselectedLocation;
 
+    private ApiClient.CachedRequest stationsCall;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -75,6 +77,8 @@ public class OwnerBookingActivity extends AppCompatActivity {
 
         sessionManager = new SessionManager(this);
         apiClient = new ApiClient(sessionManager);
+        sync = new BookingSyncService(this, apiClient);
+        catalog = StationCatalog.get(this);
 
         Intent intent = getIntent();
         if (intent != null && intent.hasExtra("selected_station_id")) {
@@ -95,6 +99,14 @@ public class OwnerBookingActivity extends AppCompatActivity {
         highlightActiveTab("home");
     }
 
+    @Override
+    protected void onDestroy() {
+        // Abandoned screen: stop in-flight requests instead of holding sockets open
+        ApiClient.cancelAll(this);
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -196,101 +208,110 @@ public class OwnerBookingActivity extends AppCompatActivity {
     private void loadStationsByType(String selectedType) {
         Toast.makeText(this, "Fetching nearby " + selectedType + " stations...", Toast.LENGTH_SHORT).show();
 
-        Executors.newSingleThreadExecutor().execute(() -> {
-            ApiResponse res = null;
-            try {
-                res = apiClient.getNearbyStationsByType(selectedType, DEFAULT_LAT, DEFAULT_LON, DEFAULT_RADIUS);
-            } catch (Exception e) {
-                Log.e("OwnerBooking", "Error fetching stations", e);
-            }
+        // Drop the result of a previous type selection that is still in flight
+        if (stationsCall != null) stationsCall.cancel();
 
-            ApiResponse finalRes = res;
-            runOnUiThread(() -> {
-                if (finalRes == null || !finalRes.isSuccess()) {
-                    toast("Failed to fetch stations");
-                    return;
-                }
-
-                try {
-                    JSONArray arr = new JSONArray(finalRes.getData());
-                    stations.clear();
-
-                    for (int i = 0; i < arr.length(); i++) {
-                        JSONObject obj = arr.getJSONObject(i);
-                        Station s = new Station();
-                        s.setStationId(obj.optString("stationId"));
-                        s.setName(obj.optString("name"));
-                        s.setLocation(obj.optString("location"));
-                        s.setLatitude(obj.optDouble("latitude"));
-                        s.setLongitude(obj.optDouble("longitude"));
-                        s.setType(obj.optString("type"));
-                        stations.add(s);
-                    }
-
-                    // 🔹 Include preselected station (from intent) if not already present
-                    if (preselectedStationId != null) {
-                        boolean exists = false;
-                        for (Station s : stations) {
-                            if (s.getStationId().equals(preselectedStationId)) {
-                                exists = true;
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            Station pre = new Station();
-                            pre.setStationId(preselectedStationId);
-                            pre.setName(preselectedStationName + " (Selected)");
-                            pre.setLocation(preselectedLocation);
-                            pre.setLatitude(preselectedLat);
-                            pre.setLongitude(preselectedLng);
-                            pre.setType(selectedType);
-                            stations.add(0, pre); // put on top
-                        }
-                    }
+        // Local spatial index first; the server only when there is no catalog yet
+        tasks.network(() -> catalog.nearby(selectedType, DEFAULT_LAT, DEFAULT_LON, DEFAULT_RADIUS), local -> {
+            if (!selectedType.equals(this.selectedType)) return; // superseded by a newer selection
+            if (local != null) {
+                showStations(selectedType, local);
+                return;
+            }
 
-                    if (stations.isEmpty()) {
-                        toast("No nearby " + selectedType + " stations found");
+            stationsCall = apiClient.getNearbyStationsByTypeAsync(selectedType, DEFAULT_LAT, DEFAULT_LON, DEFAULT_RADIUS,
+                    this, finalRes -> {
+                    if (finalRes == null || !finalRes.isSuccess()) {
+                        toast("Failed to fetch stations");
                         return;
                     }
 
-                    ArrayAdapter<String> stnAdapter = new ArrayAdapter<>(
-                            this,
-                            android.R.layout.simple_spinner_item,
-                            stations.stream().map(Station::getName).toArray(String[]::new)
-                    );
-                    stnAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    spnStation.setAdapter(stnAdapter);
-
-                    // 🔹 Preselect the station that came from the intent
-                    if (preselectedStationId != null) {
-                        for (int i = 0; i < stations.size(); i++) {
-                            if (stations.get(i).getStationId().equals(preselectedStationId)) {
-                                spnStation.setSelection(i);
-                                selectedStationId = preselectedStationId;
-                                break;
-                            }
+                    try {
+                        JSONArray arr = new JSONArray(finalRes.getData());
+                        List<Station> fetched = new ArrayList<>();
+
+                        for (int i = 0; i < arr.length(); i++) {
+                            JSONObject obj = arr.getJSONObject(i);
+                            Station s = new Station();
+                            s.setStationId(obj.optString("stationId"));
+                            s.setName(obj.optString("name"));
+                            s.setLocation(obj.optString("location"));
+                            s.setLatitude(obj.optDouble("latitude"));
+                            s.setLongitude(obj.optDouble("longitude"));
+                            s.setType(obj.optString("type"));
+                            fetched.add(s);
                         }
+                        showStations(selectedType, fetched);
+
+                    } catch (Exception e) {
+                        Log.e("OwnerBooking", "JSON parse error", e);
+                        toast("Error parsing station data");
                     }
+            });
+        });
+    }
 
-                    // 🔹 Handle selection change
-                    spnStation.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                        @Override
-                        public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                            selectedStationId = stations.get(position).getStationId();
-                            clearSlots();
-                            clearTimeSlots();
-                        }
-                        @Override public void onNothingSelected(AdapterView<?> parent) {}
-                    });
+    private void showStations(String selectedType, List<Station> found) {
+        stations.clear();
+        stations.addAll(found);
+
+        // 🔹 Include preselected station (from intent) if not already present
+        if (preselectedStationId != null) {
+            boolean exists = false;
+            for (Station s : stations) {
+                if (s.getStationId().equals(preselectedStationId)) {
+                    exists = true;
+                    break;
+                }
+            }
+            if (!exists) {
+                Station pre = new Station();
+                pre.setStationId(preselectedStationId);
+                pre.setName(preselectedStationName + " (Selected)");
+                pre.setLocation(preselectedLocation);
+                pre.setLatitude(preselectedLat);
+                pre.setLongitude(preselectedLng);
+                pre.setType(selectedType);
+                stations.add(0, pre); // put on top
+            }
+        }
 
-                    toast(arr.length() + " stations found");
+        if (stations.isEmpty()) {
+            toast("No nearby " + selectedType + " stations found");
+            return;
+        }
 
-                } catch (Exception e) {
-                    Log.e("OwnerBooking", "JSON parse error", e);
-                    toast("Error parsing station data");
+        ArrayAdapter<String> stnAdapter = new ArrayAdapter<>(
+                this,
+                android.R.layout.simple_spinner_item,
+                stations.stream().map(Station::getName).toArray(String[]::new)
+        );
+        stnAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spnStation.setAdapter(stnAdapter);
+
+        // 🔹 Preselect the station that came from the intent
+        if (preselectedStationId != null) {
+            for (int i = 0; i < stations.size(); i++) {
+                if (stations.get(i).getStationId().equals(preselectedStationId)) {
+                    spnStation.setSelection(i);
+                    selectedStationId = preselectedStationId;
+                    break;
                 }
-            });
+            }
+        }
+
+        // 🔹 Handle selection change
+        spnStation.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                selectedStationId = stations.get(position).getStationId();
+                clearSlots();
+                clearTimeSlots();
+            }
+            @Override public void onNothingSelected(AdapterView<?> parent) {}
         });
+
+        toast(found.size() + " stations found");
     }
 
     private void setupDatePicker() {
@@ -328,136 +349,86 @@ public class OwnerBookingActivity extends AppCompatActivity {
     private void loadSlotsForStation(String stationId) {
         clearSlots();
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected void onPreExecute() {
-                Toast.makeText(OwnerBookingActivity.this, "Fetching slots...", Toast.LENGTH_SHORT).show();
-            }
+        Toast.makeText(OwnerBookingActivity.this, "Fetching slots...", Toast.LENGTH_SHORT).show();
+        tasks.network(() -> {
+            ApiListResponse<SlotItem> res = sync.fetchSlots(stationId);
+            if (res.isSuccess()) return res;
+            return apiClient.getStationSlotList(stationId);
+        }, res -> {
+            if (res == null || !res.isSuccess()) { toast("Failed to fetch slots"); return; }
 
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                try {
-                    ApiResponse res = apiClient.getSlotsByStation(stationId);
-                    if (res != null && res.isSuccess()) return res;
-                    return apiClient.getStationPublic(stationId);
-                } catch (Exception e) {
-                    Log.e("OwnerBooking", "Error fetching slots", e);
-                    return null;
-                }
-            }
-
-            @Override
-            protected void onPostExecute(ApiResponse res) {
-                if (res == null) { toast("Failed to fetch slots"); return; }
-
-                List<SlotItem> slotList = new ArrayList<>();
-                try {
-                    JSONArray arr;
-                    if (res.getData().trim().startsWith("[")) {
-                        arr = new JSONArray(res.getData());
-                    } else {
-                        JSONObject stationObj = new JSONObject(res.getData());
-                        arr = stationObj.optJSONArray("slots");
-                    }
-
-                    if (arr == null) {
-                        tvHints.setText("No slots available for this station");
-                        return;
-                    }
-
-                    for (int i = 0; i < arr.length(); i++) {
-                        JSONObject o = arr.getJSONObject(i);
-                        SlotItem s = new SlotItem();
-                        s.slotId = o.optString("slotId");
-                        s.number = o.optString("number");
-                        s.status = o.optString("status");
-                        s.connectorType = o.optString("connectorType");
-                        slotList.add(s);
+            try {
+                List<SlotItem> slotList = res.getItems();
+                if (slotList.isEmpty()) { tvHints.setText("No slots found."); return; }
+
+                slots = slotList;
+                ArrayAdapter<String> slotAdapter = new ArrayAdapter<>(
+                        OwnerBookingActivity.this,
+                        android.R.layout.simple_spinner_item,
+                        slots.stream().map(SlotItem::toString).toArray(String[]::new)
+                );
+                slotAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                spnSlot.setAdapter(slotAdapter);
+
+                spnSlot.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                        selectedSlotId = slots.get(position).slotId;
+                        loadTimeslotsFor(stationId, selectedSlotId, selectedDateStr);
                     }
-
-                    if (slotList.isEmpty()) { tvHints.setText("No slots found."); return; }
-
-                    slots = slotList;
-                    ArrayAdapter<String> slotAdapter = new ArrayAdapter<>(
-                            OwnerBookingActivity.this,
-                            android.R.layout.simple_spinner_item,
-                            slots.stream().map(SlotItem::toString).toArray(String[]::new)
-                    );
-                    slotAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    spnSlot.setAdapter(slotAdapter);
-
-                    spnSlot.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                        @Override
-                        public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                            selectedSlotId = slots.get(position).slotId;
-                            loadTimeslotsFor(stationId, selectedSlotId, selectedDateStr);
-                        }
-                        @Override public void onNothingSelected(AdapterView<?> parent) {}
-                    });
-                } catch (Exception e) {
-                    Log.e("OwnerBooking", "Parse slots failed", e);
-                    tvHints.setText("Error parsing slot data.");
-                }
+                    @Override public void onNothingSelected(AdapterView<?> parent) {}
+                });
+            } catch (Exception e) {
+                Log.e("OwnerBooking", "Parse slots failed", e);
+                tvHints.setText("Error parsing slot data.");
             }
-        }.execute();
+        });
     }
 
     private void loadTimeslotsFor(String stationId, String slotId, String dateYmd) {
         clearTimeSlots();
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected void onPreExecute() {
-                Toast.makeText(OwnerBookingActivity.this, "Fetching time slots...", Toast.LENGTH_SHORT).show();
-            }
-
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                try {
-                    String endpoint = String.format("/timeslot?stationId=%s&slotId=%s&date=%s", stationId, slotId, dateYmd);
-                    return apiClient.get(endpoint);
-                } catch (Exception e) {
-                    Log.e("OwnerBooking", "Error fetching timeslots", e);
-                    return null;
-                }
-            }
+        Toast.makeText(OwnerBookingActivity.this, "Fetching time slots...", Toast.LENGTH_SHORT).show();
+        tasks.network(() -> sync.fetchTimeSlots(stationId, slotId, dateYmd), res -> {
+            if (res == null) { toast("Failed to fetch timeslots"); return; }
 
-            @Override
-            protected void onPostExecute(ApiResponse res) {
-                if (res == null) { toast("Failed to fetch timeslots"); return; }
+            if (!res.isSuccess()) { toast("No timeslots available"); return; }
 
-                if (!res.isSuccess()) { toast("No timeslots available"); return; }
+            try {
+                List<TimeSlotItem> fetched = res.getItems();
+                if (fetched.isEmpty()) {
+                    toast("No available time slots for this date");
+                    return;
+                }
 
-                try {
-                    Type t = new TypeToken<List<TimeSlotItem>>(){}.getType();
-                    List<TimeSlotItem> fetched = gson.fromJson(res.getData(), t);
-                    if (fetched == null || fetched.isEmpty()) {
-                        toast("No available time slots for this date");
-                        return;
+                timeSlots = fetched;
+                // A stored copy only shows what was free when last fetched: view it, but book from live data
+                timeSlotsStale = res.isStale();
+                btnConfirmBooking.setEnabled(!timeSlotsStale);
+                tvHints.setText(timeSlotsStale
+                        ? "Offline: these times may already be taken. Reconnect to book."
+                        : "");
+
+                ArrayAdapter<String> tsAdapter = new ArrayAdapter<>(
+                        OwnerBookingActivity.this,
+                        android.R.layout.simple_spinner_item,
+                        timeSlots.stream().map(TimeSlotItem::toString).toArray(String[]::new)
+                );
+                tsAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                spnTimeSlot.setAdapter(tsAdapter);
+
+                spnTimeSlot.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                        selectedTimeSlotId = timeSlots.get(position).timeSlotId;
                     }
-
-                    timeSlots = fetched;
-                    ArrayAdapter<String> tsAdapter = new ArrayAdapter<>(
-                            OwnerBookingActivity.this,
-                            android.R.layout.simple_spinner_item,
-                            timeSlots.stream().map(TimeSlotItem::toString).toArray(String[]::new)
-                    );
-                    tsAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    spnTimeSlot.setAdapter(tsAdapter);
-
-                    spnTimeSlot.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                        @Override
-                        public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                            selectedTimeSlotId = timeSlots.get(position).timeSlotId;
-                        }
-                        @Override public void onNothingSelected(AdapterView<?> parent) {}
-                    });
-                } catch (Exception e) {
-                    Log.e("OwnerBooking", "Failed to parse timeslots", e);
-                    toast("Timeslot parse error");
-                }
+                    @Override public void onNothingSelected(AdapterView<?> parent) {}
+                });
+            } catch (Exception e) {
+                Log.e("OwnerBooking", "Failed to parse timeslots", e);
+                toast("Timeslot parse error");
             }
-        }.execute();
+        });
     }
 
     private void setupConfirm() {
@@ -466,46 +437,42 @@ public class OwnerBookingActivity extends AppCompatActivity {
                 toast("Please complete all selections");
                 return;
             }
+            if (timeSlotsStale) {
+                toast("Time slots are from an offline copy. Reconnect to book.");
+                return;
+            }
 
-            new AsyncTask<Void, Void, ApiResponse>() {
-                @Override
-                protected void onPreExecute() {
-                    Toast.makeText(OwnerBookingActivity.this, "Creating booking...", Toast.LENGTH_SHORT).show();
-                }
-
-                @Override
-                protected ApiResponse doInBackground(Void... voids) {
-                    try {
-                        return apiClient.createBooking(selectedStationId, selectedTimeSlotId, selectedSlotId);
-                    } catch (Exception e) {
-                        Log.e("OwnerBooking", "Booking error", e);
-                        return null;
-                    }
+            Toast.makeText(OwnerBookingActivity.this, "Creating booking...", Toast.LENGTH_SHORT).show();
+            tasks.network(() -> {
+                try {
+                    return apiClient.createBooking(selectedStationId, selectedTimeSlotId, selectedSlotId);
+                } catch (Exception e) {
+                    Log.e("OwnerBooking", "Booking error", e);
+                    return null;
                 }
+            }, res -> {
+                if (res == null) { toast("Network error while creating booking"); return; }
+                if (!res.isSuccess()) { toast("Booking failed: " + res.getMessage()); return; }
 
-                @Override
-                protected void onPostExecute(ApiResponse res) {
-                    if (res == null) { toast("Network error while creating booking"); return; }
-                    if (!res.isSuccess()) { toast("Booking failed: " + res.getMessage()); return; }
-
-                    try {
-                        JSONObject bookingObj = new JSONObject(res.getData());
-                        String qrBase64 = bookingObj.optString("qrImageBase64");
-
-                        if (qrBase64 != null && !qrBase64.isEmpty()) {
-                            Intent intent = new Intent(OwnerBookingActivity.this, BookingConfirmationActivity.class);
-                            intent.putExtra("qrBitmap", qrBase64);
-                            startActivity(intent);
-                            toast("✅ Booking created successfully!");
-                        } else {
-                            toast("Booking created, but no QR found");
-                        }
-                    } catch (Exception e) {
-                        Log.e("BookingConfirm", "QR decode error", e);
-                        toast("Error showing QR code");
+                try {
+                    JSONObject bookingObj = new JSONObject(res.getData());
+                    // Only the short token travels; the confirmation screen draws the QR from it
+                    String qrCode = bookingObj.optString("qrCode");
+
+                    if (qrCode != null && !qrCode.isEmpty()) {
+                        Intent intent = new Intent(OwnerBookingActivity.this, BookingConfirmationActivity.class);
+                        intent.putExtra("qrCode", qrCode);
+                        intent.putExtra("bookingId", bookingObj.optString("bookingId"));
+                        startActivity(intent);
+                        toast("✅ Booking created successfully!");
+                    } else {
+                        toast("Booking created, but no QR found");
                     }
+                } catch (Exception e) {
+                    Log.e("BookingConfirm", "QR decode error", e);
+                    toast("Error showing QR code");
                 }
-            }.execute();
+            });
         });
     }
 
@@ -519,6 +486,8 @@ public class OwnerBookingActivity extends AppCompatActivity {
         timeSlots.clear();
         spnTimeSlot.setAdapter(null);
         selectedTimeSlotId = null;
+        timeSlotsStale = false;
+        btnConfirmBooking.setEnabled(true);
     }
 
     private void toast(String m) { Toast.makeText(this, m, Toast.LENGTH_SHORT).show(); }
@@ -2,11 +2,9 @@ package com.evcharging.mobile;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Bundle;
-import android.util.Base64;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
@@ -17,17 +15,14 @@ import androidx.core.content.FileProvider;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.evcharging.mobile.network.ApiClient;
-import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.BookingSyncService;
 import com.evcharging.mobile.session.SessionManager;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.evcharging.mobile.utils.QrImageCache;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
 
 public class OwnerBookingDetailsActivity extends AppCompatActivity {
 
@@ -38,18 +33,20 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
 
     private SessionManager session;
     private ApiClient api;
+    private BookingSyncService sync;
 
     private String bookingId, stationId, status, qrBase64;
     private int slotNumber;
     private long startMs, endMs;
 
-    private final SimpleDateFormat fmt = new SimpleDateFormat("dd MMM yyyy, h:mm a", Locale.getDefault());
-    private Bitmap qrBitmap;
+    private QrImageCache.Qr qr;
     private com.evcharging.mobile.model.BookingItem currentBooking;
     private com.evcharging.mobile.network.ApiClient apiClient;
     private TextView tvReason;
 
 
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
     @Override
     protected void onCreate(Bundle b) {
         super.onCreate(b);
@@ -57,6 +54,7 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
 
         session = new SessionManager(this);
         api = new ApiClient(session);
+        sync = new BookingSyncService(this, api);
 
         swipeRefresh = findViewById(R.id.swipeRefresh);
         tvStatus = findViewById(R.id.tvStatus);
@@ -83,11 +81,12 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
             currentBooking.setStatus(getIntent().getStringExtra("status"));
             currentBooking.setStartTime(getIntent().getStringExtra("start"));
             currentBooking.setEndTime(getIntent().getStringExtra("end"));
-            currentBooking.setQrImageBase64(getIntent().getStringExtra("qrBase64"));
+            currentBooking.setQrCode(getIntent().getStringExtra("qrCode"));
         }
 
         // --- Display Data ---
         if (currentBooking != null) {
+            bookingId = currentBooking.getBookingId();
             tvStatus.setText("Status: " + currentBooking.getStatus());
             if (currentBooking.getStatus().equalsIgnoreCase("Cancelled")) {
                 String reason = currentBooking.getCancellationReason();
@@ -114,8 +113,8 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
                 tvTime.setText("Time: -");
             }
 
-            if (currentBooking.getQrImageBase64() != null && !currentBooking.getQrImageBase64().isEmpty()) {
-                renderQr(currentBooking.getQrImageBase64());
+            if (currentBooking.getQrCode() != null && !currentBooking.getQrCode().isEmpty()) {
+                renderQr(currentBooking.getQrCode());
             }
         }
 
@@ -129,6 +128,12 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
         setupFooterNavigation();
         highlightActiveTab("bookings");
     }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -212,93 +217,77 @@ public class OwnerBookingDetailsActivity extends AppCompatActivity {
 
     private void refreshFromServer() {
         swipeRefresh.setRefreshing(true);
-        new AsyncTask<Void, Void, JSONObject>() {
-            @Override protected JSONObject doInBackground(Void... voids) {
-                String ownerId = session.getLoggedInUser() != null ? session.getLoggedInUser().getUserId() : null;
-                ApiResponse res = api.getBookingsByOwner(ownerId);
-                if (res == null || !res.isSuccess()) return null;
-                try {
-                    JSONArray arr = new JSONArray(res.getData());
-                    for (int i = 0; i < arr.length(); i++) {
-                        JSONObject o = arr.getJSONObject(i);
-                        String id = o.optString("bookingId", o.optString("_id", null));
-                        if (bookingId != null && bookingId.equals(id)) return o;
-                    }
-                } catch (Exception ignored) {}
-                return null;
-            }
-
-            @Override protected void onPostExecute(JSONObject o) {
-                swipeRefresh.setRefreshing(false);
-                if (o == null) return;
-                status = o.optString("status", status);
-                tvStatus.setText("Status: " + status);
-                String b64 = o.optString("qrImageBase64", null);
-                if (b64 != null && !b64.isEmpty()) renderQr(b64);
-            }
-        }.execute();
+        // Single booking by id (falls back to the stored copy when offline)
+        tasks.network(() -> sync.refreshBooking(bookingId), b -> {
+            swipeRefresh.setRefreshing(false);
+            if (b == null) return;
+            if (b.getStatus() != null) status = b.getStatus();
+            tvStatus.setText("Status: " + status);
+            String qrCode = b.getQrCode();
+            if (qrCode != null && !qrCode.isEmpty()) renderQr(qrCode);
+        });
     }
 
     private void refreshBookingDetails() {
-        new android.os.AsyncTask<Void, Void, com.evcharging.mobile.network.ApiResponse>() {
-            @Override
-            protected com.evcharging.mobile.network.ApiResponse doInBackground(Void... voids) {
-                try {
-                    String bookingId = currentBooking.getBookingId();
-                    return apiClient.get("/bookings/" + bookingId);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return null;
-                }
+        tasks.network(() -> {
+            try {
+                String bookingId = currentBooking.getBookingId();
+                return apiClient.get("/bookings/" + bookingId);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return null;
             }
+        }, res -> {
+            if (res == null || !res.isSuccess()) return;
 
-            @Override
-            protected void onPostExecute(com.evcharging.mobile.network.ApiResponse res) {
-                if (res == null || !res.isSuccess()) return;
-
-                try {
-                    org.json.JSONObject obj = new org.json.JSONObject(res.getData());
-                    String newStatus = obj.optString("status", "Pending");
-                    tvStatus.setText("Status: " + newStatus);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+            try {
+                org.json.JSONObject obj = new org.json.JSONObject(res.getData());
+                String newStatus = obj.optString("status", "Pending");
+                tvStatus.setText("Status: " + newStatus);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-        }.execute();
+        });
     }
 
 
-    private void renderQr(String base64) {
-        try {
-            byte[] bytes = Base64.decode(base64, Base64.DEFAULT);
-            qrBitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
-            ivQr.setImageBitmap(qrBitmap);
-        } catch (Exception ignored) {}
+    private void renderQr(String qrCode) {
+        QrImageCache.load(tasks, ivQr, bookingId, qrCode, null, loaded -> qr = loaded);
     }
 
     private void shareQr() {
-        if (qrBitmap == null) return;
-
-        try {
-            File cachePath = new File(getCacheDir(), "images");
-            cachePath.mkdirs();
-            File file = new File(cachePath, "qr_share.png");
-            try (FileOutputStream stream = new FileOutputStream(file)) {
-                qrBitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
-            }
+        if (qr == null) return;
 
-            Uri contentUri = FileProvider.getUriForFile(this,
-                    getPackageName() + ".fileprovider", file);
+        // Written off the main thread; a server PNG is shared as-is, a drawn code is encoded once
+        QrImageCache.Qr shared = qr;
+        tasks.disk(() -> {
+            File file = new File(new File(getCacheDir(), "images"), "qr_share.png");
+            try {
+                file.getParentFile().mkdirs();
+                try (FileOutputStream stream = new FileOutputStream(file)) {
+                    if (shared.png != null) {
+                        stream.write(shared.png);
+                    } else {
+                        shared.bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+                    }
+                }
+            } catch (Exception e) {
+                Log.e("OwnerBookingDetails", "Could not write QR for sharing", e);
+                return;
+            }
+            tasks.onMain(() -> startShare(file));
+        });
+    }
 
-            Intent shareIntent = new Intent(Intent.ACTION_SEND);
-            shareIntent.setType("image/png");
-            shareIntent.putExtra(Intent.EXTRA_STREAM, contentUri);
-            shareIntent.putExtra(Intent.EXTRA_TEXT, "Booking ID: " + bookingId);
-            shareIntent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
-            startActivity(Intent.createChooser(shareIntent, "Share QR Code via"));
+    private void startShare(File file) {
+        Uri contentUri = FileProvider.getUriForFile(this,
+                getPackageName() + ".fileprovider", file);
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        Intent shareIntent = new Intent(Intent.ACTION_SEND);
+        shareIntent.setType("image/png");
+        shareIntent.putExtra(Intent.EXTRA_STREAM, contentUri);
+        shareIntent.putExtra(Intent.EXTRA_TEXT, "Booking ID: " + bookingId);
+        shareIntent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        startActivity(Intent.createChooser(shareIntent, "Share QR Code via"));
     }
 }
@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.ImageButton;
@@ -19,12 +18,13 @@ import com.evcharging.mobile.adapter.OwnerBookingAdapter;
 import com.evcharging.mobile.model.BookingItem;
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
-import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.service.BookingSyncService;
+import com.evcharging.mobile.service.HubConnectionManager;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonObject;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,7 +36,20 @@ public class OwnerBookingsActivity extends AppCompatActivity {
     private List<BookingItem> bookings = new ArrayList<>();
     private ApiClient apiClient;
     private SessionManager session;
+    private BookingSyncService sync;
+    private HubConnectionManager hub;
+    private boolean hubWasDown;
     private final Gson gson = new Gson();
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
+    private final HubConnectionManager.BookingListener bookingListener = this::applyBookingChange;
+
+    // Events pushed while the socket was down are lost: one delta sync once it is back
+    private final HubConnectionManager.StateListener stateListener = state -> {
+        if (state == HubConnectionManager.State.CONNECTED && hubWasDown) fetchBookings();
+        if (state == HubConnectionManager.State.RECONNECTING) hubWasDown = true;
+        else if (state == HubConnectionManager.State.CONNECTED) hubWasDown = false;
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -55,6 +68,8 @@ public class OwnerBookingsActivity extends AppCompatActivity {
 
         session = new SessionManager(this);
         apiClient = new ApiClient(session);
+        sync = new BookingSyncService(this, apiClient);
+        hub = HubConnectionManager.get(this);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         adapter = new OwnerBookingAdapter(bookings, this::openDetails);
@@ -62,10 +77,34 @@ public class OwnerBookingsActivity extends AppCompatActivity {
 
         swipeRefreshLayout.setOnRefreshListener(this::fetchBookings);
         fetchBookings();
+
+        // Status changes arrive as hub events and are applied in place (no re-polling)
+        hub.addBookingListener(bookingListener);
+        hub.addStateListener(stateListener);
         setupFooterNavigation();
         highlightActiveTab("bookings");
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        hub.acquire();
+    }
+
+    @Override
+    protected void onPause() {
+        hub.release();
+        super.onPause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        hub.removeBookingListener(bookingListener);
+        hub.removeStateListener(stateListener);
+        super.onDestroy();
+    }
+
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -141,48 +180,82 @@ public class OwnerBookingsActivity extends AppCompatActivity {
     private void fetchBookings() {
         swipeRefreshLayout.setRefreshing(true);
 
-        new AsyncTask<Void, Void, ApiResponse>() {
-            @Override
-            protected ApiResponse doInBackground(Void... voids) {
-                try {
-                    User loggedUser = session.getLoggedInUser();
-                    String ownerId = (loggedUser != null) ? loggedUser.getUserId() : null; // Make sure this matches OwnerId in DB
-                    return apiClient.get("/bookings/owner/" + ownerId);
-                } catch (Exception e) {
-                    Log.e("OwnerBookings", "Error fetching bookings", e);
-                    return null;
-                }
-            }
+        User loggedUser = session.getLoggedInUser();
+        String ownerId = (loggedUser != null) ? loggedUser.getUserId() : null; // Make sure this matches OwnerId in DB
+        if (ownerId == null) {
+            swipeRefreshLayout.setRefreshing(false);
+            Toast.makeText(this, "Failed to load bookings", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            @Override
-            protected void onPostExecute(ApiResponse res) {
-                swipeRefreshLayout.setRefreshing(false);
-                if (res == null || !res.isSuccess()) {
-                    Toast.makeText(OwnerBookingsActivity.this, "Failed to load bookings", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-
-                try {
-                    Type listType = new TypeToken<List<BookingItem>>() {}.getType();
-                    List<BookingItem> fetched = gson.fromJson(res.getData(), listType);
-
-                    // Show only Pending / Approved / Charging
-                    bookings.clear();
-                    for (BookingItem b : fetched) {
-                        if (b.getStatus().equalsIgnoreCase("Pending")
-                                || b.getStatus().equalsIgnoreCase("Approved")
-                                || b.getStatus().equalsIgnoreCase("Charging")) {
-                            bookings.add(b);
+        // Stored copy renders first; the list re-renders once the server sync lands
+        tasks.disk(() -> {
+            List<BookingItem> local = sync.getStore().getOwnerBookings(ownerId);
+            tasks.onMain(() -> {
+                if (!local.isEmpty()) showBookings(local);
+            });
+
+            tasks.network(() -> sync.syncOwnerBookings(ownerId) ? sync.getStore().getOwnerBookings(ownerId) : null,
+                    fresh -> {
+                        swipeRefreshLayout.setRefreshing(false);
+                        if (fresh == null) {
+                            Toast.makeText(OwnerBookingsActivity.this, bookings.isEmpty()
+                                    ? "Failed to load bookings" : "Offline - showing saved bookings", Toast.LENGTH_SHORT).show();
+                            return;
                         }
-                    }
+                        showBookings(fresh);
+                    });
+        });
+    }
 
-                    adapter.notifyDataSetChanged();
-                } catch (Exception e) {
-                    Log.e("OwnerBookings", "Parse error", e);
-                    Toast.makeText(OwnerBookingsActivity.this, "Error parsing bookings", Toast.LENGTH_SHORT).show();
-                }
+    private void showBookings(List<BookingItem> all) {
+        // Show only Pending / Approved / Charging
+        bookings.clear();
+        for (BookingItem b : all) {
+            if (isActive(b)) bookings.add(b);
+        }
+        // Diffed by bookingId off the main thread; only changed rows rebind
+        adapter.setData(bookings);
+    }
+
+    // ---------------- Live updates ----------------
+    private void applyBookingChange(JsonObject json) {
+        BookingItem changed = gson.fromJson(json, BookingItem.class);
+        User loggedUser = session.getLoggedInUser();
+        if (changed == null || changed.getBookingId() == null || loggedUser == null
+                || !loggedUser.getUserId().equals(changed.getOwnerId())) return;
+
+        int index = -1;
+        for (int i = 0; i < bookings.size(); i++) {
+            if (changed.getBookingId().equals(bookings.get(i).getBookingId())) {
+                index = i;
+                break;
             }
-        }.execute();
+        }
+
+        if (!isActive(changed)) {
+            if (index < 0) return;
+            bookings.remove(index);
+        } else if (index >= 0) {
+            bookings.set(index, changed);
+        } else {
+            // Keep the stored order: newest start time first (ISO strings sort chronologically)
+            int at = 0;
+            String start = changed.getStartTime() != null ? changed.getStartTime() : "";
+            while (at < bookings.size() && start.compareTo(
+                    bookings.get(at).getStartTime() != null ? bookings.get(at).getStartTime() : "") < 0) {
+                at++;
+            }
+            bookings.add(at, changed);
+        }
+        adapter.setData(bookings);
+    }
+
+    private static boolean isActive(BookingItem b) {
+        String status = b.getStatus();
+        return "Pending".equalsIgnoreCase(status)
+                || "Approved".equalsIgnoreCase(status)
+                || "Charging".equalsIgnoreCase(status);
     }
 
     private void openDetails(BookingItem booking) {
@@ -1,7 +1,5 @@
 package com.evcharging.mobile;
 
-import android.annotation.SuppressLint;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -12,12 +10,14 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.service.OwnerService;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 public class OwnerEditProfileActivity extends AppCompatActivity {
 
     private EditText etName, etEmail, etPhone;
     private Button btnSaveChanges;
     private OwnerService ownerService;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     // For testing - you can replace this with sessionManager.getNic() later
     private String nic = "2000123456";
@@ -32,34 +32,33 @@ public class OwnerEditProfileActivity extends AppCompatActivity {
         etPhone = findViewById(R.id.etPhone);
         btnSaveChanges = findViewById(R.id.btnSaveChanges);
 
-        ownerService = new OwnerService();
+        ownerService = new OwnerService(this);
 
-        btnSaveChanges.setOnClickListener(v -> new UpdateProfileTask().execute());
+        btnSaveChanges.setOnClickListener(v -> updateProfile());
     }
 
-    private class UpdateProfileTask extends AsyncTask<Void, Void, ApiResponse> {
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            @SuppressLint("WrongThread")
-            String fullName = etName.getText().toString().trim();
-            @SuppressLint("WrongThread")
-            String email = etEmail.getText().toString().trim();
-            @SuppressLint("WrongThread")
-            String phone = etPhone.getText().toString().trim();
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
 
-            if (fullName.isEmpty() || email.isEmpty() || phone.isEmpty()) {
-                return new ApiResponse(false, "All fields are required", null);
-            }
+    private void updateProfile() {
+        String fullName = etName.getText().toString().trim();
+        String email = etEmail.getText().toString().trim();
+        String phone = etPhone.getText().toString().trim();
 
-            return ownerService.updateEvOwner(nic, fullName, email, phone);
+        if (fullName.isEmpty() || email.isEmpty() || phone.isEmpty()) {
+            Toast.makeText(this, "All fields are required", Toast.LENGTH_SHORT).show();
+            return;
         }
 
-        @Override
-        protected void onPostExecute(ApiResponse response) {
+        tasks.network(() -> ownerService.updateEvOwner(nic, fullName, email, phone), response -> {
             Toast.makeText(OwnerEditProfileActivity.this, response.getMessage(), Toast.LENGTH_SHORT).show();
             if (response.isSuccess()) {
                 finish();
             }
-        }
+        }, error -> Toast.makeText(OwnerEditProfileActivity.this,
+                "Failed to update profile: " + error.getMessage(), Toast.LENGTH_SHORT).show());
     }
 }
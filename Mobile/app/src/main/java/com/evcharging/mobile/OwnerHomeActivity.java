@@ -1,11 +1,12 @@
 package com.evcharging.mobile;
 
 import android.Manifest;
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.os.Build;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
@@ -15,6 +16,7 @@ import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
 import android.widget.Button;
+import android.widget.Filter;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -26,36 +28,45 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.core.app.ActivityCompat;
-import androidx.core.app.NotificationCompat;
 
 import com.evcharging.mobile.model.Notification;
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
-import com.evcharging.mobile.service.SignalRService;
+import com.evcharging.mobile.service.HubConnectionManager;
+import com.evcharging.mobile.service.NotificationSyncService;
+import com.evcharging.mobile.service.NotificationTray;
 import com.evcharging.mobile.session.SessionManager;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.MapView;
 import com.google.android.gms.maps.OnMapReadyCallback;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import android.location.Location;
 import com.evcharging.mobile.model.Station;
+import com.evcharging.mobile.service.StationCatalog;
+import com.evcharging.mobile.service.StationSearch;
 import com.evcharging.mobile.service.StationService;
+import com.evcharging.mobile.utils.MarkerPlanner;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.OnSuccessListener;
 
 public class OwnerHomeActivity extends AppCompatActivity
-                implements OnMapReadyCallback, SignalRService.NotificationListener {
+                implements OnMapReadyCallback, HubConnectionManager.NotificationListener {
 
         private static final String MAP_VIEW_BUNDLE_KEY = "MapViewBundleKey";
-        private static final String CHANNEL_ID = "ev_notifications";
         private FusedLocationProviderClient fusedLocationClient;
 
         private MapView mapView;
@@ -64,28 +75,42 @@ public class OwnerHomeActivity extends AppCompatActivity
         private ImageView ivProfile;
         private TextView tvWelcomeOwner, tvOwnerId;
 
-        private SignalRService signalRService;
+        private HubConnectionManager hub;
         private ApiClient apiClient;
         private TextView tvNotificationCount;
-        private int notificationCount = 0;
+        private NotificationSyncService notificationSync;
 
         private GoogleMap googleMap;
         private StationService stationService;
         private Location cachedLocation;
         private AutoCompleteTextView searchStations;
+        private ArrayAdapter<Station> suggestionAdapter;
+        private StationSearch stationSearch;
         private Spinner spinnerStationType;
         private String selectedStationType = "DC";
         private Station selectedStation;
 
         private Button btnMyBookings, btnChargingHistory;
 
+        private MarkerPlanner markerPlanner;
+        private final Map<String, Marker> markers = new HashMap<>();
+        private final Map<String, BitmapDescriptor> clusterIcons = new HashMap<>();
+        private int markerGeneration;
+        private Station focusStation;
+        private Marker focusMarker;
+
+        private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+
         @Override
         protected void onCreate(Bundle savedInstanceState) {
                 super.onCreate(savedInstanceState);
 
                 // Initialize services
                 apiClient = new ApiClient(new SessionManager(this));
-                stationService = new StationService(apiClient);
+                notificationSync = new NotificationSyncService(this, apiClient);
+                StationCatalog catalog = StationCatalog.get(this);
+                stationService = new StationService(apiClient, catalog);
+                markerPlanner = new MarkerPlanner(catalog::getIndex);
 
                 setContentView(R.layout.activity_owner_home);
 
@@ -118,15 +143,15 @@ public class OwnerHomeActivity extends AppCompatActivity
                 mapView.onCreate(mapViewBundle);
                 mapView.getMapAsync(this);
 
-                // --- SignalR ---
-                signalRService = new SignalRService(this);
-                signalRService.setNotificationListener(this);
+                // --- SignalR (app-wide connection, held while this screen is resumed) ---
+                hub = HubConnectionManager.get(this);
+                hub.addNotificationListener(this);
 
                 btnMyBookings = findViewById(R.id.btnMyBookings);
                 btnChargingHistory = findViewById(R.id.btnChargingHistory);
 
                 // --- Notification channel ---
-                createNotificationChannel();
+                NotificationTray.createChannel(this);
 
                 // --- Button actions ---
                 setupButtonActions();
@@ -232,8 +257,10 @@ public class OwnerHomeActivity extends AppCompatActivity
                         @Override
                         public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                                 String selectedType = stationTypes[position];
-                                // You can trigger a search update here if needed
-                                // fetchStationSuggestions(searchStations.getText().toString().trim());
+                                // Load this type's catalog once so typing filters it locally
+                                stationSearch.prefetch(selectedType);
+                                String query = searchStations.getText().toString().trim();
+                                if (!query.isEmpty()) stationSearch.search(selectedType, query);
                         }
 
                         @Override
@@ -245,6 +272,36 @@ public class OwnerHomeActivity extends AppCompatActivity
 
 
         private void setupStationSearch() {
+                // Results replace the list as-is; the adapter must not filter them again
+                suggestionAdapter = new ArrayAdapter<Station>(this, android.R.layout.simple_dropdown_item_1line,
+                        new ArrayList<>()) {
+                        private final Filter passThrough = new Filter() {
+                                @Override
+                                protected FilterResults performFiltering(CharSequence constraint) {
+                                        return new FilterResults();
+                                }
+
+                                @Override
+                                protected void publishResults(CharSequence constraint, FilterResults results) {
+                                        notifyDataSetChanged();
+                                }
+                        };
+
+                        @NonNull
+                        @Override
+                        public Filter getFilter() {
+                                return passThrough;
+                        }
+                };
+                searchStations.setAdapter(suggestionAdapter);
+
+                // Debounced, cancellable and cached (see StationSearch)
+                stationSearch = new StationSearch(apiClient, this, (query, stations) -> {
+                        suggestionAdapter.clear();
+                        suggestionAdapter.addAll(stations);
+                        if (!stations.isEmpty() && searchStations.hasFocus()) searchStations.showDropDown();
+                });
+
                 searchStations.addTextChangedListener(new TextWatcher() {
                         @Override
                         public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
@@ -254,10 +311,8 @@ public class OwnerHomeActivity extends AppCompatActivity
 
                         @Override
                         public void afterTextChanged(Editable s) {
-                                String query = s.toString().trim();
-                                if (!query.isEmpty()) {
-                                        fetchStationSuggestions(query);
-                                }
+                                if (searchStations.isPerformingCompletion()) return; // text set by picking a suggestion
+                                stationSearch.search(getSelectedStationType(), s.toString());
                         }
                 });
 
@@ -267,71 +322,131 @@ public class OwnerHomeActivity extends AppCompatActivity
                 });
         }
 
-
-        private void fetchStationSuggestions(String query) {
-                new Thread(() -> {
-                        String type = spinnerStationType.getSelectedItem() != null
-                                ? spinnerStationType.getSelectedItem().toString() : "";
-                        List<Station> stations = stationService.searchStations(type, query);
-
-                        if (stations != null && !stations.isEmpty()) {
-                                runOnUiThread(() -> {
-                                        ArrayAdapter<Station> adapter = new ArrayAdapter<>(
-                                                this,
-                                                android.R.layout.simple_dropdown_item_1line,
-                                                stations
-                                        );
-
-                                        searchStations.setAdapter(adapter);
-                                        adapter.notifyDataSetChanged();
-
-                                        searchStations.setAdapter(adapter);
-                                        adapter.notifyDataSetChanged();
-                                });
-                        }
-                }).start();
+        private String getSelectedStationType() {
+                return spinnerStationType.getSelectedItem() != null
+                        ? spinnerStationType.getSelectedItem().toString() : "";
         }
 
 
         private void showStationOnMap(Station station) {
                 if (googleMap != null) {
-                        googleMap.clear(); // Clear previous markers
+                        // The marker engine draws the station once the camera settles there
+                        if (focusMarker != null) {
+                                focusMarker.remove();
+                                focusMarker = null;
+                        }
+                        focusStation = station;
                         LatLng stationLatLng = new LatLng(station.getLatitude(), station.getLongitude());
+                        googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(stationLatLng, 15));
+                }
+        }
 
-                        // Add marker for the selected station
-                        googleMap.addMarker(new MarkerOptions()
-                                .position(stationLatLng)
-                                .title(station.getName())
-                                .snippet(station.getLocation()));
+        // ---------------- Station markers (viewport tiles + clustering) ----------------
+        private void refreshMarkers() {
+                if (googleMap == null) return;
+                LatLngBounds bounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+                float zoom = googleMap.getCameraPosition().zoom;
+                int generation = ++markerGeneration;
+
+                tasks.cpu(() -> markerPlanner.itemsFor(bounds.southwest.latitude, bounds.southwest.longitude,
+                                bounds.northeast.latitude, bounds.northeast.longitude, zoom), items -> {
+                        if (generation != markerGeneration || googleMap == null) return; // camera moved on
+                        applyMarkers(items);
+                });
+        }
 
-                        // Move camera to the station
-                        googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(stationLatLng, 15));
+        private void applyMarkers(List<MarkerPlanner.Item> items) {
+                MarkerPlanner.Plan plan = MarkerPlanner.diff(markers.keySet(), items);
+                for (String key : plan.toRemove) {
+                        Marker marker = markers.remove(key);
+                        if (marker != null) marker.remove();
+                }
+                for (MarkerPlanner.Item item : plan.toAdd) {
+                        MarkerOptions options = new MarkerOptions().position(new LatLng(item.latitude, item.longitude));
+                        if (item.isCluster()) {
+                                options.title(item.count + " stations").icon(clusterIcon(item.count)).anchor(0.5f, 0.5f);
+                        } else {
+                                options.title(item.station.getName()).snippet(item.station.getLocation());
+                        }
+                        Marker marker = googleMap.addMarker(options);
+                        if (marker == null) continue;
+                        marker.setTag(item);
+                        markers.put(item.key, marker);
+                }
 
-                        // Add marker click listener for navigation
-                        googleMap.setOnMarkerClickListener(marker -> {
-                                LatLng dest = marker.getPosition();
-
-                                if (cachedLocation != null) {
-                                        // Build Google Maps navigation URL
-                                        String uri = "http://maps.google.com/maps?saddr=" +
-                                                cachedLocation.getLatitude() + "," + cachedLocation.getLongitude() +
-                                                "&daddr=" + dest.latitude + "," + dest.longitude;
-
-                                        // Launch Google Maps
-                                        Intent intent = new Intent(Intent.ACTION_VIEW, android.net.Uri.parse(uri));
-                                        intent.setPackage("com.google.android.apps.maps");
-                                        if (intent.resolveActivity(getPackageManager()) != null) {
-                                                startActivity(intent);
-                                        } else {
-                                                Toast.makeText(this, "Google Maps app not found", Toast.LENGTH_SHORT).show();
-                                        }
-                                } else {
-                                        Toast.makeText(this, "Current location not available", Toast.LENGTH_SHORT).show();
-                                }
+                // Station picked from search: open its info window, or pin it if the catalog lacks it
+                if (focusStation != null) {
+                        Marker marker = markers.get("s:" + focusStation.getStationId());
+                        if (marker == null) {
+                                if (focusMarker != null) focusMarker.remove();
+                                focusMarker = googleMap.addMarker(new MarkerOptions()
+                                        .position(new LatLng(focusStation.getLatitude(), focusStation.getLongitude()))
+                                        .title(focusStation.getName())
+                                        .snippet(focusStation.getLocation()));
+                                marker = focusMarker;
+                        }
+                        if (marker != null) marker.showInfoWindow();
+                        focusStation = null;
+                }
+        }
 
-                                return true; // Consume the click
-                        });
+        private boolean onMarkerClick(Marker marker) {
+                Object tag = marker.getTag();
+                if (tag instanceof MarkerPlanner.Item && ((MarkerPlanner.Item) tag).isCluster()) {
+                        // Zoom into the cluster until it splits
+                        googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(marker.getPosition(),
+                                googleMap.getCameraPosition().zoom + 2));
+                        return true;
                 }
+                if (tag == null && marker != focusMarker) return false; // "You are here"
+
+                LatLng dest = marker.getPosition();
+
+                if (cachedLocation != null) {
+                        // Build Google Maps navigation URL
+                        String uri = "http://maps.google.com/maps?saddr=" +
+                                cachedLocation.getLatitude() + "," + cachedLocation.getLongitude() +
+                                "&daddr=" + dest.latitude + "," + dest.longitude;
+
+                        // Launch Google Maps
+                        Intent intent = new Intent(Intent.ACTION_VIEW, android.net.Uri.parse(uri));
+                        intent.setPackage("com.google.android.apps.maps");
+                        if (intent.resolveActivity(getPackageManager()) != null) {
+                                startActivity(intent);
+                        } else {
+                                Toast.makeText(this, "Google Maps app not found", Toast.LENGTH_SHORT).show();
+                        }
+                } else {
+                        Toast.makeText(this, "Current location not available", Toast.LENGTH_SHORT).show();
+                }
+
+                return true; // Consume the click
+        }
+
+        // Round badge with the station count; one bitmap per label
+        private BitmapDescriptor clusterIcon(int count) {
+                String label = count < 100 ? String.valueOf(count) : (count < 1000 ? (count / 100) * 100 + "+" : "999+");
+                BitmapDescriptor icon = clusterIcons.get(label);
+                if (icon != null) return icon;
+
+                float density = getResources().getDisplayMetrics().density;
+                int size = (int) (40 * density);
+                Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+                Canvas canvas = new Canvas(bitmap);
+                Paint fill = new Paint(Paint.ANTI_ALIAS_FLAG);
+                fill.setColor(getResources().getColor(R.color.primary));
+                canvas.drawCircle(size / 2f, size / 2f, size / 2f, fill);
+
+                Paint text = new Paint(Paint.ANTI_ALIAS_FLAG);
+                text.setColor(Color.WHITE);
+                text.setTextSize(14 * density);
+                text.setTextAlign(Paint.Align.CENTER);
+                text.setFakeBoldText(true);
+                canvas.drawText(label, size / 2f, size / 2f - (text.descent() + text.ascent()) / 2, text);
+
+                icon = BitmapDescriptorFactory.fromBitmap(bitmap);
+                clusterIcons.put(label, icon);
+                return icon;
         }
 
 
@@ -412,6 +527,8 @@ public class OwnerHomeActivity extends AppCompatActivity
                 googleMap.getUiSettings().setZoomControlsEnabled(true);
                 googleMap.getUiSettings().setCompassEnabled(true);
                 googleMap.getUiSettings().setMyLocationButtonEnabled(true);
+                googleMap.setOnCameraIdleListener(this::refreshMarkers);
+                googleMap.setOnMarkerClickListener(this::onMarkerClick);
 
                 if (cachedLocation != null) {
                         // Use cached location
@@ -461,10 +578,9 @@ public class OwnerHomeActivity extends AppCompatActivity
                 super.onResume();
                 mapView.onResume();
 
-                // Connect to SignalR when activity resumes
-                if (signalRService != null) {
-                        signalRService.connect();
-                }
+                // Connects in the background if no other screen holds the connection
+                hub.acquire();
+                refreshUnreadCount(true);
         }
 
         @Override
@@ -473,10 +589,8 @@ public class OwnerHomeActivity extends AppCompatActivity
                 mapView.onPause();
                 super.onPause();
 
-                // Disconnect from SignalR when activity pauses
-                if (signalRService != null) {
-                        signalRService.disconnect();
-                }
+                // Closed after a short grace period unless another screen acquires it
+                hub.release();
         }
 
         @Override
@@ -487,6 +601,10 @@ public class OwnerHomeActivity extends AppCompatActivity
 
         @Override
         protected void onDestroy() {
+                tasks.cancelAll();
+                stationSearch.cancel();
+                hub.removeNotificationListener(this);
+                ApiClient.cancelAll(this);
                 mapView.onDestroy();
                 super.onDestroy();
         }
@@ -530,49 +648,41 @@ public class OwnerHomeActivity extends AppCompatActivity
         }
 
         @Override
-        public void onNotificationReceived(Notification notification) {
-                runOnUiThread(() -> {
-                        // Show toast
-                        notificationCount++;
-                        updateNotificationCount();
-                        Toast.makeText(this, notification.getMessage(), Toast.LENGTH_LONG).show();
-
-                        // Show system notification
-                        showSystemNotification(notification);
-                });
-        }
-
-        private void createNotificationChannel() {
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                        CharSequence name = "EV Charging Notifications";
-                        String description = "Notifications for EV charging system";
-                        int importance = NotificationManager.IMPORTANCE_DEFAULT;
-
-                        NotificationChannel channel = new NotificationChannel(CHANNEL_ID, name, importance);
-                        channel.setDescription(description);
-
-                        NotificationManager notificationManager = getSystemService(NotificationManager.class);
-                        if (notificationManager != null) {
-                                notificationManager.createNotificationChannel(channel);
-                        }
-                }
+        public void onNotificationsReceived(List<Notification> batch) {
+                // One deduplicated batch per window from HubConnectionManager, on the main thread;
+                // the pushes are already stored, so the badge is just re-read
+                refreshUnreadCount(false);
+                String message = batch.size() == 1
+                                ? batch.get(0).getMessage()
+                                : batch.size() + " new notifications";
+                Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+
+                // Grouped system notifications
+                NotificationTray.show(this, batch);
         }
 
-        private void showSystemNotification(Notification notification) {
-                NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
-                                .setSmallIcon(R.drawable.ic_notifications)
-                                .setContentTitle("EV Charging System")
-                                .setContentText(notification.getMessage())
-                                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
-                                .setAutoCancel(true);
-
-                NotificationManager notificationManager = (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
-                if (notificationManager != null) {
-                        notificationManager.notify((int) System.currentTimeMillis(), builder.build());
-                }
+        /**
+         * Badge from the stored unread counter (a single-row read), optionally followed by
+         * a delta sync that picks up anything that arrived while the app was away
+         */
+        private void refreshUnreadCount(boolean sync) {
+                User user = new SessionManager(this).getLoggedInUser();
+                if (user == null) return;
+                String userId = user.getUserId();
+
+                tasks.disk(() -> {
+                        int unread = notificationSync.getStore().getUnreadNotificationCount(userId);
+                        tasks.onMain(() -> updateNotificationCount(unread));
+                });
+                if (!sync) return;
+                tasks.network(TaskScheduler.Priority.PREFETCH, () -> {
+                        if (!notificationSync.sync(userId)) return;
+                        int unread = notificationSync.getStore().getUnreadNotificationCount(userId);
+                        tasks.onMain(() -> updateNotificationCount(unread));
+                });
         }
 
-        private void updateNotificationCount() {
+        private void updateNotificationCount(int notificationCount) {
                 if (notificationCount > 0) {
                         tvNotificationCount.setVisibility(View.VISIBLE);
                         tvNotificationCount.setText(String.valueOf(notificationCount));
@@ -586,22 +696,17 @@ public class OwnerHomeActivity extends AppCompatActivity
                 googleMap.moveCamera(CameraUpdateFactory.newLatLngZoom(userLatLng, 15));
                 googleMap.addMarker(new MarkerOptions().position(userLatLng).title("You are here"));
 
-                // Fetch nearby stations in background
-                new Thread(() -> {
+                // Frame the nearby stations; their markers come from refreshMarkers() once the camera settles
+                tasks.network(() -> {
                         List<Station> stations = stationService.getNearbyStations(location.getLatitude(),
                                         location.getLongitude(), 5);
-                        runOnUiThread(() -> {
+                        tasks.onMain(() -> {
                                 if (stations != null && !stations.isEmpty()) {
                                         LatLngBounds.Builder builder = new LatLngBounds.Builder();
                                         builder.include(userLatLng);
 
                                         for (Station s : stations) {
-                                                LatLng stationLatLng = new LatLng(s.getLatitude(), s.getLongitude());
-                                                googleMap.addMarker(new MarkerOptions()
-                                                                .position(stationLatLng)
-                                                                .title(s.getName())
-                                                                .snippet(s.getLocation()));
-                                                builder.include(stationLatLng);
+                                                builder.include(new LatLng(s.getLatitude(), s.getLongitude()));
                                         }
 
                                         LatLngBounds bounds = builder.build();
@@ -610,7 +715,8 @@ public class OwnerHomeActivity extends AppCompatActivity
                                 } else {
                                         Toast.makeText(this, "No nearby stations found", Toast.LENGTH_SHORT).show();
                                 }
+                                refreshMarkers();
                         });
-                }).start();
+                });
         }
 }
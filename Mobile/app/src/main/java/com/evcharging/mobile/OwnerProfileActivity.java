@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -17,6 +16,7 @@ import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 public class OwnerProfileActivity extends AppCompatActivity {
 
@@ -26,6 +26,7 @@ public class OwnerProfileActivity extends AppCompatActivity {
     private ImageButton btnBack;
     private SessionManager sessionManager;
     private ApiClient apiClient;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -52,13 +53,13 @@ public class OwnerProfileActivity extends AppCompatActivity {
         showLocalUserProfile();
 
         // Load profile from API
-        new LoadProfileTask().execute();
+        loadProfile();
 
         // Deactivate button
         btnDeactivate.setOnClickListener(v -> new androidx.appcompat.app.AlertDialog.Builder(this)
                 .setTitle("Deactivate Account")
                 .setMessage("Are you sure you want to deactivate your account?")
-                .setPositiveButton("Yes", (dialog, which) -> new DeactivateTask().execute())
+                .setPositiveButton("Yes", (dialog, which) -> deactivate())
                 .setNegativeButton("No", (dialog, which) -> dialog.dismiss())
                 .show());
 
@@ -66,7 +67,7 @@ public class OwnerProfileActivity extends AppCompatActivity {
         btnRequestReactivation.setOnClickListener(v -> new androidx.appcompat.app.AlertDialog.Builder(this)
                 .setTitle("Request Reactivation")
                 .setMessage("Do you want to request reactivation of your account?")
-                .setPositiveButton("Yes", (dialog, which) -> new ReactivationTask().execute())
+                .setPositiveButton("Yes", (dialog, which) -> requestReactivation())
                 .setNegativeButton("No", (dialog, which) -> dialog.dismiss())
                 .show());
 
@@ -86,6 +87,12 @@ public class OwnerProfileActivity extends AppCompatActivity {
         highlightActiveTab("profile");
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     // ---------------- Footer Navigation Setup ----------------
     private void setupFooterNavigation() {
         LinearLayout navHome = findViewById(R.id.navHome);
@@ -162,19 +169,15 @@ public class OwnerProfileActivity extends AppCompatActivity {
     /**
      * Load user profile from API
      */
-    private class LoadProfileTask extends AsyncTask<Void, Void, User> {
-        @Override
-        protected User doInBackground(Void... voids) {
+    private void loadProfile() {
+        tasks.network(() -> {
             ApiResponse response = apiClient.getUser();
             if (response.isSuccess() && response.getData() != null) {
                 // Parse JSON into User object
                 return apiClient.parseLoggedOwner(response.getData());
             }
             return null;
-        }
-
-        @Override
-        protected void onPostExecute(User user) {
+        }, user -> {
             if (user != null) {
                 // Save updated user to session
                 sessionManager.saveLoggedInUser(user);
@@ -199,7 +202,8 @@ public class OwnerProfileActivity extends AppCompatActivity {
                 Toast.makeText(OwnerProfileActivity.this,
                         "Failed to load profile", Toast.LENGTH_SHORT).show();
             }
-        }
+        }, error -> Toast.makeText(OwnerProfileActivity.this,
+                "Failed to load profile", Toast.LENGTH_SHORT).show());
     }
 
     private String getOwnerNic() {
@@ -209,55 +213,32 @@ public class OwnerProfileActivity extends AppCompatActivity {
                 : "";
     }
 
-    private class DeactivateTask extends AsyncTask<Void, Void, ApiResponse> {
-        private final String nic = getOwnerNic();
-
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            return apiClient.deactivateEvOwner(nic);
-        }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
+    private void deactivate() {
+        String nic = getOwnerNic();
+        tasks.network(() -> apiClient.deactivateEvOwner(nic), response -> {
             Toast.makeText(OwnerProfileActivity.this, response.getMessage(), Toast.LENGTH_SHORT).show();
             if (response.isSuccess()) {
-                new LoadProfileTask().execute(); // Refresh profile after deactivation
+                loadProfile(); // Refresh profile after deactivation
             }
-        }
+        }, this::showRequestFailed);
     }
 
-    private class ReactivationTask extends AsyncTask<Void, Void, ApiResponse> {
-        private final String nic;
-
-        public ReactivationTask() {
-            this.nic = getOwnerNic();
-        }
-
-        @Override
-        protected void onPreExecute() {
-            super.onPreExecute();
-            if (nic == null || nic.isEmpty()) {
-                Toast.makeText(OwnerProfileActivity.this, "NIC is empty!", Toast.LENGTH_SHORT).show();
-                cancel(true); // Stop the AsyncTask from executing
-            }
-        }
-
-        @Override
-        protected ApiResponse doInBackground(Void... voids) {
-            if (isCancelled())
-                return null; // In case task was cancelled in onPreExecute
-            return apiClient.requestReactivation(nic);
+    private void requestReactivation() {
+        String nic = getOwnerNic();
+        if (nic.isEmpty()) {
+            Toast.makeText(OwnerProfileActivity.this, "NIC is empty!", Toast.LENGTH_SHORT).show();
+            return;
         }
-
-        @Override
-        protected void onPostExecute(ApiResponse response) {
-            if (response == null)
-                return; // Task was cancelled
+        tasks.network(() -> apiClient.requestReactivation(nic), response -> {
             Toast.makeText(OwnerProfileActivity.this, response.getMessage(), Toast.LENGTH_SHORT).show();
             if (response.isSuccess()) {
-                new LoadProfileTask().execute(); // Refresh profile after reactivation
+                loadProfile(); // Refresh profile after reactivation
             }
-        }
+        }, this::showRequestFailed);
+    }
+
+    private void showRequestFailed(Exception error) {
+        Toast.makeText(OwnerProfileActivity.this, "Request failed: " + error.getMessage(), Toast.LENGTH_SHORT).show();
     }
 
     private void showLocalUserProfile() {
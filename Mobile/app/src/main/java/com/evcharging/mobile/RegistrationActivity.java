@@ -1,7 +1,6 @@
 package com.evcharging.mobile;
 
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.text.InputType;
 import android.text.TextUtils;
@@ -19,6 +18,7 @@ import com.evcharging.mobile.network.ApiClient;
 import com.evcharging.mobile.network.ApiResponse;
 import com.evcharging.mobile.service.OwnerService;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 public class RegistrationActivity extends AppCompatActivity {
 
@@ -30,6 +30,7 @@ public class RegistrationActivity extends AppCompatActivity {
     private OwnerService ownerService;
     private boolean isPasswordVisible = false;
     private boolean isConfirmPasswordVisible = false;
+    private final TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -80,7 +81,7 @@ public class RegistrationActivity extends AppCompatActivity {
             }
         });
 
-        ownerService = new OwnerService();
+        ownerService = new OwnerService(this);
 
         btnRegister.setOnClickListener(view -> attemptRegistration());
 
@@ -90,6 +91,12 @@ public class RegistrationActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        tasks.cancelAll();
+        super.onDestroy();
+    }
+
     private void attemptRegistration() {
         String fullName = etFullName.getText().toString().trim();
         String email = etEmail.getText().toString().trim();
@@ -138,89 +145,76 @@ public class RegistrationActivity extends AppCompatActivity {
 
         if (!isValid) return;
 
-        new RegistrationTask().execute(nic, fullName, email, phone, password);
+        btnRegister.setEnabled(false);
+        progressBar.setVisibility(View.VISIBLE);
+
+        tasks.network(() -> ownerService.registerOwner(nic, fullName, email, phone, password),
+                this::onRegistrationResult,
+                error -> {
+                    btnRegister.setEnabled(true);
+                    progressBar.setVisibility(View.GONE);
+                    Toast.makeText(RegistrationActivity.this, "Registration failed: " + error.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                });
     }
 
-    private class RegistrationTask extends AsyncTask<String, Void, ApiResponse> {
-        @Override
-        protected void onPreExecute() {
-            super.onPreExecute();
-            btnRegister.setEnabled(false);
-            progressBar.setVisibility(View.VISIBLE);
-        }
-
-        @Override
-        protected ApiResponse doInBackground(String... params) {
-            String nic = params[0];
-            String fullName = params[1];
-            String email = params[2];
-            String phone = params[3];
-            String password = params[4];
-
-            // Call new API endpoint
-            return ownerService.registerOwner(nic, fullName, email, phone, password);
-        }
+    private void onRegistrationResult(ApiResponse response) {
+        btnRegister.setEnabled(true);
+        progressBar.setVisibility(View.GONE);
 
-        @Override
-        protected void onPostExecute(ApiResponse response) {
-            super.onPostExecute(response);
-            btnRegister.setEnabled(true);
-            progressBar.setVisibility(View.GONE);
-
-            if (response.isSuccess()) {
-                Toast.makeText(RegistrationActivity.this, response.getMessage(), Toast.LENGTH_SHORT).show();
-                startActivity(new Intent(RegistrationActivity.this, LoginActivity.class));
-                finish();
-            } else {
-                // Clear previous errors
-                etNIC.setError(null);
-                etFullName.setError(null);
-                etEmail.setError(null);
-                etPhone.setError(null);
-                etPassword.setError(null);
-                etConfirmPassword.setError(null);
-
-                // Check if the response contains field-specific errors
-                String message = response.getMessage();
-                if (message != null && message.contains(":")) {
-                    // Parse messages per field
-                    String[] lines = message.split("\n");
-                    for (String line : lines) {
-                        String[] parts = line.split(":", 2);
-                        if (parts.length == 2) {
-                            String field = parts[0].trim();
-                            String errorMsg = parts[1].trim();
-                            switch (field.toLowerCase()) {
-                                case "nic":
-                                    etNIC.setError(errorMsg);
-                                    etNIC.requestFocus();
-                                    break;
-                                case "fullname":
-                                    etFullName.setError(errorMsg);
-                                    etFullName.requestFocus();
-                                    break;
-                                case "email":
-                                    etEmail.setError(errorMsg);
-                                    etEmail.requestFocus();
-                                    break;
-                                case "phone":
-                                    etPhone.setError(errorMsg);
-                                    etPhone.requestFocus();
-                                    break;
-                                case "password":
-                                    etPassword.setError(errorMsg);
-                                    etPassword.requestFocus();
-                                    break;
-                            }
-                        } else {
-                            // Fallback: show as Toast
-                            Toast.makeText(RegistrationActivity.this, line.trim(), Toast.LENGTH_LONG).show();
+        if (response.isSuccess()) {
+            Toast.makeText(RegistrationActivity.this, response.getMessage(), Toast.LENGTH_SHORT).show();
+            startActivity(new Intent(RegistrationActivity.this, LoginActivity.class));
+            finish();
+        } else {
+            // Clear previous errors
+            etNIC.setError(null);
+            etFullName.setError(null);
+            etEmail.setError(null);
+            etPhone.setError(null);
+            etPassword.setError(null);
+            etConfirmPassword.setError(null);
+
+            // Check if the response contains field-specific errors
+            String message = response.getMessage();
+            if (message != null && message.contains(":")) {
+                // Parse messages per field
+                String[] lines = message.split("\n");
+                for (String line : lines) {
+                    String[] parts = line.split(":", 2);
+                    if (parts.length == 2) {
+                        String field = parts[0].trim();
+                        String errorMsg = parts[1].trim();
+                        switch (field.toLowerCase()) {
+                            case "nic":
+                                etNIC.setError(errorMsg);
+                                etNIC.requestFocus();
+                                break;
+                            case "fullname":
+                                etFullName.setError(errorMsg);
+                                etFullName.requestFocus();
+                                break;
+                            case "email":
+                                etEmail.setError(errorMsg);
+                                etEmail.requestFocus();
+                                break;
+                            case "phone":
+                                etPhone.setError(errorMsg);
+                                etPhone.requestFocus();
+                                break;
+                            case "password":
+                                etPassword.setError(errorMsg);
+                                etPassword.requestFocus();
+                                break;
                         }
+                    } else {
+                        // Fallback: show as Toast
+                        Toast.makeText(RegistrationActivity.this, line.trim(), Toast.LENGTH_LONG).show();
                     }
-                } else {
-                    // Generic error fallback
-                    Toast.makeText(RegistrationActivity.this, message, Toast.LENGTH_LONG).show();
                 }
+            } else {
+                // Generic error fallback
+                Toast.makeText(RegistrationActivity.this, message, Toast.LENGTH_LONG).show();
             }
         }
     }
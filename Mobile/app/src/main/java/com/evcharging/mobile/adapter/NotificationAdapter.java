@@ -7,16 +7,57 @@ import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.evcharging.mobile.R;
 import com.evcharging.mobile.model.Notification;
-import java.text.SimpleDateFormat;
+import com.evcharging.mobile.utils.TaskScheduler;
+import com.evcharging.mobile.utils.TimeFormat;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-
+import java.util.Objects;
+
+/**
+ * NotificationAdapter - Rows of the notification screen
+ *
+ * Purpose: updateNotifications() diffs the new list against the shown one by
+ * notification id on a background thread (AsyncListDiffer) and dispatches only the
+ * item changes. Marking a notification read changes nothing but its styling, so that
+ * rebind is partial (PAYLOAD_READ_STATE).
+ *
+ * Items are never changed in place: the screen owns the list and submits a new copy
+ * (see NotificationActivity), which is what lets the diff see the change.
+ */
 public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.NotificationViewHolder> {
 
-    private List<Notification> notifications;
+    private static final Object PAYLOAD_READ_STATE = new Object();
+
+    private static final DiffUtil.ItemCallback<Notification> DIFF = new DiffUtil.ItemCallback<Notification>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Notification a, @NonNull Notification b) {
+            return Objects.equals(a.getId(), b.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Notification a, @NonNull Notification b) {
+            return sameExceptReadState(a, b) && a.isRead() == b.isRead();
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Notification a, @NonNull Notification b) {
+            return sameExceptReadState(a, b) ? PAYLOAD_READ_STATE : null;
+        }
+    };
+
+    private final AsyncListDiffer<Notification> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF)
+                    .setBackgroundThreadExecutor(TaskScheduler.get()
+                            .executor(TaskScheduler.Pool.CPU, TaskScheduler.Priority.USER_VISIBLE))
+                    .build());
     private OnNotificationActionListener listener;
 
     public interface OnNotificationActionListener {
@@ -26,8 +67,8 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     }
 
     public NotificationAdapter(List<Notification> notifications, OnNotificationActionListener listener) {
-        this.notifications = notifications;
         this.listener = listener;
+        updateNotifications(notifications);
     }
 
     @NonNull
@@ -38,26 +79,35 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
         return new NotificationViewHolder(view);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_READ_STATE)) {
+            holder.bindReadState(differ.getCurrentList().get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
-        Notification notification = notifications.get(position);
+        Notification notification = differ.getCurrentList().get(position);
         holder.bind(notification);
     }
 
     @Override
     public int getItemCount() {
-        return notifications.size();
+        return differ.getCurrentList().size();
     }
 
+    /** Show this list (copied, so the caller may keep changing its own). */
     public void updateNotifications(List<Notification> newNotifications) {
-        this.notifications.clear();
-        this.notifications.addAll(newNotifications);
-        notifyDataSetChanged();
+        differ.submitList(newNotifications != null ? new ArrayList<>(newNotifications) : new ArrayList<>());
     }
 
-    public void removeNotification(int position) {
-        notifications.remove(position);
-        notifyItemRemoved(position);
+    // Everything a row shows other than its read styling
+    private static boolean sameExceptReadState(Notification a, Notification b) {
+        return Objects.equals(a.getMessage(), b.getMessage())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt());
     }
 
     public class NotificationViewHolder extends RecyclerView.ViewHolder {
@@ -74,16 +124,31 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
             btnMarkRead = itemView.findViewById(R.id.btnMarkAsRead);
             btnDelete = itemView.findViewById(R.id.btnDeleteNotification);
             readIndicator = itemView.findViewById(R.id.viewReadIndicator);
+
+            // Set click listeners; the screen updates its list and submits it back
+            btnMarkRead.setOnClickListener(v -> markAsRead());
+            btnDelete.setOnClickListener(v -> {
+                Notification notification = current();
+                if (listener != null && notification != null) {
+                    listener.onDelete(notification.getId());
+                }
+            });
+
+            // Make entire item clickable to mark as read
+            itemView.setOnClickListener(v -> markAsRead());
         }
 
         public void bind(Notification notification) {
             tvMessage.setText(notification.getMessage());
 
-            // Format date
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.getDefault());
-            tvDate.setText(dateFormat.format(notification.getCreatedAt()));
+            // Format date (cached per-thread formatter)
+            tvDate.setText(TimeFormat.NOTIFICATION.format(notification.getCreatedAt()));
+
+            bindReadState(notification);
+        }
 
-            // Style based on read status
+        // Style based on read status
+        void bindReadState(Notification notification) {
             if (notification.isRead()) {
                 tvMessage.setTypeface(null, Typeface.NORMAL);
                 tvMessage.setAlpha(0.7f);
@@ -95,34 +160,18 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
                 readIndicator.setVisibility(View.VISIBLE);
                 btnMarkRead.setVisibility(View.VISIBLE);
             }
+        }
 
-            // Set click listeners
-            btnMarkRead.setOnClickListener(v -> {
-                if (listener != null && !notification.isRead()) {
-                    listener.onMarkAsRead(notification.getId());
-                    notification.setRead(true);
-                    notifyItemChanged(getAdapterPosition());
-                }
-            });
-
-            btnDelete.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDelete(notification.getId());
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        removeNotification(position);
-                    }
-                }
-            });
+        private void markAsRead() {
+            Notification notification = current();
+            if (listener != null && notification != null && !notification.isRead()) {
+                listener.onMarkAsRead(notification.getId());
+            }
+        }
 
-            // Make entire item clickable to mark as read
-            itemView.setOnClickListener(v -> {
-                if (listener != null && !notification.isRead()) {
-                    listener.onMarkAsRead(notification.getId());
-                    notification.setRead(true);
-                    notifyItemChanged(getAdapterPosition());
-                }
-            });
+        private Notification current() {
+            int position = getAdapterPosition();
+            return position != RecyclerView.NO_POSITION ? differ.getCurrentList().get(position) : null;
         }
     }
-}
\ No newline at end of file
+}
@@ -8,26 +8,64 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.evcharging.mobile.R;
 import com.evcharging.mobile.model.BookingItem;
+import com.evcharging.mobile.utils.TaskScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Objects;
+
+/**
+ * OwnerBookingAdapter - Booking cards for the owner's booking and history lists
+ *
+ * Purpose: setData() diffs the new list against the shown one by bookingId on a
+ * background thread (AsyncListDiffer) and dispatches only the item changes, so a
+ * refresh rebinds the rows that changed and keeps item animations. A change that
+ * only touches the status rebinds just the status badge (PAYLOAD_STATUS).
+ */
 public class OwnerBookingAdapter extends RecyclerView.Adapter<OwnerBookingAdapter.ViewHolder> {
 
     public interface OnBookingClick {
         void onClick(BookingItem item);
     }
 
-    private List<BookingItem> list;
+    private static final Object PAYLOAD_STATUS = new Object();
+
+    private static final DiffUtil.ItemCallback<BookingItem> DIFF = new DiffUtil.ItemCallback<BookingItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BookingItem a, @NonNull BookingItem b) {
+            return Objects.equals(a.getBookingId(), b.getBookingId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BookingItem a, @NonNull BookingItem b) {
+            return sameExceptStatus(a, b) && Objects.equals(a.getStatus(), b.getStatus());
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull BookingItem a, @NonNull BookingItem b) {
+            return sameExceptStatus(a, b) ? PAYLOAD_STATUS : null;
+        }
+    };
+
+    private final AsyncListDiffer<BookingItem> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF)
+                    .setBackgroundThreadExecutor(TaskScheduler.get()
+                            .executor(TaskScheduler.Pool.CPU, TaskScheduler.Priority.USER_VISIBLE))
+                    .build());
     private final OnBookingClick listener;
 
     public OwnerBookingAdapter(List<BookingItem> list, OnBookingClick listener) {
-        this.list = (list != null) ? list : new ArrayList<>();
         this.listener = listener;
+        setData(list);
     }
 
     @NonNull
@@ -37,13 +75,31 @@ public class OwnerBookingAdapter extends RecyclerView.Adapter<OwnerBookingAdapte
         return new ViewHolder(v);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_STATUS)) {
+            bindStatus(holder, differ.getCurrentList().get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        BookingItem item = list.get(position);
+        BookingItem item = differ.getCurrentList().get(position);
 
         holder.tvStationName.setText(item.getStationName() != null ? item.getStationName() : "Station");
         holder.tvSlotNumber.setText("Slot #" + (item.getSlotNumber() != null ? item.getSlotNumber() : "-"));
         holder.tvTime.setText(item.getStartTimeFormatted() + " - " + item.getEndTimeFormatted());
+        bindStatus(holder, item);
+
+        holder.cardBooking.setOnClickListener(v -> {
+            int at = holder.getAdapterPosition();
+            if (at != RecyclerView.NO_POSITION) listener.onClick(differ.getCurrentList().get(at));
+        });
+    }
+
+    private static void bindStatus(ViewHolder holder, BookingItem item) {
         holder.tvStatus.setText(item.getStatus());
 
         // Set status color dynamically
@@ -64,24 +120,27 @@ public class OwnerBookingAdapter extends RecyclerView.Adapter<OwnerBookingAdapte
                 holder.tvStatus.setBackgroundResource(R.drawable.bg_status_default);
                 break;
         }
-
-        holder.cardBooking.setOnClickListener(v -> listener.onClick(item));
     }
 
     @Override
     public int getItemCount() {
-        return list.size();
+        return differ.getCurrentList().size();
     }
 
     /**
-     * Used to refresh adapter data dynamically
+     * Used to refresh adapter data dynamically; the list is copied, so the caller may
+     * keep changing its own
      */
     public void setData(List<BookingItem> newData) {
-        this.list.clear();
-        if (newData != null) {
-            this.list.addAll(newData);
-        }
-        notifyDataSetChanged();
+        differ.submitList(newData != null ? new ArrayList<>(newData) : new ArrayList<>());
+    }
+
+    // Everything a card shows other than the status badge
+    private static boolean sameExceptStatus(BookingItem a, BookingItem b) {
+        return Objects.equals(a.getStationName(), b.getStationName())
+                && Objects.equals(a.getSlotNumber(), b.getSlotNumber())
+                && Objects.equals(a.getStartTime(), b.getStartTime())
+                && Objects.equals(a.getEndTime(), b.getEndTime());
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
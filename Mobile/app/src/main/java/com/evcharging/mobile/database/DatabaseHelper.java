@@ -8,6 +8,7 @@ import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
 import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.utils.AppLog;
 
 /**
  * DatabaseHelper - SQLite database manager for local user data storage
@@ -15,6 +16,12 @@ import com.evcharging.mobile.model.User;
  * Purpose: Store logged-in user details locally to avoid repeated API calls
  * and maintain user session information across app restarts.
  *
+ * Schema history (each step migrates from the previous version, never drops data):
+ *   v1 - user table
+ *   v2 - offline copies of bookings, stations, slots and time slots (LocalStore)
+ *   v3 - delta-sync cursors (LocalStore sync_state)
+ *   v4 - notifications and per-user unread counters (LocalStore)
+ *
  * Author: System
  * Created: 2025-10-06
  */
@@ -24,7 +31,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Database configuration
     private static final String DATABASE_NAME = "EVChargingApp.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 4;
 
     // Table name
     private static final String TABLE_USER = "user";
@@ -64,7 +71,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     private DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
-        Log.d(TAG, "DatabaseHelper initialized");
+        AppLog.d(TAG, "DatabaseHelper initialized");
     }
 
     /**
@@ -82,17 +89,40 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        Log.d(TAG, "Creating database tables");
+        AppLog.d(TAG, "Creating database tables");
         db.execSQL(CREATE_TABLE_USER);
-        Log.d(TAG, "User table created successfully");
+        AppLog.d(TAG, "User table created successfully");
+
+        // Fresh installs run the same steps as upgrades
+        migrate(db, 1, DATABASE_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        Log.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
-        // Drop older table if exists and create fresh table
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER);
-        onCreate(db);
+        AppLog.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
+        migrate(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Apply each schema step after fromVersion up to toVersion (runs inside the open-helper transaction)
+     */
+    private void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        for (int version = fromVersion + 1; version <= toVersion; version++) {
+            switch (version) {
+                case 2:
+                    LocalStore.createTables(db);
+                    break;
+                case 3:
+                    LocalStore.createSyncStateTable(db);
+                    break;
+                case 4:
+                    LocalStore.createNotificationTables(db);
+                    break;
+                default:
+                    throw new IllegalStateException("No migration to database version " + version);
+            }
+            AppLog.d(TAG, "Migrated database to version " + version);
+        }
     }
 
     /**
@@ -128,11 +158,11 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             long result = db.insert(TABLE_USER, null, values);
 
             if (result != -1) {
-                Log.d(TAG, "User saved successfully: " + user.getEmail() + " (Role: " + user.getRole() + ")");
+                AppLog.d(TAG, "User saved successfully: " + user.getEmail() + " (Role: " + user.getRole() + ")");
                 if (user.getStationId() != null) {
-                    Log.d(TAG, "Station assigned: " + user.getStationName() + " (ID: " + user.getStationId() + ")");
+                    AppLog.d(TAG, "Station assigned: " + user.getStationName() + " (ID: " + user.getStationId() + ")");
                 } else {
-                    Log.d(TAG, "No station assigned yet for operator");
+                    AppLog.d(TAG, "No station assigned yet for operator");
                 }
                 return true;
             } else {
@@ -189,14 +219,14 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 user.setActive(cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_IS_ACTIVE)) == 1);
                 user.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CREATED_AT)));
 
-                Log.d(TAG, "User retrieved: " + user.getEmail() + " (Role: " + user.getRole() + ")");
-                if (user.getStationId() != null) {
-                    Log.d(TAG, "Station: " + user.getStationName() + " (ID: " + user.getStationId() + ")");
-                } else {
-                    Log.d(TAG, "No station assigned");
+                if (AppLog.isDebug()) {
+                    AppLog.d(TAG, "User retrieved: " + user.getEmail() + " (Role: " + user.getRole() + ")"
+                            + (user.getStationId() != null
+                            ? ", Station: " + user.getStationName() + " (ID: " + user.getStationId() + ")"
+                            : ", No station assigned"));
                 }
             } else {
-                Log.d(TAG, "No user found in database");
+                AppLog.d(TAG, "No user found in database");
             }
         } catch (Exception e) {
             Log.e(TAG, "Error retrieving user: " + e.getMessage(), e);
@@ -217,7 +247,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public boolean isUserLoggedIn() {
         User user = getLoggedInUser();
         boolean loggedIn = user != null;
-        Log.d(TAG, "User logged in status: " + loggedIn);
+        AppLog.d(TAG, "User logged in status: " + loggedIn);
         return loggedIn;
     }
 
@@ -230,7 +260,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
         try {
             int rowsDeleted = db.delete(TABLE_USER, null, null);
-            Log.d(TAG, "User data deleted. Rows affected: " + rowsDeleted);
+            AppLog.d(TAG, "User data deleted. Rows affected: " + rowsDeleted);
             return rowsDeleted > 0;
         } catch (Exception e) {
             Log.e(TAG, "Error deleting user: " + e.getMessage(), e);
@@ -264,7 +294,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             );
 
             if (rowsUpdated > 0) {
-                Log.d(TAG, "User station updated: " + stationName + " (ID: " + stationId + ")");
+                AppLog.d(TAG, "User station updated: " + stationName + " (ID: " + stationId + ")");
                 return true;
             } else {
                 Log.e(TAG, "Failed to update user station. User not found.");
@@ -284,12 +314,12 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public boolean hasStationAssigned() {
         User user = getLoggedInUser();
         if (user == null) {
-            Log.d(TAG, "No user found, station not assigned");
+            AppLog.d(TAG, "No user found, station not assigned");
             return false;
         }
 
         boolean hasStation = user.getStationId() != null && !user.getStationId().isEmpty();
-        Log.d(TAG, "Station assignment status: " + hasStation);
+        AppLog.d(TAG, "Station assignment status: " + hasStation);
         return hasStation;
     }
 
@@ -299,6 +329,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public void clearAllData() {
         SQLiteDatabase db = this.getWritableDatabase();
         db.delete(TABLE_USER, null, null);
-        Log.d(TAG, "All data cleared from database");
+        AppLog.d(TAG, "All data cleared from database");
     }
 }
@@ -0,0 +1,698 @@
+package com.evcharging.mobile.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.evcharging.mobile.model.BookingItem;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.SlotItem;
+import com.evcharging.mobile.model.Station;
+import com.evcharging.mobile.model.TimeSlotItem;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * LocalStore - Offline copy of bookings, stations, slots, time slots and notifications
+ *
+ * Purpose: Let list screens render from SQLite straight away and reconcile with
+ * the server in the background (see BookingSyncService). Each row keeps the
+ * server JSON as-is in a payload column, plus the few columns we filter and
+ * sort on, so new server fields never need a migration.
+ *
+ * Notifications are the exception: their few fields are stored as plain columns, and
+ * each user's unread count is kept in its own row, adjusted in the same transaction
+ * as every insert, mark-read and delete, so the badge never needs a COUNT(*).
+ *
+ * Tables are created by DatabaseHelper's version 2-4 migrations.
+ */
+public class LocalStore {
+
+    private static final String TAG = "LocalStore";
+
+    // Table names
+    static final String TABLE_BOOKINGS = "bookings";
+    static final String TABLE_BOOKING_LISTS = "booking_lists";
+    static final String TABLE_STATIONS = "stations";
+    static final String TABLE_SLOTS = "slots";
+    static final String TABLE_TIME_SLOTS = "time_slots";
+    static final String TABLE_SYNC_STATE = "sync_state";
+    static final String TABLE_NOTIFICATIONS = "notifications";
+    static final String TABLE_NOTIFICATION_COUNTS = "notification_counts";
+
+    // Column names
+    private static final String COLUMN_BOOKING_ID = "booking_id";
+    private static final String COLUMN_OWNER_ID = "owner_id";
+    private static final String COLUMN_STATION_ID = "station_id";
+    private static final String COLUMN_SLOT_ID = "slot_id";
+    private static final String COLUMN_TIME_SLOT_ID = "time_slot_id";
+    private static final String COLUMN_STATUS = "status";
+    private static final String COLUMN_START_TIME = "start_time";
+    private static final String COLUMN_UPDATED_AT = "updated_at";
+    private static final String COLUMN_LIST_KEY = "list_key";
+    private static final String COLUMN_POSITION = "position";
+    private static final String COLUMN_TYPE = "type";
+    private static final String COLUMN_LATITUDE = "latitude";
+    private static final String COLUMN_LONGITUDE = "longitude";
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_PAYLOAD = "payload";
+    private static final String COLUMN_SYNCED_AT = "synced_at";
+    private static final String COLUMN_SYNC_KEY = "sync_key";
+    private static final String COLUMN_CURSOR = "cursor";
+    private static final String COLUMN_FULL_SYNC_AT = "full_sync_at";
+    private static final String COLUMN_NOTIFICATION_ID = "notification_id";
+    private static final String COLUMN_USER_ID = "user_id";
+    private static final String COLUMN_MESSAGE = "message";
+    private static final String COLUMN_CREATED_AT = "created_at";
+    private static final String COLUMN_IS_READ = "is_read";
+    private static final String COLUMN_UNREAD = "unread";
+
+    /**
+     * Schema version 2: local copies of server collections
+     */
+    static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_BOOKINGS + " (" +
+                COLUMN_BOOKING_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_OWNER_ID + " TEXT, " +
+                COLUMN_STATION_ID + " TEXT, " +
+                COLUMN_STATUS + " TEXT, " +
+                COLUMN_START_TIME + " TEXT, " +
+                COLUMN_UPDATED_AT + " TEXT, " +
+                COLUMN_PAYLOAD + " TEXT NOT NULL, " +
+                COLUMN_SYNCED_AT + " INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_bookings_owner ON " + TABLE_BOOKINGS +
+                " (" + COLUMN_OWNER_ID + ", " + COLUMN_START_TIME + ")");
+        db.execSQL("CREATE INDEX idx_bookings_station ON " + TABLE_BOOKINGS +
+                " (" + COLUMN_STATION_ID + ", " + COLUMN_START_TIME + ")");
+
+        // Server-filtered lists (e.g. a station's upcoming bookings), in server order
+        db.execSQL("CREATE TABLE " + TABLE_BOOKING_LISTS + " (" +
+                COLUMN_LIST_KEY + " TEXT NOT NULL, " +
+                COLUMN_POSITION + " INTEGER NOT NULL, " +
+                COLUMN_BOOKING_ID + " TEXT NOT NULL, " +
+                "PRIMARY KEY (" + COLUMN_LIST_KEY + ", " + COLUMN_POSITION + "))");
+
+        db.execSQL("CREATE TABLE " + TABLE_STATIONS + " (" +
+                COLUMN_STATION_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_TYPE + " TEXT, " +
+                COLUMN_LATITUDE + " REAL, " +
+                COLUMN_LONGITUDE + " REAL, " +
+                COLUMN_PAYLOAD + " TEXT NOT NULL, " +
+                COLUMN_SYNCED_AT + " INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_stations_position ON " + TABLE_STATIONS +
+                " (" + COLUMN_LATITUDE + ", " + COLUMN_LONGITUDE + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_SLOTS + " (" +
+                COLUMN_SLOT_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_STATION_ID + " TEXT NOT NULL, " +
+                COLUMN_STATUS + " TEXT, " +
+                COLUMN_PAYLOAD + " TEXT NOT NULL, " +
+                COLUMN_SYNCED_AT + " INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_slots_station ON " + TABLE_SLOTS + " (" + COLUMN_STATION_ID + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_TIME_SLOTS + " (" +
+                COLUMN_TIME_SLOT_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_STATION_ID + " TEXT NOT NULL, " +
+                COLUMN_SLOT_ID + " TEXT, " +
+                COLUMN_DATE + " TEXT, " +
+                COLUMN_START_TIME + " TEXT, " +
+                COLUMN_PAYLOAD + " TEXT NOT NULL, " +
+                COLUMN_SYNCED_AT + " INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_time_slots_lookup ON " + TABLE_TIME_SLOTS +
+                " (" + COLUMN_STATION_ID + ", " + COLUMN_SLOT_ID + ", " + COLUMN_DATE + ")");
+    }
+
+    /**
+     * Schema version 3: per-collection delta-sync cursors
+     */
+    static void createSyncStateTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " (" +
+                COLUMN_SYNC_KEY + " TEXT PRIMARY KEY, " +
+                COLUMN_CURSOR + " INTEGER NOT NULL, " +
+                COLUMN_FULL_SYNC_AT + " INTEGER NOT NULL)");
+    }
+
+    /**
+     * Schema version 4: notifications (newest first per user) and unread counters
+     */
+    static void createNotificationTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_NOTIFICATIONS + " (" +
+                COLUMN_NOTIFICATION_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_USER_ID + " TEXT NOT NULL, " +
+                COLUMN_MESSAGE + " TEXT, " +
+                COLUMN_CREATED_AT + " INTEGER NOT NULL, " +
+                COLUMN_IS_READ + " INTEGER NOT NULL)");
+        // Serves the keyset page query: WHERE user_id = ? AND (created_at, id) < cursor
+        db.execSQL("CREATE INDEX idx_notifications_user ON " + TABLE_NOTIFICATIONS +
+                " (" + COLUMN_USER_ID + ", " + COLUMN_CREATED_AT + " DESC, " + COLUMN_NOTIFICATION_ID + " DESC)");
+
+        db.execSQL("CREATE TABLE " + TABLE_NOTIFICATION_COUNTS + " (" +
+                COLUMN_USER_ID + " TEXT PRIMARY KEY, " +
+                COLUMN_UNREAD + " INTEGER NOT NULL)");
+    }
+
+    /**
+     * Where a collection's delta sync left off
+     * cursor: newest server updatedAt seen (epoch ms), 0 = never synced
+     * fullSyncAt: when the last full resync finished (epoch ms)
+     */
+    public static final class SyncState {
+        public static final SyncState NONE = new SyncState(0, 0);
+
+        public final long cursor;
+        public final long fullSyncAt;
+
+        public SyncState(long cursor, long fullSyncAt) {
+            this.cursor = cursor;
+            this.fullSyncAt = fullSyncAt;
+        }
+    }
+
+    private final DatabaseHelper helper;
+    private final Gson gson = new Gson();
+
+    public LocalStore(Context context) {
+        this.helper = DatabaseHelper.getInstance(context);
+    }
+
+    // ---------------------------------------------------------------------
+    // BOOKINGS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Replace the owner's bookings with the server's full list
+     * (rows the server no longer returns are removed)
+     */
+    public void replaceOwnerBookings(String ownerId, List<JsonObject> bookings) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_BOOKINGS, COLUMN_OWNER_ID + " = ?", new String[]{ownerId});
+            long now = System.currentTimeMillis();
+            for (JsonObject booking : bookings) {
+                upsertBooking(db, booking, now);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Insert or update individual bookings (e.g. a delta or a single refresh). */
+    public void upsertBookings(List<JsonObject> bookings) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long now = System.currentTimeMillis();
+            for (JsonObject booking : bookings) {
+                upsertBooking(db, booking, now);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public int countOwnerBookings(String ownerId) {
+        return (int) DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), TABLE_BOOKINGS,
+                COLUMN_OWNER_ID + " = ?", new String[]{ownerId});
+    }
+
+    /** Owner's bookings, newest start time first. */
+    public List<BookingItem> getOwnerBookings(String ownerId) {
+        List<BookingItem> items = new ArrayList<>();
+        for (String payload : queryPayloads(TABLE_BOOKINGS, COLUMN_OWNER_ID + " = ?",
+                new String[]{ownerId}, COLUMN_START_TIME + " DESC")) {
+            BookingItem item = fromJson(payload, BookingItem.class);
+            if (item != null) items.add(item);
+        }
+        return items;
+    }
+
+    public BookingItem getBooking(String bookingId) {
+        List<String> rows = queryPayloads(TABLE_BOOKINGS, COLUMN_BOOKING_ID + " = ?",
+                new String[]{bookingId}, null);
+        return rows.isEmpty() ? null : fromJson(rows.get(0), BookingItem.class);
+    }
+
+    /**
+     * Remember a server-filtered booking list under a key, in server order
+     *
+     * @param listKey e.g. "station-upcoming:{stationId}"
+     */
+    public void replaceBookingList(String listKey, List<JsonObject> bookings) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_BOOKING_LISTS, COLUMN_LIST_KEY + " = ?", new String[]{listKey});
+            long now = System.currentTimeMillis();
+            int position = 0;
+            for (JsonObject booking : bookings) {
+                String id = upsertBooking(db, booking, now);
+                if (id == null) continue;
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_LIST_KEY, listKey);
+                values.put(COLUMN_POSITION, position++);
+                values.put(COLUMN_BOOKING_ID, id);
+                db.insert(TABLE_BOOKING_LISTS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Last stored copy of a keyed list, as raw JSON objects in server order. */
+    public List<JSONObject> getBookingList(String listKey) {
+        List<JSONObject> items = new ArrayList<>();
+        String sql = "SELECT b." + COLUMN_PAYLOAD + " FROM " + TABLE_BOOKING_LISTS + " l" +
+                " JOIN " + TABLE_BOOKINGS + " b ON b." + COLUMN_BOOKING_ID + " = l." + COLUMN_BOOKING_ID +
+                " WHERE l." + COLUMN_LIST_KEY + " = ? ORDER BY l." + COLUMN_POSITION;
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery(sql, new String[]{listKey})) {
+            while (cursor.moveToNext()) {
+                try {
+                    items.add(new JSONObject(cursor.getString(0)));
+                } catch (Exception e) {
+                    Log.e(TAG, "Corrupt booking payload in list " + listKey, e);
+                }
+            }
+        }
+        return items;
+    }
+
+    private String upsertBooking(SQLiteDatabase db, JsonObject booking, long syncedAt) {
+        String id = str(booking, "bookingId", "_id");
+        if (id == null) return null;
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_BOOKING_ID, id);
+        values.put(COLUMN_OWNER_ID, str(booking, "ownerId"));
+        values.put(COLUMN_STATION_ID, str(booking, "stationId", "StationId"));
+        values.put(COLUMN_STATUS, str(booking, "status"));
+        values.put(COLUMN_START_TIME, str(booking, "startTime"));
+        values.put(COLUMN_UPDATED_AT, str(booking, "updatedAt"));
+        values.put(COLUMN_PAYLOAD, booking.toString());
+        values.put(COLUMN_SYNCED_AT, syncedAt);
+        db.insertWithOnConflict(TABLE_BOOKINGS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        return id;
+    }
+
+    // ---------------------------------------------------------------------
+    // STATIONS
+    // ---------------------------------------------------------------------
+    /** Replace the whole station catalog (see StationCatalog). */
+    public void replaceStations(List<JsonObject> stations) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_STATIONS, null, null);
+            long now = System.currentTimeMillis();
+            for (JsonObject station : stations) {
+                String id = str(station, "stationId");
+                if (id == null) continue;
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_STATION_ID, id);
+                values.put(COLUMN_TYPE, str(station, "type"));
+                values.put(COLUMN_LATITUDE, num(station, "latitude"));
+                values.put(COLUMN_LONGITUDE, num(station, "longitude"));
+                values.put(COLUMN_PAYLOAD, station.toString());
+                values.put(COLUMN_SYNCED_AT, now);
+                db.insertWithOnConflict(TABLE_STATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<Station> getAllStations() {
+        List<Station> stations = new ArrayList<>();
+        for (String payload : queryPayloads(TABLE_STATIONS, null, null, null)) {
+            Station station = fromJson(payload, Station.class);
+            if (station != null) stations.add(station);
+        }
+        return stations;
+    }
+
+    // ---------------------------------------------------------------------
+    // SLOTS & TIME SLOTS
+    // ---------------------------------------------------------------------
+    public void replaceStationSlots(String stationId, List<JsonObject> slots) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_SLOTS, COLUMN_STATION_ID + " = ?", new String[]{stationId});
+            long now = System.currentTimeMillis();
+            for (JsonObject slot : slots) {
+                String id = str(slot, "slotId");
+                if (id == null) continue;
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_SLOT_ID, id);
+                values.put(COLUMN_STATION_ID, stationId);
+                values.put(COLUMN_STATUS, str(slot, "status"));
+                values.put(COLUMN_PAYLOAD, slot.toString());
+                values.put(COLUMN_SYNCED_AT, now);
+                db.insertWithOnConflict(TABLE_SLOTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Apply one slot's new state (pushed over the hub); keeps the stored fields it does not carry. */
+    public void upsertSlot(JsonObject slot) {
+        String id = str(slot, "slotId");
+        String stationId = str(slot, "stationId");
+        if (id == null || stationId == null) return;
+
+        JsonObject merged = slot;
+        List<String> rows = queryPayloads(TABLE_SLOTS, COLUMN_SLOT_ID + " = ?", new String[]{id}, null);
+        if (!rows.isEmpty()) {
+            JsonObject stored = fromJson(rows.get(0), JsonObject.class);
+            if (stored != null) {
+                for (String key : slot.keySet()) stored.add(key, slot.get(key));
+                merged = stored;
+            }
+        }
+
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_SLOT_ID, id);
+        values.put(COLUMN_STATION_ID, stationId);
+        values.put(COLUMN_STATUS, str(merged, "status"));
+        values.put(COLUMN_PAYLOAD, merged.toString());
+        values.put(COLUMN_SYNCED_AT, System.currentTimeMillis());
+        helper.getWritableDatabase().insertWithOnConflict(TABLE_SLOTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public List<SlotItem> getStationSlots(String stationId) {
+        List<SlotItem> slots = new ArrayList<>();
+        for (String payload : queryPayloads(TABLE_SLOTS, COLUMN_STATION_ID + " = ?", new String[]{stationId}, null)) {
+            SlotItem slot = fromJson(payload, SlotItem.class);
+            if (slot != null) slots.add(slot);
+        }
+        return slots;
+    }
+
+    public void replaceTimeSlots(String stationId, String slotId, String date, List<JsonObject> timeSlots) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_TIME_SLOTS, COLUMN_STATION_ID + " = ? AND " + COLUMN_SLOT_ID + " = ? AND "
+                    + COLUMN_DATE + " = ?", new String[]{stationId, slotId, date});
+            long now = System.currentTimeMillis();
+            for (JsonObject timeSlot : timeSlots) {
+                String id = str(timeSlot, "timeSlotId");
+                if (id == null) continue;
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_TIME_SLOT_ID, id);
+                values.put(COLUMN_STATION_ID, stationId);
+                values.put(COLUMN_SLOT_ID, slotId);
+                values.put(COLUMN_DATE, date);
+                values.put(COLUMN_START_TIME, str(timeSlot, "startTime"));
+                values.put(COLUMN_PAYLOAD, timeSlot.toString());
+                values.put(COLUMN_SYNCED_AT, now);
+                db.insertWithOnConflict(TABLE_TIME_SLOTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<TimeSlotItem> getTimeSlots(String stationId, String slotId, String date) {
+        List<TimeSlotItem> timeSlots = new ArrayList<>();
+        for (String payload : queryPayloads(TABLE_TIME_SLOTS,
+                COLUMN_STATION_ID + " = ? AND " + COLUMN_SLOT_ID + " = ? AND " + COLUMN_DATE + " = ?",
+                new String[]{stationId, slotId, date}, COLUMN_START_TIME)) {
+            TimeSlotItem timeSlot = fromJson(payload, TimeSlotItem.class);
+            if (timeSlot != null) timeSlots.add(timeSlot);
+        }
+        return timeSlots;
+    }
+
+    // ---------------------------------------------------------------------
+    // NOTIFICATIONS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Insert or update notifications (a delta or a hub push)
+     *
+     * @return how many of them were not stored before
+     */
+    public int upsertNotifications(String userId, List<Notification> notifications) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int added = 0;
+            int unreadDelta = 0;
+            for (Notification notification : notifications) {
+                if (notification.getId() == null) continue;
+                Boolean wasRead = storedReadState(db, notification.getId());
+                putNotification(db, userId, notification);
+                if (wasRead == null) added++;
+                unreadDelta += unreadDelta(wasRead, notification.isRead());
+            }
+            adjustUnread(db, userId, unreadDelta);
+            db.setTransactionSuccessful();
+            return added;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Replace the user's notifications with the server's full list and recount unread once. */
+    public void replaceNotifications(String userId, List<Notification> notifications) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_NOTIFICATIONS, COLUMN_USER_ID + " = ?", new String[]{userId});
+            int unread = 0;
+            for (Notification notification : notifications) {
+                if (notification.getId() == null) continue;
+                putNotification(db, userId, notification);
+                if (!notification.isRead()) unread++;
+            }
+            setUnread(db, userId, unread);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * One page of the user's notifications, newest first
+     *
+     * @param after last item of the previous page, or null for the first page
+     */
+    public List<Notification> getNotificationsPage(String userId, Notification after, int limit) {
+        String selection = COLUMN_USER_ID + " = ?";
+        String[] args = {userId};
+        if (after != null) {
+            // Keyset cursor: stable while new notifications arrive at the top
+            String createdAt = String.valueOf(createdAtMs(after));
+            selection += " AND (" + COLUMN_CREATED_AT + " < ? OR (" + COLUMN_CREATED_AT + " = ? AND "
+                    + COLUMN_NOTIFICATION_ID + " < ?))";
+            args = new String[]{userId, createdAt, createdAt, after.getId()};
+        }
+
+        List<Notification> page = new ArrayList<>();
+        try (Cursor cursor = helper.getReadableDatabase().query(TABLE_NOTIFICATIONS,
+                new String[]{COLUMN_NOTIFICATION_ID, COLUMN_USER_ID, COLUMN_MESSAGE, COLUMN_CREATED_AT, COLUMN_IS_READ},
+                selection, args, null, null,
+                COLUMN_CREATED_AT + " DESC, " + COLUMN_NOTIFICATION_ID + " DESC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                Notification notification = new Notification();
+                notification.setId(cursor.getString(0));
+                notification.setUserId(cursor.getString(1));
+                notification.setMessage(cursor.getString(2));
+                notification.setCreatedAt(new Date(cursor.getLong(3)));
+                notification.setRead(cursor.getInt(4) != 0);
+                page.add(notification);
+            }
+        }
+        return page;
+    }
+
+    /** @return true if the notification was stored and unread */
+    public boolean markNotificationRead(String userId, String notificationId) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            Boolean wasRead = storedReadState(db, notificationId);
+            if (wasRead == null || wasRead) return false;
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_IS_READ, 1);
+            db.update(TABLE_NOTIFICATIONS, values, COLUMN_NOTIFICATION_ID + " = ?", new String[]{notificationId});
+            adjustUnread(db, userId, -1);
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void deleteNotification(String userId, String notificationId) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            Boolean wasRead = storedReadState(db, notificationId);
+            if (wasRead == null) return;
+            db.delete(TABLE_NOTIFICATIONS, COLUMN_NOTIFICATION_ID + " = ?", new String[]{notificationId});
+            if (!wasRead) adjustUnread(db, userId, -1);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Unread notifications for the user; a single-row read. */
+    public int getUnreadNotificationCount(String userId) {
+        try (Cursor cursor = helper.getReadableDatabase().query(TABLE_NOTIFICATION_COUNTS,
+                new String[]{COLUMN_UNREAD}, COLUMN_USER_ID + " = ?", new String[]{userId},
+                null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    public int countNotifications(String userId) {
+        return (int) DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), TABLE_NOTIFICATIONS,
+                COLUMN_USER_ID + " = ?", new String[]{userId});
+    }
+
+    private void putNotification(SQLiteDatabase db, String userId, Notification notification) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_NOTIFICATION_ID, notification.getId());
+        values.put(COLUMN_USER_ID, userId);
+        values.put(COLUMN_MESSAGE, notification.getMessage());
+        values.put(COLUMN_CREATED_AT, createdAtMs(notification));
+        values.put(COLUMN_IS_READ, notification.isRead() ? 1 : 0);
+        db.insertWithOnConflict(TABLE_NOTIFICATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // null = not stored
+    private Boolean storedReadState(SQLiteDatabase db, String notificationId) {
+        try (Cursor cursor = db.query(TABLE_NOTIFICATIONS, new String[]{COLUMN_IS_READ},
+                COLUMN_NOTIFICATION_ID + " = ?", new String[]{notificationId}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) != 0 : null;
+        }
+    }
+
+    private static int unreadDelta(Boolean wasRead, boolean isRead) {
+        boolean wasUnread = wasRead != null && !wasRead;
+        if (wasUnread == !isRead) return 0;
+        return isRead ? -1 : 1;
+    }
+
+    private void adjustUnread(SQLiteDatabase db, String userId, int delta) {
+        if (delta == 0) return;
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_NOTIFICATION_COUNTS + " (" + COLUMN_USER_ID + ", "
+                + COLUMN_UNREAD + ") VALUES (?, 0)", new Object[]{userId});
+        db.execSQL("UPDATE " + TABLE_NOTIFICATION_COUNTS + " SET " + COLUMN_UNREAD + " = MAX(0, "
+                + COLUMN_UNREAD + " + ?) WHERE " + COLUMN_USER_ID + " = ?", new Object[]{delta, userId});
+    }
+
+    private void setUnread(SQLiteDatabase db, String userId, int unread) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_USER_ID, userId);
+        values.put(COLUMN_UNREAD, unread);
+        db.insertWithOnConflict(TABLE_NOTIFICATION_COUNTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static long createdAtMs(Notification notification) {
+        return notification.getCreatedAt() != null ? notification.getCreatedAt().getTime() : 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // SYNC STATE
+    // ---------------------------------------------------------------------
+    public SyncState getSyncState(String syncKey) {
+        try (Cursor cursor = helper.getReadableDatabase().query(TABLE_SYNC_STATE,
+                new String[]{COLUMN_CURSOR, COLUMN_FULL_SYNC_AT}, COLUMN_SYNC_KEY + " = ?",
+                new String[]{syncKey}, null, null, null)) {
+            return cursor.moveToFirst() ? new SyncState(cursor.getLong(0), cursor.getLong(1)) : SyncState.NONE;
+        }
+    }
+
+    public void saveSyncState(String syncKey, SyncState state) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_SYNC_KEY, syncKey);
+        values.put(COLUMN_CURSOR, state.cursor);
+        values.put(COLUMN_FULL_SYNC_AT, state.fullSyncAt);
+        helper.getWritableDatabase().insertWithOnConflict(TABLE_SYNC_STATE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // ---------------------------------------------------------------------
+    // MAINTENANCE
+    // ---------------------------------------------------------------------
+
+    /** Drop every locally stored record (logout). */
+    public void clear() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_BOOKING_LISTS, null, null);
+            db.delete(TABLE_BOOKINGS, null, null);
+            db.delete(TABLE_STATIONS, null, null);
+            db.delete(TABLE_SLOTS, null, null);
+            db.delete(TABLE_TIME_SLOTS, null, null);
+            db.delete(TABLE_SYNC_STATE, null, null);
+            db.delete(TABLE_NOTIFICATIONS, null, null);
+            db.delete(TABLE_NOTIFICATION_COUNTS, null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Log.d(TAG, "Local store cleared");
+    }
+
+    // ---------------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------------
+    private List<String> queryPayloads(String table, String selection, String[] args, String orderBy) {
+        List<String> payloads = new ArrayList<>();
+        try (Cursor cursor = helper.getReadableDatabase().query(table, new String[]{COLUMN_PAYLOAD},
+                selection, args, null, null, orderBy)) {
+            while (cursor.moveToNext()) {
+                payloads.add(cursor.getString(0));
+            }
+        }
+        return payloads;
+    }
+
+    private <T> T fromJson(String payload, Class<T> type) {
+        try {
+            return gson.fromJson(payload, type);
+        } catch (Exception e) {
+            Log.e(TAG, "Corrupt " + type.getSimpleName() + " payload", e);
+            return null;
+        }
+    }
+
+    private static String str(JsonObject o, String... names) {
+        for (String name : names) {
+            JsonElement e = o.get(name);
+            if (e != null && !e.isJsonNull() && e.isJsonPrimitive()) return e.getAsString();
+        }
+        return null;
+    }
+
+    private static Double num(JsonObject o, String name) {
+        JsonElement e = o.get(name);
+        try {
+            return e != null && !e.isJsonNull() ? e.getAsDouble() : null;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
@@ -1,21 +1,29 @@
 package com.evcharging.mobile.model;
 
+import com.evcharging.mobile.utils.TimeFormat;
+import com.google.gson.annotations.SerializedName;
+
 public class BookingItem {
 
     // --- Fields ---
+    @SerializedName(value = "bookingId", alternate = {"_id"})
     private String bookingId;
+    @SerializedName(value = "stationId", alternate = {"StationId"})
     private String stationId;
     private String stationName;
     private String slotId;
+    @SerializedName(value = "slotNumber", alternate = {"slotNo"})
     private String slotNumber;
     private String timeSlotId;
     private String ownerId;
     private String status;
     private String startTime;
     private String endTime;
-    private String qrImageBase64;
+    // Short QR token; the image is drawn locally (QrImageCache), never shipped with lists
+    private String qrCode;
 
     private String cancellationReason;
+    private String updatedAt;
 
 
 
@@ -31,10 +39,11 @@ public class BookingItem {
     public String getStatus() { return status; }
     public String getStartTime() { return startTime; }
     public String getEndTime() { return endTime; }
-    public String getQrImageBase64() { return qrImageBase64; }
+    public String getQrCode() { return qrCode; }
     public String getCancellationReason() {
         return cancellationReason;
     }
+    public String getUpdatedAt() { return updatedAt; }
 
 
 
@@ -49,46 +58,35 @@ public class BookingItem {
     public void setStatus(String status) { this.status = status; }
     public void setStartTime(String startTime) { this.startTime = startTime; }
     public void setEndTime(String endTime) { this.endTime = endTime; }
-    public void setQrImageBase64(String qrImageBase64) { this.qrImageBase64 = qrImageBase64; }
+    public void setQrCode(String qrCode) { this.qrCode = qrCode; }
     public void setCancellationReason(String cancellationReason) {
         this.cancellationReason = cancellationReason;
     }
+    public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
 
     // --- Helper formatted display ---
+    // Formatted once per value, not per bind; Gson skips transient fields
+    private transient String startTimeFormatted;
+    private transient String startTimeFormattedFor;
+    private transient String endTimeFormatted;
+    private transient String endTimeFormattedFor;
+
     public String getStartTimeFormatted() {
-        try {
-            return formatTime(startTime);
-        } catch (Exception e) {
-            return startTime;
+        if (startTime == null) return null;
+        if (!startTime.equals(startTimeFormattedFor)) {
+            startTimeFormatted = TimeFormat.BOOKING.formatServer(startTime);
+            startTimeFormattedFor = startTime;
         }
+        return startTimeFormatted;
     }
 
     public String getEndTimeFormatted() {
-        try {
-            return formatTime(endTime);
-        } catch (Exception e) {
-            return endTime;
-        }
-    }
-
-    private String formatTime(String utcTime) {
-        try {
-            java.text.SimpleDateFormat inFmt = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", java.util.Locale.getDefault());
-            inFmt.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-
-            // if input has milliseconds or Z timezone
-            if (utcTime.endsWith("Z")) {
-                inFmt = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", java.util.Locale.getDefault());
-                inFmt.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-            }
-
-            java.text.SimpleDateFormat outFmt = new java.text.SimpleDateFormat("dd MMM yyyy, h:mm a", java.util.Locale.getDefault());
-            java.util.Date d = inFmt.parse(utcTime);
-            return outFmt.format(d);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return utcTime;
+        if (endTime == null) return null;
+        if (!endTime.equals(endTimeFormattedFor)) {
+            endTimeFormatted = TimeFormat.BOOKING.formatServer(endTime);
+            endTimeFormattedFor = endTime;
         }
+        return endTimeFormatted;
     }
 
 }
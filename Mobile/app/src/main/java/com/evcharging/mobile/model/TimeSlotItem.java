@@ -15,11 +15,7 @@
 //}
 package com.evcharging.mobile.model;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
+import com.evcharging.mobile.utils.TimeFormat;
 
 public class TimeSlotItem {
     public String timeSlotId;
@@ -27,41 +23,32 @@ public class TimeSlotItem {
     public String endTime;
     public boolean isAvailable;
 
+    // Spinner adapters call toString() for every item on every layout: format once per value
+    private transient String formattedRange;
+    private transient String formattedStart;
+    private transient String formattedEnd;
+
     @Override
     public String toString() {
         return getFormattedRange();
     }
 
     private String getFormattedRange() {
-        String startFormatted = formatTime(startTime);
-        String endFormatted = formatTime(endTime);
-        return startFormatted + " - " + endFormatted;
+        if (formattedRange == null || !same(startTime, formattedStart) || !same(endTime, formattedEnd)) {
+            formattedRange = formatTime(startTime) + " - " + formatTime(endTime);
+            formattedStart = startTime;
+            formattedEnd = endTime;
+        }
+        return formattedRange;
     }
 
-    private String formatTime(String rawTime) {
+    private static String formatTime(String rawTime) {
         if (rawTime == null || rawTime.isEmpty()) return "";
-        try {
-            // Handle MongoDB-like ISO format (e.g., 2025-10-13T05:15:00Z)
-            SimpleDateFormat inFmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-            inFmt.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-            // Output format for user readability
-            SimpleDateFormat outFmt = new SimpleDateFormat("MMM dd, hh:mm a", Locale.getDefault());
-            outFmt.setTimeZone(TimeZone.getDefault());
+        // ISO (with or without Z / milliseconds) or MongoDB /Date(1697184000000)/
+        return TimeFormat.TIME_SLOT.formatServer(rawTime);
+    }
 
-            Date date = inFmt.parse(rawTime);
-            return outFmt.format(date);
-        } catch (ParseException e) {
-            try {
-                // Fallback for MongoDB /Date(1697184000000)/
-                if (rawTime.contains("/Date(")) {
-                    long ms = Long.parseLong(rawTime.replaceAll("[^0-9]", ""));
-                    Date date = new Date(ms);
-                    SimpleDateFormat outFmt = new SimpleDateFormat("MMM dd, hh:mm a", Locale.getDefault());
-                    return outFmt.format(date);
-                }
-            } catch (Exception ignored) {}
-            return rawTime;
-        }
+    private static boolean same(String a, String b) {
+        return a == null ? b == null : a.equals(b);
     }
 }
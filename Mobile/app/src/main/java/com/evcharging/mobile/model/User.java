@@ -60,6 +60,23 @@ public class User {
         this.reactivationRequested = reactivationRequested;
     }
 
+    /**
+     * Copy constructor (SessionManager hands out copies of its cached user)
+     */
+    public User(User other) {
+        this.userId = other.userId;
+        this.fullName = other.fullName;
+        this.email = other.email;
+        this.role = other.role;
+        this.stationId = other.stationId;
+        this.stationName = other.stationName;
+        this.stationLocation = other.stationLocation;
+        this.isActive = other.isActive;
+        this.createdAt = other.createdAt;
+        this.phone = other.phone;
+        this.reactivationRequested = other.reactivationRequested;
+    }
+
     // Getters & Setters
     public String getUserId() {
         return userId;
@@ -0,0 +1,10 @@
+package com.evcharging.mobile.network;
+
+/**
+ * Callback for ApiClient async calls.
+ * Invoked on the ApiClient callback executor (main thread by default),
+ * and never invoked once the call has been cancelled.
+ */
+public interface ApiCallback {
+    void onResult(ApiResponse response);
+}
@@ -1,12 +1,20 @@
 package com.evcharging.mobile.network;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
+import com.evcharging.mobile.model.BookingItem;
 import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.SlotItem;
+import com.evcharging.mobile.model.Station;
+import com.evcharging.mobile.model.TimeSlotItem;
 import com.evcharging.mobile.model.User;
 import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.AppLog;
 import com.evcharging.mobile.utils.JwtUtils;
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 
 import org.json.JSONException;
@@ -15,14 +23,12 @@ import org.json.JSONObject;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-
-import java.security.cert.X509Certificate;
+import java.util.concurrent.Executor;
 
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -32,17 +38,31 @@ import okhttp3.Response;
 /**
  * ApiClient – Handles all network requests for EV Charging Mobile App
  * 🔹 Supports both EV Owner and Operator functions
- * 🔹 Includes clean logging for request + response (pretty JSON)
- * 🔹 Safe with ngrok SSL (for dev)
+ * 🔹 Includes request + response logging via AppLog (debug builds, capped + sampled)
+ * 🔹 Safe with ngrok SSL (debug builds only)
+ * 🔹 Shares one pooled OkHttpClient across all instances (HttpClientProvider)
+ * 🔹 Async variants (getAsync, postAsync...) are cancellable via cancelAll(tag)
+ * 🔹 Read-mostly lists are cached on disk (ResponseCache); getCachedAsync shows the cached copy first
+ * 🔹 Idempotent calls are retried with backoff; fails fast while the server is down (ResiliencePolicy)
+ * 🔹 Opt-in hedged reads (getHedged) race a second attempt against a slow first one
+ * 🔹 Concurrent identical GETs share one network call (RequestCoalescer)
+ * 🔹 Typed list reads (getList, get*List) stream-decode models without buffering the body
  * 🔹 Uses JwtUtils for proper token parsing
  */
 public class ApiClient {
     private static final String TAG = "ApiClient";
-    private static final String BASE = "https://6fc6c9dd7e7a.ngrok-free.app";
-    private static final String BASE_URL = BASE + "/api";
+    private static final String DEFAULT_BASE = "https://6fc6c9dd7e7a.ngrok-free.app";
+    private static final String API_PATH = "/api";
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final Executor MAIN_THREAD = new Handler(Looper.getMainLooper())::post;
+
+    /** Query for booking lists: leave out qrImageBase64 (the app draws QRs from qrCode). */
+    public static final String WITHOUT_QR_IMAGE = "includeQrImage=false";
 
-    private OkHttpClient client;
+    private static volatile Executor callbackExecutor = MAIN_THREAD;
+    private static volatile String base = DEFAULT_BASE;
+
+    private final OkHttpClient client;
     private SessionManager sessionManager;
     private Gson gson;
 
@@ -50,41 +70,23 @@ public class ApiClient {
         this.sessionManager = sessionManager;
         this.gson = new Gson();
 
-        // ✅ Allow HTTPS (ngrok) connections during development
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .hostnameVerifier((hostname, session) -> true)
-                .sslSocketFactory(getUnsafeSslContext().getSocketFactory(), getTrustAllCertsManager())
-                .build();
+        // Shared, process-wide client: pooled keep-alive connections + one SSL context
+        this.client = HttpClientProvider.get();
     }
 
-    // ---------------------------------------------------------------------
-    // SSL: Disable certificate validation for ngrok (development only)
-    // ---------------------------------------------------------------------
-    private SSLContext getUnsafeSslContext() {
-        try {
-            TrustManager[] trustAllCerts = new TrustManager[]{getTrustAllCertsManager()};
-            SSLContext sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-            return sslContext;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
+    public static String getBaseUrl() { return base; }
+    public static String getApiBaseUrl() { return base + API_PATH; }
 
-    private X509TrustManager getTrustAllCertsManager() {
-        return new X509TrustManager() {
-            @Override public void checkClientTrusted(X509Certificate[] chain, String authType) {}
-            @Override public void checkServerTrusted(X509Certificate[] chain, String authType) {}
-            @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[]{}; }
-        };
+    /**
+     * Point every client at another server (local backend, tests); the API path stays /api.
+     * Call before the first request: the hub and caches read it when they start.
+     *
+     * @param baseUrl Scheme, host and port without a trailing slash, or null for the default
+     */
+    public static void setBaseUrl(String baseUrl) {
+        base = baseUrl != null ? baseUrl : DEFAULT_BASE;
     }
 
-    public static String getBaseUrl() { return BASE; }
-    public static String getApiBaseUrl() { return BASE_URL; }
-
     // ---------------------------------------------------------------------
     // AUTHENTICATION & USER MANAGEMENT
     // ---------------------------------------------------------------------
@@ -96,7 +98,7 @@ public class ApiClient {
 
             RequestBody body = RequestBody.create(data.toString(), JSON);
             Request request = new Request.Builder()
-                    .url(BASE_URL + "/auth/login")
+                    .url(getApiBaseUrl() + "/auth/login")
                     .addHeader("X-Client-Type", "Mobile")
                     .post(body)
                     .build();
@@ -117,7 +119,7 @@ public class ApiClient {
                     User user = JwtUtils.getUserFromToken(token);
                     if (user != null) {
                         sessionManager.saveLoggedInUser(user);
-                        Log.d(TAG, "User logged in: " + user.getRole() + " - " + user.getFullName());
+                        AppLog.d(TAG, "User logged in: " + user.getRole() + " - " + user.getFullName());
                     }
 
                     return new ApiResponse(true, "Login successful", token);
@@ -144,7 +146,7 @@ public class ApiClient {
 
             RequestBody body = RequestBody.create(data.toString(), JSON);
             Request request = new Request.Builder()
-                    .url(BASE_URL + "/owners/register")
+                    .url(getApiBaseUrl() + "/owners/register")
                     .addHeader("X-Client-Type", "Mobile")
                     .post(body)
                     .build();
@@ -177,7 +179,7 @@ public class ApiClient {
 
             RequestBody body = RequestBody.create(data.toString(), JSON);
             Request request = new Request.Builder()
-                    .url(BASE_URL + "/operators/register")
+                    .url(getApiBaseUrl() + "/operators/register")
                     .addHeader("X-Client-Type", "Mobile")
                     .post(body)
                     .build();
@@ -307,7 +309,7 @@ public class ApiClient {
     }
 
     public ApiResponse getBookingsByOwner(String ownerId) {
-        String endpoint = "/bookings/owner/" + ownerId;
+        String endpoint = "/bookings/owner/" + ownerId + "?" + WITHOUT_QR_IMAGE;
         return get(endpoint);
     }
 
@@ -335,15 +337,15 @@ public class ApiClient {
     public ApiResponse getBookingsByStation(String stationId) {
         if (stationId == null || stationId.isEmpty() || stationId.equals("string"))
             return new ApiResponse(false, "No station assigned", null);
-        return get("/bookings/station/" + stationId);
+        return get("/bookings/station/" + stationId + "?" + WITHOUT_QR_IMAGE);
     }
 
     public ApiResponse getTodayBookingsByStation(String stationId) {
-        return get("/bookings/station/" + stationId + "/today");
+        return get("/bookings/station/" + stationId + "/today?" + WITHOUT_QR_IMAGE);
     }
 
     public ApiResponse getUpcomingBookingsByStation(String stationId) {
-        return get("/bookings/station/" + stationId + "/upcoming");
+        return get("/bookings/station/" + stationId + "/upcoming?" + WITHOUT_QR_IMAGE);
     }
 
     public ApiResponse approveBooking(String bookingId) {
@@ -431,7 +433,8 @@ public class ApiClient {
         try {
             post("/auth/logout", new JSONObject());
         } catch (Exception ignored) {}
-        sessionManager.clearToken();
+        // Token, user snapshot (listeners, hub), stored tables and HTTP cache; remember-me is kept
+        sessionManager.logout(false);
         return new ApiResponse(true, "Logged out", null);
     }
 
@@ -500,7 +503,7 @@ public class ApiClient {
                 user.setRole("Owner"); // Default for EV Owner app
             }
 
-            Log.d(TAG, "✅ Final parsed user - " +
+            AppLog.d(TAG, "✅ Final parsed user - " +
                     "ID: " + user.getUserId() + ", " +
                     "Role: " + user.getRole() + ", " +
                     "Active: " + user.isActive() + ", " +
@@ -518,143 +521,307 @@ public class ApiClient {
     // GENERIC HTTP METHODS
     // ---------------------------------------------------------------------
     public ApiResponse get(String endpoint) {
-        try {
-            Request.Builder builder = new Request.Builder()
-                    .url(BASE_URL + endpoint)
-                    .get()
-                    .addHeader("X-Client-Type", "Mobile");
-            addAuth(builder);
-
-            Response response = client.newCall(builder.build()).execute();
-            String responseBody = response.body() != null ? response.body().string() : "";
-            logApi("GET", endpoint, response, responseBody);
+        return execute("GET", endpoint, null);
+    }
 
-            if (response.isSuccessful())
-                return new ApiResponse(true, "Success", responseBody);
-            else {
-                JSONObject err = new JSONObject(responseBody);
-                return new ApiResponse(false, err.optString("message", "Failed"), null);
-            }
+    /**
+     * GET for reads the user is waiting on: a second attempt is raced against a slow
+     * first one (RequestHedger). Use sparingly; it trades a little extra load for latency.
+     */
+    public ApiResponse getHedged(String endpoint) {
+        try (Response response = RequestHedger.execute(client, buildRequest("GET", endpoint, null, null))) {
+            return toApiResponse("GET", endpoint, response);
         } catch (Exception e) {
-            Log.e(TAG, "GET request error", e);
-            return new ApiResponse(false, "Network error", null);
+            Log.e(TAG, "GET hedged request error", e);
+            return new ApiResponse(false, failureMessage(e), null);
         }
     }
 
     public ApiResponse post(String endpoint, JSONObject data) {
-        try {
-            logRequest("POST", endpoint, data);
-            RequestBody body = RequestBody.create(data.toString(), JSON);
-            Request.Builder builder = new Request.Builder()
-                    .url(BASE_URL + endpoint)
-                    .post(body)
-                    .addHeader("X-Client-Type", "Mobile");
-            addAuth(builder);
+        return execute("POST", endpoint, data);
+    }
 
-            Response response = client.newCall(builder.build()).execute();
-            String responseBody = response.body() != null ? response.body().string() : "";
-            logApi("POST", endpoint, response, responseBody);
+    public ApiResponse patch(String endpoint, JSONObject data) {
+        return execute("PATCH", endpoint, data);
+    }
 
-            if (response.isSuccessful())
-                return new ApiResponse(true, "Success", responseBody);
-            else {
-                JSONObject err = new JSONObject(responseBody);
-                return new ApiResponse(false, err.optString("message", "Request failed"), null);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "POST request error", e);
-            return new ApiResponse(false, "Network error", null);
-        }
+    public ApiResponse put(String endpoint, JSONObject data) {
+        return execute("PUT", endpoint, data);
     }
 
-    public ApiResponse patch(String endpoint, JSONObject data) {
-        try {
-            if (data != null) logRequest("PATCH", endpoint, data);
-            RequestBody body = data != null
-                    ? RequestBody.create(data.toString(), JSON)
-                    : RequestBody.create("", JSON);
-
-            Request.Builder builder = new Request.Builder()
-                    .url(BASE_URL + endpoint)
-                    .patch(body)
-                    .addHeader("X-Client-Type", "Mobile");
-            addAuth(builder);
-
-            Response response = client.newCall(builder.build()).execute();
-            String responseBody = response.body() != null ? response.body().string() : "";
-            logApi("PATCH", endpoint, response, responseBody);
+    public ApiResponse delete(String endpoint) {
+        return execute("DELETE", endpoint, null);
+    }
 
-            if (response.isSuccessful())
-                return new ApiResponse(true, "Success", responseBody);
-            else {
-                if (responseBody.isEmpty()) return new ApiResponse(false, "Empty error body", null);
-                JSONObject err = new JSONObject(responseBody);
-                return new ApiResponse(false, err.optString("message", "Failed"), null);
+    // ---------------------------------------------------------------------
+    // STREAMED LIST READS
+    // Decoded element by element from the response stream (JsonStreams), so large
+    // payloads are never held as one String. Prefer these over get() + re-parse.
+    // ---------------------------------------------------------------------
+    public <T> ApiListResponse<T> getList(String endpoint, Class<T> type) {
+        return getList(endpoint, type, null);
+    }
+
+    /**
+     * @param wrapperField When the payload is an object, the field holding the array (e.g. "slots")
+     */
+    public <T> ApiListResponse<T> getList(String endpoint, Class<T> type, String wrapperField) {
+        return getList(endpoint, type, wrapperField, false);
+    }
+
+    private <T> ApiListResponse<T> getList(String endpoint, Class<T> type, String wrapperField, boolean hedged) {
+        Request request = buildRequest("GET", endpoint, null, null);
+        try (Response response = hedged ? RequestHedger.execute(client, request) : client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                ApiResponse error = toApiResponse("GET", endpoint, response);
+                return new ApiListResponse<>(false, error.getMessage(), null);
             }
+            List<T> items = JsonStreams.readList(response.body().charStream(), gson.getAdapter(type), wrapperField);
+            logApi("GET", endpoint, response, "(streamed " + items.size() + " items)");
+            return new ApiListResponse<>(true, "Success", items);
         } catch (Exception e) {
-            Log.e(TAG, "PATCH request error", e);
-            return new ApiResponse(false, "Network error", null);
+            Log.e(TAG, "GET list request error", e);
+            return new ApiListResponse<>(false, failureMessage(e), null);
         }
     }
 
-    public ApiResponse put(String endpoint, JSONObject data) {
-        try {
-            logRequest("PUT", endpoint, data);
-            RequestBody body = RequestBody.create(data.toString(), JSON);
-            Request.Builder builder = new Request.Builder()
-                    .url(BASE_URL + endpoint)
-                    .put(body)
-                    .addHeader("X-Client-Type", "Mobile");
-            addAuth(builder);
+    /** Raw JSON elements, for callers that store the server payload as-is (LocalStore). */
+    public ApiListResponse<JsonObject> getJsonList(String endpoint) {
+        return getList(endpoint, JsonObject.class);
+    }
 
-            Response response = client.newCall(builder.build()).execute();
-            String responseBody = response.body() != null ? response.body().string() : "";
-            logApi("PUT", endpoint, response, responseBody);
+    /** getJsonList with hedging, for latency-critical reads (see getHedged). */
+    public ApiListResponse<JsonObject> getJsonListHedged(String endpoint) {
+        return getList(endpoint, JsonObject.class, null, true);
+    }
 
-            if (response.isSuccessful())
-                return new ApiResponse(true, "Success", responseBody);
-            else {
-                JSONObject err = new JSONObject(responseBody);
-                return new ApiResponse(false, err.optString("message", "Failed"), null);
+    public ApiListResponse<BookingItem> getBookingListByOwner(String ownerId) {
+        return getList("/bookings/owner/" + ownerId + "?" + WITHOUT_QR_IMAGE, BookingItem.class);
+    }
+
+    public ApiListResponse<SlotItem> getSlotList(String stationId) {
+        return getList("/slots/station/" + stationId, SlotItem.class);
+    }
+
+    // Fallback when the slots endpoint is denied: slots embedded in the station document
+    public ApiListResponse<SlotItem> getStationSlotList(String stationId) {
+        return getList("/station/" + stationId, SlotItem.class, "slots");
+    }
+
+    public ApiListResponse<TimeSlotItem> getTimeSlotList(String stationId, String slotId, String dateYmd) {
+        return getList(String.format("/timeslot?stationId=%s&slotId=%s&date=%s", stationId, slotId, dateYmd),
+                TimeSlotItem.class);
+    }
+
+    public ApiListResponse<Station> getNearbyStationList(double latitude, double longitude, double radiusKm) {
+        return getList(String.format("/station/nearby?latitude=%f&longitude=%f&radiusKm=%f",
+                latitude, longitude, radiusKm), Station.class);
+    }
+
+    public ApiListResponse<Notification> getNotificationList() {
+        return getList("/notifications/user", Notification.class);
+    }
+
+    // ---------------------------------------------------------------------
+    // ASYNC HTTP METHODS (OkHttp enqueue, cancellable per screen)
+    // 'tag' is usually the calling Activity; pass it to cancelAll() in onDestroy.
+    // ---------------------------------------------------------------------
+    public Call getAsync(String endpoint, Object tag, ApiCallback callback) {
+        return enqueue("GET", endpoint, null, tag, callback);
+    }
+
+    public Call postAsync(String endpoint, JSONObject data, Object tag, ApiCallback callback) {
+        return enqueue("POST", endpoint, data, tag, callback);
+    }
+
+    public Call patchAsync(String endpoint, JSONObject data, Object tag, ApiCallback callback) {
+        return enqueue("PATCH", endpoint, data, tag, callback);
+    }
+
+    public Call putAsync(String endpoint, JSONObject data, Object tag, ApiCallback callback) {
+        return enqueue("PUT", endpoint, data, tag, callback);
+    }
+
+    public Call deleteAsync(String endpoint, Object tag, ApiCallback callback) {
+        return enqueue("DELETE", endpoint, null, tag, callback);
+    }
+
+    /**
+     * Stale-while-revalidate GET for endpoints with a ResponseCache policy.
+     * Delivers the cached copy straight away (even if slightly stale), then revalidates
+     * and delivers again only if the server returned something different.
+     * The callback can therefore run twice; endpoints without a policy behave like getAsync.
+     * Cancelling the returned handle also cancels the revalidation.
+     */
+    public CachedRequest getCachedAsync(String endpoint, Object tag, ApiCallback callback) {
+        CacheControl staleRead = ResponseCache.staleReadFor(endpoint);
+        if (staleRead == null) return new CachedRequest(getAsync(endpoint, tag, callback));
+
+        Request networkRequest = buildRequest("GET", endpoint, null, tag);
+        Call cacheCall = client.newCall(networkRequest.newBuilder().cacheControl(staleRead).build());
+        CachedRequest handle = new CachedRequest(cacheCall);
+        Executor executor = callbackExecutor;
+        cacheCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (!c.isCanceled()) handle.revalidateWith(enqueue(networkRequest, "GET", endpoint, callback));
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                String cachedBody = null;
+                boolean stale = true;
+                try (Response r = response) {
+                    if (r.isSuccessful() && r.body() != null) {
+                        cachedBody = r.body().string();
+                        // OkHttp marks copies served past max-age with a 110 warning
+                        stale = r.header("Warning", "").startsWith("110");
+                    }
+                } catch (IOException e) {
+                    Log.e(TAG, "Cached read failed for " + endpoint, e);
+                }
+
+                if (cachedBody != null) {
+                    if (stale) ResponseCache.recordStaleServed();
+                    deliver(c, executor, callback, new ApiResponse(true, "Cached", cachedBody));
+                    if (!stale) return;
+                }
+                if (c.isCanceled()) return;
+
+                String shown = cachedBody;
+                handle.revalidateWith(enqueue(networkRequest, "GET", endpoint, result -> {
+                    // Already showing the cached copy: skip identical bodies and transient failures
+                    if (shown != null && (!result.isSuccess() || shown.equals(result.getData()))) return;
+                    if (callback != null) callback.onResult(result);
+                }));
             }
+        });
+        return handle;
+    }
+
+    /**
+     * Cancel every queued or running call that was enqueued with this tag.
+     * Cancelled calls never invoke their callback.
+     */
+    public static void cancelAll(Object tag) {
+        if (tag == null) return;
+        Dispatcher dispatcher = HttpClientProvider.get().dispatcher();
+        for (Call call : dispatcher.queuedCalls()) {
+            if (tag.equals(call.request().tag())) call.cancel();
+        }
+        for (Call call : dispatcher.runningCalls()) {
+            if (tag.equals(call.request().tag())) call.cancel();
+        }
+    }
+
+    /**
+     * Executor used to deliver async results. Defaults to the Android main thread.
+     */
+    public static void setCallbackExecutor(Executor executor) {
+        callbackExecutor = executor != null ? executor : MAIN_THREAD;
+    }
+
+    private ApiResponse execute(String method, String endpoint, JSONObject data) {
+        try (Response response = client.newCall(buildRequest(method, endpoint, data, null)).execute()) {
+            return toApiResponse(method, endpoint, response);
         } catch (Exception e) {
-            Log.e(TAG, "PUT request error", e);
-            return new ApiResponse(false, "Network error", null);
+            Log.e(TAG, method + " request error", e);
+            return new ApiResponse(false, failureMessage(e), null);
         }
     }
 
-    public ApiResponse delete(String endpoint) {
-        try {
-            Request.Builder builder = new Request.Builder()
-                    .url(BASE_URL + endpoint)
-                    .delete()
-                    .addHeader("X-Client-Type", "Mobile");
-            addAuth(builder);
+    private Call enqueue(String method, String endpoint, JSONObject data, Object tag, ApiCallback callback) {
+        return enqueue(buildRequest(method, endpoint, data, tag), method, endpoint, callback);
+    }
 
-            Response response = client.newCall(builder.build()).execute();
-            String responseBody = response.body() != null ? response.body().string() : "";
-            logApi("DELETE", endpoint, response, responseBody);
+    private Call enqueue(Request request, String method, String endpoint, ApiCallback callback) {
+        Call call = client.newCall(request);
+        Executor executor = callbackExecutor;
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (c.isCanceled()) return;
+                Log.e(TAG, method + " async request error", e);
+                deliver(c, executor, callback, new ApiResponse(false, failureMessage(e), null));
+            }
 
-            if (response.isSuccessful())
-                return new ApiResponse(true, "Deleted", responseBody);
-            else {
-                JSONObject err = new JSONObject(responseBody);
-                return new ApiResponse(false, err.optString("message", "Failed"), null);
+            @Override
+            public void onResponse(Call c, Response response) {
+                ApiResponse result;
+                try (Response r = response) {
+                    result = toApiResponse(method, endpoint, r);
+                } catch (Exception e) {
+                    Log.e(TAG, method + " async response error", e);
+                    result = new ApiResponse(false, "Network error", null);
+                }
+                deliver(c, executor, callback, result);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "DELETE request error", e);
-            return new ApiResponse(false, "Network error", null);
+        });
+        return call;
+    }
+
+    // Fail-fast rejections get their own message so screens can say "try again shortly"
+    private static String failureMessage(Exception e) {
+        return e instanceof CircuitOpenException ? "Server unavailable, please try again shortly" : "Network error";
+    }
+
+    private static void deliver(Call call, Executor executor, ApiCallback callback, ApiResponse result) {
+        if (callback == null || call.isCanceled()) return;
+        executor.execute(() -> {
+            // Screen may have been destroyed while the result was in transit
+            if (!call.isCanceled()) callback.onResult(result);
+        });
+    }
+
+    private Request buildRequest(String method, String endpoint, JSONObject data, Object tag) {
+        Request.Builder builder = new Request.Builder()
+                .url(getApiBaseUrl() + endpoint)
+                .addHeader("X-Client-Type", "Mobile");
+
+        if ("GET".equals(method)) {
+            builder.get();
+        } else if ("DELETE".equals(method)) {
+            builder.delete();
+        } else {
+            if (data != null) logRequest(method, endpoint, data);
+            builder.method(method, RequestBody.create(data != null ? data.toString() : "", JSON));
         }
+
+        if (tag != null) builder.tag(tag);
+        addAuth(builder);
+        return builder.build();
+    }
+
+    private ApiResponse toApiResponse(String method, String endpoint, Response response) throws IOException, JSONException {
+        String responseBody = response.body() != null ? response.body().string() : "";
+        logApi(method, endpoint, response, responseBody);
+
+        if (response.isSuccessful())
+            return new ApiResponse(true, "DELETE".equals(method) ? "Deleted" : "Success", responseBody);
+
+        if (responseBody.isEmpty()) return new ApiResponse(false, "Empty error body", null);
+        JSONObject err = new JSONObject(responseBody);
+        return new ApiResponse(false, err.optString("message", "POST".equals(method) ? "Request failed" : "Failed"), null);
     }
+
     // ---------------------------------------------------------------------
     // 🔹 Owner Functions (Newly added)
     // ---------------------------------------------------------------------
 
     // ADD: nearby stations filtered by type (Owner flow)
     public ApiResponse getNearbyStationsByType(String type, double latitude, double longitude, double radiusKm) {
-        String endpoint = String.format("/station/nearby-by-type?type=%s&latitude=%f&longitude=%f&radiusKm=%f",
+        return get(nearbyByTypeEndpoint(type, latitude, longitude, radiusKm));
+    }
+
+    // Served stale-while-revalidate: callback may run once from cache and again with fresh data
+    public CachedRequest getNearbyStationsByTypeAsync(String type, double latitude, double longitude,
+                                                      double radiusKm, Object tag, ApiCallback callback) {
+        return getCachedAsync(nearbyByTypeEndpoint(type, latitude, longitude, radiusKm), tag, callback);
+    }
+
+    private static String nearbyByTypeEndpoint(String type, double latitude, double longitude, double radiusKm) {
+        return String.format("/station/nearby-by-type?type=%s&latitude=%f&longitude=%f&radiusKm=%f",
                 type, latitude, longitude, radiusKm);
-        return get(endpoint);
     }
 
     // OPTIONAL fallback if Owner cannot call /station/{id} yet.
@@ -673,29 +840,28 @@ public class ApiClient {
         if (token != null) builder.addHeader("Authorization", "Bearer " + token);
     }
 
+    // Debug builds only; bodies capped, successful responses sampled (see AppLog)
     private void logRequest(String method, String endpoint, JSONObject data) {
-        Log.d(TAG, "─────────────────────────────────────────────");
-        Log.d(TAG, "🚀 " + method + " " + BASE_URL + endpoint);
-        Log.d(TAG, "🔑 Token: " + (sessionManager.getToken() != null ? "Present ✅" : "Missing ❌"));
-        if (data != null)
-            Log.d(TAG, "📤 Request Body:\n" + formatJson(data.toString()));
-        else
-            Log.d(TAG, "📤 Request Body: (empty)");
-        Log.d(TAG, "─────────────────────────────────────────────");
+        if (!AppLog.isDebug()) return;
+        AppLog.d(TAG, "🚀 " + method + " " + getApiBaseUrl() + endpoint
+                + " | 🔑 Token: " + (sessionManager.getToken() != null ? "Present ✅" : "Missing ❌")
+                + "\n📤 Request Body: " + (data != null ? formatJson(data.toString()) : "(empty)"));
     }
 
     private void logApi(String method, String endpoint, Response response, String responseBody) {
+        if (!AppLog.isDebug()) return;
         int code = response != null ? response.code() : -1;
-        Log.d(TAG, "📡 " + method + " " + BASE_URL + endpoint);
-        Log.d(TAG, "📦 Status Code: " + code);
-        if (responseBody != null && !responseBody.isEmpty())
-            Log.d(TAG, "📨 Response Body:\n" + formatJson(responseBody));
-        else
-            Log.d(TAG, "📨 Response Body: (empty)");
-        Log.d(TAG, "─────────────────────────────────────────────");
+        boolean ok = response != null && response.isSuccessful();
+        if (ok && !AppLog.sampled()) return; // failures are always logged
+        AppLog.d(TAG, "📡 " + method + " " + getApiBaseUrl() + endpoint + " | 📦 Status Code: " + code
+                + "\n📨 Response Body: " + (responseBody != null && !responseBody.isEmpty()
+                ? formatJson(responseBody) : "(empty)"));
     }
 
+    // Pretty-print only at VERBOSE and only bodies that fit the cap
     private String formatJson(String raw) {
+        String capped = AppLog.cap(raw);
+        if (!AppLog.isVerbose() || capped.length() != raw.length()) return capped;
         try {
             if (raw.trim().startsWith("{"))
                 return new JSONObject(raw).toString(2);
@@ -706,4 +872,36 @@ public class ApiClient {
             return raw;
         }
     }
-}
\ No newline at end of file
+
+    // ---------------------------------------------------------------------
+    // Handle for getCachedAsync: the cached read plus the revalidation it starts
+    // ---------------------------------------------------------------------
+    public static final class CachedRequest {
+        private final Call first;
+        private Call revalidation; // guarded by this
+
+        CachedRequest(Call first) {
+            this.first = first;
+        }
+
+        // Cancelled before the revalidation started: stop it straight away
+        synchronized void revalidateWith(Call call) {
+            revalidation = call;
+            if (first.isCanceled()) call.cancel();
+        }
+
+        /** Cancel the cached read and any revalidation; no callback runs afterwards. */
+        public void cancel() {
+            first.cancel();
+            Call network;
+            synchronized (this) {
+                network = revalidation;
+            }
+            if (network != null) network.cancel();
+        }
+
+        public boolean isCanceled() {
+            return first.isCanceled();
+        }
+    }
+}
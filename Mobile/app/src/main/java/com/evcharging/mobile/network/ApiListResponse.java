@@ -0,0 +1,46 @@
+package com.evcharging.mobile.network;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ApiListResponse - Typed result of a streamed list endpoint
+ *
+ * Same shape as ApiResponse, but the items are decoded straight from the
+ * response stream instead of being handed back as a raw JSON String.
+ */
+public class ApiListResponse<T> {
+    private final boolean success;
+    private final String message;
+    private final List<T> items;
+    private final boolean stale;
+
+    public ApiListResponse(boolean success, String message, List<T> items) {
+        this(success, message, items, false);
+    }
+
+    public ApiListResponse(boolean success, String message, List<T> items, boolean stale) {
+        this.success = success;
+        this.message = message;
+        this.items = items != null ? items : Collections.emptyList();
+        this.stale = stale;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /** True when the items are a stored copy, served because the server could not be reached. */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /** Decoded items; empty (never null) on failure. */
+    public List<T> getItems() {
+        return items;
+    }
+}
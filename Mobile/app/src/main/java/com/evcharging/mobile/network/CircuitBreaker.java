@@ -0,0 +1,79 @@
+package com.evcharging.mobile.network;
+
+/**
+ * CircuitBreaker - Fail fast while the backend is down
+ *
+ * Purpose: After FAILURE_THRESHOLD consecutive failures (connection errors or
+ * 502/503/504) the circuit opens and requests are rejected without touching the
+ * network. Once the open period ends a single probe is let through: success closes
+ * the circuit, failure re-opens it for twice as long (up to MAX_OPEN_MS).
+ *
+ * Thread-safe; times come from the caller so tests can drive it with a fake clock.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long BASE_OPEN_MS = 10_000;
+    private static final long MAX_OPEN_MS = 60_000;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openMs = BASE_OPEN_MS;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    /** @return true if a request may go out now (possibly as the half-open probe) */
+    synchronized boolean allow(long now) {
+        switch (state) {
+            case OPEN:
+                if (now < openUntil) return false;
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) return false;
+                probeInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openMs = BASE_OPEN_MS;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            openMs = Math.min(MAX_OPEN_MS, openMs * 2);
+            open(now);
+        } else if (++consecutiveFailures >= FAILURE_THRESHOLD && state == State.CLOSED) {
+            open(now);
+        }
+    }
+
+    /** The request ended without telling us anything (cancelled, served from cache). */
+    synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /** @return ms until the next probe is allowed, 0 if not open */
+    synchronized long retryAfterMs(long now) {
+        return state == State.OPEN ? Math.max(0, openUntil - now) : 0;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openUntil = now + openMs;
+        probeInFlight = false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.evcharging.mobile.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the backend's circuit is open.
+ * ApiClient turns it into a "Server unavailable" response.
+ */
+public class CircuitOpenException extends IOException {
+
+    private final long retryAfterMs;
+
+    public CircuitOpenException(String host, long retryAfterMs) {
+        super("Circuit open for " + host + ", retry in " + retryAfterMs + " ms");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
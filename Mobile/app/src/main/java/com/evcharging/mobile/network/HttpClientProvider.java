@@ -0,0 +1,123 @@
+package com.evcharging.mobile.network;
+
+import com.evcharging.mobile.BuildConfig;
+
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * HttpClientProvider - Process-wide HTTP engine shared by every network caller
+ *
+ * Purpose: Build one OkHttpClient (connection pool, dispatcher, SSL context) for the
+ * whole app so ApiClient, OwnerService and HubConnectionManager reuse keep-alive connections
+ * and TLS sessions instead of paying a fresh handshake on every screen.
+ *
+ * Callers that need different settings should derive from {@link #get()} with
+ * {@code newBuilder()}, which keeps the shared pool and dispatcher.
+ *
+ * Certificate and hostname checks are skipped for debug builds only (ngrok during
+ * development); release builds use the platform's default validation.
+ */
+public final class HttpClientProvider {
+
+    // Idle keep-alive connections kept warm across screens
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static volatile OkHttpClient client;
+
+    private HttpClientProvider() {
+    }
+
+    /**
+     * Get the shared OkHttpClient, creating it on first use
+     *
+     * @return Application-scoped OkHttpClient
+     */
+    public static OkHttpClient get() {
+        OkHttpClient local = client;
+        if (local == null) {
+            synchronized (HttpClientProvider.class) {
+                local = client;
+                if (local == null) {
+                    local = build();
+                    client = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Apply the shared pool and dispatcher to a builder owned by another library
+     * (e.g. the SignalR client builds its own OkHttpClient).
+     * SSL settings are not copied: the hub carries the JWT and always validates certificates.
+     *
+     * @param builder Builder to configure
+     */
+    public static void configure(OkHttpClient.Builder builder) {
+        OkHttpClient shared = get();
+        builder.connectionPool(shared.connectionPool())
+                .dispatcher(shared.dispatcher());
+    }
+
+    private static OkHttpClient build() {
+        return build(BuildConfig.DEBUG);
+    }
+
+    /**
+     * @param trustAllCertificates Skip certificate and hostname checks (debug builds only)
+     */
+    static OkHttpClient build(boolean trustAllCertificates) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES));
+
+        if (trustAllCertificates) {
+            // ✅ Allow HTTPS (ngrok) connections during development
+            builder.hostnameVerifier((hostname, session) -> true)
+                    .sslSocketFactory(buildUnsafeSslContext().getSocketFactory(), TRUST_ALL);
+        }
+
+        // Swaps in a refreshed token before expiry and answers 401s with one shared refresh;
+        // ahead of coalescing, so requests are keyed by the token actually sent
+        TokenRefresher.apply(builder);
+        // Identical in-flight GETs share one call, so followers never reach the cache or network
+        RequestCoalescer.apply(builder);
+        // Retries, circuit breaker and adaptive timeouts; wraps the leader's call only
+        ResiliencePolicy.apply(builder);
+        // Disk cache for read-mostly endpoints (installed by EvApplication)
+        ResponseCache.apply(builder);
+        return builder.build();
+    }
+
+    // ---------------------------------------------------------------------
+    // SSL: Disable certificate validation for ngrok (debug builds only)
+    // One SSLContext for the process so TLS sessions can be resumed.
+    // ---------------------------------------------------------------------
+    private static final X509TrustManager TRUST_ALL = new X509TrustManager() {
+        @Override public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+        @Override public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+        @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[]{}; }
+    };
+
+    private static SSLContext buildUnsafeSslContext() {
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{TRUST_ALL}, new SecureRandom());
+            return sslContext;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
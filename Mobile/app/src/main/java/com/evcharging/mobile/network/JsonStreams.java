@@ -0,0 +1,65 @@
+package com.evcharging.mobile.network;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JsonStreams - Incremental decoding of JSON list payloads
+ *
+ * Purpose: Decode list responses element by element with Gson's JsonReader, so a
+ * large body (e.g. booking history with embedded QR images) never exists as one
+ * String next to its parsed copy. Fields a model does not declare are skipped
+ * without being buffered.
+ */
+final class JsonStreams {
+
+    private JsonStreams() {
+    }
+
+    /**
+     * Read a top-level array, or the array under {@code wrapperField} when the
+     * payload is an object (e.g. a station document with a "slots" array).
+     *
+     * @param in           Character stream of the response body
+     * @param adapter      Gson adapter for one element
+     * @param wrapperField Field holding the array inside an object payload, or null
+     * @return Decoded items (empty when the payload is null or has no such field)
+     */
+    static <T> List<T> readList(Reader in, TypeAdapter<T> adapter, String wrapperField) throws IOException {
+        List<T> items = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(in)) {
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT && wrapperField != null) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (wrapperField.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        readArray(reader, adapter, items);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                readArray(reader, adapter, items);
+            } else {
+                reader.skipValue();
+            }
+        }
+        return items;
+    }
+
+    private static <T> void readArray(JsonReader reader, TypeAdapter<T> adapter, List<T> into) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T item = adapter.read(reader);
+            if (item != null) into.add(item);
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.evcharging.mobile.network;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LatencyTracker - Recent response times per endpoint family
+ *
+ * Purpose: Keep the last WINDOW time-to-first-byte samples of every endpoint family
+ * so timeouts (and hedging delays) follow what the network is actually doing
+ * instead of one fixed value for every call.
+ *
+ * Thread-safe. Percentiles are reported only once MIN_SAMPLES have been seen.
+ */
+final class LatencyTracker {
+
+    private static final int WINDOW = 64;
+    private static final int MIN_SAMPLES = 10;
+
+    private final Map<String, Window> windows = new HashMap<>();
+
+    /**
+     * @param endpoint Endpoint family (see {@link ResiliencePolicy#endpointKey})
+     * @param millis   Time from request sent to response headers received
+     */
+    synchronized void record(String endpoint, long millis) {
+        if (millis < 0) return;
+        Window window = windows.get(endpoint);
+        if (window == null) {
+            window = new Window();
+            windows.put(endpoint, window);
+        }
+        window.samples[window.next] = millis;
+        window.next = (window.next + 1) % WINDOW;
+        if (window.count < WINDOW) window.count++;
+    }
+
+    /**
+     * @param fraction e.g. 0.95 for p95
+     * @return the percentile in ms, or -1 while there are fewer than MIN_SAMPLES samples
+     */
+    synchronized long percentile(String endpoint, double fraction) {
+        Window window = windows.get(endpoint);
+        if (window == null || window.count < MIN_SAMPLES) return -1;
+        long[] sorted = Arrays.copyOf(window.samples, window.count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    private static final class Window {
+        final long[] samples = new long[WINDOW];
+        int next;
+        int count;
+    }
+}
@@ -0,0 +1,250 @@
+package com.evcharging.mobile.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * RequestCoalescer - Single-flight for identical in-flight GETs
+ *
+ * Purpose: Screens often ask for the same endpoint at the same moment (onResume and
+ * swipe-to-refresh overlapping, two screens pulling /bookings/owner/{id}). The first
+ * request for a key goes to the network; identical requests arriving while it is in
+ * flight wait for it and receive a copy of its response instead of a call of their own.
+ *
+ * Runs as an application interceptor, so every caller keeps its own Call: tags,
+ * cancelAll(tag) and cancel() behave as before. A cancelled or failed leader never
+ * fails its followers - they fall back to their own request. The leader buffers its
+ * body only when a follower actually joined; bodies larger than MAX_SHARED_BODY_BYTES
+ * are streamed to the leader only, and followers fetch their own.
+ *
+ * Followers block on a latch, released when the leader finishes or when their own call
+ * is cancelled (reported by the EventListener installed in {@link #apply}).
+ *
+ * Only idempotent reads (GET / HEAD) are coalesced; cache-only reads are skipped.
+ */
+public final class RequestCoalescer {
+    // Larger bodies (e.g. booking history with QR images) are not duplicated in memory
+    private static final long MAX_SHARED_BODY_BYTES = 512 * 1024;
+
+    /** Maps a request to its coalescing key; requests with equal keys share one network call. */
+    public interface KeyNormalizer {
+        /** @return the key, or null to never coalesce this request */
+        String keyFor(Request request);
+    }
+
+    /**
+     * Default key: method, URL with query parameters sorted, and the Authorization
+     * header, so requests of different users never share a response.
+     */
+    public static final KeyNormalizer DEFAULT_NORMALIZER = request -> {
+        HttpUrl url = request.url();
+        List<String> params = new ArrayList<>();
+        for (int i = 0; i < url.querySize(); i++) {
+            String value = url.queryParameterValue(i);
+            params.add(url.queryParameterName(i) + "=" + (value != null ? value : ""));
+        }
+        Collections.sort(params);
+        StringBuilder key = new StringBuilder(request.method()).append(' ')
+                .append(url.scheme()).append("://").append(url.host()).append(':').append(url.port())
+                .append(url.encodedPath());
+        for (int i = 0; i < params.size(); i++) {
+            key.append(i == 0 ? '?' : '&').append(params.get(i));
+        }
+        String auth = request.header("Authorization");
+        return key.append(" #").append(auth != null ? auth.hashCode() : 0).toString();
+    };
+
+    private static final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    // Latch of every waiting follower, so cancelling its call wakes it up
+    private static final ConcurrentHashMap<Call, CountDownLatch> waiting = new ConcurrentHashMap<>();
+    private static volatile KeyNormalizer normalizer = DEFAULT_NORMALIZER;
+    private static volatile boolean enabled = true;
+
+    private static final AtomicLong leaders = new AtomicLong();
+    private static final AtomicLong coalesced = new AtomicLong();
+    private static final AtomicLong fallbacks = new AtomicLong();
+
+    private RequestCoalescer() {
+    }
+
+    /**
+     * Attach the coalescing interceptor to the shared client builder (first, before the cache),
+     * plus the listener that wakes a waiting follower when its call is cancelled.
+     */
+    static void apply(OkHttpClient.Builder builder) {
+        builder.addInterceptor(RequestCoalescer::intercept)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void canceled(Call call) {
+                        CountDownLatch wake = waiting.get(call);
+                        if (wake != null) wake.countDown();
+                    }
+                });
+    }
+
+    /**
+     * Replace how requests are keyed, e.g. to ignore a cache-busting query parameter.
+     *
+     * @param keyNormalizer New normalizer, or null for {@link #DEFAULT_NORMALIZER}
+     */
+    public static void setKeyNormalizer(KeyNormalizer keyNormalizer) {
+        normalizer = keyNormalizer != null ? keyNormalizer : DEFAULT_NORMALIZER;
+    }
+
+    /** Turn coalescing on or off; requests already waiting are unaffected. */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** Leader / coalesced / fallback counters since process start. */
+    public static Stats stats() {
+        return new Stats(leaders.get(), coalesced.get(), fallbacks.get());
+    }
+
+    // ---------------------------------------------------------------------
+    // Interceptor
+    // ---------------------------------------------------------------------
+    private static Response intercept(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = enabled && isCoalescable(request) ? normalizer.keyFor(request) : null;
+        if (key == null) return chain.proceed(request);
+
+        Flight flight = new Flight();
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) break;
+            CountDownLatch wake = existing.join();
+            if (wake == null) {
+                // The leader already has its response and takes no more followers
+                inFlight.remove(key, existing);
+                continue;
+            }
+            Response shared = existing.await(chain, wake);
+            if (shared != null) {
+                coalesced.incrementAndGet();
+                return shared.newBuilder()
+                        .request(request)
+                        .body(ResponseBody.create(existing.body, shared.body() != null ? shared.body().contentType() : null))
+                        .build();
+            }
+            // Leader failed, was cancelled or had too large a body: go on our own
+            fallbacks.incrementAndGet();
+            return chain.proceed(request);
+        }
+
+        leaders.incrementAndGet();
+        Response response = null;
+        try {
+            response = chain.proceed(request);
+            // Later arrivals start a fresh request rather than reuse this one
+            inFlight.remove(key, flight);
+            if (flight.close()) {
+                // Someone is waiting: buffer the body once so they can have a copy
+                byte[] bytes = response.peekBody(MAX_SHARED_BODY_BYTES).bytes();
+                if (bytes.length < MAX_SHARED_BODY_BYTES) flight.share(response, bytes);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (response != null) response.close();
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+            flight.finish();
+        }
+    }
+
+    private static boolean isCoalescable(Request request) {
+        String method = request.method();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return false;
+        // A hedge must race the original, not wait for it
+        if (request.tag(RequestHedger.Hedge.class) != null) return false;
+        // Cache-only reads (stale-while-revalidate) are cheap and must not wait on the network
+        return !request.cacheControl().onlyIfCached();
+    }
+
+    /** One network call in progress, its followers and, once finished, its shareable response. */
+    private static final class Flight {
+        private final List<CountDownLatch> followers = new ArrayList<>();
+        private boolean closed;
+        volatile Response response;
+        volatile byte[] body;
+
+        /** @return a latch released when the leader finishes, or null if it takes no more followers */
+        synchronized CountDownLatch join() {
+            if (closed) return null;
+            CountDownLatch wake = new CountDownLatch(1);
+            followers.add(wake);
+            return wake;
+        }
+
+        /** Stop taking followers; @return whether any joined */
+        synchronized boolean close() {
+            closed = true;
+            return !followers.isEmpty();
+        }
+
+        void share(Response response, byte[] body) {
+            this.body = body;
+            this.response = response;
+        }
+
+        synchronized void finish() {
+            closed = true;
+            for (CountDownLatch wake : followers) wake.countDown();
+        }
+
+        /** @return the leader's response (body read from {@link #body}), or null if it cannot be shared */
+        Response await(Interceptor.Chain chain, CountDownLatch wake) throws IOException {
+            Call call = chain.call();
+            waiting.put(call, wake);
+            try {
+                // Checked after registering, so a cancel in between still wakes us
+                if (!call.isCanceled()) wake.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + chain.request().url(), e);
+            } finally {
+                waiting.remove(call, wake);
+            }
+            if (call.isCanceled()) throw new IOException("Canceled");
+            return response;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    public static final class Stats {
+        public final long leaders;
+        public final long coalesced;
+        public final long fallbacks;
+
+        Stats(long leaders, long coalesced, long fallbacks) {
+            this.leaders = leaders;
+            this.coalesced = coalesced;
+            this.fallbacks = fallbacks;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{leaders=" + leaders +
+                    ", coalesced=" + coalesced +
+                    ", fallbacks=" + fallbacks +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.evcharging.mobile.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * RequestHedger - Hedged GETs for latency-critical reads
+ *
+ * Purpose: Cut the tail of slow reads the user is actively waiting on (time slots
+ * while booking, booking details). The request is sent once; if no response has
+ * arrived after the endpoint family's p95 latency (LatencyTracker), an identical
+ * second attempt is sent and whichever answers first wins. The other is cancelled.
+ *
+ * Extra load is capped by a token budget: every hedged read earns BUDGET_DEPOSIT
+ * tokens and every second attempt spends one, so at most ~10% more requests are sent.
+ * A failed first attempt is not hedged - ResiliencePolicy already retries those.
+ *
+ * Opt-in only (ApiClient.getHedged, getJsonListHedged). Blocking: call from a background task.
+ */
+public final class RequestHedger {
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final long DEFAULT_DELAY_MS = 1_500; // until the endpoint has latency samples
+    private static final long MIN_DELAY_MS = 100;
+
+    private static final double BUDGET_MAX_TOKENS = 5;
+    private static final double BUDGET_DEPOSIT = 0.1;
+
+    /** Request tag marking the second attempt, so RequestCoalescer does not merge it with the first. */
+    static final class Hedge {
+        static final Hedge INSTANCE = new Hedge();
+
+        private Hedge() {
+        }
+    }
+
+    private static double tokens = BUDGET_MAX_TOKENS;
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong hedges = new AtomicLong();
+    private static final AtomicLong hedgeWins = new AtomicLong();
+    private static final AtomicLong budgetExhausted = new AtomicLong();
+
+    private RequestHedger() {
+    }
+
+    /**
+     * Execute a GET, hedging it once if it is slower than usual
+     *
+     * @return the first response to arrive; the caller closes it
+     */
+    static Response execute(OkHttpClient client, Request request) throws IOException {
+        requests.incrementAndGet();
+        deposit();
+
+        Race race = new Race();
+        race.launch(client.newCall(request), false);
+        try {
+            if (!race.await(hedgeDelayMs(request)) && withdraw()) {
+                hedges.incrementAndGet();
+                race.launch(client.newCall(request.newBuilder().tag(Hedge.class, Hedge.INSTANCE).build()), true);
+            }
+            race.await(0);
+        } catch (InterruptedException e) {
+            race.cancelAll();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+        }
+        return race.result();
+    }
+
+    /** Hedged / won / budget counters since process start. */
+    public static Stats stats() {
+        return new Stats(requests.get(), hedges.get(), hedgeWins.get(), budgetExhausted.get());
+    }
+
+    private static long hedgeDelayMs(Request request) {
+        long p95 = ResiliencePolicy.get().latency()
+                .percentile(ResiliencePolicy.endpointKey(request.url()), HEDGE_PERCENTILE);
+        return p95 < 0 ? DEFAULT_DELAY_MS : Math.max(MIN_DELAY_MS, p95);
+    }
+
+    private static synchronized void deposit() {
+        tokens = Math.min(BUDGET_MAX_TOKENS, tokens + BUDGET_DEPOSIT);
+    }
+
+    private static synchronized boolean withdraw() {
+        if (tokens < 1) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /** Up to two attempts of one request; the first response wins, later ones are closed. */
+    private static final class Race {
+        private final List<Call> calls = new ArrayList<>();
+        private int finished;
+        private Response winner;
+        private IOException error;
+
+        synchronized void launch(Call call, boolean hedge) {
+            calls.add(call);
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call c, IOException e) {
+                    synchronized (Race.this) {
+                        finished++;
+                        if (error == null) error = e;
+                        Race.this.notifyAll();
+                    }
+                }
+
+                @Override
+                public void onResponse(Call c, Response response) {
+                    synchronized (Race.this) {
+                        finished++;
+                        if (winner != null) {
+                            response.close();
+                            return;
+                        }
+                        winner = response;
+                        if (hedge) hedgeWins.incrementAndGet();
+                        Race.this.notifyAll();
+                    }
+                    for (Call other : snapshot()) {
+                        if (other != c) other.cancel();
+                    }
+                }
+            });
+        }
+
+        /**
+         * @param timeoutMs 0 waits until decided
+         * @return true once there is a winner or every attempt has failed
+         */
+        synchronized boolean await(long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (!decided()) {
+                if (timeoutMs == 0) {
+                    wait();
+                } else {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) return false;
+                    wait(left);
+                }
+            }
+            return true;
+        }
+
+        synchronized Response result() throws IOException {
+            if (winner != null) return winner;
+            throw error != null ? error : new IOException("No response");
+        }
+
+        void cancelAll() {
+            for (Call call : snapshot()) call.cancel();
+            synchronized (this) {
+                if (winner != null) winner.close();
+            }
+        }
+
+        private boolean decided() {
+            return winner != null || finished == calls.size();
+        }
+
+        private synchronized List<Call> snapshot() {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    public static final class Stats {
+        public final long requests;
+        public final long hedges;
+        public final long hedgeWins;
+        public final long budgetExhausted;
+
+        Stats(long requests, long hedges, long hedgeWins, long budgetExhausted) {
+            this.requests = requests;
+            this.hedges = hedges;
+            this.hedgeWins = hedgeWins;
+            this.budgetExhausted = budgetExhausted;
+        }
+
+        /** Share of second attempts that beat the first, 0 when none were sent. */
+        public double winRate() {
+            return hedges == 0 ? 0 : (double) hedgeWins / hedges;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{requests=" + requests +
+                    ", hedges=" + hedges +
+                    ", hedgeWins=" + hedgeWins +
+                    ", budgetExhausted=" + budgetExhausted +
+                    '}';
+        }
+    }
+}
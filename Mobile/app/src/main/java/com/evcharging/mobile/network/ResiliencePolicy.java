@@ -0,0 +1,291 @@
+package com.evcharging.mobile.network;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * ResiliencePolicy - Retry, circuit breaking and adaptive timeouts for every API call
+ *
+ * Purpose: On a flaky mobile link one stalled request used to hold a screen for the
+ * full 30s timeout and any blip surfaced as "Network error".
+ * - Retry: idempotent methods are retried on connection errors and 502/503/504 with
+ *   full-jitter exponential backoff, limited per endpoint family by a RetryBudget
+ *   so retries never multiply load on a struggling backend
+ * - Circuit breaker: one CircuitBreaker per host; while open, calls fail fast with
+ *   CircuitOpenException instead of waiting on a dead server
+ * - Adaptive timeouts: connect/read timeouts follow the p99 time-to-first-byte of the
+ *   endpoint family (LatencyTracker), clamped between MIN_TIMEOUT_MS and the client default
+ *
+ * Installed as an application interceptor on the shared client (HttpClientProvider).
+ * Cache-only reads bypass it.
+ */
+public final class ResiliencePolicy {
+
+    private static final Set<String> IDEMPOTENT =
+            new HashSet<>(Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS"));
+
+    private static final int MAX_RETRIES = 2;
+    private static final long BASE_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 2_000;
+
+    private static final double TIMEOUT_PERCENTILE = 0.99;
+    private static final int TIMEOUT_MULTIPLIER = 4;
+    private static final long MIN_TIMEOUT_MS = 4_000;
+
+    /** Time source; replaced by a fake in tests so backoff and breaker timing are deterministic. */
+    interface Clock {
+        long nowMs();
+
+        void sleep(long ms) throws InterruptedException;
+
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nowMs() {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            }
+
+            @Override
+            public void sleep(long ms) throws InterruptedException {
+                Thread.sleep(ms);
+            }
+        };
+    }
+
+    private static final ResiliencePolicy INSTANCE = new ResiliencePolicy(Clock.SYSTEM, new Random());
+
+    private final Clock clock;
+    private final Random random;
+    private final LatencyTracker latency = new LatencyTracker();
+    private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+    private final Map<String, RetryBudget> budgets = new HashMap<>();
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    ResiliencePolicy(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    public static ResiliencePolicy get() {
+        return INSTANCE;
+    }
+
+    /** Attach the policy to the shared client builder. */
+    static void apply(OkHttpClient.Builder builder) {
+        builder.addInterceptor(INSTANCE::intercept);
+    }
+
+    /** Observed time-to-first-byte per endpoint family, shared with other latency-aware callers. */
+    LatencyTracker latency() {
+        return latency;
+    }
+
+    /** Retry / budget / fail-fast counters since process start. */
+    public Stats stats() {
+        return new Stats(retries.get(), budgetExhausted.get(), rejected.get());
+    }
+
+    /**
+     * Endpoint family of a URL: its path with id-like segments (anything containing a
+     * digit, e.g. Mongo ids and NICs) replaced, so /bookings/owner/{id} is one family.
+     */
+    static String endpointKey(HttpUrl url) {
+        StringBuilder key = new StringBuilder(url.host());
+        List<String> segments = url.pathSegments();
+        for (String segment : segments) {
+            key.append('/').append(isIdLike(segment) ? "{id}" : segment);
+        }
+        return key.toString();
+    }
+
+    // ---------------------------------------------------------------------
+    // Interceptor
+    // ---------------------------------------------------------------------
+    Response intercept(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        // Cache-only reads: a miss is a synthetic 504, not a server failure
+        if (request.cacheControl().onlyIfCached()) return chain.proceed(request);
+
+        String endpoint = endpointKey(request.url());
+        CircuitBreaker breaker = breakerFor(request.url().host());
+        RetryBudget budget = budgetFor(endpoint);
+        boolean idempotent = IDEMPOTENT.contains(request.method());
+        budget.deposit();
+
+        Interceptor.Chain timed = withAdaptiveTimeouts(chain, endpoint);
+        for (int attempt = 0; ; attempt++) {
+            long now = clock.nowMs();
+            if (!breaker.allow(now)) {
+                rejected.incrementAndGet();
+                throw new CircuitOpenException(request.url().host(), breaker.retryAfterMs(now));
+            }
+
+            Response response;
+            try {
+                response = timed.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    breaker.onIgnored();
+                    throw e;
+                }
+                breaker.onFailure(clock.nowMs());
+                if (!mayRetry(chain, idempotent, attempt, budget)) throw e;
+                backoff(chain, attempt, -1);
+                continue;
+            }
+
+            if (response.networkResponse() == null) { // answered from the disk cache
+                breaker.onIgnored();
+                return response;
+            }
+            latency.record(endpoint, response.receivedResponseAtMillis() - response.sentRequestAtMillis());
+
+            if (!isServerFailure(response.code())) {
+                breaker.onSuccess();
+                return response;
+            }
+            breaker.onFailure(clock.nowMs());
+            long retryAfterMs = retryAfterMs(response);
+            if (retryAfterMs > MAX_BACKOFF_MS || !mayRetry(chain, idempotent, attempt, budget)) return response;
+            response.close();
+            backoff(chain, attempt, retryAfterMs);
+        }
+    }
+
+    private boolean mayRetry(Interceptor.Chain chain, boolean idempotent, int attempt, RetryBudget budget) {
+        if (!idempotent || attempt >= MAX_RETRIES || chain.call().isCanceled()) return false;
+        if (!budget.tryWithdraw()) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+        retries.incrementAndGet();
+        return true;
+    }
+
+    // Full jitter: uniform in [0, min(MAX, BASE * 2^attempt)], or the server's Retry-After
+    private void backoff(Interceptor.Chain chain, int attempt, long retryAfterMs) throws IOException {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        long delay = retryAfterMs >= 0 ? retryAfterMs : (long) (random.nextDouble() * ceiling);
+        try {
+            clock.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during retry backoff", e);
+        }
+        if (chain.call().isCanceled()) throw new IOException("Canceled");
+    }
+
+    private Interceptor.Chain withAdaptiveTimeouts(Interceptor.Chain chain, String endpoint) {
+        long p99 = latency.percentile(endpoint, TIMEOUT_PERCENTILE);
+        if (p99 < 0) return chain; // not enough samples yet: client defaults
+        int connectMs = adaptiveTimeout(p99, chain.connectTimeoutMillis());
+        int readMs = adaptiveTimeout(p99, chain.readTimeoutMillis());
+        return chain.withConnectTimeout(connectMs, TimeUnit.MILLISECONDS)
+                .withReadTimeout(readMs, TimeUnit.MILLISECONDS);
+    }
+
+    static int adaptiveTimeout(long p99, int defaultMs) {
+        long wanted = Math.max(MIN_TIMEOUT_MS, p99 * TIMEOUT_MULTIPLIER);
+        return (int) Math.min(defaultMs, wanted);
+    }
+
+    private synchronized CircuitBreaker breakerFor(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        if (breaker == null) {
+            breaker = new CircuitBreaker();
+            breakers.put(host, breaker);
+        }
+        return breaker;
+    }
+
+    private synchronized RetryBudget budgetFor(String endpoint) {
+        RetryBudget budget = budgets.get(endpoint);
+        if (budget == null) {
+            budget = new RetryBudget();
+            budgets.put(endpoint, budget);
+        }
+        return budget;
+    }
+
+    private static boolean isServerFailure(int code) {
+        return code == 502 || code == 503 || code == 504;
+    }
+
+    // Retry-After in seconds (dates are not used by our backend); -1 if absent
+    private static long retryAfterMs(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) return -1;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isIdLike(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (Character.isDigit(segment.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Token bucket per endpoint family: every request earns DEPOSIT tokens, every retry
+     * spends one, so sustained retries stay below ~DEPOSIT of the traffic.
+     */
+    static final class RetryBudget {
+        private static final double MAX_TOKENS = 10;
+        private static final double DEPOSIT = 0.2;
+
+        private double tokens = MAX_TOKENS;
+
+        synchronized void deposit() {
+            tokens = Math.min(MAX_TOKENS, tokens + DEPOSIT);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    public static final class Stats {
+        public final long retries;
+        public final long budgetExhausted;
+        public final long rejected;
+
+        Stats(long retries, long budgetExhausted, long rejected) {
+            this.retries = retries;
+            this.budgetExhausted = budgetExhausted;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{retries=" + retries +
+                    ", budgetExhausted=" + budgetExhausted +
+                    ", rejected=" + rejected +
+                    '}';
+        }
+    }
+}
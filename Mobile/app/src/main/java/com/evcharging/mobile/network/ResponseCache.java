@@ -0,0 +1,213 @@
+package com.evcharging.mobile.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharging.mobile.utils.TaskScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * ResponseCache - Disk-backed HTTP cache for read-mostly endpoints
+ *
+ * Purpose: Station and slot lists are requested again on every onResume
+ * and spinner change. OkHttp's Cache keeps them on disk; this class decides how
+ * long each endpoint family stays fresh (the backend sends no Cache-Control of
+ * its own) and how long a stale copy may still be shown while revalidating.
+ *
+ * The backend tags these endpoints with a weak ETag ([ConditionalGet]), so expired
+ * entries are revalidated with If-None-Match and an unchanged list only costs a 304.
+ *
+ * Install once from EvApplication.onCreate(), before the first request.
+ */
+public final class ResponseCache {
+    private static final String TAG = "ResponseCache";
+    private static final String DIR_NAME = "http";
+    private static final long MAX_SIZE_BYTES = 10L * 1024 * 1024;
+
+    // Path prefix of every API endpoint ("/api")
+    private static final String API_PATH = HttpUrl.get(ApiClient.getApiBaseUrl()).encodedPath();
+
+    /**
+     * Freshness policy for one endpoint family
+     * maxAge: served straight from disk without touching the network
+     * staleWindow: how long after that a stale copy may be shown while revalidating
+     */
+    static final class Policy {
+        final String prefix;
+        final int maxAgeSeconds;
+        final int staleWindowSeconds;
+
+        Policy(String prefix, int maxAgeSeconds, int staleWindowSeconds) {
+            this.prefix = prefix;
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.staleWindowSeconds = staleWindowSeconds;
+        }
+    }
+
+    // First match wins, so longer prefixes go first
+    private static final List<Policy> POLICIES = Arrays.asList(
+            new Policy("/station/nearby-by-type", 60, 10 * 60),
+            new Policy("/station/nearby", 60, 10 * 60),
+            new Policy("/station/names", 10 * 60, 24 * 60 * 60),
+            new Policy("/slots/station/", 15, 5 * 60)
+    );
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong revalidated = new AtomicLong();
+    private static final AtomicLong staleServed = new AtomicLong();
+
+    private static volatile Cache cache;
+
+    private ResponseCache() {
+    }
+
+    /**
+     * Create the on-disk cache under the app cache directory
+     *
+     * @param context Any context; the application context is used
+     */
+    public static synchronized void install(Context context) {
+        if (cache != null) return;
+        File dir = new File(context.getApplicationContext().getCacheDir(), DIR_NAME);
+        cache = new Cache(dir, MAX_SIZE_BYTES);
+        Log.d(TAG, "HTTP cache installed at " + dir);
+    }
+
+    /**
+     * Attach the cache and policy interceptors to the shared client builder.
+     * No-op when install() has not been called (e.g. from a bare unit test).
+     */
+    static void apply(OkHttpClient.Builder builder) {
+        if (cache == null) return;
+        builder.cache(cache)
+                .addInterceptor(ResponseCache::countOutcome)
+                .addNetworkInterceptor(ResponseCache::applyFreshness);
+    }
+
+    /**
+     * Cache-only request header for stale-while-revalidate reads
+     *
+     * @return CacheControl allowing a stale copy within the policy window, or null if the endpoint is not cached
+     */
+    static CacheControl staleReadFor(String endpoint) {
+        Policy policy = policyForPath(API_PATH + endpoint);
+        if (cache == null || policy == null) return null;
+        return new CacheControl.Builder()
+                .onlyIfCached()
+                .maxStale(policy.staleWindowSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /** Drop every cached response, e.g. when the user logs out. Runs on the disk pool. */
+    public static void evictAll() {
+        Cache local = cache;
+        if (local == null) return;
+        TaskScheduler.get().submit(TaskScheduler.Pool.DISK, TaskScheduler.Priority.USER_VISIBLE, () -> {
+            try {
+                local.evictAll();
+                Log.d(TAG, "HTTP cache cleared");
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to clear HTTP cache", e);
+            }
+        });
+    }
+
+    static void recordStaleServed() {
+        staleServed.incrementAndGet();
+    }
+
+    /** Hit / miss / revalidation counters since process start. */
+    public static Stats stats() {
+        return new Stats(hits.get(), misses.get(), revalidated.get(), staleServed.get());
+    }
+
+    // ---------------------------------------------------------------------
+    // Interceptors
+    // ---------------------------------------------------------------------
+
+    // Network side: stamp our freshness policy on 200 / 304 responses that carry none
+    private static Response applyFreshness(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        Policy policy = policyForPath(request.url().encodedPath());
+
+        if (policy == null || !"GET".equals(request.method())) return response;
+        if (response.code() != 200 && response.code() != 304) return response;
+        if (response.header("Cache-Control") != null) return response; // server knows best
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "private, max-age=" + policy.maxAgeSeconds)
+                .build();
+    }
+
+    // Application side: classify how each cacheable GET was answered
+    private static Response countOutcome(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method()) || policyForPath(request.url().encodedPath()) == null) {
+            return response;
+        }
+
+        Response network = response.networkResponse();
+        Response cached = response.cacheResponse();
+        if (cached != null && network == null) {
+            hits.incrementAndGet();
+        } else if (cached != null && network.code() == 304) {
+            revalidated.incrementAndGet();
+        } else if (network != null) {
+            misses.incrementAndGet();
+        }
+        return response;
+    }
+
+    private static Policy policyForPath(String encodedPath) {
+        if (encodedPath == null || !encodedPath.startsWith(API_PATH)) return null;
+        String endpoint = encodedPath.substring(API_PATH.length());
+        for (Policy policy : POLICIES) {
+            if (endpoint.startsWith(policy.prefix)) return policy;
+        }
+        return null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long revalidated;
+        public final long staleServed;
+
+        Stats(long hits, long misses, long revalidated, long staleServed) {
+            this.hits = hits;
+            this.misses = misses;
+            this.revalidated = revalidated;
+            this.staleServed = staleServed;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits +
+                    ", misses=" + misses +
+                    ", revalidated=" + revalidated +
+                    ", staleServed=" + staleServed +
+                    '}';
+        }
+    }
+}
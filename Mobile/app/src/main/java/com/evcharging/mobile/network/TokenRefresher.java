@@ -0,0 +1,218 @@
+package com.evcharging.mobile.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.JwtUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * TokenRefresher - Keeps the session JWT fresh for every caller of the shared client
+ *
+ * Purpose: The backend issues 2-hour tokens. When one expired, every in-flight call
+ * (ApiClient, OwnerService, the hub) failed with its own 401 and the user was sent
+ * back to the login screen mid-flow.
+ * - Ahead of expiry: a request carrying a bearer token refreshes the session token
+ *   first when it expires within REFRESH_AHEAD_MS (exp from JwtUtils.Claims)
+ * - On 401: the OkHttp Authenticator refreshes and replays the request once
+ * - Single flight: refreshes run under one lock; callers that waited on it find the
+ *   token already replaced and reuse it, so any number of concurrent 401s cost one
+ *   POST /auth/refresh
+ * - Requests built with an older token are sent with the current one
+ * - SessionManager.replaceToken() stores the new token only if the session still
+ *   holds the old one, so a refresh racing a logout cannot log the user back in;
+ *   it rebuilds the user snapshot from the new token's claims in the same step
+ * - After a failed refresh the same token is not tried again for RETRY_AFTER_FAILURE_MS
+ *
+ * Install once from EvApplication.onCreate(); until then requests pass through untouched.
+ */
+public final class TokenRefresher {
+    private static final String TAG = "TokenRefresher";
+    private static final String REFRESH_PATH = "/auth/refresh";
+    private static final String BEARER = "Bearer ";
+
+    private static final long REFRESH_AHEAD_MS = 5 * 60 * 1000L;
+    private static final long RETRY_AFTER_FAILURE_MS = 15_000L;
+
+    private static final Object lock = new Object();
+    private static volatile SessionManager session;
+
+    // Guarded by lock
+    private static String failedToken;
+    private static long failedAt;
+
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong joined = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+
+    private TokenRefresher() {
+    }
+
+    /**
+     * @param context Any context; the application context is used
+     */
+    public static synchronized void install(Context context) {
+        if (session == null) session = new SessionManager(context.getApplicationContext());
+    }
+
+    /** Attach the refresh interceptor (first, so coalescing sees the token actually sent) and the 401 authenticator. */
+    static void apply(OkHttpClient.Builder builder) {
+        builder.addInterceptor(TokenRefresher::intercept)
+                .authenticator(TokenRefresher::authenticate);
+    }
+
+    /**
+     * Session token, refreshed first when it is about to expire. Blocks while a
+     * refresh runs; for callers that send the token themselves (the hub connection).
+     *
+     * @return null when logged out or not installed
+     */
+    public static String freshToken() {
+        SessionManager s = session;
+        if (s == null) return null;
+        String token = s.getToken();
+        if (token == null || !expiresSoon(token)) return token;
+
+        // Still usable for a few minutes if the refresh fails
+        String refreshed = refresh(token);
+        return refreshed != null ? refreshed : token;
+    }
+
+    /** Refresh / shared / failure counters since process start. */
+    public static Stats stats() {
+        return new Stats(refreshes.get(), joined.get(), failures.get());
+    }
+
+    // ---------------------------------------------------------------------
+    // Interceptor and authenticator
+    // ---------------------------------------------------------------------
+    private static Response intercept(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        String sent = bearerOf(request);
+        if (sent == null || session == null || isRefreshCall(request)) return chain.proceed(request);
+
+        String token = freshToken();
+        if (token != null && !token.equals(sent)) request = withBearer(request, token);
+        return chain.proceed(request);
+    }
+
+    private static Request authenticate(Route route, Response response) {
+        Request request = response.request();
+        String sent = bearerOf(request);
+        if (sent == null || session == null || isRefreshCall(request)) return null;
+        // Replayed once already: the new token was refused too
+        if (response.priorResponse() != null) return null;
+
+        String token = refresh(sent);
+        return token != null ? withBearer(request, token) : null;
+    }
+
+    /**
+     * Single-flight refresh of a token that is expiring or was refused
+     *
+     * @return the token to use instead, or null if there is none
+     */
+    private static String refresh(String stale) {
+        SessionManager s = session;
+        synchronized (lock) {
+            String current = s.getToken();
+            if (current == null) return null; // logged out meanwhile
+            if (!current.equals(stale)) {
+                joined.incrementAndGet(); // another caller already refreshed
+                return current;
+            }
+            long now = System.currentTimeMillis();
+            if (stale.equals(failedToken) && now - failedAt < RETRY_AFTER_FAILURE_MS) return null;
+
+            String refreshed = callRefresh(stale);
+            if (refreshed == null) {
+                failures.incrementAndGet();
+                failedToken = stale;
+                failedAt = now;
+                return null;
+            }
+            // Logged out or in again while the call ran: the refreshed token is dropped
+            if (!s.replaceToken(stale, refreshed)) return s.getToken();
+
+            refreshes.incrementAndGet();
+            return refreshed;
+        }
+    }
+
+    private static String callRefresh(String token) {
+        Request request = new Request.Builder()
+                .url(ApiClient.getApiBaseUrl() + REFRESH_PATH)
+                .addHeader("X-Client-Type", "Mobile")
+                .addHeader("Authorization", BEARER + token)
+                .post(RequestBody.create(new byte[0]))
+                .build();
+
+        try (Response response = HttpClientProvider.get().newCall(request).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                Log.w(TAG, "Token refresh refused: HTTP " + response.code());
+                return null;
+            }
+            String refreshed = new JSONObject(body).optString("token", null);
+            return refreshed != null && !refreshed.isEmpty() ? refreshed : null;
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Token refresh failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+    private static boolean expiresSoon(String token) {
+        JwtUtils.Claims claims = JwtUtils.claims(token);
+        return claims != null && claims.expiresAtMs > 0
+                && claims.isExpiredAt(System.currentTimeMillis() + REFRESH_AHEAD_MS);
+    }
+
+    private static String bearerOf(Request request) {
+        String header = request.header("Authorization");
+        return header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()) : null;
+    }
+
+    private static Request withBearer(Request request, String token) {
+        return request.newBuilder().header("Authorization", BEARER + token).build();
+    }
+
+    private static boolean isRefreshCall(Request request) {
+        return request.url().encodedPath().endsWith(REFRESH_PATH);
+    }
+
+    public static final class Stats {
+        public final long refreshes;
+        public final long joined;
+        public final long failures;
+
+        Stats(long refreshes, long joined, long failures) {
+            this.refreshes = refreshes;
+            this.joined = joined;
+            this.failures = failures;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{refreshes=" + refreshes +
+                    ", joined=" + joined +
+                    ", failures=" + failures +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.evcharging.mobile.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.BookingItem;
+import com.evcharging.mobile.model.SlotItem;
+import com.evcharging.mobile.model.TimeSlotItem;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.ApiListResponse;
+import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.utils.TimeFormat;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BookingSyncService - Reconciles the local store with the server
+ *
+ * Purpose: Fetch server collections and upsert them into LocalStore so screens can
+ * render the stored copy first and refresh once a sync completes. All methods block;
+ * call them from a background task.
+ */
+public class BookingSyncService {
+
+    private static final String TAG = "BookingSyncService";
+
+    // Deletions never appear in a delta, so replace the whole list at least this often
+    private static final long FULL_RESYNC_INTERVAL_MS = 12 * 60 * 60 * 1000L;
+
+    private final ApiClient apiClient;
+    private final LocalStore store;
+    private final Gson gson = new Gson();
+
+    public BookingSyncService(Context context, ApiClient apiClient) {
+        this.apiClient = apiClient;
+        this.store = new LocalStore(context);
+    }
+
+    public LocalStore getStore() {
+        return store;
+    }
+
+    /**
+     * Bring the stored copy of an owner's bookings up to date
+     *
+     * Normally asks only for bookings updated since the stored cursor and merges them in.
+     * Falls back to a full replace when there is no cursor yet, when the local rows have
+     * gone missing, or when the last full resync is older than FULL_RESYNC_INTERVAL_MS
+     * (deletions never show up in a delta).
+     *
+     * @return true if the store now matches the server
+     */
+    public boolean syncOwnerBookings(String ownerId) {
+        if (ownerId == null || ownerId.isEmpty()) return false;
+
+        String syncKey = "owner-bookings:" + ownerId;
+        LocalStore.SyncState state = store.getSyncState(syncKey);
+        long now = System.currentTimeMillis();
+        boolean full = state.cursor <= 0
+                || now - state.fullSyncAt > FULL_RESYNC_INTERVAL_MS
+                || store.countOwnerBookings(ownerId) == 0;
+
+        String endpoint = "/bookings/owner/" + ownerId + "?" + ApiClient.WITHOUT_QR_IMAGE;
+        if (!full) endpoint += "&since=" + TimeFormat.formatServer(state.cursor);
+
+        ApiListResponse<JsonObject> res = apiClient.getJsonList(endpoint);
+        if (!res.isSuccess()) {
+            Log.w(TAG, "Owner booking sync failed: " + res.getMessage());
+            return false;
+        }
+
+        List<JsonObject> items = res.getItems();
+        if (full) {
+            store.replaceOwnerBookings(ownerId, items);
+        } else {
+            store.upsertBookings(items);
+        }
+
+        // Cursor moves only after the rows are stored, so a crash in between just re-fetches
+        long cursor = full ? 0 : state.cursor;
+        for (JsonObject item : items) {
+            JsonElement updatedAt = item.get("updatedAt");
+            if (updatedAt != null && updatedAt.isJsonPrimitive()) {
+                cursor = Math.max(cursor, TimeFormat.parseServer(updatedAt.getAsString()));
+            }
+        }
+        store.saveSyncState(syncKey, new LocalStore.SyncState(cursor, full ? now : state.fullSyncAt));
+
+        Log.d(TAG, (full ? "Full" : "Delta") + " owner booking sync: " + items.size() + " booking(s)");
+        return true;
+    }
+
+    /**
+     * Re-read a single booking from the server and store it
+     *
+     * @return the fresh booking, the stored copy when offline, or null if neither exists
+     */
+    public BookingItem refreshBooking(String bookingId) {
+        if (bookingId == null || bookingId.isEmpty()) return null;
+        ApiResponse res = apiClient.get("/bookings/" + bookingId);
+        if (res.isSuccess() && res.getData() != null) {
+            try {
+                JsonObject booking = JsonParser.parseString(res.getData()).getAsJsonObject();
+                // The single-booking response still carries the PNG; the store only needs qrCode
+                booking.remove("qrImageBase64");
+                store.upsertBookings(Collections.singletonList(booking));
+                return gson.fromJson(booking, BookingItem.class);
+            } catch (Exception e) {
+                Log.e(TAG, "Unreadable booking " + bookingId, e);
+            }
+        }
+        return store.getBooking(bookingId);
+    }
+
+    /**
+     * Store a station's upcoming bookings under {@link #stationUpcomingKey(String)}
+     */
+    public boolean syncStationUpcoming(String stationId) {
+        ApiListResponse<JsonObject> res = apiClient.getJsonList(
+                "/bookings/station/" + stationId + "/upcoming?" + ApiClient.WITHOUT_QR_IMAGE);
+        if (!res.isSuccess()) {
+            Log.w(TAG, "Upcoming booking sync failed: " + res.getMessage());
+            return false;
+        }
+        store.replaceBookingList(stationUpcomingKey(stationId), res.getItems());
+        return true;
+    }
+
+    public static String stationUpcomingKey(String stationId) {
+        return "station-upcoming:" + stationId;
+    }
+
+    /**
+     * Slots for a station: server first (stored on success), stored copy when offline
+     * (marked stale)
+     */
+    public ApiListResponse<SlotItem> fetchSlots(String stationId) {
+        ApiListResponse<JsonObject> res = apiClient.getJsonList("/slots/station/" + stationId);
+        if (!res.isSuccess()) {
+            List<SlotItem> stored = store.getStationSlots(stationId);
+            if (!stored.isEmpty()) return new ApiListResponse<>(true, "Offline copy", stored, true);
+            return new ApiListResponse<>(false, res.getMessage(), null);
+        }
+        store.replaceStationSlots(stationId, res.getItems());
+        return new ApiListResponse<>(true, res.getMessage(), convert(res.getItems(), SlotItem.class));
+    }
+
+    /**
+     * Time slots for a slot and day: server first (stored on success), stored copy when offline
+     * The stored copy is marked stale: it shows what was free when last fetched, not current
+     * availability, so it must not be booked from.
+     */
+    public ApiListResponse<TimeSlotItem> fetchTimeSlots(String stationId, String slotId, String dateYmd) {
+        // The user is waiting on this list to pick a time: hedge slow responses
+        ApiListResponse<JsonObject> res = apiClient.getJsonListHedged(
+                String.format("/timeslot?stationId=%s&slotId=%s&date=%s", stationId, slotId, dateYmd));
+        if (!res.isSuccess()) {
+            List<TimeSlotItem> stored = store.getTimeSlots(stationId, slotId, dateYmd);
+            if (!stored.isEmpty()) return new ApiListResponse<>(true, "Offline copy", stored, true);
+            return new ApiListResponse<>(false, res.getMessage(), null);
+        }
+        store.replaceTimeSlots(stationId, slotId, dateYmd, res.getItems());
+        return new ApiListResponse<>(true, res.getMessage(), convert(res.getItems(), TimeSlotItem.class));
+    }
+
+    private <T> List<T> convert(List<JsonObject> items, Class<T> type) {
+        List<T> out = new ArrayList<>(items.size());
+        for (JsonObject item : items) {
+            out.add(gson.fromJson(item, type));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,385 @@
+package com.evcharging.mobile.service;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.HttpClientProvider;
+import com.evcharging.mobile.network.TokenRefresher;
+import com.evcharging.mobile.session.SessionManager;
+import com.google.gson.JsonObject;
+import com.microsoft.signalr.HubConnection;
+import com.microsoft.signalr.HubConnectionBuilder;
+import com.microsoft.signalr.HubConnectionState;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * HubConnectionManager - One SignalR connection for the whole app
+ *
+ * Purpose: Keep /notificationHub connected while any screen needs it, without
+ * blocking the caller and without each screen building its own connection.
+ * - Shared: screens acquire() in onResume and release() in onPause; the socket is
+ *   closed STOP_GRACE_MS after the last release, so moving between screens keeps it
+ * - Non-blocking: start/stop run on a single background thread, never the caller's
+ * - Auto-reconnect: a dropped connection is retried with jittered exponential backoff
+ *   (and at once when the network comes back)
+ * - Token provider: the current JWT is read on every connect (refreshed first if it is
+ *   about to expire), and a login / logout restarts the connection, so there is no
+ *   need to rebuild it with a new token
+ * - Live state: "BookingChanged" / "SlotChanged" events are written to LocalStore and
+ *   then handed to listeners, so lists update in place instead of re-polling. A
+ *   RECONNECTING -> CONNECTED transition means events may have been missed; screens
+ *   resync once at that point
+ * - Bursts: notifications go through a NotificationBatcher, so listeners get one
+ *   deduplicated batch per window instead of one main-thread post per message.
+ *   Each is written to the LocalStore notification table before it is delivered
+ *
+ * Listeners are called on the main thread.
+ */
+public final class HubConnectionManager {
+
+    private static final String TAG = "HubConnectionManager";
+    private static final String HUB_PATH = "/notificationHub";
+
+    private static final long STOP_GRACE_MS = 5_000;
+    private static final long BASE_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    public enum State { DISCONNECTED, CONNECTING, CONNECTED, RECONNECTING }
+
+    public interface NotificationListener {
+        /** Notifications pushed in the last batch window, oldest first, without duplicates. */
+        void onNotificationsReceived(List<Notification> batch);
+    }
+
+    public interface StateListener {
+        void onStateChanged(State state);
+    }
+
+    /** Full booking as the server now has it (same shape as GET /bookings/{id}). */
+    public interface BookingListener {
+        void onBookingChanged(JsonObject booking);
+    }
+
+    /** Slot with its new status (slotId, stationId, number, status, updatedAt). */
+    public interface SlotListener {
+        void onSlotChanged(JsonObject slot);
+    }
+
+    private static volatile HubConnectionManager instance;
+
+    private final SessionManager sessionManager;
+    private final LocalStore store;
+    private final HubConnection hubConnection;
+    // Every field below is only touched on this thread
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "signalr-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Random random = new Random();
+    private final NotificationBatcher notifications = new NotificationBatcher(mainHandler, this::deliver);
+
+    private final List<NotificationListener> notificationListeners = new CopyOnWriteArrayList<>();
+    private final List<StateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final List<BookingListener> bookingListeners = new CopyOnWriteArrayList<>();
+    private final List<SlotListener> slotListeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.DISCONNECTED;
+    private int refs;
+    private int attempt;
+    private boolean starting;
+    private ScheduledFuture<?> pendingReconnect;
+    private ScheduledFuture<?> pendingStop;
+    private String userId;
+
+    private HubConnectionManager(Context context) {
+        Context app = context.getApplicationContext();
+        sessionManager = new SessionManager(app);
+        store = new LocalStore(app);
+        userId = currentUserId();
+
+        hubConnection = HubConnectionBuilder.create(ApiClient.getBaseUrl() + HUB_PATH)
+                // Read per connect, so a refreshed or new token is picked up by the next start()
+                .withAccessTokenProvider(Single.fromCallable(() -> {
+                    String token = TokenRefresher.freshToken();
+                    if (token == null) token = sessionManager.getToken();
+                    return token != null ? token : "";
+                }))
+                // Negotiate + WebSocket over the app-wide connection pool
+                .setHttpClientBuilderCallback(HttpClientProvider::configure)
+                .build();
+
+        // Stored first (the unread counter moves with it); ids already stored are not shown again
+        hubConnection.on("ReceiveNotification", notification -> executor.execute(() -> {
+            if (userId != null && notification.getId() != null
+                    && store.upsertNotifications(userId, Collections.singletonList(notification)) == 0) {
+                return;
+            }
+            notifications.submit(notification);
+        }), Notification.class);
+
+        // Stored before listeners run, so a screen opened later reads the pushed state too
+        hubConnection.on("BookingChanged", booking -> executor.execute(() -> {
+            store.upsertBookings(Collections.singletonList(booking));
+            mainHandler.post(() -> {
+                for (BookingListener listener : bookingListeners) listener.onBookingChanged(booking);
+            });
+        }), JsonObject.class);
+
+        hubConnection.on("SlotChanged", slot -> executor.execute(() -> {
+            store.upsertSlot(slot);
+            mainHandler.post(() -> {
+                for (SlotListener listener : slotListeners) listener.onSlotChanged(slot);
+            });
+        }), JsonObject.class);
+
+        hubConnection.onClosed(error -> executor.execute(() -> onClosed(error)));
+
+        SessionManager.addOnUserChangedListener(this::onUserChanged);
+        watchNetwork(app);
+    }
+
+    public static HubConnectionManager get(Context context) {
+        if (instance == null) {
+            synchronized (HubConnectionManager.class) {
+                if (instance == null) instance = new HubConnectionManager(context);
+            }
+        }
+        return instance;
+    }
+
+    // ---------------------------------------------------------------------
+    // Screens
+    // ---------------------------------------------------------------------
+
+    /** A screen wants live notifications; connects if this is the first holder. */
+    public void acquire() {
+        executor.execute(() -> {
+            refs++;
+            cancel(pendingStop);
+            pendingStop = null;
+            if (state == State.DISCONNECTED) connect();
+        });
+    }
+
+    /** The screen no longer needs the connection; the last release stops it after a grace period. */
+    public void release() {
+        executor.execute(() -> {
+            if (refs == 0) return;
+            if (--refs == 0) {
+                cancel(pendingStop);
+                pendingStop = executor.schedule(this::stop, STOP_GRACE_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /** Drop the current socket and connect again (e.g. after the token changed). */
+    public void restart() {
+        executor.execute(() -> {
+            attempt = 0;
+            if (hubConnection.getConnectionState() != HubConnectionState.DISCONNECTED) {
+                hubConnection.stop(); // onClosed reconnects while the connection is held
+            } else if (refs > 0) {
+                cancel(pendingReconnect);
+                connect();
+            }
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isConnected() {
+        return state == State.CONNECTED;
+    }
+
+    /** Received / duplicate / batch counters for pushed notifications. */
+    public String notificationStats() {
+        return notifications.stats().toString();
+    }
+
+    public void addNotificationListener(NotificationListener listener) {
+        if (listener != null && !notificationListeners.contains(listener)) notificationListeners.add(listener);
+    }
+
+    public void removeNotificationListener(NotificationListener listener) {
+        notificationListeners.remove(listener);
+    }
+
+    public void addBookingListener(BookingListener listener) {
+        if (listener != null && !bookingListeners.contains(listener)) bookingListeners.add(listener);
+    }
+
+    public void removeBookingListener(BookingListener listener) {
+        bookingListeners.remove(listener);
+    }
+
+    public void addSlotListener(SlotListener listener) {
+        if (listener != null && !slotListeners.contains(listener)) slotListeners.add(listener);
+    }
+
+    public void removeSlotListener(SlotListener listener) {
+        slotListeners.remove(listener);
+    }
+
+    /** The listener is called at once with the current state, then on every change. */
+    public void addStateListener(StateListener listener) {
+        if (listener == null || stateListeners.contains(listener)) return;
+        stateListeners.add(listener);
+        State current = state;
+        mainHandler.post(() -> listener.onStateChanged(current));
+    }
+
+    public void removeStateListener(StateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    // ---------------------------------------------------------------------
+    // Connection (executor thread only)
+    // ---------------------------------------------------------------------
+    private void connect() {
+        pendingReconnect = null;
+        if (refs == 0 || starting) return;
+        if (sessionManager.getToken() == null) {
+            setState(State.DISCONNECTED); // logged out: the next login restarts us
+            return;
+        }
+
+        starting = true;
+        setState(attempt == 0 ? State.CONNECTING : State.RECONNECTING);
+        hubConnection.start().subscribe(
+                () -> executor.execute(this::onStarted),
+                error -> executor.execute(() -> onStartFailed(error)));
+    }
+
+    private void onStarted() {
+        starting = false;
+        attempt = 0;
+        setState(State.CONNECTED);
+        Log.d(TAG, "SignalR connected");
+        if (refs == 0) stop();
+    }
+
+    private void onStartFailed(Throwable error) {
+        starting = false;
+        Log.w(TAG, "SignalR connect failed: " + error.getMessage());
+        scheduleReconnect();
+    }
+
+    private void onClosed(Exception error) {
+        if (error != null) Log.w(TAG, "SignalR connection lost: " + error.getMessage());
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (refs == 0) {
+            setState(State.DISCONNECTED);
+            return;
+        }
+        if (pendingReconnect != null) return;
+        long delay = backoffMs(attempt++);
+        setState(State.RECONNECTING);
+        Log.d(TAG, "SignalR reconnecting in " + delay + " ms");
+        pendingReconnect = executor.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void stop() {
+        pendingStop = null;
+        if (refs > 0) return;
+        cancel(pendingReconnect);
+        pendingReconnect = null;
+        attempt = 0;
+        if (hubConnection.getConnectionState() == HubConnectionState.CONNECTED) {
+            hubConnection.stop();
+            Log.d(TAG, "SignalR disconnected");
+        }
+        setState(State.DISCONNECTED);
+    }
+
+    // Equal jitter: half the exponential step plus a random share of the other half
+    private long backoffMs(int attempt) {
+        long step = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt, 16));
+        return step / 2 + (long) (random.nextDouble() * (step / 2));
+    }
+
+    private void setState(State next) {
+        if (state == next) return;
+        state = next;
+        mainHandler.post(() -> {
+            for (StateListener listener : stateListeners) {
+                listener.onStateChanged(next);
+            }
+        });
+    }
+
+    private void deliver(List<Notification> batch) {
+        Log.d(TAG, "Notifications received: " + batch.size());
+        for (NotificationListener listener : notificationListeners) {
+            listener.onNotificationsReceived(batch);
+        }
+    }
+
+    private static void cancel(ScheduledFuture<?> future) {
+        if (future != null) future.cancel(false);
+    }
+
+    // ---------------------------------------------------------------------
+    // Triggers: login / logout and network changes
+    // ---------------------------------------------------------------------
+    private void onUserChanged(User user) {
+        String id = user != null ? user.getUserId() : null;
+        executor.execute(() -> {
+            boolean changed = id == null ? userId != null : !id.equals(userId);
+            userId = id;
+            if (!changed) return; // profile edits keep the same user and connection
+            notifications.clear(); // nothing meant for the previous user is shown
+            restart();
+        });
+    }
+
+    private String currentUserId() {
+        User user = sessionManager.getLoggedInUser();
+        return user != null ? user.getUserId() : null;
+    }
+
+    private void watchNetwork(Context app) {
+        ConnectivityManager connectivity = (ConnectivityManager) app.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity == null) return;
+        try {
+            connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    executor.execute(() -> {
+                        // Waiting out a backoff: try now that there is a network again
+                        if (pendingReconnect == null) return;
+                        cancel(pendingReconnect);
+                        attempt = 0;
+                        connect();
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Network callback unavailable; relying on backoff only", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.evcharging.mobile.service;
+
+import android.os.Handler;
+
+import com.evcharging.mobile.model.Notification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotificationBatcher - Turns a burst of hub notifications into one UI update
+ *
+ * Purpose: The server can push many notifications at once (e.g. a station going
+ * offline cancels every booking on it). Posting each to the main thread meant one
+ * badge update, toast and tray entry per message.
+ * - Batching: messages arriving within WINDOW_MS are delivered together, so the main
+ *   thread sees at most one post per window however large the burst
+ * - Dedupe: a notification id already delivered (hub redelivery after a reconnect,
+ *   or the same push twice) is dropped; the last SEEN_IDS ids are remembered
+ *
+ * submit() may be called from any thread; the sink runs on the handler's thread.
+ */
+final class NotificationBatcher {
+
+    static final long WINDOW_MS = 250;
+    private static final int SEEN_IDS = 512;
+
+    interface Sink {
+        void onBatch(List<Notification> batch);
+    }
+
+    private final Handler handler;
+    private final Sink sink;
+    private final Runnable flush = this::flush;
+
+    private final Map<String, Boolean> seen = new LinkedHashMap<String, Boolean>(64, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SEEN_IDS;
+        }
+    };
+    private List<Notification> pending = new ArrayList<>();
+    private boolean flushScheduled;
+
+    private long received;
+    private long duplicates;
+    private long batches;
+
+    NotificationBatcher(Handler handler, Sink sink) {
+        this.handler = handler;
+        this.sink = sink;
+    }
+
+    void submit(Notification notification) {
+        if (notification == null) return;
+        synchronized (this) {
+            received++;
+            String id = notification.getId();
+            if (id != null && seen.put(id, Boolean.TRUE) != null) {
+                duplicates++;
+                return;
+            }
+            pending.add(notification);
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        handler.postDelayed(flush, WINDOW_MS);
+    }
+
+    /** Drop anything not yet delivered (e.g. on logout). */
+    synchronized void clear() {
+        pending = new ArrayList<>();
+        seen.clear();
+    }
+
+    synchronized Stats stats() {
+        return new Stats(received, duplicates, batches);
+    }
+
+    private void flush() {
+        List<Notification> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new ArrayList<>();
+            batches++;
+        }
+        sink.onBatch(batch);
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    static final class Stats {
+        final long received;
+        final long duplicates;
+        final long batches;
+
+        Stats(long received, long duplicates, long batches) {
+            this.received = received;
+            this.duplicates = duplicates;
+            this.batches = batches;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{received=" + received +
+                    ", duplicates=" + duplicates +
+                    ", batches=" + batches +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.evcharging.mobile.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.ApiListResponse;
+import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.utils.TimeFormat;
+
+import java.util.List;
+
+/**
+ * NotificationSyncService - Keeps the local notification table in step with the server
+ *
+ * Purpose: The notification screen and the unread badge read from LocalStore; this
+ * brings new server notifications in behind them. Normally only notifications created
+ * since the stored cursor are fetched. Read flags and deletions made elsewhere never
+ * show up in such a delta, so the whole list is replaced every FULL_RESYNC_INTERVAL_MS.
+ *
+ * Mark-read and delete are applied locally first, then sent; a failed call forces the
+ * next sync to be a full one. All methods block; call them from a background task.
+ */
+public class NotificationSyncService {
+
+    private static final String TAG = "NotificationSync";
+
+    private static final long FULL_RESYNC_INTERVAL_MS = 12 * 60 * 60 * 1000L;
+
+    private final ApiClient apiClient;
+    private final LocalStore store;
+
+    public NotificationSyncService(Context context, ApiClient apiClient) {
+        this.apiClient = apiClient;
+        this.store = new LocalStore(context);
+    }
+
+    public LocalStore getStore() {
+        return store;
+    }
+
+    /** @return true if the store now matches the server */
+    public boolean sync(String userId) {
+        if (userId == null || userId.isEmpty()) return false;
+
+        String syncKey = syncKey(userId);
+        LocalStore.SyncState state = store.getSyncState(syncKey);
+        long now = System.currentTimeMillis();
+        boolean full = state.cursor <= 0
+                || now - state.fullSyncAt > FULL_RESYNC_INTERVAL_MS
+                || store.countNotifications(userId) == 0;
+
+        String endpoint = "/notifications/user";
+        if (!full) endpoint += "?since=" + TimeFormat.formatServer(state.cursor);
+
+        ApiListResponse<Notification> res = apiClient.getList(endpoint, Notification.class);
+        if (!res.isSuccess()) {
+            Log.w(TAG, "Notification sync failed: " + res.getMessage());
+            return false;
+        }
+
+        List<Notification> items = res.getItems();
+        if (full) {
+            store.replaceNotifications(userId, items);
+        } else {
+            store.upsertNotifications(userId, items);
+        }
+
+        // Cursor moves only after the rows are stored, so a crash in between just re-fetches
+        long cursor = full ? 0 : state.cursor;
+        for (Notification item : items) {
+            if (item.getCreatedAt() != null) cursor = Math.max(cursor, item.getCreatedAt().getTime());
+        }
+        store.saveSyncState(syncKey, new LocalStore.SyncState(cursor, full ? now : state.fullSyncAt));
+
+        Log.d(TAG, (full ? "Full" : "Delta") + " notification sync: " + items.size() + " notification(s)");
+        return true;
+    }
+
+    public ApiResponse markAsRead(String userId, String notificationId) {
+        store.markNotificationRead(userId, notificationId);
+        ApiResponse response = apiClient.markNotificationAsRead(notificationId);
+        if (!response.isSuccess()) forceFullSync(userId);
+        return response;
+    }
+
+    public ApiResponse delete(String userId, String notificationId) {
+        store.deleteNotification(userId, notificationId);
+        ApiResponse response = apiClient.deleteNotification(notificationId);
+        if (!response.isSuccess()) forceFullSync(userId);
+        return response;
+    }
+
+    // The local copy may now disagree with the server: replace it on the next sync
+    private void forceFullSync(String userId) {
+        store.saveSyncState(syncKey(userId), LocalStore.SyncState.NONE);
+    }
+
+    private static String syncKey(String userId) {
+        return "notifications:" + userId;
+    }
+}
@@ -0,0 +1,124 @@
+package com.evcharging.mobile.service;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+
+import com.evcharging.mobile.R;
+import com.evcharging.mobile.model.Notification;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * NotificationTray - Grouped system notifications for hub messages
+ *
+ * Purpose: Show a batch from HubConnectionManager as one group in the tray instead
+ * of one entry per message.
+ * - Each notification is posted with its server id as the tag, so a repeated id
+ *   replaces its entry rather than adding another
+ * - At most MAX_INDIVIDUAL entries are in the tray at once, across batches: older
+ *   entries are cancelled as newer ones arrive and are only counted in the summary,
+ *   which lists the latest INBOX_LINES messages
+ * - clear() removes the group once the user has opened the notification screen
+ */
+public final class NotificationTray {
+
+    public static final String CHANNEL_ID = "ev_notifications";
+
+    private static final String GROUP_KEY = "com.evcharging.mobile.NOTIFICATIONS";
+    private static final String TITLE = "EV Charging System";
+    private static final int ENTRY_ID = 1;
+    private static final int SUMMARY_ID = 0;
+    private static final int MAX_INDIVIDUAL = 4;
+    private static final int INBOX_LINES = 5;
+
+    // Messages shown since the last clear(); main thread only
+    private static int unseen;
+    // Tags of the entries in the tray, oldest first; main thread only
+    private static final LinkedHashSet<String> posted = new LinkedHashSet<>();
+
+    private NotificationTray() {
+    }
+
+    public static void createChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    "EV Charging Notifications", NotificationManager.IMPORTANCE_DEFAULT);
+            channel.setDescription("Notifications for EV charging system");
+
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            if (manager != null) manager.createNotificationChannel(channel);
+        }
+    }
+
+    /** Post one batch; call on the main thread. */
+    public static void show(Context context, List<Notification> batch) {
+        if (batch.isEmpty()) return;
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager == null) return;
+
+        unseen += batch.size();
+        boolean grouped = unseen > 1;
+        for (int i = Math.max(0, batch.size() - MAX_INDIVIDUAL); i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                    .setSmallIcon(R.drawable.ic_notifications)
+                    .setContentTitle(TITLE)
+                    .setContentText(notification.getMessage())
+                    .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setGroup(GROUP_KEY)
+                    .setAutoCancel(true);
+            // With a summary, only the summary alerts: one sound for the whole batch
+            if (grouped) builder.setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+            String tag = tagOf(notification);
+            manager.notify(tag, ENTRY_ID, builder.build());
+            posted.remove(tag); // a repeated id moves to the newest position
+            posted.add(tag);
+        }
+        // Keep the tray bounded: the summary carries everything older
+        for (Iterator<String> oldest = posted.iterator(); posted.size() > MAX_INDIVIDUAL; ) {
+            manager.cancel(oldest.next(), ENTRY_ID);
+            oldest.remove();
+        }
+
+        if (grouped) {
+            NotificationCompat.InboxStyle inbox = new NotificationCompat.InboxStyle()
+                    .setSummaryText(unseen + " new");
+            for (int i = batch.size() - 1; i >= Math.max(0, batch.size() - INBOX_LINES); i--) {
+                inbox.addLine(batch.get(i).getMessage());
+            }
+            NotificationCompat.Builder summary = new NotificationCompat.Builder(context, CHANNEL_ID)
+                    .setSmallIcon(R.drawable.ic_notifications)
+                    .setContentTitle(TITLE)
+                    .setContentText(unseen + " new notifications")
+                    .setStyle(inbox)
+                    .setNumber(unseen)
+                    .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setGroup(GROUP_KEY)
+                    .setGroupSummary(true)
+                    .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                    .setAutoCancel(true);
+            manager.notify(SUMMARY_ID, summary.build());
+        }
+    }
+
+    /** Remove every tray entry posted by show(). */
+    public static void clear(Context context) {
+        unseen = 0;
+        posted.clear();
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager != null) manager.cancelAll();
+    }
+
+    // Server id when there is one; otherwise the message itself keys the entry
+    private static String tagOf(Notification notification) {
+        String id = notification.getId();
+        if (id != null) return id;
+        return "msg:" + (notification.getMessage() != null ? notification.getMessage().hashCode() : 0);
+    }
+}
@@ -2,9 +2,11 @@ package com.evcharging.mobile.service;
 
 import static com.evcharging.mobile.network.ApiClient.getApiBaseUrl;
 
+import android.content.Context;
 import android.util.Log;
 
 import com.evcharging.mobile.network.ApiResponse;
+import com.evcharging.mobile.network.HttpClientProvider;
 import com.evcharging.mobile.session.SessionManager;
 
 import org.json.JSONException;
@@ -12,7 +14,6 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -23,16 +24,13 @@ public class OwnerService {
 
     private static final String TAG = "OwnerService";
     private static final okhttp3.MediaType JSON = okhttp3.MediaType.get("application/json; charset=utf-8");
-    private SessionManager sessionManager;
-    private OkHttpClient client;
-
-    public OwnerService() {
-        // Initialize OkHttpClient (unsafe SSL can be added if needed for ngrok/dev)
-        client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+    private final SessionManager sessionManager;
+    private final OkHttpClient client;
+
+    public OwnerService(Context context) {
+        sessionManager = new SessionManager(context);
+        // Reuse the app-wide OkHttpClient (shared pool; ngrok SSL relaxed in debug builds only)
+        client = HttpClientProvider.get();
     }
 
     public ApiResponse registerOwner(String nic, String fullName, String email, String phone, String password) {
@@ -0,0 +1,146 @@
+package com.evcharging.mobile.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Station;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.ApiListResponse;
+import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.StationIndex;
+import com.evcharging.mobile.utils.TaskScheduler;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * StationCatalog - Local copy of every station, with a spatial index for nearby lookups
+ *
+ * Purpose: Nearby-station queries are answered from a StationIndex built over the
+ * stations stored in LocalStore, so they cost no request and keep working offline.
+ * Only active stations are downloaded: the catalog feeds the booking spinner and the map.
+ * The catalog itself is re-downloaded at most every SYNC_INTERVAL_MS; a stale
+ * catalog is still served while the refresh runs in the background.
+ *
+ * Blocking methods: call from a background task.
+ */
+public final class StationCatalog {
+
+    private static final String TAG = "StationCatalog";
+    // Renamed when the catalog became active-only, so older copies holding deactivated stations resync
+    private static final String SYNC_KEY = "station-catalog:active";
+    private static final long SYNC_INTERVAL_MS = 6 * 60 * 60 * 1000L;
+
+    // /station/names filters by type but does not echo it back, so each type is fetched separately
+    private static final String[] TYPES = {"AC", "DC"};
+
+    private static volatile StationCatalog instance;
+
+    private final LocalStore store;
+    private final ApiClient apiClient;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile StationIndex index;
+    private volatile long syncedAt;
+
+    private StationCatalog(Context context) {
+        Context app = context.getApplicationContext();
+        this.store = new LocalStore(app);
+        this.apiClient = new ApiClient(new SessionManager(app));
+    }
+
+    public static StationCatalog get(Context context) {
+        if (instance == null) {
+            synchronized (StationCatalog.class) {
+                if (instance == null) instance = new StationCatalog(context);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stations of a type within radiusKm of a point, nearest first
+     *
+     * @param type "AC" / "DC", or null for every type
+     * @return the matches, or null if there is no catalog yet and it could not be downloaded
+     */
+    public List<Station> nearby(String type, double latitude, double longitude, double radiusKm) {
+        StationIndex current = load();
+        if (isStale()) {
+            if (current.size() > 0) {
+                refreshInBackground();
+            } else {
+                if (!refresh()) return null;
+                current = index;
+            }
+        }
+        return current.nearby(type, latitude, longitude, radiusKm);
+    }
+
+    /**
+     * Download the full catalog, store it and rebuild the index
+     *
+     * @return true if the catalog now matches the server
+     */
+    public boolean refresh() {
+        List<JsonObject> all = new ArrayList<>();
+        for (String type : TYPES) {
+            ApiListResponse<JsonObject> res = apiClient.getJsonList("/station/names?type=" + type + "&onlyActive=true");
+            if (!res.isSuccess()) {
+                Log.w(TAG, "Station catalog sync failed: " + res.getMessage());
+                return false;
+            }
+            for (JsonObject station : res.getItems()) {
+                station.addProperty("type", type);
+                all.add(station);
+            }
+        }
+
+        store.replaceStations(all);
+        long now = System.currentTimeMillis();
+        store.saveSyncState(SYNC_KEY, new LocalStore.SyncState(0, now));
+        index = new StationIndex(store.getAllStations());
+        syncedAt = now;
+        Log.d(TAG, "Station catalog synced: " + index.size() + " station(s)");
+        return true;
+    }
+
+    /**
+     * The index as loaded right now; never blocks on the network (a stale catalog is
+     * refreshed in the background). A new instance is returned after every refresh.
+     */
+    public StationIndex getIndex() {
+        StationIndex current = load();
+        if (isStale()) refreshInBackground();
+        return current;
+    }
+
+    private StationIndex load() {
+        StationIndex current = index;
+        if (current != null) return current;
+        synchronized (this) {
+            if (index == null) {
+                syncedAt = store.getSyncState(SYNC_KEY).fullSyncAt;
+                index = new StationIndex(store.getAllStations());
+            }
+            return index;
+        }
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - syncedAt > SYNC_INTERVAL_MS;
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) return;
+        TaskScheduler.get().submit(TaskScheduler.Pool.NETWORK, TaskScheduler.Priority.PREFETCH, () -> {
+            try {
+                refresh();
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package com.evcharging.mobile.service;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.evcharging.mobile.model.Station;
+import com.evcharging.mobile.network.ApiClient;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * StationSearch - Type-ahead pipeline for the station search box
+ *
+ * Purpose: Turn keystrokes into as few /station/names requests as possible.
+ * - Debounce: a query is only sent once typing pauses for DEBOUNCE_MS
+ * - Cancellation: a newer query cancels the pending or in-flight one, and late
+ *   results for superseded queries are dropped
+ * - Cache: results are kept in an LRU keyed by (type, query). The server matches
+ *   the query anywhere in the station location, so "Colombo" can be answered by
+ *   filtering the cached results for "Col", or the whole type catalog (query "")
+ *
+ * Must be used from the main thread; results are delivered there too.
+ */
+public class StationSearch {
+
+    private static final String TAG = "StationSearch";
+
+    private static final long DEBOUNCE_MS = 300;
+    private static final int MAX_CACHED_QUERIES = 32;
+
+    // The server treats the query as a regex; only plain text can be refined locally
+    private static final Pattern PLAIN_TEXT = Pattern.compile("[\\p{L}\\p{N}\\s,'/-]*");
+
+    public interface Listener {
+        void onResults(String query, List<Station> stations);
+    }
+
+    private final ApiClient apiClient;
+    private final Object tag;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Gson gson = new Gson();
+
+    private final Map<String, List<Station>> cache =
+            new LinkedHashMap<String, List<Station>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Station>> eldest) {
+                    return size() > MAX_CACHED_QUERIES;
+                }
+            };
+
+    private Runnable pending;
+    private ApiClient.CachedRequest inFlight;
+    private int generation;
+
+    /**
+     * @param tag Request tag (usually the Activity) so ApiClient.cancelAll(tag) also stops searches
+     */
+    public StationSearch(ApiClient apiClient, Object tag, Listener listener) {
+        this.apiClient = apiClient;
+        this.tag = tag;
+        this.listener = listener;
+    }
+
+    /**
+     * Load every station of a type once, so later queries filter it locally
+     */
+    public void prefetch(String type) {
+        if (cache.containsKey(key(type, ""))) return;
+        apiClient.getCachedAsync(endpoint(type, ""), tag, res -> {
+            List<Station> stations = parse(res.getData());
+            if (res.isSuccess() && stations != null) cache.put(key(type, ""), stations);
+        });
+    }
+
+    /**
+     * Queue a search for the latest text; earlier queries are superseded
+     */
+    public void search(String type, String query) {
+        cancel();
+        int current = ++generation;
+
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) return;
+
+        List<Station> local = lookup(type, normalized);
+        if (local != null) {
+            listener.onResults(query, local);
+            return;
+        }
+
+        pending = () -> {
+            pending = null;
+            inFlight = apiClient.getCachedAsync(endpoint(type, normalized), tag, res -> {
+                List<Station> stations = parse(res.getData());
+                if (!res.isSuccess() || stations == null) {
+                    Log.w(TAG, "Station search failed: " + res.getMessage());
+                    return;
+                }
+                cache.put(key(type, normalized), stations);
+                if (current == generation) listener.onResults(query, stations);
+            });
+        };
+        handler.postDelayed(pending, DEBOUNCE_MS);
+    }
+
+    /** Drop the pending query and cancel the request in flight. */
+    public void cancel() {
+        if (pending != null) {
+            handler.removeCallbacks(pending);
+            pending = null;
+        }
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    // Exact hit, else refine the longest cached prefix (down to the "" catalog)
+    private List<Station> lookup(String type, String query) {
+        List<Station> exact = cache.get(key(type, query));
+        if (exact != null) return exact;
+        if (!PLAIN_TEXT.matcher(query).matches()) return null;
+
+        for (int length = query.length() - 1; length >= 0; length--) {
+            List<Station> broader = cache.get(key(type, query.substring(0, length)));
+            if (broader == null) continue;
+
+            List<Station> refined = new ArrayList<>();
+            for (Station station : broader) {
+                String location = station.getLocation();
+                if (location != null && location.toLowerCase(Locale.ROOT).contains(query)) {
+                    refined.add(station);
+                }
+            }
+            cache.put(key(type, query), refined);
+            return refined;
+        }
+        return null;
+    }
+
+    private List<Station> parse(String json) {
+        if (json == null || json.isEmpty()) return null;
+        try {
+            Type listType = new TypeToken<List<Station>>() {}.getType();
+            return gson.fromJson(json, listType);
+        } catch (Exception e) {
+            Log.e(TAG, "Unreadable station search response", e);
+            return null;
+        }
+    }
+
+    private static String endpoint(String type, String query) {
+        return "/station/names?type=" + Uri.encode(type) + "&location=" + Uri.encode(query);
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String type, String query) {
+        return type + "|" + query;
+    }
+}
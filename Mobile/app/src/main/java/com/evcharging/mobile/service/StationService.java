@@ -5,6 +5,7 @@ import android.util.Log;
 
 import com.evcharging.mobile.model.Station;
 import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.ApiListResponse;
 import com.evcharging.mobile.network.ApiResponse;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -21,10 +22,19 @@ public class StationService {
     private static final String TAG = "StationService";
     private static final Logger log = LoggerFactory.getLogger(StationService.class);
     private final ApiClient apiClient;
+    private final StationCatalog catalog;
     private final Gson gson;
 
     public StationService(ApiClient apiClient) {
+        this(apiClient, null);
+    }
+
+    /**
+     * @param catalog Local station catalog answering nearby lookups offline; null to always ask the server
+     */
+    public StationService(ApiClient apiClient, StationCatalog catalog) {
         this.apiClient = apiClient;
+        this.catalog = catalog;
         this.gson = new Gson();
     }
 
@@ -32,29 +42,18 @@ public class StationService {
         try {
             Log.d("OwnerHomeActivity", "Calling getNearbyStations...");
 
-            // Note: your BASE_URL already includes /api
-            String endpoint = String.format("/station/nearby?latitude=%f&longitude=%f&radiusKm=%f",
-                    latitude, longitude, radiusKm);
+            // Local spatial index first; the server only when there is no catalog yet
+            List<Station> local = catalog != null ? catalog.nearby(null, latitude, longitude, radiusKm) : null;
+            if (local != null) return local;
 
-            Log.d(TAG, "Nearby stations endpoint: " + endpoint);
-
-            ApiResponse response = apiClient.get(endpoint);
-            Log.d(TAG, "Success: " + response.isSuccess());
-            Log.d(TAG, "Message: " + response.getMessage());
-            Log.d(TAG, "Data: " + response.getData());
-            if (response == null || !response.isSuccess()) {
-                Log.e(TAG, "Failed to fetch stations: " + (response != null ? response.getMessage() : "null response"));
+            // Streamed straight into Station objects (nearby lists can be large)
+            ApiListResponse<Station> response = apiClient.getNearbyStationList(latitude, longitude, radiusKm);
+            Log.d(TAG, "Success: " + response.isSuccess() + ", stations: " + response.getItems().size());
+            if (!response.isSuccess()) {
+                Log.e(TAG, "Failed to fetch stations: " + response.getMessage());
                 return null;
             }
-
-            String jsonData = response.getData(); // Raw JSON string from ApiResponse
-            if (jsonData == null || jsonData.isEmpty()) {
-                Log.e(TAG, "Empty station data");
-                return null;
-            }
-
-            Type listType = new TypeToken<List<Station>>() {}.getType();
-            return gson.fromJson(jsonData, listType);
+            return response.getItems();
 
         } catch (Exception e) {
             Log.e(TAG, "Error fetching nearby stations", e);
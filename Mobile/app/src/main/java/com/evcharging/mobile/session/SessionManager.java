@@ -5,8 +5,16 @@ import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.evcharging.mobile.database.DatabaseHelper;
+import com.evcharging.mobile.database.LocalStore;
 import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.network.ResponseCache;
+import com.evcharging.mobile.utils.AppLog;
 import com.evcharging.mobile.utils.JwtUtils;
+import com.evcharging.mobile.utils.TaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 
 /**
  * SessionManager - Manages user session and authentication state
@@ -14,6 +22,8 @@ import com.evcharging.mobile.utils.JwtUtils;
  * Purpose: Handle token storage, user data caching, and remember-me
  * functionality
  * Now integrated with SQLite database for persistent user data storage
+ * The logged-in user is kept in a process-wide in-memory snapshot: SQLite is read
+ * at most once per session and every write goes through to both (write-through).
  *
  * Author: System (Enhanced)
  * Updated: 2025-10-06
@@ -26,6 +36,27 @@ public class SessionManager {
     private static final String KEY_SAVED_EMAIL = "saved_email";
     private static final String KEY_SAVED_PASSWORD = "saved_password";
 
+    /**
+     * Notified after the logged-in user changes (login, profile/station update, logout).
+     * Called on the thread that made the change; user is null after logout.
+     */
+    public interface OnUserChangedListener {
+        void onUserChanged(User user);
+    }
+
+    // Token writes (login, refresh, logout) are serialised, so a refresh that finishes
+    // after a logout or another login cannot put the old session's token back
+    private static final Object TOKEN_LOCK = new Object();
+
+    // Shared by every SessionManager instance (screens create their own)
+    private static final Object USER_LOCK = new Object();
+    private static User cachedUser;
+    private static boolean userLoaded;
+    private static final List<OnUserChangedListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Table wipe started by the last logout; the next login waits for it so it cannot delete the new user
+    private static volatile Future<?> pendingWipe;
+
     private SharedPreferences prefs;
     private DatabaseHelper dbHelper;
     private Context context;
@@ -43,7 +74,9 @@ public class SessionManager {
      */
     public void saveToken(String token) {
         // Save token to SharedPreferences
-        prefs.edit().putString(KEY_TOKEN, token).apply();
+        synchronized (TOKEN_LOCK) {
+            prefs.edit().putString(KEY_TOKEN, token).apply();
+        }
         Log.d(TAG, "Token saved successfully");
 
         // Extract user data from JWT and save to SQLite database
@@ -61,31 +94,27 @@ public class SessionManager {
             User user = JwtUtils.getUserFromToken(token);
 
             if (user != null) {
-                Log.d("LOGIN_SUCCESS", "----------------------------------------");
-                Log.d("LOGIN_SUCCESS", "User Full Name : " + user.getFullName());
-                Log.d("LOGIN_SUCCESS", "Email          : " + user.getEmail());
-                Log.d("LOGIN_SUCCESS", "Role           : " + user.getRole());
-                Log.d("LOGIN_SUCCESS", "Is Active      : " + user.isActive());
-                Log.d("LOGIN_SUCCESS", "Station ID     : " + user.getStationId());
-                Log.d("LOGIN_SUCCESS", "Station Name   : " + user.getStationName());
-                Log.d("LOGIN_SUCCESS", "Station Loc.   : " + user.getStationLocation());
-                Log.d("LOGIN_SUCCESS", "----------------------------------------");
+                // Role only: claim values (name, email, station) stay out of the log
+                AppLog.d("LOGIN_SUCCESS", "Role: " + user.getRole() + ", active: " + user.isActive()
+                        + ", station assigned: " + user.hasStationAssigned());
             }
 
             if (user != null) {
                 // Save user to SQLite database
+                awaitPendingWipe();
                 boolean saved = dbHelper.saveUser(user);
 
                 if (saved) {
+                    cacheUser(user);
                     Log.d(TAG, "User data saved to database successfully");
-                    Log.d(TAG, "User: " + user.getEmail() + " | Role: " + user.getRole());
+                    AppLog.d(TAG, "Role: " + user.getRole());
 
                     // Check if operator has station assigned
                     if (user.isOperator()) {
                         if (user.hasStationAssigned()) {
-                            Log.d(TAG, "Operator with station: " + user.getStationName());
+                            AppLog.d(TAG, "Operator with station: " + user.getStationName());
                         } else {
-                            Log.d(TAG, "Operator without station assignment");
+                            AppLog.d(TAG, "Operator without station assignment");
                         }
                     }
                 } else {
@@ -108,11 +137,48 @@ public class SessionManager {
         return prefs.getString(KEY_TOKEN, null);
     }
 
+    /**
+     * Swap in a refreshed token for the same session (compare-and-set)
+     * The server rebuilds claims on refresh (e.g. a new station assignment), so the
+     * user snapshot is rebuilt from the new token in the same step and listeners are
+     * notified. Profile fields the token does not carry (phone, reactivation flag,
+     * creation time) are kept from the current snapshot.
+     *
+     * @param expected  Token the refresh was made with
+     * @param refreshed New token from the server
+     * @return false, with nothing stored, if the token changed in the meantime or
+     * the new token cannot be decoded
+     */
+    public boolean replaceToken(String expected, String refreshed) {
+        synchronized (TOKEN_LOCK) {
+            if (expected == null || !expected.equals(getToken())) return false;
+            User user = JwtUtils.getUserFromToken(refreshed);
+            if (user == null) {
+                Log.e(TAG, "Refreshed token could not be decoded; keeping the current one");
+                return false;
+            }
+            User current = currentUser();
+            if (current != null && current.getUserId() != null && current.getUserId().equals(user.getUserId())) {
+                user.setPhone(current.getPhone());
+                user.setReactivationRequested(current.isReactivationRequested());
+                if (current.getCreatedAt() != null) user.setCreatedAt(current.getCreatedAt());
+            }
+
+            prefs.edit().putString(KEY_TOKEN, refreshed).apply();
+            if (!dbHelper.saveUser(user)) Log.e(TAG, "Failed to save refreshed user to database");
+            cacheUser(user);
+        }
+        AppLog.d(TAG, "Token refreshed, role: " + JwtUtils.getRoleFromToken(refreshed));
+        return true;
+    }
+
     /**
      * Clear authentication token from SharedPreferences
      */
     public void clearToken() {
-        prefs.edit().remove(KEY_TOKEN).apply();
+        synchronized (TOKEN_LOCK) {
+            prefs.edit().remove(KEY_TOKEN).apply();
+        }
         Log.d(TAG, "Token cleared");
     }
 
@@ -125,20 +191,21 @@ public class SessionManager {
     public boolean isLoggedIn() {
         String token = getToken();
         boolean hasToken = token != null;
-        boolean hasUserInDb = dbHelper.isUserLoggedIn();
+        boolean hasUser = getLoggedInUser() != null;
 
-        Log.d(TAG, "Login status check - Has token: " + hasToken + ", Has user in DB: " + hasUserInDb);
+        AppLog.d(TAG, "Login status check - Has token: " + hasToken + ", Has user: " + hasUser);
 
-        return hasToken && hasUserInDb;
+        return hasToken && hasUser;
     }
 
     /**
-     * Get logged-in user from database
+     * Get logged-in user from the in-memory snapshot (loaded from the database on first use)
      *
-     * @return User object or null if not found
+     * @return Copy of the user, or null if nobody is logged in
      */
     public User getLoggedInUser() {
-        return dbHelper.getLoggedInUser();
+        User user = currentUser();
+        return user != null ? new User(user) : null;
     }
 
     /**
@@ -147,7 +214,7 @@ public class SessionManager {
      * @return true if operator, false otherwise
      */
     public boolean isOperator() {
-        User user = getLoggedInUser();
+        User user = currentUser();
         return user != null && user.isOperator();
     }
 
@@ -157,7 +224,7 @@ public class SessionManager {
      * @return true if owner, false otherwise
      */
     public boolean isOwner() {
-        User user = getLoggedInUser();
+        User user = currentUser();
         return user != null && user.isOwner();
     }
 
@@ -167,7 +234,7 @@ public class SessionManager {
      * @return true if operator has station, false otherwise
      */
     public boolean hasStationAssigned() {
-        User user = getLoggedInUser();
+        User user = currentUser();
         return user != null && user.hasStationAssigned();
     }
 
@@ -177,7 +244,7 @@ public class SessionManager {
      * @return Station ID or null if not assigned
      */
     public String getStationId() {
-        User user = getLoggedInUser();
+        User user = currentUser();
         return user != null ? user.getStationId() : null;
     }
 
@@ -199,6 +266,10 @@ public class SessionManager {
 
         boolean updated = dbHelper.updateUserStation(user.getUserId(), stationId, stationName, stationLocation);
         if (updated) {
+            user.setStationId(stationId);
+            user.setStationName(stationName);
+            user.setStationLocation(stationLocation);
+            cacheUser(user);
             Log.d(TAG, "Station info updated successfully");
         }
         return updated;
@@ -261,14 +332,13 @@ public class SessionManager {
      */
     public void clearAll() {
         // Clear SharedPreferences
-        prefs.edit().clear().apply();
+        synchronized (TOKEN_LOCK) {
+            prefs.edit().clear().apply();
+        }
         Log.d(TAG, "All session preferences cleared");
 
-        // Clear database
-        dbHelper.deleteUser();
-        Log.d(TAG, "User data cleared from database");
-
-        Log.d(TAG, "Complete session data cleared");
+        cacheUser(null);
+        wipeUserData();
     }
 
     /**
@@ -280,8 +350,9 @@ public class SessionManager {
         // Clear token
         clearToken();
 
-        // Clear user from database
-        dbHelper.deleteUser();
+        // Clear user snapshot now; the tables are wiped on the disk pool
+        cacheUser(null);
+        wipeUserData();
 
         // Clear remember-me if requested
         if (clearRememberMe) {
@@ -308,12 +379,74 @@ public class SessionManager {
             return false;
         }
 
+        awaitPendingWipe();
         boolean saved = dbHelper.saveUser(user);
         if (saved) {
-            Log.d(TAG, "User saved/updated in database: " + user.getEmail());
+            cacheUser(user);
+            AppLog.d(TAG, "User saved/updated in database");
         } else {
-            Log.e(TAG, "Failed to save user in database: " + user.getEmail());
+            Log.e(TAG, "Failed to save user in database");
         }
         return saved;
     }
+
+    /**
+     * Delete the stored user, cached API responses and local tables (bookings, stations,
+     * slots, notifications, sync state) off the calling thread; they belong to the previous user
+     */
+    private void wipeUserData() {
+        DatabaseHelper db = dbHelper;
+        Context appContext = context.getApplicationContext();
+        pendingWipe = TaskScheduler.get().submit(TaskScheduler.Pool.DISK, TaskScheduler.Priority.USER_VISIBLE, () -> {
+            db.deleteUser();
+            ResponseCache.evictAll();
+            new LocalStore(appContext).clear();
+            Log.d(TAG, "User data cleared from database");
+        });
+    }
+
+    // Logout and login are seconds apart in practice, so this rarely waits
+    private static void awaitPendingWipe() {
+        Future<?> wipe = pendingWipe;
+        if (wipe == null || wipe.isDone()) return;
+        try {
+            wipe.get();
+        } catch (Exception e) {
+            Log.e(TAG, "Clearing the previous session failed", e);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // In-memory user snapshot
+    // ---------------------------------------------------------------------
+
+    public static void addOnUserChangedListener(OnUserChangedListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public static void removeOnUserChangedListener(OnUserChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Shared snapshot; never hand this instance to callers (they may mutate it)
+    private User currentUser() {
+        synchronized (USER_LOCK) {
+            if (!userLoaded) {
+                cachedUser = dbHelper.getLoggedInUser();
+                userLoaded = true;
+            }
+            return cachedUser;
+        }
+    }
+
+    private static void cacheUser(User user) {
+        User snapshot = user != null ? new User(user) : null;
+        synchronized (USER_LOCK) {
+            cachedUser = snapshot;
+            userLoaded = true;
+        }
+        for (OnUserChangedListener listener : listeners) {
+            listener.onUserChanged(snapshot != null ? new User(snapshot) : null);
+        }
+    }
 }
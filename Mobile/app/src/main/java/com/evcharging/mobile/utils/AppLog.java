@@ -0,0 +1,113 @@
+package com.evcharging.mobile.utils;
+
+import android.util.Log;
+
+import com.evcharging.mobile.BuildConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AppLog - Level-gated logging front for the app
+ *
+ * Purpose: Keep diagnostic logging off the hot path. Debug output exists only in
+ * debug builds (ENABLED) and above the runtime level; bodies are capped, routine
+ * events can be sampled, and expensive messages are built lazily via Supplier.
+ * In release builds a disabled call costs one branch.
+ *
+ * Usage:
+ *   AppLog.d(TAG, "Loaded " + count);               // cheap message
+ *   AppLog.v(TAG, () -> payload.toString());        // built only when VERBOSE is on
+ *   if (AppLog.isDebug()) { ...multi-line dump... } // guard whole blocks on hot paths
+ */
+public final class AppLog {
+
+    /** Build-time switch: false in release, so guarded blocks are skipped entirely. */
+    public static final boolean ENABLED = BuildConfig.DEBUG;
+
+    private static final int DEFAULT_MAX_BODY_CHARS = 1024;
+
+    private static volatile int minLevel = ENABLED ? Log.DEBUG : Log.WARN;
+    private static volatile int maxBodyChars = DEFAULT_MAX_BODY_CHARS;
+    private static volatile int sampleEvery = 1;
+    private static final AtomicLong sampleCounter = new AtomicLong();
+
+    private AppLog() {
+    }
+
+    // ---------------------------------------------------------------------
+    // Configuration
+    // ---------------------------------------------------------------------
+
+    /** Minimum android.util.Log priority that is emitted (e.g. Log.VERBOSE, Log.INFO). */
+    public static void setLevel(int level) {
+        minLevel = level;
+    }
+
+    /** Longest request/response body written to the log; longer bodies are truncated. */
+    public static void setMaxBodyChars(int chars) {
+        maxBodyChars = Math.max(0, chars);
+    }
+
+    /** Emit one in every {@code n} sampled events (1 = all). */
+    public static void setSampleEvery(int n) {
+        sampleEvery = Math.max(1, n);
+    }
+
+    // ---------------------------------------------------------------------
+    // Guards
+    // ---------------------------------------------------------------------
+    public static boolean isLoggable(int level) {
+        // Warnings and errors are kept in release; everything below needs a debug build
+        return (ENABLED || level >= Log.WARN) && level >= minLevel;
+    }
+
+    public static boolean isDebug() {
+        return ENABLED && Log.DEBUG >= minLevel;
+    }
+
+    public static boolean isVerbose() {
+        return ENABLED && Log.VERBOSE >= minLevel;
+    }
+
+    /** True for the events that survive sampling; use for routine, high-rate logs. */
+    public static boolean sampled() {
+        int every = sampleEvery;
+        return every <= 1 || sampleCounter.incrementAndGet() % every == 0;
+    }
+
+    /** Truncate a body to the configured cap, noting how much was dropped. */
+    public static String cap(String body) {
+        if (body == null) return "";
+        int max = maxBodyChars;
+        if (body.length() <= max) return body;
+        return body.substring(0, max) + "… (+" + (body.length() - max) + " chars)";
+    }
+
+    // ---------------------------------------------------------------------
+    // Emitters
+    // ---------------------------------------------------------------------
+    public static void v(String tag, Supplier<String> message) {
+        if (isVerbose()) Log.v(tag, message.get());
+    }
+
+    public static void d(String tag, String message) {
+        if (isDebug()) Log.d(tag, message);
+    }
+
+    public static void d(String tag, Supplier<String> message) {
+        if (isDebug()) Log.d(tag, message.get());
+    }
+
+    public static void i(String tag, String message) {
+        if (isLoggable(Log.INFO)) Log.i(tag, message);
+    }
+
+    public static void w(String tag, String message) {
+        if (isLoggable(Log.WARN)) Log.w(tag, message);
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (isLoggable(Log.ERROR)) Log.e(tag, message, error);
+    }
+}
@@ -2,17 +2,31 @@ package com.evcharging.mobile.utils;
 
 import android.util.Base64;
 import android.util.Log;
+import android.util.LruCache;
 
 import com.evcharging.mobile.model.User;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * JwtUtils - Utility class for JWT token parsing and claim extraction
  *
  * Purpose: Extract user information from JWT tokens issued by the backend
  * Handles both EV Owners and CS Operators with nullable station fields
  *
+ * A token is split, Base64-decoded and parsed once into {@link Claims}; every
+ * accessor reads from that. A login used to decode the same token five times
+ * (SessionManager, ApiClient twice, LoginActivity twice).
+ * - Claims are cached by token in a small LRU (a session holds one token, two
+ *   around a refresh); malformed tokens are cached too, as null
+ * - The exp claim is turned into epoch ms at parse time, so expiry checks are one
+ *   comparison
+ * - Claim values are never logged; stats() counts decodes vs cache hits
+ *
  * Author: System (Enhanced)
  * Updated: 2025-10-06
  */
@@ -20,75 +34,149 @@ public class JwtUtils {
 
     private static final String TAG = "JwtUtils";
 
+    private static final String CLAIM_ROLE = "http://schemas.microsoft.com/ws/2008/06/identity/claims/role";
+    private static final String CLAIM_NAME_ID = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier";
+    private static final String CLAIM_NAME = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name";
+    private static final String CLAIM_EMAIL = "http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress";
+
+    // Stands in for "malformed" in the cache (LruCache has no null values)
+    private static final Claims INVALID = new Claims();
+
+    private static final LruCache<String, Claims> cache = new LruCache<>(4);
+    private static final AtomicLong decodes = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+
     /**
-     * Safely get user role from JWT token.
-     * Will never throw — returns null or "Unknown" if malformed.
+     * Parsed claims of one token (immutable)
      */
-    public static String getRoleFromToken(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                Log.w(TAG, "Token is null or empty");
-                return null;
-            }
-
-            String[] parts = token.split("\\.");
-            if (parts.length < 2) {
-                Log.w(TAG, "Invalid JWT format: expected 3 parts, got " + parts.length);
-                return null;
-            }
-
-            String payload = parts[1];
-            // Decode payload (Base64URL-safe)
-            byte[] decodedBytes = Base64.decode(payload, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
-            String decodedPayload = new String(decodedBytes);
+    public static final class Claims {
+        public final String userId;
+        public final String fullName;
+        public final String email;
+        public final String role;
+        public final String stationId;
+        public final String stationName;
+        public final String stationLocation;
+        public final boolean active;
+        public final String createdAt;
+        /** Epoch ms of the exp claim, or 0 when the token has none. */
+        public final long expiresAtMs;
+
+        private final String payloadJson;
+        private final JSONObject payload;
+
+        private Claims() {
+            userId = fullName = email = role = stationId = stationName = stationLocation = createdAt = null;
+            active = false;
+            expiresAtMs = 0;
+            payloadJson = null;
+            payload = null;
+        }
 
-            JSONObject json = new JSONObject(decodedPayload);
+        private Claims(String payloadJson, JSONObject payload) {
+            this.payloadJson = payloadJson;
+            this.payload = payload;
+            // Common claim names: nameid, sub, NameIdentifier, userId
+            userId = first(payload, "nameid", "sub", CLAIM_NAME_ID, "userId");
+            fullName = first(payload, "name", "fullName", "FullName", CLAIM_NAME);
+            email = first(payload, "email", CLAIM_EMAIL);
+            role = first(payload, "role", "Role", CLAIM_ROLE);
+            // Station fields are only set for operators with an assigned station
+            stationId = payload.optString("stationId", null);
+            stationName = payload.optString("stationName", null);
+            stationLocation = payload.optString("stationLocation", null);
+            active = payload.optBoolean("isActive", true);
+            createdAt = payload.optString("createdAt", null);
+            expiresAtMs = payload.optLong("exp", 0) * 1000L;
+        }
 
-            // Try common role keys used in backend
-            String role =
-                    json.optString("role",
-                    json.optString("Role",
-                    json.optString("http://schemas.microsoft.com/ws/2008/06/identity/claims/role", null)));
+        /** True once the exp instant has passed; tokens without exp never expire. */
+        public boolean isExpiredAt(long nowMs) {
+            return expiresAtMs > 0 && nowMs >= expiresAtMs;
+        }
 
-            if (role == null || role.isEmpty()) {
-                Log.w(TAG, "Role not found in token payload: " + decodedPayload);
-                return "Unknown";
-            }
+        /** Any claim as a string, or null when absent. */
+        public String get(String claimName) {
+            return payload.optString(claimName, null);
+        }
+    }
 
-            Log.d(TAG, "Extracted role from token: " + role);
-            return role;
+    /**
+     * Parsed claims of a token, decoded at most once per token
+     *
+     * @return null if the token is missing or malformed
+     */
+    public static Claims claims(String token) {
+        if (token == null || token.trim().isEmpty()) return null;
+
+        Claims claims = cache.get(token);
+        if (claims != null) {
+            hits.incrementAndGet();
+            return claims != INVALID ? claims : null;
+        }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting role from JWT: " + e.getMessage(), e);
+        claims = parse(token);
+        cache.put(token, claims);
+        return claims != INVALID ? claims : null;
+    }
+
+    private static Claims parse(String token) {
+        decodes.incrementAndGet();
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            Log.w(TAG, "Invalid JWT format: expected 3 parts, got " + parts.length);
+            return INVALID;
+        }
+        try {
+            // Decode payload (Base64URL-safe)
+            byte[] decodedBytes = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+            String payloadJson = new String(decodedBytes, StandardCharsets.UTF_8);
+            Claims claims = new Claims(payloadJson, new JSONObject(payloadJson));
+            AppLog.d(TAG, "Decoded token: role=" + claims.role + ", station=" + (claims.stationId != null)
+                    + ", exp=" + claims.expiresAtMs);
+            return claims;
+        } catch (IllegalArgumentException | JSONException e) {
+            Log.e(TAG, "Error decoding JWT token: " + e.getMessage());
+            return INVALID;
+        }
+    }
+
+    private static String first(JSONObject payload, String... names) {
+        for (String name : names) {
+            if (payload.has(name)) return payload.optString(name);
+        }
+        return null;
+    }
+
+    /**
+     * Safely get user role from JWT token.
+     * Will never throw — returns null or "Unknown" if malformed.
+     */
+    public static String getRoleFromToken(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            Log.w(TAG, "Token is null or empty");
+            return null;
+        }
+        Claims claims = claims(token);
+        if (claims == null || claims.role == null || claims.role.isEmpty()) {
+            Log.w(TAG, "Role not found in token");
             return "Unknown";
         }
+        return claims.role;
     }
 
     /**
      * Decode JWT payload as JSONObject
+     *
+     * @return a new object each call (callers may modify it), or null if malformed
      */
     public static JSONObject decodeToken(String token) {
+        Claims claims = claims(token);
+        if (claims == null) return null;
         try {
-            if (token == null || token.isEmpty()) {
-                Log.e(TAG, "Token is null or empty");
-                return null;
-            }
-
-            String[] parts = token.split("\\.");
-            if (parts.length < 2) {
-                Log.e(TAG, "Invalid JWT format. Expected 3 parts, got: " + parts.length);
-                return null;
-            }
-
-            String payload = parts[1];
-            byte[] decodedBytes = Base64.decode(payload, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
-            String decodedPayload = new String(decodedBytes);
-
-            Log.d(TAG, "JWT Decoded Payload: " + decodedPayload);
-
-            return new JSONObject(decodedPayload);
-        } catch (Exception e) {
-            Log.e(TAG, "Error decoding JWT token: " + e.getMessage(), e);
+            return new JSONObject(claims.payloadJson);
+        } catch (JSONException e) {
+            // Parsed fine when cached; cannot happen
             return null;
         }
     }
@@ -98,104 +186,27 @@ public class JwtUtils {
      * Creates a User object with all available claims
      *
      * @param token JWT token string
-     * @return User object with extracted data, or null if error
+     * @return a new User with extracted data, or null if error
      */
     public static User getUserFromToken(String token) {
-        try {
-            JSONObject payload = decodeToken(token);
-            if (payload == null) {
-                Log.e(TAG, "Failed to decode token payload");
-                return null;
-            }
-
-            // Log all available claims for debugging
-            Log.d(TAG, "Available JWT claims: " + payload.toString());
-
-            // Create new User object
-            User user = new User();
-
-            // Extract user ID (can be in different claim names)
-            // Common claim names: sub, nameid, NameIdentifier, userId, id
-            String userId = null;
-            if (payload.has("nameid")) {
-                userId = payload.optString("nameid");
-            } else if (payload.has("sub")) {
-                userId = payload.optString("sub");
-            } else if (payload.has("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier")) {
-                userId = payload.optString("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/nameidentifier");
-            } else if (payload.has("userId")) {
-                userId = payload.optString("userId");
-            }
-            user.setUserId(userId);
-            Log.d(TAG, "Extracted userId: " + userId);
-
-            // Extract full name (can be in different claim names)
-            String fullName = null;
-            if (payload.has("name")) {
-                fullName = payload.optString("name");
-            } else if (payload.has("fullName")) {
-                fullName = payload.optString("fullName");
-            } else if (payload.has("FullName")) {        // <-- ADD THIS
-                fullName = payload.optString("FullName");
-            } else if (payload.has("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name")) {
-                fullName = payload.optString("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/name");
-            }
-            user.setFullName(fullName != null ? fullName : "User");
-            Log.d(TAG, "Extracted fullName: " + fullName);
-
-            // Extract email
-            String email = null;
-            if (payload.has("email")) {
-                email = payload.optString("email");
-            } else if (payload.has("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress")) {
-                email = payload.optString("http://schemas.xmlsoap.org/ws/2005/05/identity/claims/emailaddress");
-            }
-            user.setEmail(email != null ? email : "");
-            Log.d(TAG, "Extracted email: " + email);
-
-            // Extract role
-            String role = null;
-            if (payload.has("role")) {
-                role = payload.optString("role");
-            } else if (payload.has("http://schemas.microsoft.com/ws/2008/06/identity/claims/role")) {
-                role = payload.optString("http://schemas.microsoft.com/ws/2008/06/identity/claims/role");
-            }
-            user.setRole(role);
-            Log.d(TAG, "Extracted role: " + role);
-
-            // Extract station information (for operators - these fields may be null)
-            String stationId = payload.optString("stationId", null);
-            String stationName = payload.optString("stationName", null);
-            String stationLocation = payload.optString("stationLocation", null);
-
-            user.setStationId(stationId);
-            user.setStationName(stationName);
-            user.setStationLocation(stationLocation);
-
-            if (stationId != null && !stationId.isEmpty()) {
-                Log.d(TAG, "Station assigned - ID: " + stationId + ", Name: " + stationName);
-            } else {
-                Log.d(TAG, "No station assigned (operator may be waiting for admin assignment)");
-            }
-
-            // Extract isActive (default to true if not present)
-            boolean isActive = payload.optBoolean("isActive", true);
-            user.setActive(isActive);
-            Log.d(TAG, "Extracted isActive: " + isActive);
-
-            // Set current timestamp as createdAt (or extract if available)
-            String createdAt = payload.optString("createdAt", String.valueOf(System.currentTimeMillis()));
-            user.setCreatedAt(createdAt);
-
-            Log.d(TAG, "User object created successfully from JWT");
-            Log.d(TAG, "User details: " + user.toString());
-
-            return user;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting user from token: " + e.getMessage(), e);
+        Claims claims = claims(token);
+        if (claims == null) {
+            Log.e(TAG, "Failed to decode token payload");
             return null;
         }
+
+        User user = new User();
+        user.setUserId(claims.userId);
+        user.setFullName(claims.fullName != null ? claims.fullName : "User");
+        user.setEmail(claims.email != null ? claims.email : "");
+        user.setRole(claims.role);
+        user.setStationId(claims.stationId);
+        user.setStationName(claims.stationName);
+        user.setStationLocation(claims.stationLocation);
+        user.setActive(claims.active);
+        // Set current timestamp as createdAt (or use the claim if available)
+        user.setCreatedAt(claims.createdAt != null ? claims.createdAt : String.valueOf(System.currentTimeMillis()));
+        return user;
     }
 
     /**
@@ -206,28 +217,8 @@ public class JwtUtils {
      * @return true if token is valid, false otherwise
      */
     public static boolean isTokenValid(String token) {
-        try {
-            JSONObject payload = decodeToken(token);
-            if (payload == null) return false;
-
-            // Check expiration claim (exp)
-            if (payload.has("exp")) {
-                long exp = payload.getLong("exp");
-                long currentTime = System.currentTimeMillis() / 1000; // Convert to seconds
-
-                boolean isValid = exp > currentTime;
-                Log.d(TAG, "Token expiration check - Expires at: " + exp + ", Current: " + currentTime + ", Valid: " + isValid);
-                return isValid;
-            }
-
-            // If no exp claim, consider token valid
-            Log.d(TAG, "No expiration claim found, assuming token is valid");
-            return true;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking token validity: " + e.getMessage(), e);
-            return false;
-        }
+        Claims claims = claims(token);
+        return claims != null && !claims.isExpiredAt(System.currentTimeMillis());
     }
 
     /**
@@ -238,14 +229,27 @@ public class JwtUtils {
      * @return Claim value as string, or null if not found
      */
     public static String getClaimFromToken(String token, String claimName) {
-        try {
-            JSONObject payload = decodeToken(token);
-            if (payload == null) return null;
+        Claims claims = claims(token);
+        return claims != null ? claims.get(claimName) : null;
+    }
 
-            return payload.optString(claimName, null);
-        } catch (Exception e) {
-            Log.e(TAG, "Error getting claim '" + claimName + "': " + e.getMessage(), e);
-            return null;
+    /** Decode / cache-hit counters since process start. */
+    public static Stats stats() {
+        return new Stats(decodes.get(), hits.get());
+    }
+
+    public static final class Stats {
+        public final long decodes;
+        public final long cacheHits;
+
+        Stats(long decodes, long cacheHits) {
+            this.decodes = decodes;
+            this.cacheHits = cacheHits;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{decodes=" + decodes + ", cacheHits=" + cacheHits + '}';
         }
     }
 }
@@ -0,0 +1,261 @@
+package com.evcharging.mobile.utils;
+
+import com.evcharging.mobile.model.Station;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * MarkerPlanner - Decides which station / cluster markers the map should show
+ *
+ * Purpose: Keep the map smooth when a city has thousands of chargers.
+ * - Tiles: stations are read per Web Mercator tile covering the viewport and cached,
+ *   so panning only reads the tiles that scrolled into view
+ * - Clustering: stations falling into the same CLUSTER_CELL_PX screen cell at the
+ *   current zoom are merged into one cluster marker
+ * - Diff: every marker has a stable key, so the map adds and removes only what changed
+ *   instead of clearing and redrawing everything
+ *
+ * Plain Java (no Maps SDK types); itemsFor() may run on a background thread,
+ * diff() is meant for the thread that owns the markers.
+ */
+public final class MarkerPlanner {
+
+    private static final int TILE_SIZE_PX = 256;
+    private static final int CLUSTER_CELL_PX = 96;
+    private static final int MIN_CLUSTER_SIZE = 3;
+    private static final float MAX_CLUSTER_ZOOM = 15f; // closer than this every station stands alone
+    private static final int MIN_TILE_ZOOM = 6;
+    private static final int MAX_TILE_ZOOM = 12;
+    private static final int MAX_CACHED_TILES = 256;
+    private static final double VIEWPORT_MARGIN = 0.25; // fraction of the viewport kept around it while panning
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    /** One marker: a single station or a cluster of count stations. */
+    public static final class Item {
+        public final String key;
+        public final double latitude;
+        public final double longitude;
+        public final int count;
+        public final Station station; // null for clusters
+
+        Item(String key, double latitude, double longitude, int count, Station station) {
+            this.key = key;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.station = station;
+        }
+
+        public boolean isCluster() {
+            return station == null;
+        }
+    }
+
+    /** Marker changes needed to go from what is shown to a new item list. */
+    public static final class Plan {
+        public final List<Item> toAdd;
+        public final Set<String> toRemove;
+
+        Plan(List<Item> toAdd, Set<String> toRemove) {
+            this.toAdd = toAdd;
+            this.toRemove = toRemove;
+        }
+    }
+
+    private final Supplier<StationIndex> indexSupplier;
+    private final Map<String, List<Station>> tiles =
+            new LinkedHashMap<String, List<Station>>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Station>> eldest) {
+                    return size() > MAX_CACHED_TILES;
+                }
+            };
+    private StationIndex tilesIndex;
+
+    /**
+     * @param indexSupplier Current station index; tile caches are dropped when it returns a new instance
+     */
+    public MarkerPlanner(Supplier<StationIndex> indexSupplier) {
+        this.indexSupplier = indexSupplier;
+    }
+
+    /**
+     * Markers for a viewport at a camera zoom
+     */
+    public synchronized List<Item> itemsFor(double south, double west, double north, double east, float zoom) {
+        StationIndex index = indexSupplier.get();
+        if (index != tilesIndex) {
+            tiles.clear();
+            tilesIndex = index;
+        }
+
+        // Tiles can reach far past the viewport when zoomed in; keep only a margin around it
+        double latPad = (north - south) * VIEWPORT_MARGIN;
+        double lonSpan = west <= east ? east - west : east + 360 - west;
+        double lonPad = Math.min(180, lonSpan * VIEWPORT_MARGIN);
+        double padSouth = south - latPad, padNorth = north + latPad;
+        double padWest = west - lonPad, padEast = east + lonPad;
+
+        int tileZoom = Math.max(MIN_TILE_ZOOM, Math.min(MAX_TILE_ZOOM, (int) Math.floor(zoom)));
+        Map<String, Station> visible = new LinkedHashMap<>();
+        for (int[] tile : tilesFor(padSouth, normalizeLon(padWest), padNorth, normalizeLon(padEast), tileZoom)) {
+            for (Station station : tile(index, tile[0], tile[1], tileZoom)) {
+                if (station.getStationId() == null) continue;
+                double lat = station.getLatitude();
+                if (lat < padSouth || lat > padNorth) continue;
+                if (!lonWithin(station.getLongitude(), padWest, lonSpan + 2 * lonPad)) continue;
+                visible.put(station.getStationId(), station);
+            }
+        }
+        return cluster(visible.values(), zoom);
+    }
+
+    /**
+     * @param shown Keys of the markers currently on the map
+     */
+    public static Plan diff(Set<String> shown, List<Item> items) {
+        Set<String> keep = new HashSet<>();
+        List<Item> toAdd = new ArrayList<>();
+        for (Item item : items) {
+            keep.add(item.key);
+            if (!shown.contains(item.key)) toAdd.add(item);
+        }
+        Set<String> toRemove = new HashSet<>();
+        for (String key : shown) {
+            if (!keep.contains(key)) toRemove.add(key);
+        }
+        return new Plan(toAdd, toRemove);
+    }
+
+    /**
+     * Grid clustering in screen space. Cluster keys include the zoom level, cell and size,
+     * so a cluster that gains or loses members is replaced rather than left stale.
+     */
+    public static List<Item> cluster(Collection<Station> stations, float zoom) {
+        List<Item> items = new ArrayList<>();
+        if (zoom >= MAX_CLUSTER_ZOOM) {
+            for (Station station : stations) items.add(single(station));
+            return items;
+        }
+
+        int level = (int) Math.floor(zoom);
+        double worldPx = TILE_SIZE_PX * Math.pow(2, level);
+        Map<Long, List<Station>> cells = new LinkedHashMap<>();
+        for (Station station : stations) {
+            long gx = (long) Math.floor(mercatorX(station.getLongitude()) * worldPx / CLUSTER_CELL_PX);
+            long gy = (long) Math.floor(mercatorY(station.getLatitude()) * worldPx / CLUSTER_CELL_PX);
+            Long cell = (gx << 32) | (gy & 0xffffffffL);
+            List<Station> members = cells.get(cell);
+            if (members == null) {
+                members = new ArrayList<>();
+                cells.put(cell, members);
+            }
+            members.add(station);
+        }
+
+        for (Map.Entry<Long, List<Station>> entry : cells.entrySet()) {
+            List<Station> members = entry.getValue();
+            if (members.size() < MIN_CLUSTER_SIZE) {
+                for (Station station : members) items.add(single(station));
+                continue;
+            }
+            double lat = 0, lon = 0;
+            for (Station station : members) {
+                lat += station.getLatitude();
+                lon += station.getLongitude();
+            }
+            long cell = entry.getKey();
+            String key = "c:" + level + ":" + (cell >> 32) + ":" + (int) cell + ":" + members.size();
+            items.add(new Item(key, lat / members.size(), lon / members.size(), members.size(), null));
+        }
+        return items;
+    }
+
+    // ---------------------------------------------------------------------
+    // Tiles (Web Mercator, same x/y/z scheme as the map tiles)
+    // ---------------------------------------------------------------------
+
+    /** Tiles at zoom z covering a lat/lon box, as {x, y} pairs. */
+    public static List<int[]> tilesFor(double south, double west, double north, double east, int z) {
+        List<int[]> result = new ArrayList<>();
+        int n = 1 << z;
+        int minY = tileY(Math.min(north, MAX_LATITUDE), n);
+        int maxY = tileY(Math.max(south, -MAX_LATITUDE), n);
+        int minX = tileX(west, n);
+        int maxX = tileX(east, n);
+        if (west > east) maxX += n; // viewport crosses the antimeridian
+        if (maxX - minX >= n) {
+            minX = 0;
+            maxX = n - 1;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                result.add(new int[]{Math.floorMod(x, n), y});
+            }
+        }
+        return result;
+    }
+
+    /** {south, west, north, east} of a tile. */
+    public static double[] tileBounds(int x, int y, int z) {
+        int n = 1 << z;
+        double west = x * 360.0 / n - 180;
+        double east = (x + 1) * 360.0 / n - 180;
+        double north = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / n))));
+        double south = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * (y + 1) / n))));
+        return new double[]{south, west, north, east};
+    }
+
+    private List<Station> tile(StationIndex index, int x, int y, int z) {
+        String key = z + "/" + x + "/" + y;
+        List<Station> stations = tiles.get(key);
+        if (stations == null) {
+            double[] b = tileBounds(x, y, z);
+            stations = index.within(b[0], b[1], b[2], b[3]);
+            tiles.put(key, stations);
+        }
+        return stations;
+    }
+
+    private static double normalizeLon(double lon) {
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+
+    // Is lon within span degrees east of west (wrapping at the antimeridian)?
+    private static boolean lonWithin(double lon, double west, double span) {
+        if (span >= 360) return true;
+        double offset = ((lon - west) % 360 + 360) % 360;
+        return offset <= span;
+    }
+
+    private static Item single(Station station) {
+        return new Item("s:" + station.getStationId(), station.getLatitude(), station.getLongitude(), 1, station);
+    }
+
+    private static int tileX(double lon, int n) {
+        return (int) Math.floor(mercatorX(lon) * n);
+    }
+
+    private static int tileY(double lat, int n) {
+        return Math.max(0, Math.min(n - 1, (int) Math.floor(mercatorY(lat) * n)));
+    }
+
+    // 0..1 across the world, west to east
+    private static double mercatorX(double lon) {
+        return (lon + 180) / 360;
+    }
+
+    // 0..1 across the world, north to south
+    private static double mercatorY(double lat) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+        double sin = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+}
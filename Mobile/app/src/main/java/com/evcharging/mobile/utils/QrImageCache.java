@@ -0,0 +1,162 @@
+package com.evcharging.mobile.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.util.Base64;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * QrImageCache - Renders booking QR images off the main thread and keeps them
+ *
+ * Purpose: Booking screens used to Base64-decode the server's QR PNG and run
+ * BitmapFactory on the main thread every time they opened or refreshed, and
+ * sharing re-compressed the bitmap at quality 100.
+ * - The QR is drawn locally from the booking's short qrCode token (the server's PNG
+ *   encodes exactly that token at level Q), so lists and Intents need not carry the
+ *   image; the server PNG is only decoded when no token is at hand
+ * - Rendering runs on the TaskScheduler CPU pool; the result is set on the view only
+ *   if the view still wants that image
+ * - Bitmaps are sized to the ImageView (decoded PNGs are downsampled, never below it)
+ * - Entries are kept in an LRU bounded by bytes, keyed by bookingId plus the token
+ *   or a hash of the encoded image, so a re-issued QR is never served stale
+ * - Decoded PNG bytes are kept with the bitmap, so sharing writes them as-is
+ */
+public final class QrImageCache {
+
+    private static final String TAG = "QrImageCache";
+
+    // A few screens' worth of QR codes; small next to the heap
+    private static final int MAX_BYTES = (int) Math.min(8L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 32);
+    // Target when the view has not been laid out yet (layouts use 220-300dp)
+    private static final int DEFAULT_TARGET_PX = 768;
+
+    private static final Map<EncodeHintType, Object> ENCODE_HINTS =
+            Collections.singletonMap(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.Q);
+
+    /** A QR image and, when it came from the server, the PNG it was decoded from. */
+    public static final class Qr {
+        public final Bitmap bitmap;
+        /** Null for locally drawn codes. */
+        public final byte[] png;
+
+        Qr(Bitmap bitmap, byte[] png) {
+            this.bitmap = bitmap;
+            this.png = png;
+        }
+    }
+
+    private static final LruCache<String, Qr> cache = new LruCache<String, Qr>(MAX_BYTES) {
+        @Override
+        protected int sizeOf(String key, Qr qr) {
+            return qr.bitmap.getAllocationByteCount() + (qr.png != null ? qr.png.length : 0);
+        }
+    };
+
+    private QrImageCache() {
+    }
+
+    /**
+     * Show a booking's QR image in a view
+     *
+     * @param qrCode   the booking's QR token; drawn locally when present
+     * @param base64   the PNG as sent by the server, used only without a token
+     * @param onLoaded called on the main thread once the image is shown (may be null)
+     */
+    public static void load(TaskScheduler.Group tasks, ImageView into, String bookingId, String qrCode,
+                            String base64, Consumer<Qr> onLoaded) {
+        boolean hasCode = qrCode != null && !qrCode.isEmpty();
+        if (!hasCode && (base64 == null || base64.isEmpty())) return;
+        int targetPx = Math.max(into.getWidth(), into.getHeight());
+        if (targetPx <= 0) targetPx = DEFAULT_TARGET_PX;
+        String key = hasCode ? codeKey(bookingId, qrCode, targetPx) : imageKey(bookingId, base64, targetPx);
+        into.setTag(key);
+
+        Qr cached = cache.get(key);
+        if (cached != null) {
+            show(into, cached, onLoaded);
+            return;
+        }
+
+        int target = targetPx;
+        tasks.cpu(() -> hasCode ? render(qrCode, target) : decode(base64, target), qr -> {
+            if (qr == null) return;
+            cache.put(key, qr);
+            // A newer load for this view may have started in the meantime
+            if (key.equals(into.getTag())) show(into, qr, onLoaded);
+        });
+    }
+
+    private static void show(ImageView into, Qr qr, Consumer<Qr> onLoaded) {
+        into.setImageBitmap(qr.bitmap);
+        if (onLoaded != null) onLoaded.accept(qr);
+    }
+
+    private static Qr render(String qrCode, int targetPx) {
+        try {
+            BitMatrix matrix = new QRCodeWriter().encode(qrCode, BarcodeFormat.QR_CODE, targetPx, targetPx, ENCODE_HINTS);
+            int width = matrix.getWidth();
+            int height = matrix.getHeight();
+            int[] pixels = new int[width * height];
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    pixels[row + x] = matrix.get(x, y) ? Color.BLACK : Color.WHITE;
+                }
+            }
+            // Two colours only: RGB_565 halves the memory of ARGB_8888
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+            bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
+            return new Qr(bitmap, null);
+        } catch (WriterException | IllegalArgumentException e) {
+            Log.w(TAG, "Could not draw QR code", e);
+            return null;
+        }
+    }
+
+    private static Qr decode(String base64, int targetPx) {
+        try {
+            byte[] png = Base64.decode(base64, Base64.DEFAULT);
+
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(png, 0, png.length, bounds);
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = sampleSize(Math.max(bounds.outWidth, bounds.outHeight), targetPx);
+            Bitmap bitmap = BitmapFactory.decodeByteArray(png, 0, png.length, options);
+            return bitmap != null ? new Qr(bitmap, png) : null;
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unreadable QR image", e);
+            return null;
+        }
+    }
+
+    // Largest power of two that keeps the decoded image at least targetPx across
+    private static int sampleSize(int sourcePx, int targetPx) {
+        int sample = 1;
+        while (sourcePx / (sample * 2) >= targetPx) sample *= 2;
+        return sample;
+    }
+
+    private static String codeKey(String bookingId, String qrCode, int targetPx) {
+        return bookingId + ":code:" + qrCode + '@' + targetPx;
+    }
+
+    private static String imageKey(String bookingId, String base64, int targetPx) {
+        return bookingId + ":png:" + base64.length() + ':' + Integer.toHexString(base64.hashCode()) + '@' + targetPx;
+    }
+}
@@ -0,0 +1,169 @@
+package com.evcharging.mobile.utils;
+
+import com.evcharging.mobile.model.Station;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StationIndex - Uniform lat/lon grid over the station catalog
+ *
+ * Purpose: Answer "stations of type X within R km of a point, nearest first"
+ * without the server. Stations are bucketed into CELL_DEGREES cells, so a query
+ * only measures stations in the cells overlapping its bounding box.
+ *
+ * Immutable once built; safe to share between threads. Plain Java, no Android types.
+ */
+public final class StationIndex {
+
+    // ~11 km of latitude; a typical 5-10 km search touches 4-9 cells
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static final StationIndex EMPTY = new StationIndex(Collections.emptyList());
+
+    private final Map<Long, List<Station>> cells = new HashMap<>();
+    private final int size;
+
+    public StationIndex(List<Station> stations) {
+        int count = 0;
+        for (Station station : stations) {
+            if (station == null || !isValid(station.getLatitude(), station.getLongitude())) continue;
+            long key = cellKey(cell(station.getLatitude()), wrapLon(cell(station.getLongitude())));
+            List<Station> bucket = cells.get(key);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                cells.put(key, bucket);
+            }
+            bucket.add(station);
+            count++;
+        }
+        size = count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param type "AC" / "DC", or null for every type
+     * @return stations within radiusKm, nearest first
+     */
+    public List<Station> nearby(String type, double latitude, double longitude, double radiusKm) {
+        List<Station> result = new ArrayList<>();
+        if (size == 0 || radiusKm <= 0 || !isValid(latitude, longitude)) return result;
+
+        // Exact bounding box of the spherical cap, so no station inside the radius is missed
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angular);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        boolean reachesPole = latitude + latDelta >= 90 || latitude - latDelta <= -90 || Math.sin(angular) >= cosLat;
+        double lonDelta = reachesPole ? 180 : Math.toDegrees(Math.asin(Math.sin(angular) / cosLat));
+        int minLat = cell(Math.max(-90, latitude - latDelta));
+        int maxLat = cell(Math.min(90, latitude + latDelta));
+        int minLon = cell(longitude - lonDelta);
+        int maxLon = cell(longitude + lonDelta);
+        if (maxLon - minLon >= LON_CELLS) { // around a pole: every longitude, once
+            minLon = -LON_CELLS / 2;
+            maxLon = minLon + LON_CELLS - 1;
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int la = minLat; la <= maxLat; la++) {
+            for (int lo = minLon; lo <= maxLon; lo++) {
+                List<Station> bucket = cells.get(cellKey(la, wrapLon(lo)));
+                if (bucket == null) continue;
+                for (Station station : bucket) {
+                    if (type != null && !type.equalsIgnoreCase(station.getType())) continue;
+                    double km = distanceKm(latitude, longitude, station.getLatitude(), station.getLongitude());
+                    if (km <= radiusKm) hits.add(new Hit(station, km));
+                }
+            }
+        }
+
+        Collections.sort(hits, (a, b) -> Double.compare(a.km, b.km));
+        for (Hit hit : hits) {
+            result.add(hit.station);
+        }
+        return result;
+    }
+
+    /**
+     * Every station inside a lat/lon box (west greater than east crosses the antimeridian)
+     */
+    public List<Station> within(double south, double west, double north, double east) {
+        List<Station> result = new ArrayList<>();
+        if (size == 0 || south > north) return result;
+
+        int minLat = cell(Math.max(-90, south));
+        int maxLat = cell(Math.min(90, north));
+        int minLon = cell(west);
+        int maxLon = cell(east);
+        if (west > east) maxLon += LON_CELLS;
+        if (maxLon - minLon >= LON_CELLS) {
+            minLon = -LON_CELLS / 2;
+            maxLon = minLon + LON_CELLS - 1;
+        }
+
+        for (int la = minLat; la <= maxLat; la++) {
+            for (int lo = minLon; lo <= maxLon; lo++) {
+                List<Station> bucket = cells.get(cellKey(la, wrapLon(lo)));
+                if (bucket == null) continue;
+                for (Station station : bucket) {
+                    double lat = station.getLatitude();
+                    double lon = station.getLongitude();
+                    boolean inLon = west <= east ? lon >= west && lon <= east : lon >= west || lon <= east;
+                    if (lat >= south && lat <= north && inLon) result.add(station);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Great-circle (haversine) distance in km. */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // ---------------------------------------------------------------------
+    // Grid helpers
+    // ---------------------------------------------------------------------
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    // Longitude cells wrap at the antimeridian
+    private static int wrapLon(int lonCell) {
+        int offset = Math.floorMod(lonCell + LON_CELLS / 2, LON_CELLS);
+        return offset - LON_CELLS / 2;
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude)
+                && latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180
+                && !(latitude == 0 && longitude == 0); // unset coordinates
+    }
+
+    private static final class Hit {
+        final Station station;
+        final double km;
+
+        Hit(Station station, double km) {
+            this.station = station;
+            this.km = km;
+        }
+    }
+}
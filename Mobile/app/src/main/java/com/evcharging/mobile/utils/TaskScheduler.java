@@ -0,0 +1,383 @@
+package com.evcharging.mobile.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * TaskScheduler - App-wide background work scheduler
+ *
+ * Purpose: Replace ad-hoc new Thread(), AsyncTask and per-call executors with
+ * three bounded pools (network I/O, disk I/O, CPU parsing). Tasks are ordered by
+ * priority so user-visible work runs before prefetch, and screens submit through
+ * a {@link Group} so everything they started can be cancelled in onDestroy.
+ *
+ * Usage:
+ *   TaskScheduler.Group tasks = TaskScheduler.get().newGroup();
+ *   tasks.network(() -> { ApiResponse r = api.get(...); tasks.onMain(() -> render(r)); });
+ *   ...
+ *   tasks.cancelAll(); // onDestroy
+ */
+public final class TaskScheduler {
+
+    private static final String TAG = "TaskScheduler";
+
+    public enum Pool { NETWORK, DISK, CPU }
+
+    /** Lower ordinal runs first. */
+    public enum Priority { USER_VISIBLE, PREFETCH }
+
+    private static final int NETWORK_THREADS = 4;
+    private static final int DISK_THREADS = 2;
+    private static final int CPU_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile TaskScheduler instance;
+
+    private final BoundedPool network = new BoundedPool("network", NETWORK_THREADS);
+    private final BoundedPool disk = new BoundedPool("disk", DISK_THREADS);
+    private final BoundedPool cpu = new BoundedPool("cpu", CPU_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicLong sequence = new AtomicLong();
+
+    private TaskScheduler() {
+    }
+
+    public static TaskScheduler get() {
+        if (instance == null) {
+            synchronized (TaskScheduler.class) {
+                if (instance == null) instance = new TaskScheduler();
+            }
+        }
+        return instance;
+    }
+
+    /** Create a cancellation group, usually one per screen. */
+    public Group newGroup() {
+        return new Group();
+    }
+
+    public Future<?> submit(Pool pool, Priority priority, Runnable task) {
+        return submit(pool, priority, null, task);
+    }
+
+    /** An Executor view of one pool, for libraries that take one (e.g. AsyncListDiffer). */
+    public Executor executor(Pool pool, Priority priority) {
+        return task -> submit(pool, priority, task);
+    }
+
+    public void runOnMain(Runnable task) {
+        mainHandler.post(task);
+    }
+
+    /** Queue depth and latency counters for one pool. */
+    public Stats stats(Pool pool) {
+        return poolFor(pool).snapshot();
+    }
+
+    private Future<?> submit(Pool pool, Priority priority, Group group, Runnable task) {
+        BoundedPool target = poolFor(pool);
+        PrioritizedTask wrapped = new PrioritizedTask(task, priority, sequence.incrementAndGet(), target, group);
+        if (group != null && !group.track(wrapped)) {
+            return wrapped; // group already cancelled, never scheduled
+        }
+        target.submitted.incrementAndGet();
+        target.executor.execute(wrapped);
+        return wrapped;
+    }
+
+    private BoundedPool poolFor(Pool pool) {
+        switch (pool) {
+            case DISK:
+                return disk;
+            case CPU:
+                return cpu;
+            case NETWORK:
+            default:
+                return network;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Per-screen cancellation group
+    // ---------------------------------------------------------------------
+    public final class Group {
+        private final Set<PrioritizedTask> tasks = new HashSet<>();
+        private volatile boolean cancelled;
+
+        public Future<?> network(Runnable task) {
+            return submit(Pool.NETWORK, Priority.USER_VISIBLE, this, task);
+        }
+
+        public Future<?> network(Priority priority, Runnable task) {
+            return submit(Pool.NETWORK, priority, this, task);
+        }
+
+        /**
+         * Run on the network pool and hand the result to the main thread.
+         * A failed background step is logged and delivered as null, so
+         * onResult must treat null as "no result".
+         */
+        public <T> Future<?> network(Callable<T> background, Consumer<T> onResult) {
+            return network(background, onResult, e -> onResult.accept(null));
+        }
+
+        /**
+         * Run on the network pool; onResult receives the value, onError the
+         * exception if the background step threw. Both run on the main thread
+         * and are skipped once the group is cancelled. Same shape as AsyncTask
+         * doInBackground/onPostExecute.
+         */
+        public <T> Future<?> network(Callable<T> background, Consumer<T> onResult, Consumer<Exception> onError) {
+            return submit(Pool.NETWORK, Priority.USER_VISIBLE, this, () -> deliver(background, onResult, onError));
+        }
+
+        public Future<?> disk(Runnable task) {
+            return submit(Pool.DISK, Priority.USER_VISIBLE, this, task);
+        }
+
+        public Future<?> disk(Priority priority, Runnable task) {
+            return submit(Pool.DISK, priority, this, task);
+        }
+
+        public Future<?> cpu(Runnable task) {
+            return submit(Pool.CPU, Priority.USER_VISIBLE, this, task);
+        }
+
+        public Future<?> cpu(Priority priority, Runnable task) {
+            return submit(Pool.CPU, priority, this, task);
+        }
+
+        /** CPU-pool counterpart of {@link #network(Callable, Consumer)}; failures arrive as null. */
+        public <T> Future<?> cpu(Callable<T> background, Consumer<T> onResult) {
+            return submit(Pool.CPU, Priority.USER_VISIBLE, this,
+                    () -> deliver(background, onResult, e -> onResult.accept(null)));
+        }
+
+        /** Post to the main thread unless the group was cancelled in the meantime. */
+        public void onMain(Runnable task) {
+            mainHandler.post(() -> {
+                if (!cancelled) task.run();
+            });
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Cancel queued and running tasks; later submissions are ignored.
+         * Queued tasks are dropped from their pool's queue so queue depth
+         * only counts work that will still run.
+         */
+        public void cancelAll() {
+            PrioritizedTask[] snapshot;
+            synchronized (tasks) {
+                cancelled = true;
+                snapshot = tasks.toArray(new PrioritizedTask[0]);
+                tasks.clear();
+            }
+            for (PrioritizedTask task : snapshot) {
+                task.cancel(true);
+            }
+        }
+
+        private <T> void deliver(Callable<T> background, Consumer<T> onResult, Consumer<Exception> onError) {
+            T result;
+            try {
+                result = background.call();
+            } catch (Exception e) {
+                Log.e(TAG, "Background step failed", e);
+                onMain(() -> onError.accept(e));
+                return;
+            }
+            onMain(() -> onResult.accept(result));
+        }
+
+        private boolean track(PrioritizedTask task) {
+            synchronized (tasks) {
+                if (cancelled) return false;
+                tasks.add(task);
+                return true;
+            }
+        }
+
+        private void untrack(PrioritizedTask task) {
+            synchronized (tasks) {
+                tasks.remove(task);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Metrics
+    // ---------------------------------------------------------------------
+    public static final class Stats {
+        public final String pool;
+        public final int activeThreads;
+        public final int queueDepth;
+        public final long submitted;
+        public final long completed;
+        public final long cancelled;
+        public final long avgQueueWaitMs;
+        public final long maxQueueWaitMs;
+        public final long avgRunMs;
+
+        Stats(String pool, int activeThreads, int queueDepth, long submitted, long completed, long cancelled,
+              long avgQueueWaitMs, long maxQueueWaitMs, long avgRunMs) {
+            this.pool = pool;
+            this.activeThreads = activeThreads;
+            this.queueDepth = queueDepth;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.cancelled = cancelled;
+            this.avgQueueWaitMs = avgQueueWaitMs;
+            this.maxQueueWaitMs = maxQueueWaitMs;
+            this.avgRunMs = avgRunMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" + pool +
+                    ", active=" + activeThreads +
+                    ", queued=" + queueDepth +
+                    ", submitted=" + submitted +
+                    ", completed=" + completed +
+                    ", cancelled=" + cancelled +
+                    ", avgWaitMs=" + avgQueueWaitMs +
+                    ", maxWaitMs=" + maxQueueWaitMs +
+                    ", avgRunMs=" + avgRunMs +
+                    '}';
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+    private static final class BoundedPool {
+        final String name;
+        final ThreadPoolExecutor executor;
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong cancelled = new AtomicLong();
+        final AtomicLong totalWaitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong totalRunNanos = new AtomicLong();
+
+        BoundedPool(String name, int threads) {
+            this.name = name;
+            this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new PriorityBlockingQueue<>(), new NamedThreadFactory(name));
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        void recordStart(long waitNanos) {
+            totalWaitNanos.addAndGet(waitNanos);
+            long max;
+            do {
+                max = maxWaitNanos.get();
+            } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+        }
+
+        void recordFinish(long runNanos) {
+            totalRunNanos.addAndGet(runNanos);
+            completed.incrementAndGet();
+        }
+
+        Stats snapshot() {
+            long done = completed.get();
+            long avgWait = done > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / done) : 0;
+            long avgRun = done > 0 ? TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / done) : 0;
+            return new Stats(name, executor.getActiveCount(), executor.getQueue().size(), submitted.get(), done,
+                    cancelled.get(), avgWait, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), avgRun);
+        }
+    }
+
+    private static final class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+        private final Priority priority;
+        private final long seq;
+        private final long enqueuedAt = System.nanoTime();
+        private final BoundedPool pool;
+        private final Group group;
+
+        PrioritizedTask(Runnable task, Priority priority, long seq, BoundedPool pool, Group group) {
+            super(task, null);
+            this.priority = priority != null ? priority : Priority.USER_VISIBLE;
+            this.seq = seq;
+            this.pool = pool;
+            this.group = group;
+        }
+
+        @Override
+        public void run() {
+            if (isCancelled()) return;
+            long start = System.nanoTime();
+            pool.recordStart(start - enqueuedAt);
+            try {
+                super.run();
+            } finally {
+                pool.recordFinish(System.nanoTime() - start);
+            }
+        }
+
+        /** Cancelling a queued task also takes it off the queue; it counts as cancelled, not completed. */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && pool.executor.remove(this)) {
+                pool.cancelled.incrementAndGet();
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            if (group != null) group.untrack(this);
+            if (!isCancelled()) {
+                try {
+                    get();
+                } catch (Exception e) {
+                    Log.e(TAG, "Background task failed in " + pool.name + " pool", e);
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, "ev-" + name + "-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.evcharging.mobile.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * TimeFormat - Parsing of server timestamps and cached display formatting
+ *
+ * Purpose: List rows used to build two or three SimpleDateFormat objects per bind
+ * (and per spinner item via TimeSlotItem.toString()). Here:
+ * - parseServer() reads every timestamp shape the backend sends without any
+ *   formatter: ISO-8601 with or without fraction / 'Z' / offset (no zone = UTC),
+ *   and the legacy /Date(ms)/ form
+ * - Style holds one SimpleDateFormat per thread (SimpleDateFormat is not
+ *   thread-safe), rebuilt only if the device locale or time zone changes
+ * - formatServer(UTC) formats epoch ms as the ISO string the backend accepts
+ *
+ * java.time would be the natural fit but needs API 26 (minSdk is 24, no desugaring).
+ */
+public final class TimeFormat {
+
+    /** Booking cards and details: "05 Oct 2025, 4:30 PM". */
+    public static final Style BOOKING = new Style("dd MMM yyyy, h:mm a");
+    /** Time slot pickers: "Oct 05, 04:30 PM". */
+    public static final Style TIME_SLOT = new Style("MMM dd, hh:mm a");
+    /** Notification rows: "Oct 05, 2025 16:30". */
+    public static final Style NOTIFICATION = new Style("MMM dd, yyyy HH:mm");
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final Style SERVER = new Style("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US, UTC);
+
+    // Days from 1970-01-01 to the first of each month in a non-leap year
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private TimeFormat() {
+    }
+
+    /**
+     * @return epoch ms, or -1 when the value is missing or not a timestamp we know
+     */
+    public static long parseServer(String raw) {
+        if (raw == null) return -1;
+        String s = raw.trim();
+        if (s.startsWith("/Date(")) return parseMsDate(s);
+        return parseIso(s);
+    }
+
+    /** Epoch ms as the backend's ISO form, e.g. 2025-10-10T04:30:00.000Z. */
+    public static String formatServer(long epochMs) {
+        return SERVER.format(epochMs);
+    }
+
+    // 2025-10-10T04:30:00[.1234567][Z|+05:30|+0530]
+    private static long parseIso(String s) {
+        if (s.length() < 19 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return -1;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        int hour = digits(s, 11, 13);
+        int minute = digits(s, 14, 16);
+        int second = digits(s, 17, 19);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return -1;
+        }
+
+        int i = 19;
+        long millis = 0;
+        if (i < s.length() && s.charAt(i) == '.') {
+            int start = ++i;
+            while (i < s.length() && Character.isDigit(s.charAt(i))) i++;
+            if (i == start) return -1;
+            // First three fraction digits are the milliseconds; finer precision is dropped
+            for (int k = 0; k < 3; k++) {
+                millis = millis * 10 + (start + k < i ? s.charAt(start + k) - '0' : 0);
+            }
+        }
+
+        long offsetMs = 0;
+        if (i < s.length()) {
+            char zone = s.charAt(i);
+            if (zone == 'Z' && i == s.length() - 1) {
+                offsetMs = 0;
+            } else if (zone == '+' || zone == '-') {
+                String rest = s.substring(i + 1).replace(":", "");
+                if (rest.length() != 4) return -1;
+                int hours = digits(rest, 0, 2);
+                int minutes = digits(rest, 2, 4);
+                if (hours < 0 || minutes < 0) return -1;
+                offsetMs = (hours * 60L + minutes) * 60_000L * (zone == '-' ? -1 : 1);
+            } else {
+                return -1;
+            }
+        }
+
+        long days = daysSinceEpoch(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L + millis - offsetMs;
+    }
+
+    // /Date(1697184000000)/ or /Date(1697184000000+0530)/ - the number is already UTC
+    private static long parseMsDate(String s) {
+        int start = "/Date(".length();
+        int end = start;
+        if (end < s.length() && s.charAt(end) == '-') end++;
+        while (end < s.length() && Character.isDigit(s.charAt(end))) end++;
+        try {
+            return Long.parseLong(s.substring(start, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long daysSinceEpoch(int year, int month, int day) {
+        // Leap days between 1970 and the start of this year, plus this year's if past February
+        long y = year - 1;
+        long leapDays = (y / 4 - y / 100 + y / 400) - 477; // 477 = leap days before 1970
+        long days = (year - 1970) * 365L + leapDays + DAYS_BEFORE_MONTH[month - 1] + (day - 1);
+        if (isLeap(year) && month > 2) days++;
+        return days;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) return isLeap(year) ? 29 : 28;
+        return month == 12 ? 31 : DAYS_BEFORE_MONTH[month] - DAYS_BEFORE_MONTH[month - 1];
+    }
+
+    private static boolean isLeap(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * A display pattern with one formatter per thread
+     */
+    public static final class Style {
+        private final String pattern;
+        private final Locale fixedLocale;
+        private final TimeZone fixedZone;
+        private final ThreadLocal<Cached> cached = new ThreadLocal<>();
+
+        private Style(String pattern) {
+            this(pattern, null, null);
+        }
+
+        private Style(String pattern, Locale fixedLocale, TimeZone fixedZone) {
+            this.pattern = pattern;
+            this.fixedLocale = fixedLocale;
+            this.fixedZone = fixedZone;
+        }
+
+        public String format(long epochMs) {
+            return formatter().format(new Date(epochMs));
+        }
+
+        public String format(Date date) {
+            return date != null ? formatter().format(date) : "";
+        }
+
+        /**
+         * Server timestamp in this style, in the device time zone
+         *
+         * @return the raw value unchanged when it cannot be read
+         */
+        public String formatServer(String raw) {
+            long epochMs = parseServer(raw);
+            return epochMs >= 0 ? format(epochMs) : raw;
+        }
+
+        private SimpleDateFormat formatter() {
+            Locale locale = fixedLocale != null ? fixedLocale : Locale.getDefault();
+            TimeZone zone = fixedZone != null ? fixedZone : TimeZone.getDefault();
+            Cached c = cached.get();
+            if (c == null || !c.locale.equals(locale) || !c.zone.getID().equals(zone.getID())) {
+                SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+                format.setTimeZone(zone);
+                c = new Cached(format, locale, zone);
+                cached.set(c);
+            }
+            return c.format;
+        }
+    }
+
+    private static final class Cached {
+        final SimpleDateFormat format;
+        final Locale locale;
+        final TimeZone zone;
+
+        Cached(SimpleDateFormat format, Locale locale, TimeZone zone) {
+            this.format = format;
+            this.locale = locale;
+            this.zone = zone;
+        }
+    }
+}
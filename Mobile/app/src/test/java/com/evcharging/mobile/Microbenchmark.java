@@ -0,0 +1,67 @@
+package com.evcharging.mobile;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Microbenchmark - Allocation and timing measurements for the benchmark tests
+ *
+ * Purpose: Bytes allocated on the calling thread (ThreadMXBean) are deterministic,
+ * so benchmarks assert on those; ns/call is carried along for assertion messages
+ * only, since wall-clock time depends on how loaded the machine is.
+ * Tests are skipped (not failed) on JVMs without per-thread allocation counters.
+ */
+public final class Microbenchmark {
+
+    private Microbenchmark() {
+    }
+
+    /** Run call calls/10 times to warm up, then calls times measured. */
+    public static Result measure(int calls, Runnable call) {
+        return measure(calls, call, () -> { });
+    }
+
+    /**
+     * Same as {@link #measure(int, Runnable)}; between runs after the warm-up and
+     * after the measured loop (e.g. to drop captured log lines).
+     */
+    public static Result measure(int calls, Runnable call, Runnable between) {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        for (int i = 0; i < calls / 10; i++) call.run(); // warm-up
+        between.run();
+
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) call.run();
+        long elapsed = System.nanoTime() - start;
+        bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+        between.run();
+        return new Result(bytes / calls, elapsed / calls);
+    }
+
+    /** Per-thread allocation counter; skips the calling test where the JVM has none. */
+    public static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    public static final class Result {
+        public final long bytesPerCall;
+        public final long nanosPerCall;
+
+        Result(long bytesPerCall, long nanosPerCall) {
+            this.bytesPerCall = bytesPerCall;
+            this.nanosPerCall = nanosPerCall;
+        }
+
+        @Override
+        public String toString() {
+            return bytesPerCall + " B/" + nanosPerCall + " ns";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.evcharging.mobile;
+
+import android.util.LruCache;
+
+import com.evcharging.mobile.database.DatabaseHelper;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.HttpClientProvider;
+import com.evcharging.mobile.network.ResponseCache;
+import com.evcharging.mobile.network.TokenRefresher;
+import com.evcharging.mobile.service.StationCatalog;
+import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.JwtUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+
+/**
+ * TestEnvironment - Resets the process-wide singletons between tests
+ *
+ * Purpose: Robolectric reuses one class loader per SDK, so the shared client, session
+ * snapshot, database helper and catalog would otherwise leak from one test into the next.
+ * Call reset() from @Before (and @After when a test points ApiClient at a mock server).
+ */
+public final class TestEnvironment {
+
+    private TestEnvironment() {
+    }
+
+    public static void reset() {
+        awaitLogoutWipe();
+        ApiClient.setBaseUrl(null);
+        ApiClient.setCallbackExecutor(null);
+        set(HttpClientProvider.class, "client", null);
+        Cache cache = (Cache) get(ResponseCache.class, "cache");
+        if (cache != null) {
+            try {
+                cache.delete();
+            } catch (IOException ignored) {
+            }
+        }
+        set(ResponseCache.class, "cache", null);
+        set(TokenRefresher.class, "session", null);
+        set(TokenRefresher.class, "failedToken", null);
+        set(StationCatalog.class, "instance", null);
+        set(SessionManager.class, "cachedUser", null);
+        set(SessionManager.class, "userLoaded", false);
+        set(SessionManager.class, "pendingWipe", null);
+        ((LruCache<?, ?>) get(JwtUtils.class, "cache")).evictAll();
+        ((List<?>) get(SessionManager.class, "listeners")).clear();
+
+        DatabaseHelper db = (DatabaseHelper) get(DatabaseHelper.class, "instance");
+        if (db != null) db.close();
+        set(DatabaseHelper.class, "instance", null);
+    }
+
+    /** Wait for the table wipe a logout queued on the disk pool. */
+    public static void awaitLogoutWipe() {
+        Future<?> wipe = (Future<?>) get(SessionManager.class, "pendingWipe");
+        if (wipe == null) return;
+        try {
+            wipe.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("Logout wipe did not finish", e);
+        }
+    }
+
+    /** Point ApiClient (and everything built on its base URL) at a local server. */
+    public static void useServer(String baseUrl) {
+        ApiClient.setBaseUrl(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl);
+    }
+
+    public static Object get(Class<?> owner, String name) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("No static field " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    public static void set(Class<?> owner, String name, Object value) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(null, value);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("No static field " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+}
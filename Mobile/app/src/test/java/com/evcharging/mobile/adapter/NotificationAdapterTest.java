@@ -0,0 +1,189 @@
+package com.evcharging.mobile.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.evcharging.mobile.model.Notification;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class NotificationAdapterTest {
+
+    private static final int ROWS = 20;
+    // Tall enough that every row is laid out
+    private static final int WIDTH = 1080, HEIGHT = 20_000;
+
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private List<Notification> shown;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = new ContextThemeWrapper(RuntimeEnvironment.getApplication(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+        shown = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) shown.add(notification("n" + i, "Booking " + i + " approved", false));
+
+        adapter = new CountingAdapter(shown);
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(adapter);
+        settle(shown);
+        assertEquals(ROWS, adapter.fullBinds);
+        adapter.reset();
+    }
+
+    @Test
+    public void fullRefreshRebindsEveryRow() {
+        // What updateNotifications() used to do on every refresh
+        adapter.notifyDataSetChanged();
+        layout();
+
+        assertEquals(ROWS, adapter.fullBinds);
+    }
+
+    @Test
+    public void unchangedListRebindsNothing() throws Exception {
+        List<Notification> copies = new ArrayList<>();
+        for (Notification n : shown) copies.add(copy(n, n.isRead()));
+
+        adapter.updateNotifications(copies);
+        settle(copies);
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void markingOneReadIsOnePartialBind() throws Exception {
+        List<Notification> next = new ArrayList<>(shown);
+        next.set(3, copy(shown.get(3), true));
+
+        adapter.updateNotifications(next);
+        settle(next);
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(1, adapter.partialBinds);
+    }
+
+    @Test
+    public void newAndRemovedRowsBindOnlyWhatIsNew() throws Exception {
+        List<Notification> next = new ArrayList<>(shown);
+        next.remove(5);
+        next.add(0, notification("n-new", "Booking 99 approved", false));
+
+        adapter.updateNotifications(next);
+        settle(next);
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+        assertEquals(ROWS, adapter.getItemCount());
+    }
+
+    @Test
+    public void changedMessageIsAFullBind() throws Exception {
+        List<Notification> next = new ArrayList<>(shown);
+        Notification edited = copy(shown.get(7), false);
+        edited.setMessage("Booking 7 cancelled");
+        next.set(7, edited);
+
+        adapter.updateNotifications(next);
+        settle(next);
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    // Wait for the background diff to be committed on the main thread, then lay out
+    private void settle(List<Notification> expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!committed(expected)) {
+            if (System.currentTimeMillis() > deadline) fail("Diff was not committed");
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(5);
+        }
+        layout();
+    }
+
+    private boolean committed(List<Notification> expected) throws Exception {
+        List<Notification> current = differ().getCurrentList();
+        if (current.size() != expected.size()) return false;
+        for (int i = 0; i < expected.size(); i++) {
+            if (current.get(i) != expected.get(i)) return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncListDiffer<Notification> differ() throws Exception {
+        Field field = NotificationAdapter.class.getDeclaredField("differ");
+        field.setAccessible(true);
+        return (AsyncListDiffer<Notification>) field.get(adapter);
+    }
+
+    private void layout() {
+        shadowOf(Looper.getMainLooper()).idle();
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static Notification notification(String id, String message, boolean read) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId("199012345678");
+        notification.setMessage(message);
+        notification.setCreatedAt(new Date(1_759_737_600_000L));
+        notification.setRead(read);
+        return notification;
+    }
+
+    private static Notification copy(Notification source, boolean read) {
+        Notification copy = notification(source.getId(), source.getMessage(), read);
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private static final class CountingAdapter extends NotificationAdapter {
+        int fullBinds;
+        int partialBinds;
+
+        CountingAdapter(List<Notification> notifications) {
+            super(notifications, null);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) fullBinds++;
+            else partialBinds++;
+            super.onBindViewHolder(holder, position, payloads);
+        }
+
+        void reset() {
+            fullBinds = 0;
+            partialBinds = 0;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.evcharging.mobile.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.evcharging.mobile.model.BookingItem;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class OwnerBookingAdapterTest {
+
+    private static final int ROWS = 20;
+    // Tall enough that every card is laid out
+    private static final int WIDTH = 1080, HEIGHT = 40_000;
+
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private List<BookingItem> shown;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = new ContextThemeWrapper(RuntimeEnvironment.getApplication(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+        shown = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) shown.add(booking("b" + i, "Pending"));
+
+        adapter = new CountingAdapter(shown);
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(adapter);
+        settle(shown);
+        assertEquals(ROWS, adapter.fullBinds);
+        adapter.reset();
+    }
+
+    @Test
+    public void fullRefreshRebindsEveryCard() {
+        // What setData() used to do on every refresh
+        adapter.notifyDataSetChanged();
+        layout();
+
+        assertEquals(ROWS, adapter.fullBinds);
+    }
+
+    @Test
+    public void statusChangeRebindsOnlyTheBadge() throws Exception {
+        List<BookingItem> next = copies();
+        next.get(4).setStatus("Approved");
+        next.get(9).setStatus("Charging");
+
+        adapter.setData(next);
+        settle(next);
+
+        assertEquals("full binds (notifyDataSetChanged would do " + ROWS + ")", 0, adapter.fullBinds);
+        assertEquals(2, adapter.partialBinds);
+    }
+
+    @Test
+    public void refreshWithNothingNewRebindsNothing() throws Exception {
+        List<BookingItem> next = copies();
+
+        adapter.setData(next);
+        settle(next);
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void rescheduledBookingIsAFullBind() throws Exception {
+        List<BookingItem> next = copies();
+        next.get(2).setStartTime("2025-10-07T10:00:00Z");
+
+        adapter.setData(next);
+        settle(next);
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    // Fresh objects with the same content, as a re-fetch would decode them
+    private List<BookingItem> copies() {
+        List<BookingItem> copies = new ArrayList<>();
+        for (BookingItem item : shown) copies.add(booking(item.getBookingId(), item.getStatus()));
+        return copies;
+    }
+
+    private void settle(List<BookingItem> expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!committed(expected)) {
+            if (System.currentTimeMillis() > deadline) fail("Diff was not committed");
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(5);
+        }
+        layout();
+    }
+
+    private boolean committed(List<BookingItem> expected) throws Exception {
+        List<BookingItem> current = differ().getCurrentList();
+        if (current.size() != expected.size()) return false;
+        for (int i = 0; i < expected.size(); i++) {
+            if (current.get(i) != expected.get(i)) return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncListDiffer<BookingItem> differ() throws Exception {
+        Field field = OwnerBookingAdapter.class.getDeclaredField("differ");
+        field.setAccessible(true);
+        return (AsyncListDiffer<BookingItem>) field.get(adapter);
+    }
+
+    private void layout() {
+        shadowOf(Looper.getMainLooper()).idle();
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static BookingItem booking(String id, String status) {
+        BookingItem item = new BookingItem();
+        item.setBookingId(id);
+        item.setStationName("Colombo Fort Charging Hub");
+        item.setSlotNumber("2");
+        item.setStatus(status);
+        item.setStartTime("2025-10-07T08:00:00Z");
+        item.setEndTime("2025-10-07T09:00:00Z");
+        return item;
+    }
+
+    private static final class CountingAdapter extends OwnerBookingAdapter {
+        int fullBinds;
+        int partialBinds;
+
+        CountingAdapter(List<BookingItem> items) {
+            super(items, item -> { });
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) fullBinds++;
+            else partialBinds++;
+            super.onBindViewHolder(holder, position, payloads);
+        }
+
+        void reset() {
+            fullBinds = 0;
+            partialBinds = 0;
+        }
+    }
+}
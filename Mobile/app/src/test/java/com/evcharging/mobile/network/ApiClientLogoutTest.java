@@ -0,0 +1,128 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.session.SessionManager;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApiClientLogoutTest {
+
+    private static final String OWNER = "199012345678";
+
+    private MockWebServer server;
+    private Context context;
+    private SessionManager session;
+    private LocalStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        context = RuntimeEnvironment.getApplication();
+        session = new SessionManager(context);
+        store = new LocalStore(context);
+
+        context.getSharedPreferences("auth_prefs", Context.MODE_PRIVATE).edit()
+                .putString("auth_token", "token-1").commit();
+        session.saveLoggedInUser(new User(OWNER, "Owner One", "owner@example.com", "Owner",
+                true, "2025-10-06T08:00:00Z", null, false));
+        session.saveCredentials("owner@example.com", "secret", true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void logoutClearsEverythingTheSessionStored() throws Exception {
+        store.upsertBookings(Collections.singletonList(booking("b1")));
+        store.saveSyncState("owner-bookings:" + OWNER, new LocalStore.SyncState(1000, 2000));
+        store.upsertNotifications(OWNER, Collections.singletonList(notification("n1")));
+        List<User> seen = new ArrayList<>();
+        SessionManager.addOnUserChangedListener(seen::add);
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        new ApiClient(session).logout();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/auth/logout", request.getPath());
+        assertEquals("Bearer token-1", request.getHeader("Authorization"));
+
+        assertNull(session.getToken());
+        assertNull(session.getLoggedInUser());
+        TestEnvironment.awaitLogoutWipe();
+        assertEquals(0, store.countOwnerBookings(OWNER));
+        assertEquals(0, store.getSyncState("owner-bookings:" + OWNER).cursor);
+        assertEquals(0, store.countNotifications(OWNER));
+        assertEquals(0, store.getUnreadNotificationCount(OWNER));
+
+        // Listeners (HubConnectionManager clears its batcher) hear about the logout
+        assertEquals(1, seen.size());
+        assertNull(seen.get(0));
+
+        // Remember-me survives a plain logout
+        assertTrue(session.isRememberMeEnabled());
+        assertEquals("owner@example.com", session.getSavedEmail());
+    }
+
+    @Test
+    public void logoutStillClearsLocallyWhenTheServerIsDown() throws Exception {
+        store.upsertBookings(Collections.singletonList(booking("b1")));
+        server.shutdown();
+
+        new ApiClient(session).logout();
+
+        assertNull(session.getToken());
+        assertNull(session.getLoggedInUser());
+        TestEnvironment.awaitLogoutWipe();
+        assertEquals(0, store.countOwnerBookings(OWNER));
+    }
+
+    private static JsonObject booking(String id) {
+        JsonObject booking = new JsonObject();
+        booking.addProperty("bookingId", id);
+        booking.addProperty("ownerId", OWNER);
+        booking.addProperty("stationId", "st-1");
+        booking.addProperty("status", "Approved");
+        booking.addProperty("startTime", "2025-10-06T08:00:00Z");
+        booking.addProperty("updatedAt", "2025-10-06T07:00:00Z");
+        return booking;
+    }
+
+    private static Notification notification(String id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId(OWNER);
+        notification.setMessage("Booking approved");
+        return notification;
+    }
+}
@@ -0,0 +1,84 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker();
+    private long now = 1_000_000;
+
+    @Test
+    public void opensAfterFiveConsecutiveFailures() {
+        for (int i = 0; i < 4; i++) breaker.onFailure(now);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onFailure(now);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allow(now));
+        assertEquals(10_000, breaker.retryAfterMs(now));
+        assertFalse(breaker.allow(now + 9_999));
+    }
+
+    @Test
+    public void successInBetweenResetsTheCount() {
+        for (int i = 0; i < 4; i++) breaker.onFailure(now);
+        breaker.onSuccess();
+        for (int i = 0; i < 4; i++) breaker.onFailure(now);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        open();
+        now += 10_000;
+
+        assertTrue(breaker.allow(now));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.allow(now)); // one probe at a time
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allow(now));
+    }
+
+    @Test
+    public void failedProbeDoublesTheOpenPeriodUpToTheCap() {
+        open();
+        long[] expected = {20_000, 40_000, 60_000, 60_000};
+        long openFor = 10_000;
+        for (long next : expected) {
+            now += openFor;
+            assertTrue(breaker.allow(now));
+            breaker.onFailure(now);
+            assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+            assertEquals(next, breaker.retryAfterMs(now));
+            openFor = next;
+        }
+
+        // A successful probe starts over from the base period
+        now += openFor;
+        assertTrue(breaker.allow(now));
+        breaker.onSuccess();
+        open();
+        assertEquals(10_000, breaker.retryAfterMs(now));
+    }
+
+    @Test
+    public void ignoredProbeReleasesTheSlot() {
+        open();
+        now += 10_000;
+        assertTrue(breaker.allow(now));
+
+        breaker.onIgnored(); // probe was cancelled: let another one try
+        assertTrue(breaker.allow(now));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    private void open() {
+        for (int i = 0; i < 5; i++) breaker.onFailure(now);
+    }
+}
@@ -0,0 +1,26 @@
+package com.evcharging.mobile.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Clock for ResiliencePolicy tests: sleeping only advances time and records the delay. */
+final class FakeClock implements ResiliencePolicy.Clock {
+
+    final List<Long> sleeps = new ArrayList<>();
+    private long now = 1_000_000;
+
+    @Override
+    public synchronized long nowMs() {
+        return now;
+    }
+
+    @Override
+    public synchronized void sleep(long ms) {
+        sleeps.add(ms);
+        now += ms;
+    }
+
+    synchronized void advance(long ms) {
+        now += ms;
+    }
+}
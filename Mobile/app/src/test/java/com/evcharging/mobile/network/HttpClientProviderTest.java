@@ -0,0 +1,102 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.evcharging.mobile.TestEnvironment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class HttpClientProviderTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void sequentialCallsReuseOneKeepAliveConnection() throws Exception {
+        OkHttpClient client = HttpClientProvider.get();
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setBody("ok " + i));
+            call(client);
+        }
+
+        // Sequence number counts requests served on the same socket
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, server.takeRequest().getSequenceNumber());
+        }
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    public void derivedAndConfiguredClientsShareThePool() throws Exception {
+        OkHttpClient shared = HttpClientProvider.get();
+        OkHttpClient derived = shared.newBuilder().build();      // OwnerService-style
+        OkHttpClient.Builder hubBuilder = new OkHttpClient.Builder();
+        HttpClientProvider.configure(hubBuilder);                 // SignalR-style
+        OkHttpClient hub = hubBuilder.build();
+
+        for (int i = 0; i < 3; i++) server.enqueue(new MockResponse().setBody("ok"));
+        call(shared);
+        call(derived);
+        call(hub);
+
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(2, server.takeRequest().getSequenceNumber());
+        assertSame(shared.connectionPool(), hub.connectionPool());
+        assertSame(shared.dispatcher(), hub.dispatcher());
+    }
+
+    @Test
+    public void certificateChecksAreOnlyRelaxedWhenAskedFor() {
+        OkHttpClient platform = new OkHttpClient();
+
+        OkHttpClient release = HttpClientProvider.build(false);
+        assertSame(platform.hostnameVerifier(), release.hostnameVerifier());
+        assertEquals(platform.x509TrustManager().getClass(), release.x509TrustManager().getClass());
+
+        OkHttpClient debug = HttpClientProvider.build(true);
+        assertNotSame(platform.hostnameVerifier(), debug.hostnameVerifier());
+        assertEquals(0, debug.x509TrustManager().getAcceptedIssuers().length);
+    }
+
+    @Test
+    public void hubBuilderKeepsDefaultCertificateValidation() {
+        OkHttpClient.Builder hubBuilder = new OkHttpClient.Builder();
+        HttpClientProvider.configure(hubBuilder);
+        OkHttpClient hub = hubBuilder.build();
+
+        assertSame(new OkHttpClient().hostnameVerifier(), hub.hostnameVerifier());
+    }
+
+    private void call(OkHttpClient client) throws Exception {
+        Request request = new Request.Builder().url(server.url("/api/ping")).build();
+        try (Response response = client.newCall(request).execute()) {
+            response.body().string();
+        }
+    }
+}
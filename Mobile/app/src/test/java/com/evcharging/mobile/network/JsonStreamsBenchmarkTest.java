@@ -0,0 +1,104 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.evcharging.mobile.Microbenchmark;
+import com.evcharging.mobile.model.BookingItem;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heap benchmark: booking history with embedded QR images, decoded the old way
+ * (whole body as a String, then Gson) and with JsonStreams.
+ *
+ * Bytes allocated on the decoding thread are measured with ThreadMXBean, which is
+ * deterministic where heap sampling is not. The buffered path must hold the whole
+ * body as a String while it parses, so its peak is at least the body size; the
+ * streamed path allocating far less than the body shows it never held it.
+ */
+public class JsonStreamsBenchmarkTest {
+
+    private static final int BOOKINGS = 300;
+    private static final int QR_IMAGE_CHARS = 20 * 1024;
+    private static final int ROUNDS = 5;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void streamingDecodeNeverMaterialisesTheBody() throws Exception {
+        com.sun.management.ThreadMXBean threads = Microbenchmark.allocationCounter();
+        byte[] body = bookingHistory();
+
+        // Warm up both paths so class loading is not counted
+        buffered(body);
+        streamed(body);
+
+        long bufferedBytes = Long.MAX_VALUE;
+        long streamedBytes = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            assertEquals(BOOKINGS, buffered(body).size());
+            long mid = threads.getCurrentThreadAllocatedBytes();
+            assertEquals(BOOKINGS, streamed(body).size());
+            long end = threads.getCurrentThreadAllocatedBytes();
+            bufferedBytes = Math.min(bufferedBytes, mid - start);
+            streamedBytes = Math.min(streamedBytes, end - mid);
+        }
+
+        String sizes = "body=" + body.length / 1024 + " KB, buffered=" + bufferedBytes / 1024
+                + " KB, streamed=" + streamedBytes / 1024 + " KB";
+        assertTrue("buffered path holds the body: " + sizes, bufferedBytes >= body.length);
+        assertTrue("streamed path allocates a fraction of the body: " + sizes, streamedBytes < body.length / 4);
+    }
+
+    @Test
+    public void bothPathsDecodeTheSameItems() throws Exception {
+        byte[] body = bookingHistory();
+        List<BookingItem> buffered = buffered(body);
+        List<BookingItem> streamed = streamed(body);
+
+        assertEquals(buffered.size(), streamed.size());
+        for (int i = 0; i < buffered.size(); i++) {
+            assertEquals(buffered.get(i).getBookingId(), streamed.get(i).getBookingId());
+            assertEquals(buffered.get(i).getStatus(), streamed.get(i).getStatus());
+        }
+    }
+
+    // ApiClient.get() + re-parse, as list screens did before getList()
+    private List<BookingItem> buffered(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        return gson.fromJson(json, new TypeToken<List<BookingItem>>() { }.getType());
+    }
+
+    // ApiClient.getList(): decoded from the response stream
+    private List<BookingItem> streamed(byte[] body) throws Exception {
+        InputStreamReader in = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+        return JsonStreams.readList(in, gson.getAdapter(BookingItem.class), null);
+    }
+
+    private static byte[] bookingHistory() {
+        char[] image = new char[QR_IMAGE_CHARS];
+        Arrays.fill(image, 'A');
+        String qrImage = new String(image);
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < BOOKINGS; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"bookingId\":\"b").append(i)
+                    .append("\",\"stationId\":\"s1\",\"status\":\"Approved\"")
+                    .append(",\"startTime\":\"2025-10-06T08:00:00Z\",\"endTime\":\"2025-10-06T09:00:00Z\"")
+                    .append(",\"qrCode\":\"token-").append(i)
+                    .append("\",\"qrImageBase64\":\"").append(qrImage).append("\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
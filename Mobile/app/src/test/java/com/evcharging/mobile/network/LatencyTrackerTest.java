@@ -0,0 +1,49 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyTrackerTest {
+
+    private final LatencyTracker tracker = new LatencyTracker();
+
+    @Test
+    public void noPercentileUntilEnoughSamples() {
+        for (int i = 0; i < 9; i++) tracker.record("api/slots", 100);
+        assertEquals(-1, tracker.percentile("api/slots", 0.99));
+        assertEquals(-1, tracker.percentile("api/unknown", 0.99));
+
+        tracker.record("api/slots", 100);
+        assertEquals(100, tracker.percentile("api/slots", 0.99));
+    }
+
+    @Test
+    public void percentilesUseNearestRank() {
+        for (int i = 1; i <= 20; i++) tracker.record("api/slots", i * 10);
+
+        assertEquals(100, tracker.percentile("api/slots", 0.5));
+        assertEquals(190, tracker.percentile("api/slots", 0.95));
+        assertEquals(200, tracker.percentile("api/slots", 0.99));
+    }
+
+    @Test
+    public void onlyTheLatestWindowCounts() {
+        for (int i = 0; i < 64; i++) tracker.record("api/slots", 5_000);
+        for (int i = 0; i < 64; i++) tracker.record("api/slots", 80);
+
+        assertEquals(80, tracker.percentile("api/slots", 0.99));
+    }
+
+    @Test
+    public void familiesAndNegativeSamplesAreKeptApart() {
+        for (int i = 0; i < 10; i++) {
+            tracker.record("api/slots", 50);
+            tracker.record("api/bookings", 900);
+            tracker.record("api/slots", -1); // clock skew: ignored
+        }
+
+        assertEquals(50, tracker.percentile("api/slots", 0.99));
+        assertEquals(900, tracker.percentile("api/bookings", 0.99));
+    }
+}
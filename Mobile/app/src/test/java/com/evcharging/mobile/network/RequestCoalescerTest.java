@@ -0,0 +1,147 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.evcharging.mobile.TestEnvironment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private ExecutorService pool;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await(10, TimeUnit.SECONDS);
+                return new MockResponse().setBody("[\"s1\",\"s2\"]");
+            }
+        });
+        server.start();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        RequestCoalescer.apply(builder);
+        client = builder.build();
+        pool = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        pool.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentIdenticalGetsReachTheServerOnce() throws Exception {
+        RequestCoalescer.Stats before = RequestCoalescer.stats();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(() -> {
+                try (Response response = client.newCall(get("/station/names?b=2&a=1")).execute()) {
+                    return response.body().string();
+                }
+            }));
+        }
+
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) assertEquals("[\"s1\",\"s2\"]", result.get(10, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        RequestCoalescer.Stats after = RequestCoalescer.stats();
+        assertEquals(1, after.leaders - before.leaders);
+        assertEquals(CALLERS - 1, after.coalesced - before.coalesced);
+    }
+
+    @Test
+    public void cancelledFollowerStopsWaitingAtOnce() throws Exception {
+        Future<?> leader = pool.submit(() -> {
+            client.newCall(get("/slots")).execute().close();
+            return null;
+        });
+        Call follower = client.newCall(get("/slots"));
+        Future<?> waiting = pool.submit(() -> {
+            try {
+                follower.execute().close();
+                fail("Cancelled follower returned a response");
+            } catch (IOException expected) {
+            }
+            return null;
+        });
+
+        awaitFollowers(1);
+        follower.cancel();
+
+        // The leader is still held by the server; the follower must not wait for it
+        waiting.get(2, TimeUnit.SECONDS);
+        release.countDown();
+        leader.get(10, TimeUnit.SECONDS);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void loneLeaderDoesNotBufferTheBody() throws Exception {
+        release.countDown();
+        // 32 KB trickling in at 1 KB per 50 ms: buffering it would take over a second
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setBody(new String(new char[32 * 1024]).replace('\0', 'x'))
+                        .throttleBody(1024, 50, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        long start = System.nanoTime();
+        try (Response response = client.newCall(get("/bookings/owner/1")).execute()) {
+            long headersMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("Waited " + headersMs + " ms for headers", headersMs < 1000);
+            assertEquals(32 * 1024, response.body().string().length());
+        }
+    }
+
+    private Request get(String path) {
+        return new Request.Builder().url(server.url(path)).build();
+    }
+
+    // Followers register their latch before blocking on it
+    private static void awaitFollowers(int count) throws InterruptedException {
+        Map<?, ?> waiting = (Map<?, ?>) TestEnvironment.get(RequestCoalescer.class, "waiting");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (waiting.size() < count) {
+            if (System.currentTimeMillis() > deadline) fail("Only " + waiting.size() + " followers waiting");
+            Thread.sleep(5);
+        }
+    }
+}
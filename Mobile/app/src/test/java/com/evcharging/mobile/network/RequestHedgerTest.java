@@ -0,0 +1,219 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.evcharging.mobile.TestEnvironment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class RequestHedgerTest {
+
+    private static final long P95_MS = 200;
+    private static final long SLOW_MS = 2_000;
+    // For attempts that must not be hedged: far above a local round trip, even on a cold client
+    private static final long GENEROUS_P95_MS = 1_500;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private final List<Long> arrivals = new CopyOnWriteArrayList<>();
+    private final List<Call> cancelled = new CopyOnWriteArrayList<>();
+    private volatile MockResponse[] script;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.set(RequestHedger.class, "tokens", 5.0);
+        server = new MockWebServer();
+        // Attempts are told apart by arrival order: the first is the primary, the second the hedge
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                arrivals.add(System.nanoTime());
+                int attempt = arrivals.size() - 1;
+                MockResponse[] responses = script;
+                return responses[Math.min(attempt, responses.length - 1)];
+            }
+        });
+        server.start();
+        client = new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void canceled(Call call) {
+                        cancelled.add(call);
+                    }
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.set(RequestHedger.class, "tokens", 5.0);
+    }
+
+    @Test
+    public void slowPrimaryIsHedgedAfterTheP95Delay() throws Exception {
+        String path = "/slots/delay";
+        seedLatency(path, P95_MS);
+        script = new MockResponse[]{slow("primary", SLOW_MS), fast("hedge")};
+        RequestHedger.Stats before = RequestHedger.stats();
+
+        long sent = System.nanoTime();
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            assertEquals("hedge", response.body().string());
+        }
+
+        assertEquals(2, arrivals.size());
+        // Measured from the client side: the primary's own arrival includes connection setup
+        long delayMs = TimeUnit.NANOSECONDS.toMillis(arrivals.get(1) - sent);
+        assertTrue("hedge arrived " + delayMs + " ms after the request", delayMs >= P95_MS - 2);
+        RequestHedger.Stats after = RequestHedger.stats();
+        assertEquals(1, after.hedges - before.hedges);
+        assertEquals(1, after.hedgeWins - before.hedgeWins);
+    }
+
+    @Test
+    public void fastPrimaryIsNotHedged() throws Exception {
+        String path = "/slots/fast";
+        seedLatency(path, GENEROUS_P95_MS);
+        script = new MockResponse[]{fast("primary"), fast("hedge")};
+        RequestHedger.Stats before = RequestHedger.stats();
+
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            assertEquals("primary", response.body().string());
+        }
+
+        assertEquals(1, arrivals.size());
+        assertEquals(0, RequestHedger.stats().hedges - before.hedges);
+    }
+
+    @Test
+    public void losingAttemptIsCancelled() throws Exception {
+        String path = "/slots/loser";
+        seedLatency(path, P95_MS);
+        script = new MockResponse[]{slow("primary", SLOW_MS), fast("hedge")};
+
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            assertEquals("hedge", response.body().string());
+        }
+
+        waitFor(() -> cancelled.size() == 1);
+        Call loser = cancelled.get(0);
+        assertTrue(loser.isCanceled());
+        assertNull(loser.request().tag(RequestHedger.Hedge.class)); // the primary, not the hedge
+        waitFor(() -> client.dispatcher().runningCallsCount() == 0);
+    }
+
+    @Test
+    public void emptyBudgetStopsHedging() throws Exception {
+        String path = "/slots/budget";
+        seedLatency(path, P95_MS);
+        // Enough for exactly one second attempt (each request deposits 0.1 first)
+        TestEnvironment.set(RequestHedger.class, "tokens", 1.0);
+        RequestHedger.Stats before = RequestHedger.stats();
+
+        script = new MockResponse[]{slow("primary", 600), fast("hedge")};
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            assertEquals("hedge", response.body().string());
+        }
+
+        arrivals.clear();
+        script = new MockResponse[]{slow("primary", 600), fast("hedge")};
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            assertEquals("primary", response.body().string());
+        }
+
+        assertEquals(1, arrivals.size());
+        RequestHedger.Stats after = RequestHedger.stats();
+        assertEquals(after.toString(), 2, after.requests - before.requests);
+        assertEquals(after.toString(), 1, after.hedges - before.hedges);
+        assertEquals(after.toString(), 1, after.budgetExhausted - before.budgetExhausted);
+    }
+
+    @Test
+    public void winRateCountsOnlyHedgesThatBeatThePrimary() throws Exception {
+        String path = "/slots/wins";
+        seedLatency(path, P95_MS);
+        RequestHedger.Stats before = RequestHedger.stats();
+
+        // Not hedged
+        seedLatency(path + "-fast", GENEROUS_P95_MS);
+        script = new MockResponse[]{fast("primary"), fast("hedge")};
+        execute(path + "-fast");
+        // Hedged, hedge wins
+        arrivals.clear();
+        script = new MockResponse[]{slow("primary", SLOW_MS), fast("hedge")};
+        execute(path);
+        // Hedged, primary still wins
+        arrivals.clear();
+        script = new MockResponse[]{slow("primary", P95_MS + 200), slow("hedge", SLOW_MS)};
+        execute(path);
+
+        RequestHedger.Stats after = RequestHedger.stats();
+        long requests = after.requests - before.requests;
+        long hedges = after.hedges - before.hedges;
+        long wins = after.hedgeWins - before.hedgeWins;
+        assertEquals(after.toString(), 3, requests);
+        assertEquals(after.toString(), 2, hedges);
+        assertEquals(after.toString(), 1, wins);
+        assertEquals(after.toString(), 0, after.budgetExhausted - before.budgetExhausted);
+        assertEquals(0.5, new RequestHedger.Stats(requests, hedges, wins, 0).winRate(), 0.0);
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+    private void execute(String path) throws Exception {
+        try (Response response = RequestHedger.execute(client, get(path))) {
+            response.body().string();
+        }
+    }
+
+    private Request get(String path) {
+        return new Request.Builder().url(server.url(path)).build();
+    }
+
+    // Every sample at the same value, so p95 is exactly that
+    private void seedLatency(String path, long millis) {
+        HttpUrl url = server.url(path);
+        for (int i = 0; i < 20; i++) {
+            ResiliencePolicy.get().latency().record(ResiliencePolicy.endpointKey(url), millis);
+        }
+    }
+
+    private static MockResponse fast(String body) {
+        return new MockResponse().setBody(body);
+    }
+
+    private static MockResponse slow(String body, long delayMs) {
+        return new MockResponse().setBody(body).setHeadersDelay(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class ResiliencePolicyTest {
+
+    private MockWebServer server;
+    private FakeClock clock;
+    private ResiliencePolicy policy;
+    private OkHttpClient client;
+    private volatile int seenReadTimeoutMs;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        clock = new FakeClock();
+        policy = new ResiliencePolicy(clock, new Random(42));
+        client = new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS) // as on the shared client
+                .addInterceptor(policy::intercept)
+                .addInterceptor(chain -> {
+                    seenReadTimeoutMs = chain.readTimeoutMillis();
+                    return chain.proceed(chain.request());
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void getIsRetriedOn503WithJitteredBackoff() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = execute(get("/slots/station/abc1"))) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, policy.stats().retries);
+        // Full jitter: within 250 ms, then within 500 ms
+        assertEquals(2, clock.sleeps.size());
+        assertTrue(clock.sleeps.get(0) <= 250);
+        assertTrue(clock.sleeps.get(1) <= 500);
+    }
+
+    @Test
+    public void retryAfterHeaderSetsTheDelay() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        execute(get("/slots/station/abc1")).close();
+
+        assertEquals(1, clock.sleeps.size());
+        assertEquals(1000L, (long) clock.sleeps.get(0));
+    }
+
+    @Test
+    public void retriesStopAfterMaxRetries() throws Exception {
+        for (int i = 0; i < 4; i++) server.enqueue(new MockResponse().setResponseCode(503));
+
+        try (Response response = execute(get("/slots/station/abc1"))) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void postIsNeverRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("duplicate booking"));
+
+        Request post = new Request.Builder().url(server.url("/bookings"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        try (Response response = execute(post)) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, policy.stats().retries);
+        assertTrue(clock.sleeps.isEmpty());
+    }
+
+    @Test
+    public void retryBudgetRunsOutUnderSustainedFailures() throws Exception {
+        // Every first attempt fails, every retry succeeds: each request nets -0.8 tokens
+        Set<String> seen = new HashSet<>();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                synchronized (seen) {
+                    return seen.add(request.getPath())
+                            ? new MockResponse().setResponseCode(503)
+                            : new MockResponse().setBody("ok");
+                }
+            }
+        });
+
+        int served = 0;
+        int code = 200;
+        while (code == 200 && served < 50) {
+            try (Response response = execute(get("/bookings/owner/200012345678?n=" + served))) {
+                code = response.code();
+            }
+            served++;
+        }
+
+        // 10 tokens, +0.2 per request, -1 per retry: the 13th request finds the bucket empty
+        assertEquals(503, code);
+        assertEquals(13, served);
+        assertEquals(12, policy.stats().retries);
+        assertEquals(1, policy.stats().budgetExhausted);
+    }
+
+    @Test
+    public void openBreakerFailsFastUntilTheProbeSucceeds() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            execute(post("/bookings")).close();
+        }
+
+        try {
+            execute(post("/bookings")).close();
+            fail("Expected the circuit to be open");
+        } catch (CircuitOpenException e) {
+            assertEquals(10_000, e.getRetryAfterMs());
+        }
+        assertEquals(5, server.getRequestCount());
+        assertEquals(1, policy.stats().rejected);
+
+        clock.advance(10_000);
+        server.enqueue(new MockResponse().setBody("ok"));
+        assertEquals(200, execute(post("/bookings")).code());
+        server.enqueue(new MockResponse().setBody("ok"));
+        assertEquals(200, execute(post("/bookings")).code());
+    }
+
+    @Test
+    public void adaptiveTimeoutFollowsObservedLatency() throws Exception {
+        String endpoint = ResiliencePolicy.endpointKey(server.url("/station/names"));
+
+        server.enqueue(new MockResponse().setBody("[]"));
+        execute(get("/station/names")).close();
+        assertEquals(30_000, seenReadTimeoutMs); // too few samples: client default
+
+        for (int i = 0; i < 10; i++) policy.latency().record(endpoint, 50);
+        server.enqueue(new MockResponse().setBody("[]"));
+        execute(get("/station/names")).close();
+        assertEquals(4_000, seenReadTimeoutMs); // 4 x p99 = 200 ms, raised to the floor
+    }
+
+    @Test
+    public void adaptiveTimeoutIsClampedBetweenFloorAndDefault() {
+        assertEquals(4_000, ResiliencePolicy.adaptiveTimeout(100, 30_000));
+        assertEquals(8_000, ResiliencePolicy.adaptiveTimeout(2_000, 30_000));
+        assertEquals(30_000, ResiliencePolicy.adaptiveTimeout(20_000, 30_000));
+        assertEquals(3_000, ResiliencePolicy.adaptiveTimeout(100, 3_000));
+    }
+
+    @Test
+    public void idSegmentsShareOneEndpointFamily() {
+        assertEquals(ResiliencePolicy.endpointKey(server.url("/bookings/owner/200012345678")),
+                ResiliencePolicy.endpointKey(server.url("/bookings/owner/652f1c0a9b1e8a3d4c5b6a7f")));
+    }
+
+    private Request get(String path) {
+        return new Request.Builder().url(server.url(path)).build();
+    }
+
+    private Request post(String path) {
+        return new Request.Builder().url(server.url(path))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+    }
+
+    private Response execute(Request request) throws Exception {
+        return client.newCall(request).execute();
+    }
+}
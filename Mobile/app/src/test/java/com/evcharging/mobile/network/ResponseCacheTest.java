@@ -0,0 +1,119 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.session.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResponseCacheTest {
+
+    private static final String SLOTS = "/slots/station/s1";
+    private static final String ETAG = "W/\"v1\"";
+
+    private MockWebServer server;
+    private ApiClient apiClient;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        Context context = RuntimeEnvironment.getApplication();
+        ResponseCache.install(context);
+        ApiClient.setCallbackExecutor(Runnable::run);
+        apiClient = new ApiClient(new SessionManager(context));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void expiredEntryIsRevalidatedWithItsETag() throws Exception {
+        // Served two minutes ago: past the 15 s slot policy, inside its stale window
+        server.enqueue(list("[{\"slotId\":\"a\"}]").setHeader("ETag", ETAG));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", ETAG));
+        long revalidatedBefore = ResponseCache.stats().revalidated;
+
+        assertEquals("[{\"slotId\":\"a\"}]", apiClient.get(SLOTS).getData());
+        assertEquals("[{\"slotId\":\"a\"}]", apiClient.get(SLOTS).getData());
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals(ETAG, revalidation.getHeader("If-None-Match"));
+        assertEquals(revalidatedBefore + 1, ResponseCache.stats().revalidated);
+    }
+
+    @Test
+    public void cancellingCachedReadAlsoCancelsRevalidation() throws Exception {
+        server.enqueue(list("[\"old\"]"));
+        apiClient.get(SLOTS);
+
+        CountDownLatch revalidating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                revalidating.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return list("[\"new\"]");
+            }
+        });
+
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        ApiClient.CachedRequest call = apiClient.getCachedAsync(SLOTS, this, result -> delivered.add(result.getData()));
+        assertTrue(revalidating.await(5, TimeUnit.SECONDS));
+
+        call.cancel();
+        assertTrue(call.isCanceled());
+        release.countDown();
+        Thread.sleep(300);
+
+        // Only the stale copy: the changed body from the cancelled revalidation is dropped
+        assertEquals(1, delivered.size());
+        assertEquals("[\"old\"]", delivered.get(0));
+        assertEquals(0, HttpClientProvider.get().dispatcher().runningCallsCount());
+    }
+
+    private static MockResponse list(String body) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Date", httpDate(System.currentTimeMillis() - 120_000))
+                .setBody(body);
+    }
+
+    private static String httpDate(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(millis));
+    }
+}
@@ -0,0 +1,220 @@
+package com.evcharging.mobile.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.util.Base64;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.DatabaseHelper;
+import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.session.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class TokenRefresherTest {
+
+    private static final int PARALLEL = 50;
+
+    private MockWebServer server;
+    private SessionManager session;
+    private ExecutorService pool;
+    private final AtomicInteger refreshCalls = new AtomicInteger();
+    // Tokens the API accepts, and every token it was sent
+    private final Set<String> accepted = ConcurrentHashMap.newKeySet();
+    private final Set<String> sent = ConcurrentHashMap.newKeySet();
+    private volatile String issued;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String auth = request.getHeader("Authorization");
+                if (request.getPath().startsWith("/api/auth/refresh")) {
+                    refreshCalls.incrementAndGet();
+                    Thread.sleep(200); // long enough for every caller to pile up behind it
+                    accepted.add("Bearer " + issued);
+                    return new MockResponse().setBody("{\"token\":\"" + issued + "\"}");
+                }
+                sent.add(auth);
+                return accepted.contains(auth)
+                        ? new MockResponse().setBody("[]")
+                        : new MockResponse().setResponseCode(401);
+            }
+        });
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        Context context = RuntimeEnvironment.getApplication();
+        session = new SessionManager(context);
+        TokenRefresher.install(context);
+        pool = Executors.newFixedThreadPool(PARALLEL);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdownNow();
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void concurrent401sShareOneRefresh() throws Exception {
+        // Expired on the server, but the app does not know yet (no exp claim)
+        String old = token("old", 0);
+        issued = token("new", 2 * 3600);
+        store(old);
+        TokenRefresher.Stats before = TokenRefresher.stats();
+
+        List<Integer> codes = fire(old);
+
+        for (int code : codes) assertEquals(200, code);
+        assertEquals(1, refreshCalls.get());
+        assertEquals(issued, session.getToken());
+        assertEquals(1, TokenRefresher.stats().refreshes - before.refreshes);
+    }
+
+    @Test
+    public void expiringTokenIsRefreshedOnceBeforeSending() throws Exception {
+        // Expires in a minute: inside the refresh-ahead window
+        String old = token("old", 60);
+        issued = token("new", 2 * 3600);
+        accepted.add("Bearer " + old);
+        store(old);
+        TokenRefresher.Stats before = TokenRefresher.stats();
+
+        List<Integer> codes = fire(old);
+
+        for (int code : codes) assertEquals(200, code);
+        assertEquals(1, refreshCalls.get());
+        // Every request waited for the refresh and went out with the new token
+        assertEquals(1, sent.size());
+        assertTrue(sent.contains("Bearer " + issued));
+        TokenRefresher.Stats after = TokenRefresher.stats();
+        assertEquals(1, after.refreshes - before.refreshes);
+        assertEquals(PARALLEL - 1, after.joined - before.joined);
+    }
+
+    @Test
+    public void refusedRefreshIsNotRetriedByEveryCaller() throws Exception {
+        String old = token("old", 0);
+        issued = null;
+        store(old);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/api/auth/refresh")) {
+                    refreshCalls.incrementAndGet();
+                    return new MockResponse().setResponseCode(401);
+                }
+                return new MockResponse().setResponseCode(401);
+            }
+        });
+
+        List<Integer> codes = fire(old);
+
+        for (int code : codes) assertEquals(401, code);
+        assertEquals(1, refreshCalls.get());
+        assertEquals(old, session.getToken());
+    }
+
+    @Test
+    public void refreshedClaimsReplaceTheUserSnapshot() throws Exception {
+        // The server reassigned the operator between login and refresh
+        String old = operatorToken("old", "st-1");
+        issued = operatorToken("new", "st-2");
+        session.saveToken(old);
+        assertEquals("st-1", session.getStationId());
+        List<User> seen = new CopyOnWriteArrayList<>();
+        SessionManager.addOnUserChangedListener(seen::add);
+
+        List<Integer> codes = fire(old);
+
+        for (int code : codes) assertEquals(200, code);
+        assertEquals(issued, session.getToken());
+        assertEquals("st-2", session.getStationId());
+        assertTrue(session.hasStationAssigned());
+        assertEquals("st-2", DatabaseHelper.getInstance(RuntimeEnvironment.getApplication())
+                .getLoggedInUser().getStationId());
+        assertEquals(1, seen.size());
+        assertEquals("st-2", seen.get(0).getStationId());
+    }
+
+    // PARALLEL GETs released together, each to its own URL so none are coalesced
+    private List<Integer> fire(String bearer) throws Exception {
+        OkHttpClient client = HttpClientProvider.get();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < PARALLEL; i++) {
+            Request request = new Request.Builder()
+                    .url(server.url("/api/bookings/owner/199012345678?page=" + i))
+                    .header("Authorization", "Bearer " + bearer)
+                    .build();
+            results.add(pool.submit(() -> {
+                go.await();
+                try (Response response = client.newCall(request).execute()) {
+                    return response.code();
+                }
+            }));
+        }
+        go.countDown();
+        List<Integer> codes = new ArrayList<>();
+        for (Future<Integer> result : results) codes.add(result.get(30, TimeUnit.SECONDS));
+        return codes;
+    }
+
+    private void store(String token) {
+        RuntimeEnvironment.getApplication().getSharedPreferences("auth_prefs", Context.MODE_PRIVATE).edit()
+                .putString("auth_token", token).commit();
+    }
+
+    /** @param expiresInSeconds 0 for a token without an exp claim */
+    private static String token(String jti, long expiresInSeconds) {
+        String payload = "{\"nameid\":\"199012345678\",\"role\":\"Owner\",\"jti\":\"" + jti + "\""
+                + (expiresInSeconds > 0 ? ",\"exp\":" + (System.currentTimeMillis() / 1000 + expiresInSeconds) : "")
+                + "}";
+        return encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}") + "." + encode(payload) + ".c2ln";
+    }
+
+    private static String operatorToken(String jti, String stationId) {
+        String payload = "{\"nameid\":\"op-1\",\"role\":\"Operator\",\"stationId\":\"" + stationId + "\""
+                + ",\"jti\":\"" + jti + "\"}";
+        return encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}") + "." + encode(payload) + ".c2ln";
+    }
+
+    private static String encode(String json) {
+        return Base64.encodeToString(json.getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+    }
+}
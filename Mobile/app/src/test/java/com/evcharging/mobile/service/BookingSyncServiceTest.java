@@ -0,0 +1,168 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.TimeSlotItem;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.network.ApiListResponse;
+import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TimeFormat;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class BookingSyncServiceTest {
+
+    private static final String OWNER = "199012345678";
+    private static final String SYNC_KEY = "owner-bookings:" + OWNER;
+
+    private MockWebServer server;
+    private BookingSyncService sync;
+    private LocalStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        Context context = RuntimeEnvironment.getApplication();
+        sync = new BookingSyncService(context, new ApiClient(new SessionManager(context)));
+        store = sync.getStore();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void firstSyncIsFullAndSetsTheCursor() throws Exception {
+        server.enqueue(json("[" + booking("b1", "Pending", "2025-10-06T08:00:00Z")
+                + "," + booking("b2", "Approved", "2025-10-06T09:30:00Z") + "]"));
+
+        assertTrue(sync.syncOwnerBookings(OWNER));
+
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        assertEquals("/api/bookings/owner/" + OWNER, url.encodedPath());
+        assertNull(url.queryParameter("since"));
+        assertEquals(2, store.countOwnerBookings(OWNER));
+        assertEquals(TimeFormat.parseServer("2025-10-06T09:30:00Z"), store.getSyncState(SYNC_KEY).cursor);
+    }
+
+    @Test
+    public void deltaIsMergedIntoTheStoredList() throws Exception {
+        server.enqueue(json("[" + booking("b1", "Pending", "2025-10-06T08:00:00Z")
+                + "," + booking("b2", "Approved", "2025-10-06T09:30:00Z") + "]"));
+        sync.syncOwnerBookings(OWNER);
+        server.takeRequest();
+
+        // b1 approved and b3 booked since the cursor; b2 unchanged so not sent
+        server.enqueue(json("[" + booking("b1", "Approved", "2025-10-06T10:00:00Z")
+                + "," + booking("b3", "Pending", "2025-10-06T10:05:00Z") + "]"));
+        assertTrue(sync.syncOwnerBookings(OWNER));
+
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        assertEquals(TimeFormat.parseServer("2025-10-06T09:30:00Z"),
+                TimeFormat.parseServer(url.queryParameter("since")));
+        assertEquals(3, store.countOwnerBookings(OWNER));
+        assertEquals("Approved", store.getBooking("b1").getStatus());
+        assertEquals("Approved", store.getBooking("b2").getStatus());
+        assertEquals("Pending", store.getBooking("b3").getStatus());
+        assertEquals(TimeFormat.parseServer("2025-10-06T10:05:00Z"), store.getSyncState(SYNC_KEY).cursor);
+    }
+
+    @Test
+    public void failedDeltaKeepsTheCursorAndRows() throws Exception {
+        server.enqueue(json("[" + booking("b1", "Pending", "2025-10-06T08:00:00Z") + "]"));
+        sync.syncOwnerBookings(OWNER);
+        long cursor = store.getSyncState(SYNC_KEY).cursor;
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(sync.syncOwnerBookings(OWNER));
+
+        assertEquals(1, store.countOwnerBookings(OWNER));
+        assertEquals(cursor, store.getSyncState(SYNC_KEY).cursor);
+    }
+
+    @Test
+    public void overdueFullResyncDropsDeletedBookings() throws Exception {
+        server.enqueue(json("[" + booking("b1", "Pending", "2025-10-06T08:00:00Z")
+                + "," + booking("b2", "Approved", "2025-10-06T09:30:00Z") + "]"));
+        sync.syncOwnerBookings(OWNER);
+        server.takeRequest();
+        LocalStore.SyncState state = store.getSyncState(SYNC_KEY);
+        store.saveSyncState(SYNC_KEY, new LocalStore.SyncState(state.cursor, 1)); // last full resync long ago
+
+        server.enqueue(json("[" + booking("b1", "Pending", "2025-10-06T08:00:00Z") + "]"));
+        assertTrue(sync.syncOwnerBookings(OWNER));
+
+        assertNull(server.takeRequest().getRequestUrl().queryParameter("since"));
+        assertEquals(1, store.countOwnerBookings(OWNER));
+        assertNull(store.getBooking("b2"));
+    }
+
+    @Test
+    public void offlineTimeSlotsAreMarkedStale() throws Exception {
+        JsonObject stored = new JsonObject();
+        stored.addProperty("timeSlotId", "ts1");
+        stored.addProperty("startTime", "2025-10-06T08:00:00Z");
+        store.replaceTimeSlots("st-1", "sl-1", "2025-10-06", Collections.singletonList(stored));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(500);
+            }
+        });
+
+        ApiListResponse<TimeSlotItem> res = sync.fetchTimeSlots("st-1", "sl-1", "2025-10-06");
+
+        assertTrue(res.isSuccess());
+        assertTrue(res.isStale());
+        assertEquals("ts1", res.getItems().get(0).timeSlotId);
+    }
+
+    @Test
+    public void liveTimeSlotsAreNotStale() {
+        server.enqueue(json("[{\"timeSlotId\":\"ts2\",\"startTime\":\"2025-10-06T09:00:00Z\"}]"));
+
+        ApiListResponse<TimeSlotItem> res = sync.fetchTimeSlots("st-1", "sl-1", "2025-10-06");
+
+        assertTrue(res.isSuccess());
+        assertFalse(res.isStale());
+        assertEquals("ts2", res.getItems().get(0).timeSlotId);
+    }
+
+    private static String booking(String id, String status, String updatedAt) {
+        return "{\"bookingId\":\"" + id + "\",\"ownerId\":\"" + OWNER + "\",\"stationId\":\"st-1\""
+                + ",\"status\":\"" + status + "\",\"startTime\":\"2025-10-07T08:00:00Z\""
+                + ",\"updatedAt\":\"" + updatedAt + "\"}";
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
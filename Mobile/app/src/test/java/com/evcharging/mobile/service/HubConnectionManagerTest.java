@@ -0,0 +1,146 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.model.User;
+import com.evcharging.mobile.session.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.WebSocket;
+
+@RunWith(RobolectricTestRunner.class)
+public class HubConnectionManagerTest {
+
+    private static final String OWNER = "199012345678";
+    private static final long TIMEOUT_MS = 10_000;
+
+    private StandInHub hub;
+    private Context context;
+    private HubConnectionManager manager;
+    private final List<HubConnectionManager.State> states = new CopyOnWriteArrayList<>();
+    private final List<Notification> received = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        TestEnvironment.set(HubConnectionManager.class, "instance", null);
+        hub = new StandInHub();
+        TestEnvironment.useServer(hub.start());
+
+        context = RuntimeEnvironment.getApplication();
+        SessionManager session = new SessionManager(context);
+        useToken("token-1");
+        session.saveLoggedInUser(new User(OWNER, "Owner One", "owner@example.com", "Owner",
+                true, "2025-10-06T08:00:00Z", null, false));
+
+        manager = HubConnectionManager.get(context);
+        manager.addStateListener(states::add);
+        manager.addNotificationListener(received::addAll);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        manager.release();
+        hub.shutdown();
+        TestEnvironment.set(HubConnectionManager.class, "instance", null);
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void acquireConnectsInTheBackgroundWithTheCurrentToken() throws Exception {
+        long start = System.nanoTime();
+        manager.acquire();
+        assertTrue("acquire() blocked the caller", System.nanoTime() - start < 50_000_000L);
+
+        assertEquals("Bearer token-1", hub.awaitToken(TIMEOUT_MS));
+        assertNotNull(hub.awaitConnection(TIMEOUT_MS));
+        awaitOnMain(() -> manager.isConnected());
+        assertTrue(states.contains(HubConnectionManager.State.CONNECTING));
+        assertEquals(HubConnectionManager.State.CONNECTED, states.get(states.size() - 1));
+    }
+
+    @Test
+    public void pushedNotificationsAreStoredAndDeliveredOnce() throws Exception {
+        manager.acquire();
+        WebSocket socket = hub.awaitConnection(TIMEOUT_MS);
+        assertNotNull(socket);
+
+        StandInHub.invoke(socket, "ReceiveNotification", notification("n1"));
+        StandInHub.invoke(socket, "ReceiveNotification", notification("n2"));
+        StandInHub.invoke(socket, "ReceiveNotification", notification("n1")); // redelivered
+
+        awaitOnMain(() -> received.size() >= 2);
+        assertEquals(2, received.size());
+        assertEquals("n1", received.get(0).getId());
+        assertEquals(2, new LocalStore(context).getUnreadNotificationCount(OWNER));
+    }
+
+    @Test
+    public void droppedSocketIsReconnectedWithBackoff() throws Exception {
+        manager.acquire();
+        WebSocket first = hub.awaitConnection(TIMEOUT_MS);
+        assertNotNull(first);
+        awaitOnMain(() -> manager.isConnected());
+
+        first.close(1011, "server restart");
+
+        assertNotNull("No reconnect", hub.awaitConnection(TIMEOUT_MS));
+        awaitOnMain(() -> manager.isConnected() && states.contains(HubConnectionManager.State.RECONNECTING));
+        assertEquals(2, hub.negotiations());
+    }
+
+    @Test
+    public void newTokenIsUsedOnTheNextConnect() throws Exception {
+        manager.acquire();
+        assertEquals("Bearer token-1", hub.awaitToken(TIMEOUT_MS));
+        assertNotNull(hub.awaitConnection(TIMEOUT_MS));
+
+        useToken("token-2");
+        manager.restart();
+
+        assertEquals("Bearer token-2", hub.awaitToken(TIMEOUT_MS));
+        assertNotNull(hub.awaitConnection(TIMEOUT_MS));
+    }
+
+    // Stored as after login; saveToken() would also decode it as a JWT
+    private void useToken(String token) {
+        context.getSharedPreferences("auth_prefs", Context.MODE_PRIVATE).edit()
+                .putString("auth_token", token).commit();
+    }
+
+    private static String notification(String id) {
+        return "{\"id\":\"" + id + "\",\"userId\":\"" + OWNER + "\",\"message\":\"Booking " + id + " approved\",\"isRead\":false}";
+    }
+
+    // Listeners run on the main looper, which Robolectric only advances when told to
+    private static void awaitOnMain(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(NotificationBatcher.WINDOW_MS));
+            if (condition.getAsBoolean()) return;
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting on the main looper");
+            Thread.sleep(20);
+        }
+    }
+}
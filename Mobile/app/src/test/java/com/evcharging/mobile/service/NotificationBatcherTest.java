@@ -0,0 +1,120 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+
+import com.evcharging.mobile.model.Notification;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class NotificationBatcherTest {
+
+    private static final int BURST = 1_000;
+
+    private final AtomicInteger uiPosts = new AtomicInteger();
+    private final List<List<Notification>> batches = new ArrayList<>();
+    // Counts every message that reaches the main thread's queue
+    private final Handler main = new Handler(Looper.getMainLooper()) {
+        @Override
+        public boolean sendMessageAtTime(Message msg, long uptimeMillis) {
+            uiPosts.incrementAndGet();
+            return super.sendMessageAtTime(msg, uptimeMillis);
+        }
+    };
+    private final NotificationBatcher batcher = new NotificationBatcher(main, batches::add);
+
+    @Test
+    public void burstFromManyThreadsIsOneUiPost() throws Exception {
+        int threads = 4;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t * (BURST / threads);
+            new Thread(() -> {
+                for (int i = first; i < first + BURST / threads; i++) batcher.submit(notification("n" + i));
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        idle(NotificationBatcher.WINDOW_MS);
+
+        assertEquals(1, uiPosts.get());
+        assertEquals(1, batches.size());
+        assertEquals(BURST, batches.get(0).size());
+        assertEquals(BURST, ids(batches.get(0)).size());
+    }
+
+    @Test
+    public void burstSpreadOverASecondPostsOncePerWindow() {
+        // 1,000 messages over ~1 s of main-thread time
+        for (int i = 0; i < BURST; i++) {
+            batcher.submit(notification("n" + i));
+            if (i % 10 == 9) idle(10);
+        }
+        idle(NotificationBatcher.WINDOW_MS);
+
+        long windows = 1_000 / NotificationBatcher.WINDOW_MS + 1;
+        assertTrue("UI posts: " + uiPosts.get(), uiPosts.get() <= windows);
+        assertEquals(uiPosts.get(), batches.size());
+        int delivered = 0;
+        for (List<Notification> batch : batches) delivered += batch.size();
+        assertEquals(BURST, delivered);
+    }
+
+    @Test
+    public void redeliveredIdsAreDropped() {
+        for (int i = 0; i < BURST; i++) batcher.submit(notification("n" + (i % 100)));
+        idle(NotificationBatcher.WINDOW_MS);
+        // Redelivered after the batch went out (e.g. hub reconnect)
+        for (int i = 0; i < 100; i++) batcher.submit(notification("n" + i));
+        idle(NotificationBatcher.WINDOW_MS);
+
+        assertEquals(1, batches.size());
+        assertEquals(100, batches.get(0).size());
+        NotificationBatcher.Stats stats = batcher.stats();
+        assertEquals(BURST + 100, stats.received);
+        assertEquals(BURST, stats.duplicates);
+        assertEquals(1, stats.batches);
+    }
+
+    @Test
+    public void clearDropsPendingMessages() {
+        for (int i = 0; i < 10; i++) batcher.submit(notification("n" + i));
+        batcher.clear(); // logout before the window closed
+        idle(NotificationBatcher.WINDOW_MS);
+
+        assertTrue(batches.isEmpty());
+    }
+
+    private static void idle(long ms) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(ms));
+    }
+
+    private static Notification notification(String id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setMessage("Booking " + id + " cancelled: station offline");
+        return notification;
+    }
+
+    private static Set<String> ids(List<Notification> batch) {
+        Set<String> ids = new HashSet<>();
+        for (Notification notification : batch) ids.add(notification.getId());
+        return ids;
+    }
+}
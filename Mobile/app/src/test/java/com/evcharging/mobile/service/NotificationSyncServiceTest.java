@@ -0,0 +1,165 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.LocalStore;
+import com.evcharging.mobile.model.Notification;
+import com.evcharging.mobile.network.ApiClient;
+import com.evcharging.mobile.session.SessionManager;
+import com.evcharging.mobile.utils.TimeFormat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class NotificationSyncServiceTest {
+
+    private static final String OWNER = "199012345678";
+    private static final String SYNC_KEY = "notifications:" + OWNER;
+
+    private MockWebServer server;
+    private NotificationSyncService sync;
+    private LocalStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        Context context = RuntimeEnvironment.getApplication();
+        sync = new NotificationSyncService(context, new ApiClient(new SessionManager(context)));
+        store = sync.getStore();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void firstSyncIsFullAndSetsTheCursor() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false)
+                + "," + notification("n2", "2025-10-06T09:30:00Z", true) + "]"));
+
+        assertTrue(sync.sync(OWNER));
+
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        assertEquals("/api/notifications/user", url.encodedPath());
+        assertNull(url.queryParameter("since"));
+        assertEquals(2, store.countNotifications(OWNER));
+        assertEquals(1, store.getUnreadNotificationCount(OWNER));
+        assertEquals(TimeFormat.parseServer("2025-10-06T09:30:00Z"), store.getSyncState(SYNC_KEY).cursor);
+    }
+
+    @Test
+    public void deltaAsksOnlyForNewerNotificationsAndMergesThem() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false)
+                + "," + notification("n2", "2025-10-06T09:30:00Z", true) + "]"));
+        sync.sync(OWNER);
+        server.takeRequest();
+
+        server.enqueue(json("[" + notification("n3", "2025-10-06T11:15:00Z", false) + "]"));
+        assertTrue(sync.sync(OWNER));
+
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        assertEquals("2025-10-06T09:30:00.000Z", url.queryParameter("since"));
+        assertEquals(3, store.countNotifications(OWNER));
+        assertEquals(2, store.getUnreadNotificationCount(OWNER));
+        assertEquals(TimeFormat.parseServer("2025-10-06T11:15:00Z"), store.getSyncState(SYNC_KEY).cursor);
+
+        List<Notification> page = store.getNotificationsPage(OWNER, null, 10);
+        assertEquals("n3", page.get(0).getId()); // newest first
+    }
+
+    @Test
+    public void emptyDeltaKeepsTheCursor() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false) + "]"));
+        sync.sync(OWNER);
+        long cursor = store.getSyncState(SYNC_KEY).cursor;
+
+        server.enqueue(json("[]"));
+        assertTrue(sync.sync(OWNER));
+
+        assertEquals(cursor, store.getSyncState(SYNC_KEY).cursor);
+        assertEquals(1, store.countNotifications(OWNER));
+    }
+
+    @Test
+    public void failedSyncLeavesTheStoreAlone() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false) + "]"));
+        sync.sync(OWNER);
+        LocalStore.SyncState before = store.getSyncState(SYNC_KEY);
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(sync.sync(OWNER));
+
+        assertEquals(1, store.countNotifications(OWNER));
+        assertEquals(before.cursor, store.getSyncState(SYNC_KEY).cursor);
+    }
+
+    @Test
+    public void failedMarkReadForcesTheNextSyncToBeFull() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false)
+                + "," + notification("n2", "2025-10-06T09:30:00Z", false) + "]"));
+        sync.sync(OWNER);
+        server.takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(sync.markAsRead(OWNER, "n1").isSuccess());
+        server.takeRequest();
+        // Applied locally regardless, so the badge moves at once
+        assertEquals(1, store.getUnreadNotificationCount(OWNER));
+
+        // The server still has n1 unread: the full list replaces the local guess
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false)
+                + "," + notification("n2", "2025-10-06T09:30:00Z", false) + "]"));
+        assertTrue(sync.sync(OWNER));
+
+        assertNull(server.takeRequest().getRequestUrl().queryParameter("since"));
+        assertEquals(2, store.getUnreadNotificationCount(OWNER));
+    }
+
+    @Test
+    public void staleFullSyncIsRepeated() throws Exception {
+        server.enqueue(json("[" + notification("n1", "2025-10-06T08:00:00Z", false) + "]"));
+        sync.sync(OWNER);
+        server.takeRequest();
+        // Last full sync a day ago: deletions made on the web would never show in a delta
+        long cursor = store.getSyncState(SYNC_KEY).cursor;
+        store.saveSyncState(SYNC_KEY, new LocalStore.SyncState(cursor, System.currentTimeMillis() - 24 * 60 * 60 * 1000L));
+
+        server.enqueue(json("[]"));
+        assertTrue(sync.sync(OWNER));
+
+        assertNull(server.takeRequest().getRequestUrl().queryParameter("since"));
+        assertEquals(0, store.countNotifications(OWNER));
+    }
+
+    private static String notification(String id, String createdAt, boolean read) {
+        return "{\"id\":\"" + id + "\",\"userId\":\"" + OWNER + "\",\"message\":\"Booking " + id + " approved\""
+                + ",\"createdAt\":\"" + createdAt + "\",\"isRead\":" + read + "}";
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,108 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.NotificationManager;
+import android.content.Context;
+
+import com.evcharging.mobile.model.Notification;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowNotificationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class NotificationTrayTest {
+
+    private static final int MAX_INDIVIDUAL = 4;
+    private static final int ENTRY_ID = 1;
+
+    private Context context;
+    private ShadowNotificationManager tray;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        NotificationTray.createChannel(context);
+        NotificationTray.clear(context);
+        tray = shadowOf((NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE));
+    }
+
+    @After
+    public void tearDown() {
+        NotificationTray.clear(context);
+    }
+
+    @Test
+    public void burstsAcrossBatchesStayBounded() {
+        for (int burst = 0; burst < 10; burst++) {
+            List<Notification> batch = new ArrayList<>();
+            for (int i = 0; i < 4; i++) batch.add(notification("n" + burst + "-" + i));
+            NotificationTray.show(context, batch);
+        }
+
+        // The newest MAX_INDIVIDUAL entries plus the summary
+        assertEquals(MAX_INDIVIDUAL + 1, tray.size());
+        assertNotNull(tray.getNotification("n9-3", ENTRY_ID));
+        assertNotNull(tray.getNotification("n9-0", ENTRY_ID));
+        assertNull(tray.getNotification("n8-3", ENTRY_ID));
+    }
+
+    @Test
+    public void singleMessagesEvictTheOldestEntry() {
+        for (int i = 0; i < MAX_INDIVIDUAL + 2; i++) {
+            NotificationTray.show(context, Collections.singletonList(notification("n" + i)));
+        }
+
+        assertEquals(MAX_INDIVIDUAL + 1, tray.size());
+        assertNull(tray.getNotification("n0", ENTRY_ID));
+        assertNull(tray.getNotification("n1", ENTRY_ID));
+        assertNotNull(tray.getNotification("n2", ENTRY_ID));
+    }
+
+    @Test
+    public void repeatedIdReplacesItsEntryAndBecomesNewest() {
+        for (int i = 0; i < MAX_INDIVIDUAL; i++) {
+            NotificationTray.show(context, Collections.singletonList(notification("n" + i)));
+        }
+        NotificationTray.show(context, Collections.singletonList(notification("n0")));
+        NotificationTray.show(context, Collections.singletonList(notification("n4")));
+
+        // n0 was re-posted, so n1 is the oldest and the one evicted
+        assertNotNull(tray.getNotification("n0", ENTRY_ID));
+        assertNull(tray.getNotification("n1", ENTRY_ID));
+        assertEquals(MAX_INDIVIDUAL + 1, tray.size());
+    }
+
+    @Test
+    public void clearEmptiesTheTrayAndStartsCountingAgain() {
+        for (int i = 0; i < MAX_INDIVIDUAL; i++) {
+            NotificationTray.show(context, Collections.singletonList(notification("n" + i)));
+        }
+        NotificationTray.clear(context);
+        assertEquals(0, tray.size());
+
+        NotificationTray.show(context, Collections.singletonList(notification("n9")));
+
+        // A single message after clear() is not grouped under a summary
+        assertEquals(1, tray.size());
+    }
+
+    private static Notification notification(String id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setMessage("Booking " + id + " approved");
+        return notification;
+    }
+}
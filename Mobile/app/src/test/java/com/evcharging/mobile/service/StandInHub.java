@@ -0,0 +1,102 @@
+package com.evcharging.mobile.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * StandInHub - Minimal SignalR server on MockWebServer for hub client tests
+ *
+ * Purpose: Answers negotiate (version 1, WebSockets only), upgrades /notificationHub
+ * to a WebSocket, completes the JSON protocol handshake and lets a test push
+ * invocations or drop the socket. Each connection is handed out through connections().
+ */
+final class StandInHub {
+
+    private static final char RECORD_SEPARATOR = '\u001e';
+    private static final String HUB_PATH = "/notificationHub";
+
+    private final MockWebServer server = new MockWebServer();
+    private final BlockingQueue<WebSocket> connections = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> tokens = new LinkedBlockingQueue<>();
+    private int negotiations;
+
+    StandInHub() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    /** @return the base URL the app should use (no trailing slash) */
+    String start() throws Exception {
+        server.start();
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    void shutdown() throws Exception {
+        server.shutdown();
+    }
+
+    /** Next connection that completed the handshake, or null after the timeout. */
+    WebSocket awaitConnection(long timeoutMs) throws InterruptedException {
+        return connections.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Bearer token sent with the next negotiate, or null after the timeout. */
+    String awaitToken(long timeoutMs) throws InterruptedException {
+        return tokens.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized int negotiations() {
+        return negotiations;
+    }
+
+    /** Send a server-to-client invocation with JSON arguments. */
+    static void invoke(WebSocket socket, String target, String... jsonArguments) {
+        StringBuilder message = new StringBuilder("{\"type\":1,\"target\":\"").append(target).append("\",\"arguments\":[");
+        for (int i = 0; i < jsonArguments.length; i++) {
+            if (i > 0) message.append(',');
+            message.append(jsonArguments[i]);
+        }
+        socket.send(message.append("]}").append(RECORD_SEPARATOR).toString());
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        String path = request.getPath() != null ? request.getPath() : "";
+        if (path.startsWith(HUB_PATH + "/negotiate")) {
+            String auth = request.getHeader("Authorization");
+            synchronized (this) {
+                negotiations++;
+            }
+            tokens.add(auth != null ? auth : "");
+            String id = "conn-" + negotiations();
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(
+                    "{\"negotiateVersion\":1,\"connectionId\":\"" + id + "\",\"connectionToken\":\"" + id + "\","
+                            + "\"availableTransports\":[{\"transport\":\"WebSockets\",\"transferFormats\":[\"Text\",\"Binary\"]}]}");
+        }
+        if (path.startsWith(HUB_PATH)) {
+            return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+                @Override
+                public void onMessage(WebSocket webSocket, String text) {
+                    // Handshake: {"protocol":"json","version":1}; pings and the rest are ignored
+                    if (text.contains("\"protocol\"")) {
+                        webSocket.send("{}" + RECORD_SEPARATOR);
+                        connections.add(webSocket);
+                    }
+                }
+            });
+        }
+        return new MockResponse().setResponseCode(404);
+    }
+}
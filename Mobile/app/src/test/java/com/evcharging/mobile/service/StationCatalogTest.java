@@ -0,0 +1,70 @@
+package com.evcharging.mobile.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.model.Station;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class StationCatalogTest {
+
+    private MockWebServer server;
+    private StationCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        TestEnvironment.reset();
+        server = new MockWebServer();
+        server.start();
+        TestEnvironment.useServer(server.url("/").toString());
+
+        Context context = RuntimeEnvironment.getApplication();
+        catalog = StationCatalog.get(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void refreshAsksForActiveStationsOfEachType() throws Exception {
+        server.enqueue(json("[{\"stationId\":\"a1\",\"name\":\"AC One\",\"latitude\":6.9271,\"longitude\":79.8612}]"));
+        server.enqueue(json("[{\"stationId\":\"d1\",\"name\":\"DC One\",\"latitude\":6.93,\"longitude\":79.87}]"));
+
+        assertTrue(catalog.refresh());
+
+        for (String type : new String[]{"AC", "DC"}) {
+            HttpUrl url = server.takeRequest().getRequestUrl();
+            assertEquals("/api/station/names", url.encodedPath());
+            assertEquals(type, url.queryParameter("type"));
+            assertEquals("true", url.queryParameter("onlyActive"));
+        }
+
+        List<Station> nearby = catalog.nearby("DC", 6.9271, 79.8612, 5);
+        assertEquals(1, nearby.size());
+        assertEquals("d1", nearby.get(0).getStationId());
+        assertEquals(2, catalog.getIndex().size());
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
@@ -0,0 +1,123 @@
+package com.evcharging.mobile.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.database.DatabaseHelper;
+import com.evcharging.mobile.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class SessionManagerTest {
+
+    private Context context;
+    private DatabaseHelper db;
+
+    @Before
+    public void setUp() {
+        TestEnvironment.reset();
+        context = RuntimeEnvironment.getApplication();
+        db = DatabaseHelper.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void databaseIsReadAtMostOncePerSession() {
+        // Stored by an earlier run of the app: nothing in memory yet
+        assertTrue(db.saveUser(operator("st-1")));
+
+        SessionManager first = new SessionManager(context);
+        assertTrue(first.isOperator());
+
+        // Remove the row behind the session's back: a second read would now find nothing
+        db.deleteUser();
+
+        for (int i = 0; i < 100; i++) {
+            SessionManager screen = new SessionManager(context); // every screen makes its own
+            assertTrue(screen.isOperator());
+            assertFalse(screen.isOwner());
+            assertTrue(screen.hasStationAssigned());
+            assertEquals("st-1", screen.getStationId());
+            assertEquals("op-1", screen.getLoggedInUser().getUserId());
+        }
+    }
+
+    @Test
+    public void writesGoThroughToDatabaseAndListeners() {
+        List<User> seen = new ArrayList<>();
+        SessionManager.addOnUserChangedListener(seen::add);
+        SessionManager session = new SessionManager(context);
+
+        assertTrue(session.saveLoggedInUser(operator(null)));
+        assertTrue(session.updateStationInfo("st-2", "Station 2", "Colombo"));
+
+        assertEquals("st-2", session.getStationId());
+        assertEquals("st-2", db.getLoggedInUser().getStationId());
+        assertEquals(2, seen.size());
+        assertEquals("st-2", seen.get(1).getStationId());
+    }
+
+    @Test
+    public void callersGetCopiesOfTheSnapshot() {
+        SessionManager session = new SessionManager(context);
+        session.saveLoggedInUser(operator("st-1"));
+
+        session.getLoggedInUser().setStationId("changed by a screen");
+
+        assertEquals("st-1", session.getStationId());
+    }
+
+    @Test
+    public void logoutClearsTheSnapshot() {
+        List<User> seen = new ArrayList<>();
+        SessionManager session = new SessionManager(context);
+        session.saveLoggedInUser(operator("st-1"));
+        SessionManager.addOnUserChangedListener(seen::add);
+
+        session.logout(false);
+
+        // The snapshot is cleared at once; the table wipe runs on the disk pool
+        assertNull(new SessionManager(context).getLoggedInUser());
+        TestEnvironment.awaitLogoutWipe();
+        assertNull(db.getLoggedInUser());
+        assertEquals(1, seen.size());
+        assertNull(seen.get(0));
+    }
+
+    @Test
+    public void loginAfterLogoutStartsANewSnapshot() {
+        SessionManager session = new SessionManager(context);
+        session.saveLoggedInUser(operator("st-1"));
+        session.logout(false);
+
+        session.saveLoggedInUser(operator("st-9"));
+
+        User user = new SessionManager(context).getLoggedInUser();
+        assertNotNull(user);
+        assertEquals("st-9", user.getStationId());
+    }
+
+    private static User operator(String stationId) {
+        return new User("op-1", "Op One", "op@example.com", "Operator",
+                stationId, stationId != null ? "Station" : null, null, true, "2025-10-06T08:00:00Z");
+    }
+}
@@ -0,0 +1,83 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Log;
+
+import com.evcharging.mobile.Microbenchmark;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLog;
+
+/**
+ * Microbenchmark: per-request logging overhead for a response with an embedded QR image
+ *
+ * - legacy: what logApi did before AppLog (pretty-print the whole body, always log)
+ * - debug: AppLog at DEBUG, body capped, no pretty-print
+ * - release: AppLog above DEBUG (as in release builds), guarded with isDebug()
+ *
+ * Only allocated bytes per call are asserted; wall-clock time depends on the machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AppLogBenchmarkTest {
+
+    private static final String TAG = "Bench";
+    private static final int CALLS = 2_000;
+
+    @After
+    public void restoreDefaults() {
+        AppLog.setLevel(Log.DEBUG);
+        AppLog.setMaxBodyChars(1024);
+        AppLog.setSampleEvery(1);
+        ShadowLog.clear();
+    }
+
+    @Test
+    public void releaseLevelCostsNothingPerRequest() throws Exception {
+        String body = responseBody();
+
+        Runnable legacy = () -> {
+            try {
+                Log.d(TAG, "📡 GET /bookings | 📦 Status Code: 200\n📨 Response Body: " + new JSONObject(body).toString(2));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+        Runnable gated = () -> {
+            if (!AppLog.isDebug()) return;
+            AppLog.d(TAG, "📡 GET /bookings | 📦 Status Code: 200\n📨 Response Body: " + AppLog.cap(body));
+        };
+
+        Microbenchmark.Result legacyCost = Microbenchmark.measure(CALLS, legacy, ShadowLog::clear);
+        AppLog.setLevel(Log.DEBUG);
+        Microbenchmark.Result debugCost = Microbenchmark.measure(CALLS, gated, ShadowLog::clear);
+        AppLog.setLevel(Log.WARN);
+        Microbenchmark.Result releaseCost = Microbenchmark.measure(CALLS, gated, ShadowLog::clear);
+
+        String costs = "legacy=" + legacyCost + ", debug=" + debugCost + ", release=" + releaseCost;
+        assertTrue("debug logging with a capped body allocates less than legacy: " + costs,
+                debugCost.bytesPerCall * 5 < legacyCost.bytesPerCall);
+        assertTrue("release path allocates nothing per request: " + costs, releaseCost.bytesPerCall < 8);
+    }
+
+    @Test
+    public void sampledEventsAreEmittedOnceInN() {
+        AppLog.setSampleEvery(10);
+        int emitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (AppLog.sampled()) emitted++;
+        }
+        assertEquals(10, emitted);
+    }
+
+    private static String responseBody() {
+        StringBuilder qr = new StringBuilder();
+        for (int i = 0; i < 8 * 1024; i++) qr.append((char) ('A' + i % 26));
+        return "{\"bookingId\":\"b1\",\"status\":\"Approved\",\"qrCode\":\"token\",\"qrImageBase64\":\"" + qr + "\"}";
+    }
+}
@@ -0,0 +1,111 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Base64;
+
+import com.evcharging.mobile.Microbenchmark;
+import com.evcharging.mobile.TestEnvironment;
+import com.evcharging.mobile.model.User;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Microbenchmark: reading claims from the session token
+ *
+ * - legacy: what every JwtUtils accessor did before the claims cache
+ *   (split, Base64-decode and JSON-parse the token on each call)
+ * - cached: JwtUtils.getRoleFromToken(), decoded once per token
+ *
+ * Only allocated bytes per call (ThreadMXBean) are asserted; ns/op is reported in the messages.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class JwtUtilsBenchmarkTest {
+
+    private static final int CALLS = 5_000;
+
+    // The claims cache is process-wide: start every test from an empty one
+    @Before
+    public void setUp() {
+        TestEnvironment.reset();
+    }
+
+    @Test
+    public void loginDecodesTheTokenOnce() {
+        String token = token("login-" + UUID.randomUUID());
+        JwtUtils.Stats before = JwtUtils.stats();
+
+        // The reads one login makes: SessionManager, ApiClient (twice), LoginActivity (twice)
+        User user = JwtUtils.getUserFromToken(token);
+        assertTrue(JwtUtils.isTokenValid(token));
+        assertEquals("Owner", JwtUtils.getRoleFromToken(token));
+        assertNotNull(JwtUtils.decodeToken(token));
+        assertEquals("199012345678", JwtUtils.getClaimFromToken(token, "nameid"));
+
+        JwtUtils.Stats after = JwtUtils.stats();
+        assertEquals("Owner One", user.getFullName());
+        assertEquals(1, after.decodes - before.decodes);
+        assertEquals(4, after.cacheHits - before.cacheHits);
+    }
+
+    @Test
+    public void malformedTokensAreNotDecodedTwice() {
+        JwtUtils.Stats before = JwtUtils.stats();
+
+        assertNull(JwtUtils.claims("not-a-jwt"));
+        assertNull(JwtUtils.claims("not-a-jwt"));
+        assertNull(JwtUtils.claims("a.%%%.c"));
+
+        assertEquals(2, JwtUtils.stats().decodes - before.decodes);
+    }
+
+    @Test
+    public void cachedClaimsCostAFractionOfADecode() throws Exception {
+        String token = token("bench-" + UUID.randomUUID());
+
+        Microbenchmark.Result legacy = Microbenchmark.measure(CALLS, () -> legacyRole(token));
+        Microbenchmark.Result cached = Microbenchmark.measure(CALLS, () -> JwtUtils.getRoleFromToken(token));
+
+        assertEquals("Owner", legacyRole(token));
+        String costs = "legacy=" + legacy + ", cached=" + cached;
+        assertTrue("cached read allocates a fraction of a decode: " + costs,
+                cached.bytesPerCall * 10 < legacy.bytesPerCall);
+        assertTrue("cached read allocates almost nothing: " + costs, cached.bytesPerCall < 64);
+    }
+
+    // JwtUtils.getRoleFromToken before the claims cache
+    private static String legacyRole(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            byte[] decoded = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+            JSONObject payload = new JSONObject(new String(decoded, StandardCharsets.UTF_8));
+            return payload.optString("role", null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Same claim names the backend issues; a unique jti keeps the token out of every other test's cache entries
+    private static String token(String jti) {
+        String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+        String payload = "{\"nameid\":\"199012345678\",\"name\":\"Owner One\",\"email\":\"owner@example.com\""
+                + ",\"role\":\"Owner\",\"isActive\":true,\"jti\":\"" + jti + "\""
+                + ",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}";
+        return encode(header) + "." + encode(payload) + ".c2lnbmF0dXJl";
+    }
+
+    private static String encode(String json) {
+        return Base64.encodeToString(json.getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+    }
+}
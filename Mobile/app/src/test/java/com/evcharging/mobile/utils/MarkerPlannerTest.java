@@ -0,0 +1,150 @@
+package com.evcharging.mobile.utils;
+
+import static com.evcharging.mobile.utils.StationIndexTest.station;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.evcharging.mobile.model.Station;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MarkerPlannerTest {
+
+    @Test
+    public void tilesForWrapsAcrossTheAntimeridian() {
+        // z6: 64 columns; 179E is the last, 179W the first
+        Set<Integer> columns = columns(MarkerPlanner.tilesFor(-1, 179, 1, -179, 6));
+
+        assertEquals(new HashSet<>(Arrays.asList(63, 0)), columns);
+    }
+
+    @Test
+    public void tilesForCoversTheBoxWithoutGaps() {
+        List<int[]> tiles = MarkerPlanner.tilesFor(6.8, 79.8, 7.0, 80.0, 10);
+        Set<Integer> columns = columns(tiles);
+        Set<Integer> rows = new HashSet<>();
+        for (int[] tile : tiles) rows.add(tile[1]);
+        assertEquals(tiles.size(), columns.size() * rows.size());
+
+        // Every corner of the box falls inside one of the tiles
+        double[][] corners = {{6.8, 79.8}, {6.8, 80.0}, {7.0, 79.8}, {7.0, 80.0}};
+        for (double[] corner : corners) {
+            boolean covered = false;
+            for (int[] tile : tiles) {
+                double[] b = MarkerPlanner.tileBounds(tile[0], tile[1], 10);
+                if (corner[0] >= b[0] && corner[0] <= b[2] && corner[1] >= b[1] && corner[1] <= b[3]) covered = true;
+            }
+            assertTrue(Arrays.toString(corner), covered);
+        }
+    }
+
+    @Test
+    public void tilesForAWholeWorldBoxListsEachColumnOnce() {
+        List<int[]> tiles = MarkerPlanner.tilesFor(-10, -170, 10, 170, 3);
+
+        assertEquals(8, columns(tiles).size());
+        for (int[] tile : tiles) assertTrue(tile[0] >= 0 && tile[0] < 8);
+    }
+
+    @Test
+    public void clusterKeyChangesWhenMembershipChanges() {
+        List<Station> three = new ArrayList<>(Arrays.asList(
+                station("a", "AC", 6.9271, 79.8612),
+                station("b", "AC", 6.9272, 79.8613),
+                station("c", "AC", 6.9273, 79.8614)));
+        List<MarkerPlanner.Item> before = MarkerPlanner.cluster(three, 10);
+        assertEquals(1, before.size());
+        assertTrue(before.get(0).isCluster());
+        assertEquals(3, before.get(0).count);
+
+        three.add(station("d", "AC", 6.9274, 79.8615));
+        List<MarkerPlanner.Item> after = MarkerPlanner.cluster(three, 10);
+        assertEquals(1, after.size());
+        assertEquals(4, after.get(0).count);
+        assertNotEquals(before.get(0).key, after.get(0).key);
+
+        // Same members, same key: the marker is left alone
+        assertEquals(after.get(0).key, MarkerPlanner.cluster(three, 10).get(0).key);
+    }
+
+    @Test
+    public void smallGroupsAndCloseZoomsStayAsSingleStations() {
+        List<Station> two = Arrays.asList(
+                station("a", "AC", 6.9271, 79.8612),
+                station("b", "AC", 6.9272, 79.8613));
+        for (MarkerPlanner.Item item : MarkerPlanner.cluster(two, 10)) assertFalse(item.isCluster());
+
+        List<Station> many = new ArrayList<>(two);
+        many.add(station("c", "AC", 6.9273, 79.8614));
+        List<MarkerPlanner.Item> close = MarkerPlanner.cluster(many, 15);
+        assertEquals(3, close.size());
+        assertEquals("s:a", close.get(0).key);
+    }
+
+    @Test
+    public void diffAddsAndRemovesOnlyWhatChanged() {
+        Set<String> shown = new HashSet<>(Arrays.asList("s:a", "s:b", "c:10:1:2:3"));
+        List<MarkerPlanner.Item> items = MarkerPlanner.cluster(Arrays.asList(
+                station("a", "AC", 6.9, 79.8),
+                station("z", "AC", 7.5, 80.5)), 16);
+
+        MarkerPlanner.Plan plan = MarkerPlanner.diff(shown, items);
+
+        assertEquals(1, plan.toAdd.size());
+        assertEquals("s:z", plan.toAdd.get(0).key);
+        assertEquals(new HashSet<>(Arrays.asList("s:b", "c:10:1:2:3")), plan.toRemove);
+
+        MarkerPlanner.Plan none = MarkerPlanner.diff(new HashSet<>(Arrays.asList("s:a", "s:z")), items);
+        assertTrue(none.toAdd.isEmpty());
+        assertTrue(none.toRemove.isEmpty());
+    }
+
+    @Test
+    public void tileCacheIsDroppedWhenTheIndexChanges() {
+        AtomicReference<StationIndex> current = new AtomicReference<>(
+                new StationIndex(Collections.singletonList(station("old", "AC", 6.9271, 79.8612))));
+        MarkerPlanner planner = new MarkerPlanner(current::get);
+
+        assertEquals(Collections.singleton("s:old"), keys(planner.itemsFor(6.8, 79.7, 7.0, 80.0, 16)));
+
+        // Same index instance: the cached tiles are reused
+        assertEquals(Collections.singleton("s:old"), keys(planner.itemsFor(6.8, 79.7, 7.0, 80.0, 16)));
+
+        current.set(new StationIndex(Collections.singletonList(station("new", "AC", 6.9271, 79.8612))));
+        assertEquals(Collections.singleton("s:new"), keys(planner.itemsFor(6.8, 79.7, 7.0, 80.0, 16)));
+    }
+
+    @Test
+    public void itemsForAViewportAcrossTheAntimeridian() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("east", "AC", -17.0, 179.9),
+                station("west", "AC", -17.0, -179.9),
+                station("far", "AC", -17.0, 170.0)));
+        MarkerPlanner planner = new MarkerPlanner(() -> index);
+
+        assertEquals(new HashSet<>(Arrays.asList("s:east", "s:west")),
+                keys(planner.itemsFor(-17.5, 179.5, -16.5, -179.5, 16)));
+    }
+
+    private static Set<Integer> columns(List<int[]> tiles) {
+        Set<Integer> columns = new HashSet<>();
+        for (int[] tile : tiles) columns.add(tile[0]);
+        return columns;
+    }
+
+    private static Set<String> keys(List<MarkerPlanner.Item> items) {
+        Set<String> keys = new HashSet<>();
+        for (MarkerPlanner.Item item : items) keys.add(item.key);
+        return keys;
+    }
+}
@@ -0,0 +1,65 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import com.evcharging.mobile.model.Station;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark: 100k-station catalog, nearby queries through the grid vs a linear scan
+ *
+ * Asserts the grid returns the same stations as measuring every station. Build time
+ * and per-query cost are reported in the assertion message only: wall-clock ratios
+ * are not stable enough to fail a unit test on.
+ */
+public class StationIndexBenchmarkTest {
+
+    private static final int STATIONS = 100_000;
+    private static final int QUERIES = 500;
+    private static final double RADIUS_KM = 10;
+
+    @Test
+    public void hundredThousandStations() {
+        Random random = new Random(7);
+        List<Station> stations = new ArrayList<>(STATIONS);
+        for (int i = 0; i < STATIONS; i++) {
+            // Spread over a 10 x 10 degree region, ~1000 stations per degree square
+            stations.add(StationIndexTest.station("s" + i, i % 2 == 0 ? "AC" : "DC",
+                    2 + random.nextDouble() * 10, 75 + random.nextDouble() * 10));
+        }
+
+        long buildStart = System.nanoTime();
+        StationIndex index = new StationIndex(stations);
+        long buildNs = System.nanoTime() - buildStart;
+        assertEquals(STATIONS, index.size());
+
+        double[][] queries = new double[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = new double[]{2 + random.nextDouble() * 10, 75 + random.nextDouble() * 10};
+        }
+
+        // Warm-up and correctness
+        for (int q = 0; q < 20; q++) {
+            assertEquals(StationIndexTest.ids(StationIndexTest.scan(stations, "AC", queries[q][0], queries[q][1], RADIUS_KM)),
+                    StationIndexTest.ids(index.nearby("AC", queries[q][0], queries[q][1], RADIUS_KM)));
+        }
+
+        long hits = 0;
+        long indexStart = System.nanoTime();
+        for (double[] q : queries) hits += index.nearby("AC", q[0], q[1], RADIUS_KM).size();
+        long indexNs = (System.nanoTime() - indexStart) / QUERIES;
+
+        long scanStart = System.nanoTime();
+        for (double[] q : queries) hits -= StationIndexTest.scan(stations, "AC", q[0], q[1], RADIUS_KM).size();
+        long scanNs = (System.nanoTime() - scanStart) / QUERIES;
+
+        String timings = STATIONS + " stations, build=" + buildNs / 1_000_000 + " ms"
+                + ", grid=" + indexNs / 1000 + " us/query, scan=" + scanNs / 1000 + " us/query";
+        assertEquals(timings, 0, hits);
+    }
+}
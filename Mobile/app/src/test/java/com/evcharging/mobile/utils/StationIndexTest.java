@@ -0,0 +1,161 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.evcharging.mobile.model.Station;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class StationIndexTest {
+
+    @Test
+    public void nearbyMatchesALinearScan() {
+        Random random = new Random(42);
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Around Sri Lanka, where the catalog actually is
+            stations.add(station("s" + i, i % 2 == 0 ? "AC" : "DC",
+                    5.9 + random.nextDouble() * 4, 79.5 + random.nextDouble() * 2.5));
+        }
+        StationIndex index = new StationIndex(stations);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 5.9 + random.nextDouble() * 4;
+            double lon = 79.5 + random.nextDouble() * 2.5;
+            double radius = 1 + random.nextDouble() * 30;
+            String type = q % 3 == 0 ? null : q % 3 == 1 ? "AC" : "dc";
+
+            assertEquals(ids(scan(stations, type, lat, lon, radius)), ids(index.nearby(type, lat, lon, radius)));
+        }
+    }
+
+    @Test
+    public void nearbyMatchesALinearScanAtHighLatitudes() {
+        // Longitude degrees shrink towards the poles: the search box must widen with them
+        Random random = new Random(3);
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            stations.add(station("s" + i, "AC", 55 + random.nextDouble() * 34, -30 + random.nextDouble() * 60));
+        }
+        StationIndex index = new StationIndex(stations);
+
+        for (int q = 0; q < 100; q++) {
+            double lat = 60 + random.nextDouble() * 29.9;
+            double lon = -20 + random.nextDouble() * 40;
+            double radius = 50 + random.nextDouble() * 750;
+
+            assertEquals(ids(scan(stations, null, lat, lon, radius)), ids(index.nearby(null, lat, lon, radius)));
+        }
+    }
+
+    @Test
+    public void nearbyIsSortedNearestFirst() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("far", "AC", 6.95, 79.90),
+                station("near", "AC", 6.9272, 79.8613),
+                station("mid", "AC", 6.93, 79.87)));
+
+        assertEquals(Arrays.asList("near", "mid", "far"), ids(index.nearby("AC", 6.9271, 79.8612, 10)));
+    }
+
+    @Test
+    public void nearbyCrossesTheAntimeridian() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("east", "AC", -17.0, 179.98),
+                station("west", "AC", -17.0, -179.98),
+                station("elsewhere", "AC", -17.0, 170.0)));
+
+        assertEquals(Arrays.asList("east", "west"), ids(index.nearby(null, -17.0, 179.99, 5)));
+        assertEquals(Arrays.asList("west", "east"), ids(index.nearby(null, -17.0, -179.99, 5)));
+    }
+
+    @Test
+    public void withinHandlesBoxesAcrossTheAntimeridian() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("east", "AC", 10, 179.5),
+                station("west", "DC", 10, -179.5),
+                station("outside", "AC", 10, 0.5)));
+
+        assertEquals(set("east", "west"), new HashSet<>(ids(index.within(9, 179, 11, -179))));
+        assertEquals(set("outside"), new HashSet<>(ids(index.within(9, 0, 11, 1))));
+        assertTrue(index.within(11, 0, 9, 1).isEmpty()); // south above north
+    }
+
+    @Test
+    public void nearAPoleEveryLongitudeIsSearchedOnce() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("a", "AC", 89.95, 0),
+                station("b", "AC", 89.95, 120),
+                station("c", "AC", 89.95, -120)));
+
+        assertEquals(set("a", "b", "c"), new HashSet<>(ids(index.nearby(null, 89.99, 45, 20))));
+        assertEquals(3, index.nearby(null, 89.99, 45, 20).size());
+    }
+
+    @Test
+    public void unsetAndInvalidCoordinatesAreSkipped() {
+        StationIndex index = new StationIndex(Arrays.asList(
+                station("unset", "AC", 0, 0),
+                station("nan", "AC", Double.NaN, 79.8),
+                station("out-of-range", "AC", 95, 79.8),
+                station("ok", "AC", 6.9, 79.8),
+                null));
+
+        assertEquals(1, index.size());
+        assertTrue(index.nearby(null, 0, 0, 100).isEmpty());
+        assertTrue(index.nearby(null, 6.9, 79.8, 0).isEmpty());
+        assertTrue(StationIndex.EMPTY.nearby(null, 6.9, 79.8, 10).isEmpty());
+    }
+
+    @Test
+    public void distanceIsGreatCircle() {
+        // Colombo to Kandy, ~94 km as the crow flies
+        double km = StationIndex.distanceKm(6.9271, 79.8612, 7.2906, 80.6337);
+        assertEquals(94, km, 2);
+        assertEquals(0, StationIndex.distanceKm(6.9, 79.8, 6.9, 79.8), 1e-9);
+    }
+
+    // Reference: measure every station
+    static List<Station> scan(List<Station> stations, String type, double lat, double lon, double radiusKm) {
+        List<Station> hits = new ArrayList<>();
+        for (Station station : stations) {
+            if (type != null && !type.equalsIgnoreCase(station.getType())) continue;
+            if (StationIndex.distanceKm(lat, lon, station.getLatitude(), station.getLongitude()) <= radiusKm) {
+                hits.add(station);
+            }
+        }
+        Collections.sort(hits, (a, b) -> Double.compare(
+                StationIndex.distanceKm(lat, lon, a.getLatitude(), a.getLongitude()),
+                StationIndex.distanceKm(lat, lon, b.getLatitude(), b.getLongitude())));
+        return hits;
+    }
+
+    static Station station(String id, String type, double lat, double lon) {
+        Station station = new Station();
+        station.setStationId(id);
+        station.setName(id);
+        station.setType(type);
+        station.setLatitude(lat);
+        station.setLongitude(lon);
+        return station;
+    }
+
+    static List<String> ids(List<Station> stations) {
+        List<String> ids = new ArrayList<>();
+        for (Station station : stations) ids.add(station.getStationId());
+        return ids;
+    }
+
+    private static Set<String> set(String... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+}
@@ -0,0 +1,146 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.evcharging.mobile.TestEnvironment;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+@RunWith(RobolectricTestRunner.class)
+public class TaskSchedulerTest {
+
+    private static final int DISK_THREADS = 2;
+
+    private TaskScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        // Fresh pools so the counters start at zero
+        TestEnvironment.set(TaskScheduler.class, "instance", null);
+        scheduler = TaskScheduler.get();
+    }
+
+    @Test
+    public void cancelAllTakesQueuedTasksOffTheQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(DISK_THREADS);
+        for (int i = 0; i < DISK_THREADS; i++) {
+            scheduler.submit(TaskScheduler.Pool.DISK, TaskScheduler.Priority.USER_VISIBLE, () -> {
+                busy.countDown();
+                awaitQuietly(release);
+            });
+        }
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        TaskScheduler.Group group = scheduler.newGroup();
+        AtomicBoolean ran = new AtomicBoolean();
+        for (int i = 0; i < 5; i++) {
+            group.disk(() -> ran.set(true));
+        }
+        assertEquals(5, scheduler.stats(TaskScheduler.Pool.DISK).queueDepth);
+
+        group.cancelAll();
+
+        TaskScheduler.Stats stats = scheduler.stats(TaskScheduler.Pool.DISK);
+        assertEquals(stats.toString(), 0, stats.queueDepth);
+        assertEquals(stats.toString(), 5, stats.cancelled);
+
+        release.countDown();
+        waitFor(() -> scheduler.stats(TaskScheduler.Pool.DISK).completed == DISK_THREADS);
+        stats = scheduler.stats(TaskScheduler.Pool.DISK);
+        assertEquals(stats.toString(), stats.submitted, stats.completed + stats.cancelled);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void failuresReachTheErrorCallbackNotTheResultCallback() {
+        TaskScheduler.Group group = scheduler.newGroup();
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        group.network(() -> {
+            throw new IOException("offline");
+        }, result -> fail("result delivered for a failed step: " + result), error::set);
+
+        waitForMain(() -> error.get() != null);
+        assertEquals("offline", error.get().getMessage());
+    }
+
+    @Test
+    public void twoArgumentFormDeliversNullOnFailure() {
+        TaskScheduler.Group group = scheduler.newGroup();
+        AtomicReference<String> result = new AtomicReference<>("unset");
+
+        group.<String>network(() -> {
+            throw new IOException("offline");
+        }, result::set);
+
+        waitForMain(() -> !"unset".equals(result.get()));
+        assertNull(result.get());
+    }
+
+    @Test
+    public void nothingIsDeliveredAfterTheGroupIsCancelled() throws Exception {
+        TaskScheduler.Group group = scheduler.newGroup();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicBoolean delivered = new AtomicBoolean();
+
+        group.network(() -> {
+            started.countDown();
+            awaitQuietly(finish);
+            return "late";
+        }, result -> delivered.set(true), error -> delivered.set(true));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        group.cancelAll();
+        finish.countDown();
+        waitFor(() -> scheduler.stats(TaskScheduler.Pool.NETWORK).completed == 1);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertFalse(delivered.get());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void waitForMain(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.evcharging.mobile.Microbenchmark;
+import com.evcharging.mobile.model.BookingItem;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Microbenchmark: one booking row's start time, as shown on every bind
+ *
+ * - legacy: what BookingItem.formatTime did (two or three new SimpleDateFormats per call)
+ * - cached: TimeFormat.parseServer plus the per-thread BOOKING formatter
+ * - memoized: BookingItem.getStartTimeFormatted(), formatted once per value
+ *
+ * Only allocated bytes per call (ThreadMXBean) are asserted; ns/op is reported in the messages.
+ */
+public class TimeFormatBenchmarkTest {
+
+    private static final int CALLS = 20_000;
+    private static final String START = "2025-10-07T08:00:00Z";
+
+    @Test
+    public void cachedFormattingAllocatesAFractionOfLegacy() {
+        BookingItem item = new BookingItem();
+        item.setStartTime(START);
+        assertEquals(legacyFormat(START), TimeFormat.BOOKING.formatServer(START));
+        assertEquals(legacyFormat(START), item.getStartTimeFormatted());
+
+        Microbenchmark.Result legacy = Microbenchmark.measure(CALLS, () -> legacyFormat(START));
+        Microbenchmark.Result cached = Microbenchmark.measure(CALLS, () -> TimeFormat.BOOKING.formatServer(START));
+        Microbenchmark.Result memoized = Microbenchmark.measure(CALLS, item::getStartTimeFormatted);
+
+        String costs = "legacy=" + legacy + ", cached=" + cached + ", memoized=" + memoized;
+        assertTrue("cached formatting allocates less than a third of legacy: " + costs,
+                cached.bytesPerCall * 3 < legacy.bytesPerCall);
+        assertTrue("memoized getter allocates nothing: " + costs, memoized.bytesPerCall < 8);
+    }
+
+    // BookingItem.formatTime before TimeFormat
+    private static String legacyFormat(String utcTime) {
+        try {
+            SimpleDateFormat inFmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
+            inFmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+            if (utcTime.endsWith("Z")) {
+                inFmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.getDefault());
+                inFmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+            }
+            SimpleDateFormat outFmt = new SimpleDateFormat("dd MMM yyyy, h:mm a", Locale.getDefault());
+            Date d = inFmt.parse(utcTime);
+            return outFmt.format(d);
+        } catch (Exception e) {
+            return utcTime;
+        }
+    }
+}
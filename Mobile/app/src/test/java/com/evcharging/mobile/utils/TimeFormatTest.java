@@ -0,0 +1,141 @@
+package com.evcharging.mobile.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class TimeFormatTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private TimeZone zone;
+    private Locale locale;
+
+    @Before
+    public void setUp() {
+        zone = TimeZone.getDefault();
+        locale = Locale.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Colombo"));
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(zone);
+        Locale.setDefault(locale);
+    }
+
+    @Test
+    public void isoWithAndWithoutZIsUtc() {
+        long expected = utc(2025, 10, 10, 4, 30, 0, 0);
+
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T04:30:00Z"));
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T04:30:00"));
+        assertEquals(expected, TimeFormat.parseServer("  2025-10-10T04:30:00Z "));
+    }
+
+    @Test
+    public void fractionalSecondsKeepMilliseconds() {
+        long base = utc(2025, 10, 10, 4, 30, 0, 0);
+
+        assertEquals(base + 500, TimeFormat.parseServer("2025-10-10T04:30:00.5Z"));
+        assertEquals(base + 120, TimeFormat.parseServer("2025-10-10T04:30:00.12Z"));
+        assertEquals(base + 123, TimeFormat.parseServer("2025-10-10T04:30:00.123Z"));
+        // .NET sends seven digits; precision below a millisecond is dropped
+        assertEquals(base + 123, TimeFormat.parseServer("2025-10-10T04:30:00.1234567Z"));
+        assertEquals(base + 999, TimeFormat.parseServer("2025-10-10T04:30:00.9999999"));
+    }
+
+    @Test
+    public void offsetsAreAppliedInBothForms() {
+        long expected = utc(2025, 10, 10, 4, 30, 0, 0);
+
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T10:00:00+05:30"));
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T10:00:00+0530"));
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T00:30:00-04:00"));
+        assertEquals(expected, TimeFormat.parseServer("2025-10-10T04:30:00+00:00"));
+        assertEquals(expected + 250, TimeFormat.parseServer("2025-10-10T10:00:00.250+05:30"));
+    }
+
+    @Test
+    public void msDateFormIsAlreadyUtc() {
+        assertEquals(1697184000000L, TimeFormat.parseServer("/Date(1697184000000)/"));
+        assertEquals(1697184000000L, TimeFormat.parseServer("/Date(1697184000000+0530)/"));
+        assertEquals(-86_400_000L, TimeFormat.parseServer("/Date(-86400000)/"));
+    }
+
+    @Test
+    public void leapDaysAndYearEnds() {
+        assertEquals(utc(2024, 2, 29, 12, 0, 0, 0), TimeFormat.parseServer("2024-02-29T12:00:00Z"));
+        assertEquals(utc(2000, 2, 29, 0, 0, 0, 0), TimeFormat.parseServer("2000-02-29T00:00:00Z"));
+        assertEquals(utc(2024, 12, 31, 23, 59, 59, 0), TimeFormat.parseServer("2024-12-31T23:59:59Z"));
+        assertEquals(0, TimeFormat.parseServer("1970-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void malformedInputIsMinusOne() {
+        String[] bad = {
+                null, "", "   ", "not a date", "2025-10-10", "2025-10-10 04:30:00Z",
+                "2025/10/10T04:30:00Z", "2025-13-01T00:00:00Z", "2025-00-10T00:00:00Z",
+                "2025-02-29T00:00:00Z", "2100-02-29T00:00:00Z", "2025-04-31T00:00:00Z",
+                "2025-10-10T24:00:00Z", "2025-10-10T04:60:00Z", "2025-10-1oT04:30:00Z",
+                "2025-10-10T04:30:00.Z", "2025-10-10T04:30:00ZZ", "2025-10-10T04:30:00+5:30",
+                "2025-10-10T04:30:00+05:30:00", "2025-10-10T04:30:00 UTC", "/Date(abc)/", "/Date()/",
+        };
+        for (String raw : bad) assertEquals(String.valueOf(raw), -1, TimeFormat.parseServer(raw));
+    }
+
+    @Test
+    public void parserAgreesWithSimpleDateFormat() {
+        SimpleDateFormat reference = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.US);
+        Random random = new Random(7);
+        String[] zones = {"UTC", "Asia/Colombo", "America/New_York", "Asia/Kathmandu", "Pacific/Chatham"};
+        for (int i = 0; i < 20_000; i++) {
+            long epochMs = (long) (random.nextDouble() * 4_102_444_800_000L); // 1970..2100
+            reference.setTimeZone(TimeZone.getTimeZone(zones[i % zones.length]));
+            String raw = reference.format(new Date(epochMs));
+            assertEquals(raw, epochMs, TimeFormat.parseServer(raw));
+        }
+    }
+
+    @Test
+    public void formatServerRoundTrips() {
+        long epochMs = utc(2025, 10, 6, 9, 30, 15, 42);
+
+        assertEquals("2025-10-06T09:30:15.042Z", TimeFormat.formatServer(epochMs));
+        assertEquals(epochMs, TimeFormat.parseServer(TimeFormat.formatServer(epochMs)));
+    }
+
+    @Test
+    public void stylesUseTheDeviceZoneAndFollowItsChanges() {
+        String raw = "2025-10-05T11:00:00Z";
+        assertEquals("05 Oct 2025, 4:30 PM", TimeFormat.BOOKING.formatServer(raw));
+        assertEquals("Oct 05, 04:30 PM", TimeFormat.TIME_SLOT.formatServer(raw));
+
+        TimeZone.setDefault(UTC);
+        assertEquals("Oct 05, 2025 11:00", TimeFormat.NOTIFICATION.format(TimeFormat.parseServer(raw)));
+    }
+
+    @Test
+    public void unreadableValuesAreShownAsSent() {
+        assertEquals("soon", TimeFormat.BOOKING.formatServer("soon"));
+        assertEquals("", TimeFormat.NOTIFICATION.format((Date) null));
+    }
+
+    private static long utc(int year, int month, int day, int hour, int minute, int second, int millis) {
+        Calendar calendar = Calendar.getInstance(UTC, Locale.US);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return calendar.getTimeInMillis();
+    }
+}